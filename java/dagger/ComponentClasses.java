@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads the list of classes that a generated component loads, and preloads them.
+ *
+ * <p>When the Dagger processor runs with {@code -Adagger.writeClassLists=enabled}, it writes a
+ * resource named by {@link #resourceName(Class)} for each {@link Component @Component}. The
+ * resource lists the component implementation, its nested classes, and the generated factories,
+ * members injectors, modules and injected types of its bindings, in the order in which the
+ * component initializes them.
+ *
+ * <p>Each line of the resource is the internal name of a class, such as {@code
+ * com/example/DaggerAppComponent$Builder}, so the resources of an application's components can be
+ * concatenated to make a class list for {@code -XX:SharedClassListFile} when creating a class data
+ * sharing archive. Alternatively, call {@link #preload(Class)} from a background thread early
+ * during startup so that the classes are already loaded when the component is created.
+ */
+@Beta
+@GwtIncompatible
+public final class ComponentClasses {
+  /**
+   * Returns the name of the class list resource for {@code componentType}, relative to the root
+   * of the class path.
+   *
+   * @param componentType the type annotated with {@link Component @Component}
+   */
+  public static String resourceName(Class<?> componentType) {
+    return "META-INF/dagger/" + componentType.getName() + ".classlist";
+  }
+
+  /**
+   * Returns the binary names of the classes that the implementation of {@code componentType}
+   * loads, in the order in which they are loaded, or an empty list if the component was compiled
+   * without class lists.
+   *
+   * @param componentType the type annotated with {@link Component @Component}
+   */
+  public static List<String> classNames(Class<?> componentType) throws IOException {
+    InputStream resource =
+        classLoader(componentType).getResourceAsStream(resourceName(componentType));
+    if (resource == null) {
+      return Collections.emptyList();
+    }
+    List<String> classNames = new ArrayList<String>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        line = line.trim();
+        if (!line.isEmpty()) {
+          classNames.add(line.replace('/', '.'));
+        }
+      }
+    }
+    return classNames;
+  }
+
+  /**
+   * Loads, without initializing, each of the classes that the implementation of {@code
+   * componentType} loads. Classes that cannot be loaded are skipped.
+   *
+   * @param componentType the type annotated with {@link Component @Component}
+   * @return the number of classes that were loaded
+   */
+  public static int preload(Class<?> componentType) throws IOException {
+    ClassLoader classLoader = classLoader(componentType);
+    int loaded = 0;
+    for (String className : classNames(componentType)) {
+      try {
+        Class.forName(className, false, classLoader);
+        loaded++;
+      } catch (ClassNotFoundException | LinkageError e) {
+        // The class is optional at runtime, or will fail again when the component loads it.
+      }
+    }
+    return loaded;
+  }
+
+  private static ClassLoader classLoader(Class<?> componentType) {
+    ClassLoader classLoader = componentType.getClassLoader();
+    return classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+  }
+
+  private ComponentClasses() {}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.internal.Beta;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how long a scoped binding's instance is reused. After the interval has elapsed since the
+ * instance was created, the next request creates a new one.
+ *
+ * <p>Annotate a scoped {@link Provides @Provides} method, or a scoped class with an {@code @Inject}
+ * constructor:
+ *
+ * <pre><code>
+ *   {@literal @Provides}
+ *   {@literal @Singleton}
+ *   {@literal @RefreshInterval}(value = 5, unit = TimeUnit.MINUTES)
+ *   static Configuration provideConfiguration(ConfigurationServer server) {
+ *     return server.fetch();
+ *   }
+ * </code></pre>
+ *
+ * <p>Only one thread creates the new instance. Other threads that request the binding while that
+ * is in progress receive the previous instance, so a slow refresh does not block them. If creating
+ * the new instance throws, the exception is thrown to the refreshing thread only, and the previous
+ * instance continues to be used until the next refresh attempt.
+ *
+ * <p>Bindings with a refresh interval are not managed by {@link
+ * dagger.releasablereferences.ReleasableReferenceManager}s.
+ */
+@Documented
+@Beta
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface RefreshInterval {
+  /** The length of the interval, in {@link #unit()}s. Must be positive. */
+  long value();
+
+  /** The unit of {@link #value()}. */
+  TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+import dagger.releasablereferences.CanReleaseReferences;
+import dagger.releasablereferences.ForReleasableReferences;
+import dagger.releasablereferences.ReleasableReferenceManager;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import javax.inject.Scope;
+
+/**
+ * A scope in which each thread gets its own instance of a binding. Use it for objects that are
+ * expensive to create but not thread-safe, such as parsers or buffers, instead of injecting a
+ * {@code Provider} and keeping a {@link ThreadLocal} by hand.
+ *
+ * <p>Like any other scope, annotate the component whose instances should be shared within each
+ * thread with {@code @ThreadScoped}. Each instance of that component keeps separate per-thread
+ * instances. Requesting a binding takes no locks once the requesting thread has an instance.
+ *
+ * <p>Instances are per {@link Thread} object, so a virtual thread gets its own instance rather than
+ * sharing one with the carrier thread it runs on, and tasks that each run in a new thread do not
+ * share instances.
+ *
+ * <p>The per-thread instances are strongly referenced by the threads that created them. Before
+ * discarding a component that is used from long-lived threads, such as the threads of an executor,
+ * call {@link ReleasableReferenceManager#releaseStrongReferences()} on the component's {@link
+ * ForReleasableReferences @ForReleasableReferences(ThreadScoped.class)} {@link
+ * ReleasableReferenceManager}. Afterwards each thread keeps only a weak reference to its instance.
+ */
+@Beta
+@CanReleaseReferences
+@Documented
+@GwtIncompatible
+@Retention(RUNTIME)
+@Scope
+public @interface ThreadScoped {}
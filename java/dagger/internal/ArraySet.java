@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable {@link Set} whose elements are stored in an array in the order in which they were
+ * first added. Lookups use a hash table of indices into that array, resolving collisions by linear
+ * probing.
+ *
+ * <p>Compared to an unmodifiable {@link java.util.HashSet}, this allocates two arrays instead of an
+ * entry per element, and iterates in a predictable order.
+ */
+final class ArraySet<E> extends AbstractSet<E> {
+  private final Object[] elements;
+
+  /**
+   * One more than the index into {@link #elements} of the element that hashes to each slot, or
+   * {@code 0} for an empty slot. The length is a power of two and at least twice {@link #size()}.
+   */
+  private final int[] table;
+
+  private ArraySet(Object[] elements, int[] table) {
+    this.elements = elements;
+    this.table = table;
+  }
+
+  /**
+   * Returns a set of the first {@code count} elements of {@code elements}, ignoring duplicates.
+   * {@code elements} must not be used by the caller after this method is called.
+   *
+   * @throws NullPointerException if any of the elements is {@code null}
+   */
+  static <E> Set<E> create(Object[] elements, int count) {
+    switch (count) {
+      case 0:
+        return Collections.emptySet();
+      case 1:
+        @SuppressWarnings("unchecked")
+        E element = (E) Preconditions.checkNotNull(elements[0]);
+        return Collections.singleton(element);
+      default:
+        break;
+    }
+
+    int[] table = new int[Integer.highestOneBit(count * 2 - 1) << 1];
+    int mask = table.length - 1;
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      Object element = Preconditions.checkNotNull(elements[i]);
+      for (int slot = smear(element.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+        int index = table[slot];
+        if (index == 0) {
+          // Compact in place: size <= i, so this never overwrites an element not yet visited.
+          elements[size] = element;
+          table[slot] = ++size;
+          break;
+        } else if (elements[index - 1].equals(element)) {
+          break;
+        }
+      }
+    }
+    if (size < elements.length) {
+      elements = Arrays.copyOf(elements, size);
+    }
+    return new ArraySet<E>(elements, table);
+  }
+
+  /** Spreads the bits of a hash code so that similar hash codes use different slots. */
+  private static int smear(int hashCode) {
+    return 0x1b873593 * Integer.rotateLeft(hashCode * 0xcc9e2d51, 15);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (o == null) {
+      return false;
+    }
+    int mask = table.length - 1;
+    for (int slot = smear(o.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+      int index = table[slot];
+      if (index == 0) {
+        return false;
+      } else if (elements[index - 1].equals(o)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return elements.length;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < elements.length;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public E next() {
+        if (next >= elements.length) {
+          throw new NoSuchElementException();
+        }
+        return (E) elements[next++];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public Object[] toArray() {
+    return Arrays.copyOf(elements, elements.length);
+  }
+
+  @Override
+  public boolean add(E e) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+}
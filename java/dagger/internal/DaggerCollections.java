@@ -17,11 +17,15 @@
 package dagger.internal;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import javax.inject.Provider;
 
 /**
  * Collection utility methods in service of Dagger internal classes. <em>Do not use</em> in client
@@ -59,11 +63,19 @@ public final class DaggerCollections {
   }
 
   /**
-   * Creates a {@link HashSet} instance, with a high enough "intial capcity" that it <em>should</em>
-   * hold {@code expectedSize} elements without growth.
+   * Returns true if every provider in {@code providers} always returns the same instance once it
+   * has returned one: each is a {@link DoubleCheck}, a {@link SingleCheck} or an {@link
+   * InstanceFactory}.
    */
-  static <T> HashSet<T> newHashSetWithExpectedSize(int expectedSize) {
-    return new HashSet<T>(calculateInitialCapacity(expectedSize));
+  static boolean allStable(Collection<? extends Provider<?>> providers) {
+    for (Provider<?> provider : providers) {
+      if (!(provider instanceof DoubleCheck
+          || provider instanceof SingleCheck
+          || provider instanceof InstanceFactory)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -74,6 +86,16 @@ public final class DaggerCollections {
     return new LinkedHashMap<K, V>(calculateInitialCapacity(expectedSize));
   }
 
+  /**
+   * Creates an {@link EnumMap} for keys of type {@code keyType}. {@code keyType} must be an enum
+   * type; the type parameter is unbounded so that it may be called from code that does not know
+   * that {@code K} is an enum.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static <K, V> Map<K, V> newEnumMap(Class<K> keyType) {
+    return new EnumMap(keyType);
+  }
+
   private static int calculateInitialCapacity(int expectedSize) {
     if (expectedSize < 3) {
       return expectedSize + 1;
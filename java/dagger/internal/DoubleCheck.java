@@ -25,8 +25,12 @@ import javax.inject.Provider;
  * A {@link Lazy} and {@link Provider} implementation that memoizes the value returned from a
  * delegate using the double-check idiom described in Item 71 of <i>Effective Java 2</i>.
  */
-public final class DoubleCheck<T> implements Provider<T>, Lazy<T> {
-  private static final Object UNINITIALIZED = new Object();
+public final class DoubleCheck<T> implements DoubleCheckedProvider<T>, Lazy<T> {
+  /**
+   * The value of {@code instance} until it is initialized. Also used by {@link
+   * ReentrantLockDoubleCheck}, so that both can share {@link #reentrantCheck}.
+   */
+  static final Object UNINITIALIZED = new Object();
 
   private volatile Provider<T> provider;
   private volatile Object instance = UNINITIALIZED;
@@ -45,16 +49,7 @@ public final class DoubleCheck<T> implements Provider<T>, Lazy<T> {
         result = instance;
         if (result == UNINITIALIZED) {
           result = provider.get();
-          /* Get the current instance and test to see if the call to provider.get() has resulted
-           * in a recursive call.  If it returns the same instance, we'll allow it, but if the
-           * instances differ, throw. */
-          Object currentInstance = instance;
-          if (currentInstance != UNINITIALIZED && currentInstance != result) {
-            throw new IllegalStateException("Scoped provider was invoked recursively returning "
-                + "different results: " + currentInstance + " & " + result + ". This is likely "
-                + "due to a circular dependency.");
-          }
-          instance = result;
+          instance = reentrantCheck(instance, result);
           /* Null out the reference to the provider. We are never going to need it again, so we
            * can make it eligible for GC. */
           provider = null;
@@ -64,10 +59,29 @@ public final class DoubleCheck<T> implements Provider<T>, Lazy<T> {
     return (T) result;
   }
 
+  /**
+   * Checks to see if creating the new instance has resulted in a recursive call. If it has, and the
+   * new instance is the same as the current instance, return the instance. However, if the new
+   * instance differs from the current instance, an {@link IllegalStateException} is thrown.
+   *
+   * <p>This is also used by generated components that memoize scoped bindings in fields that start
+   * out as a {@link MemoizedSentinel}.
+   */
+  public static Object reentrantCheck(Object currentInstance, Object newInstance) {
+    boolean isReentrant =
+        !(currentInstance == UNINITIALIZED || currentInstance instanceof MemoizedSentinel);
+    if (isReentrant && currentInstance != newInstance) {
+      throw new IllegalStateException("Scoped provider was invoked recursively returning "
+          + "different results: " + currentInstance + " & " + newInstance + ". This is likely "
+          + "due to a circular dependency.");
+    }
+    return newInstance;
+  }
+
   /** Returns a {@link Provider} that caches the value from the given delegate provider. */
   public static <T> Provider<T> provider(Provider<T> delegate) {
     checkNotNull(delegate);
-    if (delegate instanceof DoubleCheck) {
+    if (delegate instanceof DoubleCheckedProvider || delegate instanceof RefreshingCheck) {
       /* This should be a rare case, but if we have a scoped @Binds that delegates to a scoped
        * binding, we shouldn't cache the value again. */
       return delegate;
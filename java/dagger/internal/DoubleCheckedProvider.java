@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package dagger.internal;
+
+import javax.inject.Provider;
+
+/**
+ * A {@link Provider} that memoizes the value of its delegate with the guarantees of {@link
+ * DoubleCheck}. Scoping providers return such a delegate as is instead of caching its value again.
+ *
+ * <p>{@link ReentrantLockDoubleCheck} is not available in GWT, so {@link DoubleCheck} and {@link
+ * SingleCheck} recognize it through this interface.
+ */
+interface DoubleCheckedProvider<T> extends Provider<T> {}
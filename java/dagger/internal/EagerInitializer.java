@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Provider;
+
+/**
+ * Gets the value of each of a set of providers, running each one on an {@link Executor} as soon as
+ * the providers it depends on have finished. Used by the {@code initializeEagerly(Executor)} method
+ * of generated components.
+ *
+ * <p>Providers that are part of a dependency cycle, or that depend on one, are never run
+ * concurrently. Once all of the other providers have finished, they are run one at a time on the
+ * calling thread in the order in which they were given, which is the order in which they would be
+ * initialized without an executor.
+ */
+@GwtIncompatible
+public final class EagerInitializer {
+  private final Executor executor;
+  private final Provider<?>[] providers;
+  private final int[][] dependents;
+  private final AtomicIntegerArray pendingDependencies;
+  private final CountDownLatch done;
+  private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+  private EagerInitializer(
+      Executor executor,
+      Provider<?>[] providers,
+      int[][] dependents,
+      int[] pendingDependencies,
+      int concurrentCount) {
+    this.executor = executor;
+    this.providers = providers;
+    this.dependents = dependents;
+    this.pendingDependencies = new AtomicIntegerArray(pendingDependencies);
+    this.done = new CountDownLatch(concurrentCount);
+  }
+
+  /**
+   * Gets the value of each of {@code providers}, and returns once all of them have finished.
+   *
+   * @param dependencies for each provider, the indices into {@code providers} of the providers
+   *     whose values it depends on
+   * @throws RuntimeException the first exception thrown by any of the providers; once one has
+   *     failed, no more are started
+   */
+  public static void initialize(
+      Executor executor, Provider<?>[] providers, int[][] dependencies) {
+    checkNotNull(executor);
+    int count = providers.length;
+    if (dependencies.length != count) {
+      throw new IllegalArgumentException(
+          "expected " + count + " dependency lists, but got " + dependencies.length);
+    }
+
+    int[] pendingDependencies = new int[count];
+    int[] dependentCounts = new int[count];
+    for (int i = 0; i < count; i++) {
+      checkNotNull(providers[i]);
+      pendingDependencies[i] = dependencies[i].length;
+      for (int dependency : dependencies[i]) {
+        dependentCounts[dependency]++;
+      }
+    }
+    int[][] dependents = new int[count][];
+    for (int i = 0; i < count; i++) {
+      dependents[i] = new int[dependentCounts[i]];
+      dependentCounts[i] = 0;
+    }
+    for (int i = 0; i < count; i++) {
+      for (int dependency : dependencies[i]) {
+        dependents[dependency][dependentCounts[dependency]++] = i;
+      }
+    }
+
+    // Find the providers that can run concurrently by simulating the schedule on this thread. Any
+    // provider whose dependencies never all finish is in or downstream of a cycle.
+    int[] remaining = pendingDependencies.clone();
+    int[] ready = new int[count];
+    int readyCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (remaining[i] == 0) {
+        ready[readyCount++] = i;
+      }
+    }
+    int rootCount = readyCount;
+    for (int next = 0; next < readyCount; next++) {
+      for (int dependent : dependents[ready[next]]) {
+        if (--remaining[dependent] == 0) {
+          ready[readyCount++] = dependent;
+        }
+      }
+    }
+
+    EagerInitializer initializer =
+        new EagerInitializer(executor, providers, dependents, pendingDependencies, readyCount);
+    for (int i = 0; i < rootCount; i++) {
+      initializer.submit(ready[i]);
+    }
+    initializer.awaitDone();
+    initializer.rethrowFailure();
+
+    if (readyCount < count) {
+      for (int i = 0; i < count; i++) {
+        if (remaining[i] != 0) {
+          providers[i].get();
+        }
+      }
+    }
+  }
+
+  private void submit(final int index) {
+    Runnable task =
+        new Runnable() {
+          @Override
+          public void run() {
+            runProvider(index);
+          }
+        };
+    try {
+      executor.execute(task);
+    } catch (RuntimeException e) {
+      // The executor rejected the task. Record the failure so that this and every later task
+      // finishes without getting its value.
+      failure.compareAndSet(null, e);
+      task.run();
+    }
+  }
+
+  private void runProvider(int index) {
+    try {
+      if (failure.get() == null) {
+        providers[index].get();
+      }
+    } catch (Throwable t) {
+      failure.compareAndSet(null, t);
+    } finally {
+      for (int dependent : dependents[index]) {
+        if (pendingDependencies.decrementAndGet(dependent) == 0) {
+          submit(dependent);
+        }
+      }
+      done.countDown();
+    }
+  }
+
+  private void awaitDone() {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          done.await();
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void rethrowFailure() {
+    Throwable t = failure.get();
+    if (t == null) {
+      return;
+    }
+    if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    throw new RuntimeException(t);
+  }
+}
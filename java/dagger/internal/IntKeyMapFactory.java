@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.multibindings.IntKeyMap;
+import java.util.Arrays;
+import javax.inject.Provider;
+
+/**
+ * A {@link Factory} implementation used to implement {@link IntKeyMap} bindings. Each call to
+ * {@link #get} returns a new map of the values of the contributing providers.
+ */
+public final class IntKeyMapFactory<V> implements Factory<IntKeyMap<V>> {
+  private final int[] keys;
+  private final Provider<?>[] providers;
+
+  private IntKeyMapFactory(int[] keys, Provider<?>[] providers) {
+    this.keys = keys;
+    this.providers = providers;
+  }
+
+  /** Returns a new {@link Builder} for a factory of maps with {@code size} entries. */
+  public static <V> Builder<V> builder(int size) {
+    return new Builder<V>(size);
+  }
+
+  @Override
+  public IntKeyMap<V> get() {
+    if (keys.length == 0) {
+      return IntKeyArrayMap.empty();
+    }
+    Object[] values = new Object[providers.length];
+    for (int i = 0; i < providers.length; i++) {
+      values[i] = providers[i].get();
+    }
+    // The keys are never modified, so every map can share them.
+    return new IntKeyArrayMap<V>(keys, values);
+  }
+
+  /**
+   * A builder for {@link IntKeyMapFactory}s. Providers must be added in ascending key order.
+   */
+  public static final class Builder<V> {
+    private final int[] keys;
+    private final Provider<?>[] providers;
+    private int size;
+
+    private Builder(int size) {
+      this.keys = new int[size];
+      this.providers = new Provider<?>[size];
+    }
+
+    /**
+     * Adds a provider for the value of {@code key}.
+     *
+     * @throws IllegalArgumentException if {@code key} is not greater than the key of the previous
+     *     provider
+     * @throws IllegalStateException if the factory already has as many providers as it was created
+     *     with
+     */
+    public Builder<V> put(int key, Provider<V> providerOfValue) {
+      if (size == keys.length) {
+        throw new IllegalStateException("The factory already has " + size + " providers");
+      }
+      if (size > 0 && key <= keys[size - 1]) {
+        throw new IllegalArgumentException(
+            "Keys must be added in ascending order, but " + key + " was added after "
+                + keys[size - 1]);
+      }
+      keys[size] = key;
+      providers[size] = checkNotNull(providerOfValue, "provider of value");
+      size++;
+      return this;
+    }
+
+    /** Returns a new {@link IntKeyMapFactory}. */
+    public IntKeyMapFactory<V> build() {
+      return size == keys.length
+          ? new IntKeyMapFactory<V>(keys, providers)
+          : new IntKeyMapFactory<V>(Arrays.copyOf(keys, size), Arrays.copyOf(providers, size));
+    }
+  }
+}
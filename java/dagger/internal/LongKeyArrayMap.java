@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import dagger.multibindings.LongKeyMap;
+import java.util.Arrays;
+
+/**
+ * An {@link LongKeyMap} that stores its keys in a sorted array and finds them by binary search.
+ * Used in component implementations, which add the entries of a multibinding in ascending key order
+ * because the keys are known when the component is generated.
+ */
+public final class LongKeyArrayMap<V> implements LongKeyMap<V> {
+  private static final LongKeyArrayMap<Object> EMPTY =
+      new LongKeyArrayMap<Object>(new long[0], new Object[0]);
+
+  private final long[] keys;
+  private final Object[] values;
+
+  /**
+   * Creates a map of {@code keys[i]} to {@code values[i]}. {@code keys} must be sorted and contain
+   * no duplicates. Neither array may be modified after this is called.
+   */
+  LongKeyArrayMap(long[] keys, Object[] values) {
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /** Returns a new {@link Builder} for a map with {@code size} entries. */
+  public static <V> Builder<V> builder(int size) {
+    return new Builder<V>(size);
+  }
+
+  /** Returns an empty map. */
+  @SuppressWarnings("unchecked") // safe covariant cast
+  public static <V> LongKeyMap<V> empty() {
+    return (LongKeyMap<V>) EMPTY;
+  }
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  public boolean containsKey(long key) {
+    return Arrays.binarySearch(keys, key) >= 0;
+  }
+
+  @SuppressWarnings("unchecked") // values are only ever added as Vs
+  @Override
+  public V get(long key) {
+    int index = Arrays.binarySearch(keys, key);
+    return index >= 0 ? (V) values[index] : null;
+  }
+
+  @Override
+  public long keyAt(int index) {
+    return keys[index];
+  }
+
+  @SuppressWarnings("unchecked") // values are only ever added as Vs
+  @Override
+  public V valueAt(int index) {
+    return (V) values[index];
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder().append('{');
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append('=').append(values[i]);
+    }
+    return builder.append('}').toString();
+  }
+
+  /**
+   * A builder for {@link LongKeyArrayMap}s. Entries must be added in ascending key order.
+   */
+  public static final class Builder<V> {
+    private final long[] keys;
+    private final Object[] values;
+    private int size;
+
+    private Builder(int size) {
+      this.keys = new long[size];
+      this.values = new Object[size];
+    }
+
+    /**
+     * Adds an entry to the map.
+     *
+     * @throws IllegalArgumentException if {@code key} is not greater than the key of the previous
+     *     entry
+     * @throws IllegalStateException if the map already has as many entries as it was created with
+     */
+    public Builder<V> put(long key, V value) {
+      if (size == keys.length) {
+        throw new IllegalStateException("The map already has " + size + " entries");
+      }
+      if (size > 0 && key <= keys[size - 1]) {
+        throw new IllegalArgumentException(
+            "Keys must be added in ascending order, but " + key + " was added after "
+                + keys[size - 1]);
+      }
+      keys[size] = key;
+      values[size] = value;
+      size++;
+      return this;
+    }
+
+    /** Returns a map of the entries that have been added. */
+    public LongKeyMap<V> build() {
+      if (size == 0) {
+        return empty();
+      }
+      return size == keys.length
+          ? new LongKeyArrayMap<V>(keys, values)
+          : new LongKeyArrayMap<V>(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+  }
+}
@@ -16,9 +16,8 @@
 
 package dagger.internal;
 
-import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize;
-
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
@@ -28,15 +27,23 @@ import java.util.Map;
 public final class MapBuilder<K, V> {
   private final Map<K, V> contributions;
 
-  private MapBuilder(int size) {
-    contributions = newLinkedHashMapWithExpectedSize(size);
+  private MapBuilder(Map<K, V> contributions) {
+    this.contributions = contributions;
   }
 
   /**
    * Creates a new {@link MapBuilder} with {@code size} elements.
    */
   public static <K, V> MapBuilder<K, V> newMapBuilder(int size) {
-    return new MapBuilder<>(size);
+    return new MapBuilder<>(DaggerCollections.<K, V>newLinkedHashMapWithExpectedSize(size));
+  }
+
+  /**
+   * Creates a new {@link MapBuilder} whose keys are constants of the enum {@code keyType}. The map
+   * is an {@link EnumMap}, which iterates in the order of the constants' ordinals.
+   */
+  public static <K extends Enum<K>, V> MapBuilder<K, V> newEnumMapBuilder(Class<K> keyType) {
+    return new MapBuilder<>(DaggerCollections.<K, V>newEnumMap(keyType));
   }
 
   public MapBuilder<K, V> put(K key, V value) {
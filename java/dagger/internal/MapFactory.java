@@ -16,12 +16,13 @@
 
 package dagger.internal;
 
+import static dagger.internal.DaggerCollections.allStable;
 import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize;
 import static dagger.internal.Preconditions.checkNotNull;
 import static java.util.Collections.unmodifiableMap;
 
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import javax.inject.Provider;
@@ -30,6 +31,10 @@ import javax.inject.Provider;
  * A {@link Factory} implementation used to implement {@link Map} bindings. This factory returns a
  * {@code Map<K, V>} when calling {@link #get} (as specified by {@link Factory}).
  *
+ * <p>If every value comes from a scoped provider or an {@link InstanceFactory}, calling the
+ * providers again would always produce the same values, so the first map is memoized and returned
+ * by every subsequent call to {@link #get}. Otherwise a new map is created for each call.
+ *
  * @author Chenying Hou
  * @since 2.0
  *
@@ -39,6 +44,9 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
       InstanceFactory.create(Collections.emptyMap());
 
   private final Map<K, Provider<V>> contributingMap;
+  private final Class<K> enumKeyType;
+  private final boolean memoize;
+  private volatile Map<K, V> memoizedMap;
 
   /**
    * Returns a new {@link Builder}
@@ -47,6 +55,14 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
     return new Builder<>(size);
   }
 
+  /**
+   * Returns a new {@link Builder} for a map whose keys are constants of the enum {@code keyType}.
+   * The factory's maps are {@link EnumMap}s, which iterate in the order of the constants' ordinals.
+   */
+  public static <K extends Enum<K>, V> Builder<K, V> builder(Class<K> keyType) {
+    return new Builder<>(keyType);
+  }
+
   /**
    * Returns a factory of an empty map.
    */
@@ -55,8 +71,10 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
     return (Provider<Map<K, V>>) (Provider) EMPTY;
   }
 
-  private MapFactory(Map<K, Provider<V>> map) {
+  private MapFactory(Map<K, Provider<V>> map, Class<K> enumKeyType) {
     this.contributingMap = unmodifiableMap(map);
+    this.enumKeyType = enumKeyType;
+    this.memoize = allStable(map.values());
   }
 
   /**
@@ -65,7 +83,23 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
    */
   @Override
   public Map<K, V> get() {
-    Map<K, V> result = newLinkedHashMapWithExpectedSize(contributingMap.size());
+    if (!memoize) {
+      return createMap();
+    }
+    Map<K, V> result = memoizedMap;
+    if (result == null) {
+      // Racing threads may each create a map, but they are all equal: the providers are stable.
+      result = createMap();
+      memoizedMap = result;
+    }
+    return result;
+  }
+
+  private Map<K, V> createMap() {
+    Map<K, V> result =
+        enumKeyType == null
+            ? DaggerCollections.<K, V>newLinkedHashMapWithExpectedSize(contributingMap.size())
+            : DaggerCollections.<K, V>newEnumMap(enumKeyType);
     for (Entry<K, Provider<V>> entry: contributingMap.entrySet()) {
       result.put(entry.getKey(), entry.getValue().get());
     }
@@ -75,10 +109,17 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
   // TODO(ronshapiro): can we merge the builders? Or maybe just use a (Immutable)MapBuilder?
   /** A builder for {@link MapFactory}. */
   public static final class Builder<K, V> {
-    private final LinkedHashMap<K, Provider<V>> map;
+    private final Map<K, Provider<V>> map;
+    private final Class<K> enumKeyType;
 
     private Builder(int size) {
       this.map = newLinkedHashMapWithExpectedSize(size);
+      this.enumKeyType = null;
+    }
+
+    private Builder(Class<K> enumKeyType) {
+      this.map = DaggerCollections.newEnumMap(enumKeyType);
+      this.enumKeyType = enumKeyType;
     }
 
     /** Associates {@code key} with {@code providerOfValue}. */
@@ -89,7 +130,7 @@ public final class MapFactory<K, V> implements Factory<Map<K, V>> {
 
     /** Returns a new {@link MapProviderFactory}. */
     public MapFactory<K, V> build() {
-      return new MapFactory<>(map);
+      return new MapFactory<>(map, enumKeyType);
     }
   }
 }
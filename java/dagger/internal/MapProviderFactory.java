@@ -16,12 +16,11 @@
 
 package dagger.internal;
 
-import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize;
 import static dagger.internal.Preconditions.checkNotNull;
 import static java.util.Collections.unmodifiableMap;
 
 import dagger.Lazy;
-import java.util.LinkedHashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import javax.inject.Provider;
 
@@ -43,6 +42,15 @@ public final class MapProviderFactory<K, V>
     return new Builder<>(size);
   }
 
+  /**
+   * Returns a new {@link Builder} for a map whose keys are constants of the enum {@code keyType}.
+   * The factory's map is an {@link EnumMap}, which iterates in the order of the constants'
+   * ordinals.
+   */
+  public static <K extends Enum<K>, V> Builder<K, V> builder(Class<K> keyType) {
+    return new Builder<>(DaggerCollections.<K, Provider<V>>newEnumMap(keyType));
+  }
+
   private MapProviderFactory(Map<K, Provider<V>> contributingMap) {
     this.contributingMap = unmodifiableMap(contributingMap);
   }
@@ -59,10 +67,14 @@ public final class MapProviderFactory<K, V>
 
   /** A builder for {@link MapProviderFactory}. */
   public static final class Builder<K, V> {
-    private final LinkedHashMap<K, Provider<V>> map;
+    private final Map<K, Provider<V>> map;
 
     private Builder(int size) {
-      this.map = newLinkedHashMapWithExpectedSize(size);
+      this(DaggerCollections.<K, Provider<V>>newLinkedHashMapWithExpectedSize(size));
+    }
+
+    private Builder(Map<K, Provider<V>> map) {
+      this.map = map;
     }
 
     /** Associates {@code key} with {@code providerOfValue}. */
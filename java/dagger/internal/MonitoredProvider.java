@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.monitoring.ProvisionComponentMonitor;
+import dagger.monitoring.ProvisionMonitor;
+import dagger.monitoring.ProvisionToken;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.inject.Provider;
+
+/**
+ * A {@link Provider} implementation that reports each call to a delegate provider to a {@link
+ * ProvisionMonitor}. Exceptions thrown by the monitor are logged and otherwise ignored.
+ *
+ * <p>Components only use this when compiled with {@code -Adagger.provisionMonitoring=enabled}.
+ */
+public final class MonitoredProvider<T> implements Provider<T> {
+  private static final Logger logger = Logger.getLogger(MonitoredProvider.class.getName());
+
+  private final Provider<T> delegate;
+  private final Provider<? extends ProvisionComponentMonitor> componentMonitorProvider;
+  private final ProvisionToken token;
+  private volatile ProvisionComponentMonitor componentMonitor;
+
+  private MonitoredProvider(
+      Provider<T> delegate,
+      Provider<? extends ProvisionComponentMonitor> componentMonitorProvider,
+      ProvisionToken token) {
+    this.delegate = delegate;
+    this.componentMonitorProvider = componentMonitorProvider;
+    this.token = token;
+  }
+
+  /**
+   * Returns a provider that reports each call to {@code delegate} to a monitor from the component
+   * monitor returned by {@code componentMonitorProvider}, which is not called until the first call
+   * to {@link #get()}.
+   */
+  public static <T> Provider<T> create(
+      Provider<T> delegate,
+      Provider<? extends ProvisionComponentMonitor> componentMonitorProvider,
+      ProvisionToken token) {
+    return new MonitoredProvider<T>(
+        checkNotNull(delegate), checkNotNull(componentMonitorProvider), checkNotNull(token));
+  }
+
+  @Override
+  public T get() {
+    ProvisionMonitor monitor = provisionMonitor();
+    try {
+      monitor.requested();
+      monitor.methodStarting();
+    } catch (RuntimeException e) {
+      logMonitorException(e, monitor);
+      monitor = ProvisionMonitor.noOp();
+    }
+
+    T instance;
+    try {
+      instance = delegate.get();
+    } catch (RuntimeException | Error t) {
+      try {
+        monitor.methodFinished();
+        monitor.failed(t);
+      } catch (RuntimeException e) {
+        logMonitorException(e, monitor);
+      }
+      throw t;
+    }
+
+    try {
+      monitor.methodFinished();
+    } catch (RuntimeException e) {
+      logMonitorException(e, monitor);
+    }
+    return instance;
+  }
+
+  private ProvisionMonitor provisionMonitor() {
+    ProvisionComponentMonitor componentMonitorReference = componentMonitor;
+    try {
+      if (componentMonitorReference == null) {
+        // A racing thread may request the component monitor again, which is harmless.
+        componentMonitorReference = componentMonitorProvider.get();
+        if (componentMonitorReference == null) {
+          componentMonitorReference = ProvisionComponentMonitor.noOp();
+        }
+        componentMonitor = componentMonitorReference;
+      }
+      ProvisionMonitor monitor = componentMonitorReference.provisionMonitorFor(token);
+      return monitor == null ? ProvisionMonitor.noOp() : monitor;
+    } catch (RuntimeException e) {
+      logger.log(
+          Level.SEVERE,
+          "RuntimeException while requesting a ProvisionMonitor for token " + token,
+          e);
+      return ProvisionMonitor.noOp();
+    }
+  }
+
+  private void logMonitorException(RuntimeException e, ProvisionMonitor monitor) {
+    logger.log(
+        Level.SEVERE,
+        "RuntimeException while calling ProvisionMonitor " + monitor + " for token " + token,
+        e);
+  }
+}
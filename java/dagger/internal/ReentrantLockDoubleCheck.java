@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.Lazy;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.inject.Provider;
+
+/**
+ * A {@link Lazy} and {@link Provider} implementation that memoizes the value returned from a
+ * delegate with the same guarantees as {@link DoubleCheck}, but that guards initialization with a
+ * {@link ReentrantLock} instead of the object's monitor.
+ *
+ * <p>Threads that wait for another thread to finish initializing the value park instead of blocking
+ * on a monitor, so the monitor is never inflated and a virtual thread running the delegate does not
+ * pin its carrier thread. Once the value has been initialized, the lock is released for garbage
+ * collection and {@link #get()} is a single volatile read.
+ */
+@GwtIncompatible
+public final class ReentrantLockDoubleCheck<T> implements DoubleCheckedProvider<T>, Lazy<T> {
+  private static final Object UNINITIALIZED = DoubleCheck.UNINITIALIZED;
+
+  private volatile ReentrantLock lock = new ReentrantLock();
+  private volatile Provider<T> provider;
+  private volatile Object instance = UNINITIALIZED;
+
+  private ReentrantLockDoubleCheck(Provider<T> provider) {
+    assert provider != null;
+    this.provider = provider;
+  }
+
+  @SuppressWarnings("unchecked") // cast only happens when result comes from the provider
+  @Override
+  public T get() {
+    // lock is volatile and becomes null after instance is initialized, so retrieve the lock first,
+    // which should not be null if instance is UNINITIALIZED. This relies upon instance also being
+    // volatile so that the reads and writes of both variables cannot be reordered.
+    ReentrantLock lockReference = lock;
+    Object result = instance;
+    if (result == UNINITIALIZED) {
+      lockReference.lock();
+      try {
+        result = instance;
+        if (result == UNINITIALIZED) {
+          result = provider.get();
+          instance = DoubleCheck.reentrantCheck(instance, result);
+          /* Null out the references to the provider and the lock. We are never going to need them
+           * again, so we can make them eligible for GC. */
+          provider = null;
+          lock = null;
+        }
+      } finally {
+        lockReference.unlock();
+      }
+    }
+    return (T) result;
+  }
+
+  /** Returns a {@link Provider} that caches the value from the given delegate provider. */
+  public static <T> Provider<T> provider(Provider<T> delegate) {
+    checkNotNull(delegate);
+    if (delegate instanceof DoubleCheckedProvider || delegate instanceof RefreshingCheck) {
+      /* This should be a rare case, but if we have a scoped @Binds that delegates to a scoped
+       * binding, we shouldn't cache the value again. */
+      return delegate;
+    }
+    return new ReentrantLockDoubleCheck<T>(delegate);
+  }
+
+  /** Returns a {@link Lazy} that caches the value from the given provider. */
+  public static <T> Lazy<T> lazy(Provider<T> provider) {
+    if (provider instanceof Lazy) {
+      @SuppressWarnings("unchecked")
+      final Lazy<T> lazy = (Lazy<T>) provider;
+      // Avoids memoizing a value that is already memoized. See DoubleCheck.lazy().
+      return lazy;
+    }
+    return new ReentrantLockDoubleCheck<T>(checkNotNull(provider));
+  }
+}
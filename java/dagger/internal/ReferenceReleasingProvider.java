@@ -18,12 +18,16 @@ package dagger.internal;
 
 import static dagger.internal.Preconditions.checkNotNull;
 
+import dagger.releasablereferences.ReleasePolicy;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import javax.inject.Provider;
 
 /**
  * A {@link Provider} implementation that can exchange its strong reference to the stored object for
- * a {@link WeakReference}.
+ * a {@link WeakReference}, or a {@link SoftReference} if its manager's {@linkplain
+ * ReleasePolicy#value() policy} is {@link ReleasePolicy.Strength#SOFT SOFT}.
  *
  * <p>The provider can be in any one of four states at a time:
  *
@@ -61,17 +65,24 @@ public final class ReferenceReleasingProvider<T> implements Provider<T> {
   private static final Object NULL = new Object(); // sentinel used when provider.get() returns null
 
   private final Provider<T> provider;
+  private final boolean softReferences;
+  private final boolean tracksAccess;
   private volatile Object strongReference;
-  private volatile WeakReference<T> weakReference;
+  private volatile Reference<T> weakReference;
+  private volatile long lastAccessNanos;
 
-  private ReferenceReleasingProvider(Provider<T> provider) {
+  private ReferenceReleasingProvider(
+      Provider<T> provider, boolean softReferences, boolean tracksAccess) {
     assert provider != null;
     this.provider = provider;
+    this.softReferences = softReferences;
+    this.tracksAccess = tracksAccess;
   }
 
   /**
    * Releases the strong reference to the object previously returned by {@link #get()}, and creates
-   * a {@link WeakReference} to that object, unless the stored value is {@code null}.
+   * a {@link WeakReference} (or a {@link SoftReference}) to that object, unless the stored value is
+   * {@code null}.
    */
   public void releaseStrongReference() {
     Object value = strongReference;
@@ -79,7 +90,10 @@ public final class ReferenceReleasingProvider<T> implements Provider<T> {
       synchronized (this) {
         @SuppressWarnings("unchecked") // values other than NULL come from the provider
         T storedValue = (T) value;
-        weakReference = new WeakReference<T>(storedValue);
+        weakReference =
+            softReferences
+                ? new SoftReference<T>(storedValue)
+                : new WeakReference<T>(storedValue);
         strongReference = null;
       }
     }
@@ -134,9 +148,27 @@ public final class ReferenceReleasingProvider<T> implements Provider<T> {
         }
       }
     }
+    if (tracksAccess) {
+      lastAccessNanos = System.nanoTime();
+    }
     return value == NULL ? null : (T) value;
   }
 
+  /** Returns {@code true} if the provider is in <b>strong-reference</b> state. */
+  boolean holdsStrongReference() {
+    Object value = strongReference;
+    return value != null && value != NULL;
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} of the last call to {@link #get()}, if the manager
+   * releases the {@linkplain ReleasePolicy#leastRecentlyUsed() least recently used} references
+   * first.
+   */
+  long lastAccessNanos() {
+    return lastAccessNanos;
+  }
+
   private Object currentValue() {
     Object value = strongReference;
     if (value != null) {
@@ -155,7 +187,10 @@ public final class ReferenceReleasingProvider<T> implements Provider<T> {
   public static <T> ReferenceReleasingProvider<T> create(
       Provider<T> delegate, ReferenceReleasingProviderManager references) {
     ReferenceReleasingProvider<T> provider =
-        new ReferenceReleasingProvider<T>(checkNotNull(delegate));
+        new ReferenceReleasingProvider<T>(
+            checkNotNull(delegate),
+            references.strength().equals(ReleasePolicy.Strength.SOFT),
+            references.leastRecentlyUsed() > 0);
     references.addProvider(provider);
     return provider;
   }
@@ -19,34 +19,83 @@ package dagger.internal;
 import static dagger.internal.Preconditions.checkNotNull;
 
 import dagger.releasablereferences.ReleasableReferenceManager;
+import dagger.releasablereferences.ReleasePolicy;
 import java.lang.annotation.Annotation;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * A {@link ReleasableReferenceManager} that forwards calls to a dynamic set of weakly-referenced
  * {@link ReferenceReleasingProvider}s.
  *
+ * <p>The weak references are kept in a doubly-linked list and registered with a {@link
+ * ReferenceQueue}. References that the garbage collector has cleared are unlinked whenever a
+ * provider is added or the strong references are released or restored, so the list holds roughly
+ * the providers that are still reachable, however many have been added over time, and releasing or
+ * restoring references takes time proportional to that number.
+ *
+ * <p>The manager's {@link ReleasePolicy} decides what kind of reference holds released objects,
+ * and whether each release is limited to the least recently used providers.
+ *
  * @see <a href="https://google.github.io/dagger/users-guide.html#releasable-references">Releasable references</a>
  */
 @GwtIncompatible
 public final class ReferenceReleasingProviderManager implements ReleasableReferenceManager {
 
+  private static final Comparator<ReferenceReleasingProvider<?>> LEAST_RECENTLY_USED_FIRST =
+      new Comparator<ReferenceReleasingProvider<?>>() {
+        @Override
+        public int compare(
+            ReferenceReleasingProvider<?> left, ReferenceReleasingProvider<?> right) {
+          // nanoTime() values must be compared by their difference, since they may overflow.
+          long difference = left.lastAccessNanos() - right.lastAccessNanos();
+          return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+        }
+      };
+
   private final Class<? extends Annotation> scope;
-  private final Queue<WeakReference<ReferenceReleasingProvider<?>>> providers =
-      new ConcurrentLinkedQueue<WeakReference<ReferenceReleasingProvider<?>>>();
+  private final ReleasePolicy.Strength strength;
+  private final int leastRecentlyUsed;
+  private final ReferenceQueue<ReferenceReleasingProvider<?>> clearedReferences =
+      new ReferenceQueue<ReferenceReleasingProvider<?>>();
+
+  /** The sentinel head of the circular list of references. Guarded by {@code this}. */
+  private final ProviderReference head = new ProviderReference();
+
+  private int size; // guarded by this
 
   public ReferenceReleasingProviderManager(Class<? extends Annotation> scope) {
+    this(scope, ReleasePolicy.Strength.WEAK, 0);
+  }
+
+  /**
+   * Creates a manager for a scope with a {@link ReleasePolicy}.
+   *
+   * @param strength the policy's {@link ReleasePolicy#value()}
+   * @param leastRecentlyUsed the policy's {@link ReleasePolicy#leastRecentlyUsed()}
+   */
+  public ReferenceReleasingProviderManager(
+      Class<? extends Annotation> scope, ReleasePolicy.Strength strength, int leastRecentlyUsed) {
     this.scope = checkNotNull(scope);
+    this.strength = checkNotNull(strength);
+    this.leastRecentlyUsed = leastRecentlyUsed;
   }
 
   /**
-   * Adds a weak reference to {@code provider}.
+   * Adds a weak reference to {@code provider}, first removing the references to any providers that
+   * have been garbage collected.
    */
   public void addProvider(ReferenceReleasingProvider<?> provider) {
-    providers.add(new WeakReference<ReferenceReleasingProvider<?>>(provider));
+    ProviderReference reference = new ProviderReference(provider, clearedReferences);
+    synchronized (this) {
+      expungeClearedReferences();
+      reference.linkBefore(head);
+      size++;
+    }
   }
 
   @Override
@@ -54,14 +103,43 @@ public final class ReferenceReleasingProviderManager implements ReleasableRefere
     return scope;
   }
 
+  /** Returns the kind of reference that holds released objects. */
+  ReleasePolicy.Strength strength() {
+    return strength;
+  }
+
+  /**
+   * Returns the maximum number of providers released by each call to {@link
+   * #releaseStrongReferences()}, or a non-positive number if there is no maximum.
+   */
+  int leastRecentlyUsed() {
+    return leastRecentlyUsed;
+  }
+
   /**
    * {@inheritDoc} Calls {@link ReferenceReleasingProvider#releaseStrongReference()} on all
    * providers that have been {@linkplain #addProvider(ReferenceReleasingProvider) added} and that
-   * are still weakly referenced.
+   * are still weakly referenced, or only on the {@linkplain ReleasePolicy#leastRecentlyUsed() least
+   * recently used} ones that hold strong references.
    */
   @Override
   public void releaseStrongReferences() {
-    execute(Operation.RELEASE);
+    if (leastRecentlyUsed <= 0) {
+      execute(Operation.RELEASE);
+      return;
+    }
+    List<ReferenceReleasingProvider<?>> providers = liveProviders();
+    List<ReferenceReleasingProvider<?>> strongProviders =
+        new ArrayList<ReferenceReleasingProvider<?>>(providers.size());
+    for (int i = 0; i < providers.size(); i++) {
+      if (providers.get(i).holdsStrongReference()) {
+        strongProviders.add(providers.get(i));
+      }
+    }
+    Collections.sort(strongProviders, LEAST_RECENTLY_USED_FIRST);
+    for (int i = 0; i < strongProviders.size() && i < leastRecentlyUsed; i++) {
+      strongProviders.get(i).releaseStrongReference();
+    }
   }
 
   /**
@@ -74,16 +152,82 @@ public final class ReferenceReleasingProviderManager implements ReleasableRefere
     execute(Operation.RESTORE);
   }
 
+  /** Returns the number of references that have not yet been removed. Visible for testing. */
+  synchronized int size() {
+    return size;
+  }
+
   private void execute(Operation operation) {
-    Iterator<WeakReference<ReferenceReleasingProvider<?>>> iterator = providers.iterator();
-    while (iterator.hasNext()) {
-      ReferenceReleasingProvider<?> provider = iterator.next().get();
-      if (provider == null) {
-        iterator.remove();
-      } else {
-        operation.execute(provider);
+    List<ReferenceReleasingProvider<?>> liveProviders = liveProviders();
+    for (int i = 0; i < liveProviders.size(); i++) {
+      operation.execute(liveProviders.get(i));
+    }
+  }
+
+  /**
+   * Returns the providers that have not been garbage collected.
+   *
+   * <p>Providers lock themselves while they create their values, which may add providers to this
+   * manager. Callers operate on this snapshot outside of the lock so that the two locks are never
+   * nested.
+   */
+  private List<ReferenceReleasingProvider<?>> liveProviders() {
+    List<ReferenceReleasingProvider<?>> liveProviders;
+    synchronized (this) {
+      expungeClearedReferences();
+      liveProviders = new ArrayList<ReferenceReleasingProvider<?>>(size);
+      for (ProviderReference reference = head.next; reference != head; reference = reference.next) {
+        ReferenceReleasingProvider<?> provider = reference.get();
+        if (provider != null) {
+          liveProviders.add(provider);
+        }
       }
     }
+    return liveProviders;
+  }
+
+  /** Unlinks every reference that the garbage collector has cleared. Must hold the lock. */
+  private void expungeClearedReferences() {
+    for (Object reference = clearedReferences.poll();
+        reference != null;
+        reference = clearedReferences.poll()) {
+      ((ProviderReference) reference).unlink();
+      size--;
+    }
+  }
+
+  /** A weak reference to a provider that is also a node in a doubly-linked list. */
+  private static final class ProviderReference
+      extends WeakReference<ReferenceReleasingProvider<?>> {
+    private ProviderReference previous;
+    private ProviderReference next;
+
+    /** Creates the head of an empty list. */
+    ProviderReference() {
+      super(null);
+      previous = this;
+      next = this;
+    }
+
+    ProviderReference(
+        ReferenceReleasingProvider<?> provider,
+        ReferenceQueue<ReferenceReleasingProvider<?>> queue) {
+      super(provider, queue);
+    }
+
+    void linkBefore(ProviderReference successor) {
+      next = successor;
+      previous = successor.previous;
+      previous.next = this;
+      successor.previous = this;
+    }
+
+    void unlink() {
+      previous.next = next;
+      next.previous = previous;
+      previous = null;
+      next = null;
+    }
   }
 
   private enum Operation {
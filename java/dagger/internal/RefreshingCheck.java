@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import javax.inject.Provider;
+
+/**
+ * A {@link Provider} implementation that memoizes the value returned from a
+ * delegate for a fixed interval, after which the next call to {@link #get()} gets a new value from
+ * the delegate.
+ *
+ * <p>Once a value is present, {@link #get()} reads a single volatile field until the value expires.
+ * Only one thread at a time refreshes an expired value; other threads receive the expired value
+ * until the refresh completes.
+ *
+ * <p>This is deliberately not a {@link dagger.Lazy}, since a {@code Lazy} must always return the
+ * same value.
+ *
+ * @see dagger.RefreshInterval
+ */
+public final class RefreshingCheck<T> implements Provider<T> {
+  private final Provider<T> provider;
+  private final long intervalNanos;
+
+  private volatile Entry<T> entry;
+
+  /** Whether a thread is currently getting a new value from {@link #provider}. */
+  private boolean refreshing;
+
+  private RefreshingCheck(Provider<T> provider, long intervalNanos) {
+    assert provider != null;
+    this.provider = provider;
+    this.intervalNanos = intervalNanos;
+  }
+
+  @Override
+  public T get() {
+    Entry<T> current = entry;
+    if (current == null) {
+      return initialize();
+    }
+    if (System.nanoTime() - current.expiresAtNanos >= 0) {
+      return refresh(current);
+    }
+    return current.value;
+  }
+
+  private synchronized T initialize() {
+    Entry<T> current = entry;
+    if (current == null) {
+      if (refreshing) {
+        throw new IllegalStateException(
+            "Scoped provider was invoked recursively. "
+                + "This is likely due to a circular dependency.");
+      }
+      refreshing = true;
+      try {
+        current = newEntry();
+        entry = current;
+      } finally {
+        refreshing = false;
+      }
+    }
+    return current.value;
+  }
+
+  private T refresh(Entry<T> stale) {
+    synchronized (this) {
+      Entry<T> current = entry;
+      if (refreshing || current != stale) {
+        // Another thread is refreshing (or already has); don't wait for it.
+        return current.value;
+      }
+      refreshing = true;
+    }
+    // Call the provider outside of the lock so that other threads can keep reading the stale value.
+    try {
+      Entry<T> refreshed = newEntry();
+      entry = refreshed;
+      return refreshed.value;
+    } finally {
+      synchronized (this) {
+        refreshing = false;
+      }
+    }
+  }
+
+  private Entry<T> newEntry() {
+    T value = provider.get();
+    return new Entry<T>(value, System.nanoTime() + intervalNanos);
+  }
+
+  /** Returns a {@link Provider} that caches the value from {@code delegate} for an interval. */
+  public static <P extends Provider<T>, T> Provider<T> provider(P delegate, long intervalNanos) {
+    checkNotNull(delegate);
+    if (intervalNanos <= 0) {
+      throw new IllegalArgumentException("intervalNanos must be positive: " + intervalNanos);
+    }
+    return new RefreshingCheck<T>(delegate, intervalNanos);
+  }
+
+  private static final class Entry<T> {
+    final T value;
+    final long expiresAtNanos;
+
+    Entry(T value, long expiresAtNanos) {
+      this.value = value;
+      this.expiresAtNanos = expiresAtNanos;
+    }
+  }
+}
@@ -16,12 +16,11 @@
 
 package dagger.internal;
 
+import static dagger.internal.DaggerCollections.allStable;
 import static dagger.internal.DaggerCollections.hasDuplicates;
-import static dagger.internal.DaggerCollections.newHashSetWithExpectedSize;
 import static dagger.internal.DaggerCollections.presizedList;
 import static dagger.internal.Preconditions.checkNotNull;
 import static java.util.Collections.emptySet;
-import static java.util.Collections.unmodifiableSet;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -30,9 +29,13 @@ import java.util.Set;
 import javax.inject.Provider;
 
 /**
- * A {@link Factory} implementation used to implement {@link Set} bindings. This factory always
- * returns a new {@link Set} instance for each call to {@link #get} (as required by {@link Factory})
- * whose elements are populated by subsequent calls to their {@link Provider#get} methods.
+ * A {@link Factory} implementation used to implement {@link Set} bindings. This factory returns an
+ * immutable {@link Set} whose elements are populated by calls to their {@link Provider#get}
+ * methods.
+ *
+ * <p>If every contribution comes from a scoped provider or an {@link InstanceFactory}, calling the
+ * providers again would always produce the same elements, so the first set is memoized and
+ * returned by every subsequent call to {@link #get}. Otherwise a new set is created for each call.
  *
  * @author Gregory Kick
  * @since 2.0
@@ -96,22 +99,39 @@ public final class SetFactory<T> implements Factory<Set<T>> {
 
   private final List<Provider<T>> individualProviders;
   private final List<Provider<Collection<T>>> collectionProviders;
+  private final boolean memoize;
+  private volatile Set<T> memoizedSet;
 
   private SetFactory(
       List<Provider<T>> individualProviders, List<Provider<Collection<T>>> collectionProviders) {
     this.individualProviders = individualProviders;
     this.collectionProviders = collectionProviders;
+    this.memoize = allStable(individualProviders) && allStable(collectionProviders);
   }
 
   /**
-   * Returns a {@link Set} whose iteration order is that of the elements given by each of the
-   * providers, which are invoked in the order given at creation.
+   * Returns an immutable {@link Set} whose iteration order is that of the elements given by each of
+   * the providers, which are invoked in the order given at creation. Elements from individual
+   * providers come before those from collection providers.
    *
    * @throws NullPointerException if any of the delegate {@link Set} instances or elements therein
    *     are {@code null}
    */
   @Override
   public Set<T> get() {
+    if (!memoize) {
+      return createSet();
+    }
+    Set<T> result = memoizedSet;
+    if (result == null) {
+      // Racing threads may each create a set, but they are all equal: the providers are stable.
+      result = createSet();
+      memoizedSet = result;
+    }
+    return result;
+  }
+
+  private Set<T> createSet() {
     int size = individualProviders.size();
     // Profiling revealed that this method was a CPU-consuming hotspot in some applications, so
     // these loops were changed to use c-style for.  Versus enhanced for-each loops, C-style for is
@@ -125,16 +145,17 @@ public final class SetFactory<T> implements Factory<Set<T>> {
       providedCollections.add(providedCollection);
     }
 
-    Set<T> providedValues = newHashSetWithExpectedSize(size);
+    Object[] providedValues = new Object[size];
+    int index = 0;
     for (int i = 0, c = individualProviders.size(); i < c; i++) {
-      providedValues.add(checkNotNull(individualProviders.get(i).get()));
+      providedValues[index++] = checkNotNull(individualProviders.get(i).get());
     }
     for (int i = 0, c = providedCollections.size(); i < c; i++) {
       for (T element : providedCollections.get(i)) {
-        providedValues.add(checkNotNull(element));
+        providedValues[index++] = checkNotNull(element);
       }
     }
 
-    return unmodifiableSet(providedValues);
+    return ArraySet.create(providedValues, index);
   }
 }
@@ -56,7 +56,9 @@ public final class SingleCheck<T> implements Provider<T>, Lazy<T> {
   /** Returns a {@link Provider} that caches the value from the given delegate provider. */
   public static <T> Provider<T> provider(Provider<T> provider) {
     // If a scoped @Binds delegates to a scoped binding, don't cache the value again.
-    if (provider instanceof SingleCheck || provider instanceof DoubleCheck) {
+    if (provider instanceof SingleCheck
+        || provider instanceof DoubleCheckedProvider
+        || provider instanceof RefreshingCheck) {
       return provider;
     }
     return new SingleCheck<T>(checkNotNull(provider));
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable {@link Map} with {@link String} keys that are all known when a component is
+ * generated. The component implements {@link #indexOf(String)} with a {@code switch} on the key,
+ * which the Java compiler turns into a {@code switch} on {@link String#hashCode()} followed by
+ * {@link String#equals(Object)}, so looking up a key needs no hash table.
+ *
+ * <p>Entries iterate in the order of the keys passed to the constructor.
+ */
+public abstract class StringKeySwitchMap<V> extends AbstractMap<String, V> {
+  private final String[] keys;
+  private final Object[] values;
+  private Set<Entry<String, V>> entrySet;
+
+  /**
+   * Creates a map of {@code keys[i]} to {@code values[i]}. {@code keys} must not contain
+   * duplicates, and {@link #indexOf(String)} must return {@code i} for {@code keys[i]}. Neither
+   * array may be modified after this is called.
+   */
+  protected StringKeySwitchMap(String[] keys, Object[] values) {
+    if (keys.length != values.length) {
+      throw new IllegalArgumentException(
+          keys.length + " keys do not match " + values.length + " values");
+    }
+    for (int i = 0; i < keys.length; i++) {
+      checkNotNull(keys[i]);
+      checkNotNull(values[i]);
+    }
+    this.keys = keys;
+    this.values = values;
+  }
+
+  /** Returns the index of {@code key} in the keys of this map, or {@code -1} if it is absent. */
+  protected abstract int indexOf(String key);
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return keys.length == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key instanceof String && indexOf((String) key) >= 0;
+  }
+
+  @SuppressWarnings("unchecked") // values are only ever added as Vs
+  @Override
+  public V get(Object key) {
+    if (key instanceof String) {
+      int index = indexOf((String) key);
+      if (index >= 0) {
+        return (V) values[index];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    // Racy single-check: creating more than one entry set is harmless.
+    Set<Entry<String, V>> result = entrySet;
+    if (result == null) {
+      entrySet = result = new EntrySet();
+    }
+    return result;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, V>> {
+    @Override
+    public int size() {
+      return keys.length;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> entry = (Entry<?, ?>) o;
+      Object value = get(entry.getKey());
+      return value != null && value.equals(entry.getValue());
+    }
+
+    @Override
+    public Iterator<Entry<String, V>> iterator() {
+      return new Iterator<Entry<String, V>>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < keys.length;
+        }
+
+        @SuppressWarnings("unchecked") // values are only ever added as Vs
+        @Override
+        public Entry<String, V> next() {
+          if (next >= keys.length) {
+            throw new NoSuchElementException();
+          }
+          Entry<String, V> entry =
+              new SimpleImmutableEntry<String, V>(keys[next], (V) values[next]);
+          next++;
+          return entry;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+}
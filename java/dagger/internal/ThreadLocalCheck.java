@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import java.lang.ref.WeakReference;
+import javax.inject.Provider;
+
+/**
+ * A {@link Provider} implementation that memoizes one value per thread from a delegate provider.
+ *
+ * <p>Each thread's value is kept in a {@link Slot} in a {@link ThreadLocal} owned by this provider.
+ * Once the calling thread has a value, {@link #get()} takes no locks.
+ *
+ * <p>If the provider has a {@link ThreadLocalReferenceManager}, the manager can release and restore
+ * the strong references held by every thread's slot.
+ *
+ * @see dagger.ThreadScoped
+ */
+@GwtIncompatible
+public final class ThreadLocalCheck<T> implements Provider<T> {
+  private static final Object NULL = new Object(); // sentinel used when provider.get() returns null
+
+  private final Provider<T> provider;
+  private final ThreadLocalReferenceManager manager;
+  private final ThreadLocal<Slot> slots = new ThreadLocal<Slot>();
+
+  private ThreadLocalCheck(Provider<T> provider, ThreadLocalReferenceManager manager) {
+    assert provider != null;
+    this.provider = provider;
+    this.manager = manager;
+  }
+
+  @SuppressWarnings("unchecked") // cast only happens when result comes from the provider
+  @Override
+  public T get() {
+    Slot slot = slots.get();
+    if (slot == null) {
+      slot = new Slot();
+      slots.set(slot);
+      if (manager != null) {
+        manager.register(slot);
+      }
+    } else {
+      Object value = slot.value();
+      if (value != null) {
+        return value == NULL ? null : (T) value;
+      }
+    }
+    return initialize(slot);
+  }
+
+  private T initialize(Slot slot) {
+    if (slot.initializing) {
+      throw new IllegalStateException(
+          "Scoped provider was invoked recursively on the same thread. "
+              + "This is likely due to a circular dependency.");
+    }
+    slot.initializing = true;
+    T value;
+    try {
+      value = provider.get();
+    } finally {
+      slot.initializing = false;
+    }
+    slot.set(value == null ? NULL : value);
+    return value;
+  }
+
+  /** Returns a {@link Provider} that caches the value from {@code delegate} for each thread. */
+  public static <T> Provider<T> provider(Provider<T> delegate) {
+    return create(delegate, null);
+  }
+
+  /**
+   * Returns a {@link Provider} that caches the value from {@code delegate} for each thread, and
+   * whose per-thread references can be released by {@code manager}.
+   */
+  public static <T> Provider<T> provider(
+      Provider<T> delegate, ThreadLocalReferenceManager manager) {
+    return create(delegate, checkNotNull(manager));
+  }
+
+  private static <T> Provider<T> create(
+      Provider<T> delegate, ThreadLocalReferenceManager manager) {
+    checkNotNull(delegate);
+    if (delegate instanceof ThreadLocalCheck
+        || delegate instanceof DoubleCheck
+        || delegate instanceof ReentrantLockDoubleCheck) {
+      /* If a thread-scoped @Binds delegates to a binding that is scoped at least as strongly, we
+       * shouldn't cache the value again. */
+      return delegate;
+    }
+    return new ThreadLocalCheck<T>(delegate, manager);
+  }
+
+  /**
+   * One thread's value. Only the owning thread sets the value, when it has none; a {@link
+   * ThreadLocalReferenceManager} may exchange the strong reference for a {@link WeakReference} and
+   * back from any thread.
+   */
+  static final class Slot {
+    private volatile Object strongReference;
+    private volatile WeakReference<Object> weakReference;
+
+    /** Whether the owning thread is calling the delegate provider. Confined to that thread. */
+    boolean initializing;
+
+    /** Returns the value, or {@code null} if there is none or it has been garbage-collected. */
+    Object value() {
+      Object value = strongReference;
+      if (value != null) {
+        return value;
+      }
+      WeakReference<Object> reference = weakReference;
+      return reference == null ? null : reference.get();
+    }
+
+    void set(Object value) {
+      weakReference = null;
+      strongReference = value;
+    }
+
+    void releaseStrongReference() {
+      Object value = strongReference;
+      if (value != null && value != NULL) {
+        weakReference = new WeakReference<Object>(value);
+        strongReference = null;
+      }
+    }
+
+    void restoreStrongReference() {
+      WeakReference<Object> reference = weakReference;
+      if (reference != null && strongReference == null) {
+        Object value = reference.get();
+        if (value != null) {
+          /* The weak reference is left in place: the owning thread may have read a null strong
+           * reference before this write, and must still find the value in weakReference. set()
+           * clears it. */
+          strongReference = value;
+        }
+      }
+    }
+  }
+}
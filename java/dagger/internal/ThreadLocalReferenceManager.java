@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.releasablereferences.ReleasableReferenceManager;
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link ReleasableReferenceManager} for a {@linkplain dagger.ThreadScoped thread-confined}
+ * scope, which releases or restores the strong references held for every thread by the scope's
+ * {@link ThreadLocalCheck}s.
+ *
+ * <p>Each thread's {@link ThreadLocalCheck.Slot} is registered the first time the thread requests
+ * a binding. The manager refers to the slots weakly, so slots of threads that have terminated, such
+ * as short-lived virtual threads, are collected and unregistered instead of accumulating.
+ */
+@GwtIncompatible
+public final class ThreadLocalReferenceManager implements ReleasableReferenceManager {
+  private final Class<? extends Annotation> scope;
+  private final ReferenceQueue<ThreadLocalCheck.Slot> clearedReferences =
+      new ReferenceQueue<ThreadLocalCheck.Slot>();
+  private final Set<Reference<ThreadLocalCheck.Slot>> slots = // guarded by this
+      new HashSet<Reference<ThreadLocalCheck.Slot>>();
+
+  public ThreadLocalReferenceManager(Class<? extends Annotation> scope) {
+    this.scope = checkNotNull(scope);
+  }
+
+  @Override
+  public Class<? extends Annotation> scope() {
+    return scope;
+  }
+
+  synchronized void register(ThreadLocalCheck.Slot slot) {
+    expungeClearedReferences();
+    slots.add(new WeakReference<ThreadLocalCheck.Slot>(slot, clearedReferences));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Releases the strong references held for every thread that has requested a binding in the
+   * scope.
+   */
+  @Override
+  public synchronized void releaseStrongReferences() {
+    expungeClearedReferences();
+    for (Reference<ThreadLocalCheck.Slot> reference : slots) {
+      ThreadLocalCheck.Slot slot = reference.get();
+      if (slot != null) {
+        slot.releaseStrongReference();
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Restores the strong references for every thread whose released value has not yet been
+   * garbage-collected.
+   */
+  @Override
+  public synchronized void restoreStrongReferences() {
+    expungeClearedReferences();
+    for (Reference<ThreadLocalCheck.Slot> reference : slots) {
+      ThreadLocalCheck.Slot slot = reference.get();
+      if (slot != null) {
+        slot.restoreStrongReference();
+      }
+    }
+  }
+
+  /** Returns the number of registered slots that have not been garbage-collected. */
+  synchronized int size() {
+    expungeClearedReferences();
+    return slots.size();
+  }
+
+  private void expungeClearedReferences() {
+    for (Reference<?> cleared = clearedReferences.poll();
+        cleared != null;
+        cleared = clearedReferences.poll()) {
+      slots.remove(cleared);
+    }
+  }
+}
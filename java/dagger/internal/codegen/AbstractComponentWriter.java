@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static com.google.auto.common.AnnotationMirrors.getAnnotationValuesWithDefaults;
 import static com.google.auto.common.MoreElements.getLocalAndInheritedMethods;
 import static com.google.common.base.CaseFormat.LOWER_CAMEL;
 import static com.google.common.base.CaseFormat.UPPER_CAMEL;
@@ -29,10 +30,14 @@ import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
 import static dagger.internal.codegen.AnnotationSpecs.Suppression.UNCHECKED;
 import static dagger.internal.codegen.MemberSelect.localField;
 import static dagger.internal.codegen.Scope.reusableScope;
+import static dagger.internal.codegen.Scope.threadScope;
 import static dagger.internal.codegen.TypeNames.DOUBLE_CHECK;
+import static dagger.internal.codegen.TypeNames.REENTRANT_LOCK_DOUBLE_CHECK;
 import static dagger.internal.codegen.TypeNames.REFERENCE_RELEASING_PROVIDER;
 import static dagger.internal.codegen.TypeNames.REFERENCE_RELEASING_PROVIDER_MANAGER;
 import static dagger.internal.codegen.TypeNames.SINGLE_CHECK;
+import static dagger.internal.codegen.TypeNames.THREAD_LOCAL_CHECK;
+import static dagger.internal.codegen.TypeNames.THREAD_LOCAL_REFERENCE_MANAGER;
 import static dagger.internal.codegen.Util.reentrantComputeIfAbsent;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
@@ -93,6 +98,8 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
   private final Map<Key, MethodSpec> membersInjectionMethods = new LinkedHashMap<>();
   protected final MethodSpec.Builder constructor = constructorBuilder().addModifiers(PRIVATE);
   private final OptionalFactories optionalFactories;
+  private final StaticFrameworkFields staticFrameworkFields;
+  private final SwitchingProviders switchingProviders;
   private ComponentBuilder builder;
   private boolean done;
 
@@ -117,6 +124,7 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
       BindingGraph graph,
       ImmutableMap<ComponentDescriptor, String> subcomponentNames,
       OptionalFactories optionalFactories,
+      StaticFrameworkFields staticFrameworkFields,
       ComponentBindingExpressions bindingExpressions,
       ComponentRequirementFields componentRequirementFields) {
     this.types = types;
@@ -128,6 +136,7 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
     this.graph = graph;
     this.subcomponentNames = subcomponentNames;
     this.optionalFactories = optionalFactories;
+    this.staticFrameworkFields = staticFrameworkFields;
     this.bindingExpressions = bindingExpressions;
     // TODO(dpb): Allow ComponentBuilder.create to return a no-op object
     if (hasBuilder(graph)) {
@@ -137,6 +146,7 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
       builderFields = ImmutableMap.of();
     }
     this.componentRequirementFields = componentRequirementFields;
+    this.switchingProviders = new SwitchingProviders(name);
     this.bindingExpressionFactory =
         new BindingExpression.Factory(
             compilerOptions,
@@ -149,7 +159,9 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
             graph,
             types,
             elements,
-            optionalFactories);
+            optionalFactories,
+            switchingProviders,
+            staticFrameworkFields);
     this.componentRequirementFieldFactory =
         new ComponentRequirementField.Factory(this, componentFieldNames, name, builderFields);
   }
@@ -179,6 +191,7 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
         graph,
         parent.subcomponentNames,
         parent.optionalFactories,
+        parent.staticFrameworkFields,
         parent.bindingExpressions.forChildComponent(),
         parent.componentRequirementFields.forChildComponent());
   }
@@ -205,6 +218,11 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
     component.addMethod(methodSpec);
   }
 
+  @Override
+  public String getUniqueFieldName(String name) {
+    return componentFieldNames.getUniqueName(name);
+  }
+
   @Override
   public String getUniqueMethodName(String name) {
     return componentMethodNames.getUniqueName(name);
@@ -246,12 +264,16 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
     createBindingExpressions();
     createComponentRequirementFields();
     implementInterfaceMethods();
+    Optional<MethodSpec> eagerInitializationMethod = eagerInitializationMethod();
     addSubcomponents();
     writeInitializeAndInterfaceMethods();
+    eagerInitializationMethod.ifPresent(component::addMethod);
     writeMembersInjectionMethods();
+    switchingProviders.addTo(this);
     component.addMethod(constructor.build());
     if (graph.componentDescriptor().kind().isTopLevel()) {
       optionalFactories.addMembers(component);
+      staticFrameworkFields.addMembers(component);
     }
     done = true;
     return component;
@@ -306,22 +328,33 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
     referenceReleasingProviderManagerFields = fields.build();
   }
 
-  /**
-   * Returns {@code true} if {@code scope} is in {@link
-   * BindingGraph#scopesRequiringReleasableReferenceManagers()} for the root graph.
-   */
-  protected abstract boolean requiresReleasableReferences(Scope scope);
-
   private FieldSpec referenceReleasingProxyManagerField(Scope scope) {
+    // Thread-scoped providers keep their values in per-thread slots, which need their own manager.
+    ClassName managerType =
+        scope.equals(threadScope(elements))
+            ? THREAD_LOCAL_REFERENCE_MANAGER
+            : REFERENCE_RELEASING_PROVIDER_MANAGER;
+    CodeBlock.Builder arguments =
+        CodeBlock.builder().add("$T.class", scope.scopeAnnotationElement());
+    scope
+        .releasePolicy()
+        .ifPresent(
+            policy -> {
+              // The constructor's parameters follow the order of the ReleasePolicy members.
+              AnnotationExpression policyExpression = new AnnotationExpression(policy);
+              getAnnotationValuesWithDefaults(policy)
+                  .forEach(
+                      (member, value) ->
+                          arguments.add(
+                              ", $L",
+                              policyExpression.getValueExpression(member.getReturnType(), value)));
+            });
     return componentField(
-            REFERENCE_RELEASING_PROVIDER_MANAGER,
+            managerType,
             UPPER_CAMEL.to(
                 LOWER_CAMEL, scope.scopeAnnotationElement().getSimpleName() + "References"))
         .addModifiers(PRIVATE, FINAL)
-        .initializer(
-            "new $T($T.class)",
-            REFERENCE_RELEASING_PROVIDER_MANAGER,
-            scope.scopeAnnotationElement())
+        .initializer("new $T($L)", managerType, arguments.build())
         .addJavadoc(
             "The manager that releases references for the {@link $T} scope.\n",
             scope.scopeAnnotationElement())
@@ -408,6 +441,22 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
     }
   }
 
+  /**
+   * Returns the {@code initializeEagerly(Executor)} method for a top-level component, if
+   * {@linkplain CompilerOptions#eagerInitialization() eager initialization} is enabled and the
+   * component interface doesn't declare a method with the same name.
+   */
+  private Optional<MethodSpec> eagerInitializationMethod() {
+    if (!compilerOptions.eagerInitialization()
+        || !graph.componentDescriptor().kind().isTopLevel()
+        || !componentMethodNames
+            .getUniqueName(EagerInitializationMethod.METHOD_NAME)
+            .equals(EagerInitializationMethod.METHOD_NAME)) {
+      return Optional.empty();
+    }
+    return EagerInitializationMethod.create(graph, bindingExpressions, name, elements);
+  }
+
   private void addSubcomponents() {
     for (BindingGraph subgraph : graph.subgraphs()) {
       ComponentMethodDescriptor componentMethodDescriptor =
@@ -519,17 +568,29 @@ abstract class AbstractComponentWriter implements GeneratedComponentModel {
       return factoryCreate;
     }
     Scope scope = maybeScope.get();
-    if (requiresReleasableReferences(scope)) {
+    if (scope.equals(threadScope(elements))) {
+      return requiresReleasableReferences(scope)
+          ? CodeBlock.of(
+              "$T.provider($L, $L)",
+              THREAD_LOCAL_CHECK,
+              factoryCreate,
+              getReferenceReleasingProviderManagerExpression(scope))
+          : CodeBlock.of("$T.provider($L)", THREAD_LOCAL_CHECK, factoryCreate);
+    } else if (requiresReleasableReferences(scope)) {
       return CodeBlock.of(
           "$T.create($L, $L)",
           REFERENCE_RELEASING_PROVIDER,
           factoryCreate,
           getReferenceReleasingProviderManagerExpression(scope));
     } else {
-      return CodeBlock.of(
-          "$T.provider($L)",
-          scope.equals(reusableScope(elements)) ? SINGLE_CHECK : DOUBLE_CHECK,
-          factoryCreate);
+      return CodeBlock.of("$T.provider($L)", scopingProviderClass(scope), factoryCreate);
+    }
+  }
+
+  private ClassName scopingProviderClass(Scope scope) {
+    if (scope.equals(reusableScope(elements))) {
+      return SINGLE_CHECK;
     }
+    return compilerOptions.reentrantLockDoubleCheck() ? REENTRANT_LOCK_DOUBLE_CHECK : DOUBLE_CHECK;
   }
 }
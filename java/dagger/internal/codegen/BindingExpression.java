@@ -18,13 +18,20 @@ package dagger.internal.codegen;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static dagger.internal.codegen.AnnotationSpecs.Suppression.RAWTYPES;
+import static dagger.internal.codegen.ContributionBinding.FactoryCreationStrategy.CLASS_CONSTRUCTOR;
+import static dagger.internal.codegen.FrameworkFieldInitializer.defersInitialization;
 import static dagger.internal.codegen.MemberSelect.staticMemberSelect;
+import static dagger.internal.codegen.Scope.threadScope;
 import static javax.lang.model.element.Modifier.PRIVATE;
 
 import com.google.common.collect.ImmutableMap;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.lang.model.util.Elements;
 
 /** A factory of code expressions used to access a single binding in a component. */
@@ -62,6 +69,10 @@ abstract class BindingExpression {
     private final DaggerTypes types;
     private final Elements elements;
     private final OptionalFactories optionalFactories;
+    private final SwitchingProviders switchingProviders;
+    private final StaticFrameworkFields staticFrameworkFields;
+    private final ModuleFactoryHolders moduleFactoryHolders;
+    private final Map<BindingKey, Boolean> sharedAcrossInstances = new HashMap<>();
 
     Factory(
         CompilerOptions compilerOptions,
@@ -74,7 +85,9 @@ abstract class BindingExpression {
         BindingGraph graph,
         DaggerTypes types,
         Elements elements,
-        OptionalFactories optionalFactories) {
+        OptionalFactories optionalFactories,
+        SwitchingProviders switchingProviders,
+        StaticFrameworkFields staticFrameworkFields) {
       this.compilerOptions = checkNotNull(compilerOptions);
       this.componentName = checkNotNull(componentName);
       this.componentFieldNames = checkNotNull(componentFieldNames);
@@ -86,19 +99,148 @@ abstract class BindingExpression {
       this.types = checkNotNull(types);
       this.elements = checkNotNull(elements);
       this.optionalFactories = checkNotNull(optionalFactories);
+      this.switchingProviders = checkNotNull(switchingProviders);
+      this.staticFrameworkFields = checkNotNull(staticFrameworkFields);
+      this.moduleFactoryHolders = new ModuleFactoryHolders(elements, compilerOptions);
     }
 
     /** Creates a binding expression for a field. */
     BindingExpression forField(ResolvedBindings resolvedBindings) {
       FieldSpec fieldSpec = generateFrameworkField(resolvedBindings, Optional.empty());
-      MemberSelect memberSelect = MemberSelect.localField(componentName, fieldSpec.name);
-      return create(resolvedBindings, Optional.of(fieldSpec), memberSelect);
+      if (!defersInitialization(compilerOptions, graph)) {
+        MemberSelect memberSelect = MemberSelect.localField(componentName, fieldSpec.name);
+        return create(
+            resolvedBindings,
+            Optional.of(fieldSpec),
+            FrameworkInstanceBindingExpression.create(
+                resolvedBindings,
+                Optional.of(fieldSpec),
+                generatedComponentModel,
+                memberSelect,
+                frameworkFieldInitializer(resolvedBindings),
+                types,
+                elements));
+      }
+      if (isSharedAcrossInstances(resolvedBindings.bindingKey(), new HashSet<>())) {
+        FieldSpec staticField =
+            FieldSpec.builder(
+                    fieldSpec.type, staticFrameworkFields.getUniqueFieldName(fieldSpec.name))
+                .addAnnotations(fieldSpec.annotations)
+                .build();
+        // The static field is shared by every instance of the component, so it cannot hold a
+        // provider that refers to one of them.
+        return create(
+            resolvedBindings,
+            Optional.empty(),
+            FrameworkInstanceBindingExpression.createStatic(
+                resolvedBindings,
+                staticField,
+                componentName.topLevelClassName(),
+                staticFrameworkFields,
+                generatedComponentModel,
+                frameworkFieldInitializer(resolvedBindings),
+                types,
+                elements));
+      }
+      return create(
+          resolvedBindings,
+          Optional.of(fieldSpec),
+          FrameworkInstanceBindingExpression.createDeferred(
+              resolvedBindings,
+              fieldSpec,
+              componentName,
+              generatedComponentModel,
+              frameworkFieldInitializer(resolvedBindings),
+              types,
+              elements));
     }
 
     /** Creates a binding expression for a static method call. */
     Optional<BindingExpression> forStaticMethod(ResolvedBindings resolvedBindings) {
-      return staticMemberSelect(resolvedBindings)
-          .map(memberSelect -> create(resolvedBindings, Optional.empty(), memberSelect));
+      // Monitored bindings need a field for the provider that reports to the monitor.
+      if (resolvedBindings.bindingKey().kind().equals(BindingKey.Kind.CONTRIBUTION)
+          && graph.isProvisionMonitored(resolvedBindings.contributionBinding())) {
+        return Optional.empty();
+      }
+      return staticMemberSelect(resolvedBindings, moduleFactoryHolders)
+          .map(
+              memberSelect ->
+                  create(
+                      resolvedBindings,
+                      Optional.empty(),
+                      FrameworkInstanceBindingExpression.create(
+                          resolvedBindings,
+                          Optional.empty(),
+                          generatedComponentModel,
+                          memberSelect,
+                          frameworkFieldInitializer(resolvedBindings),
+                          types,
+                          elements)));
+    }
+
+    /**
+     * Returns {@code true} if the framework instance for a binding is the same for every instance
+     * of the component, so that a subcomponent that {@linkplain
+     * CompilerOptions#deferredSubcomponentFields() defers its fields} can share it in a {@link
+     * StaticFrameworkFields static field}. That is the case for unscoped injection and provision
+     * bindings owned by the component that need no module instance, if all of their dependencies
+     * are also shared or are satisfied by a static method.
+     *
+     * <p>Modes in which dependencies may be satisfied by component methods share nothing.
+     *
+     * @param visiting the bindings whose dependencies are being checked, which are part of a
+     *     dependency cycle if they are reached again
+     */
+    private boolean isSharedAcrossInstances(BindingKey bindingKey, Set<BindingKey> visiting) {
+      if (compilerOptions.experimentalAndroidMode() || compilerOptions.switchingProviders()) {
+        return false;
+      }
+      Boolean shared = sharedAcrossInstances.get(bindingKey);
+      if (shared != null) {
+        return shared;
+      }
+      ResolvedBindings resolvedBindings = graph.resolvedBindings().get(bindingKey);
+      if (resolvedBindings == null || !visiting.add(bindingKey)) {
+        return false;
+      }
+      shared = isSharedAcrossInstances(resolvedBindings, visiting);
+      visiting.remove(bindingKey);
+      sharedAcrossInstances.put(bindingKey, shared);
+      return shared;
+    }
+
+    private boolean isSharedAcrossInstances(
+        ResolvedBindings resolvedBindings, Set<BindingKey> visiting) {
+      if (!resolvedBindings.bindingKey().kind().equals(BindingKey.Kind.CONTRIBUTION)) {
+        return resolvedBindings.membersInjectionBinding().isPresent()
+            && resolvedBindings.membersInjectionBinding().get().injectionSites().isEmpty();
+      }
+      ContributionBinding binding = resolvedBindings.contributionBinding();
+      if (!binding.bindingType().equals(BindingType.PROVISION)
+          || binding.scope().isPresent()
+          || graph.isProvisionMonitored(binding)) {
+        return false;
+      }
+      switch (binding.bindingKind()) {
+        case INJECTION:
+        case PROVISION:
+          break;
+        default:
+          return false;
+      }
+      if (!binding.factoryCreationStrategy().equals(CLASS_CONSTRUCTOR)) {
+        // The factory is a static method call.
+        return true;
+      }
+      if (binding.requiresModuleInstance() || resolvedBindings.ownedBindings().isEmpty()) {
+        return false;
+      }
+      for (FrameworkDependency dependency : binding.frameworkDependencies()) {
+        if (!isSharedAcrossInstances(dependency.bindingKey(), visiting)) {
+          return false;
+        }
+      }
+      return true;
     }
 
     /**
@@ -131,40 +273,42 @@ abstract class BindingExpression {
           && !bindingPackage.get().equals(componentName.packageName());
     }
 
+    private FrameworkFieldInitializer frameworkFieldInitializer(
+        ResolvedBindings resolvedBindings) {
+      return new FrameworkFieldInitializer(
+          generatedComponentModel,
+          componentBindingExpressions,
+          componentRequirementFields,
+          resolvedBindings,
+          compilerOptions,
+          graph,
+          optionalFactories,
+          moduleFactoryHolders,
+          componentName);
+    }
+
+    /**
+     * Returns the binding expression for the kind of binding, which delegates to {@code
+     * frameworkInstanceBindingExpression} for framework requests.
+     *
+     * @param fieldSpec the component field named for the binding's framework instance, if it has
+     *     one
+     */
     private BindingExpression create(
         ResolvedBindings resolvedBindings,
         Optional<FieldSpec> fieldSpec,
-        MemberSelect memberSelect) {
-      FrameworkFieldInitializer frameworkFieldInitializer =
-          new FrameworkFieldInitializer(
-              generatedComponentModel,
-              componentBindingExpressions,
-              componentRequirementFields,
-              resolvedBindings,
-              compilerOptions,
-              graph,
-              optionalFactories,
-              componentName);
-      FrameworkInstanceBindingExpression frameworkInstanceBindingExpression =
-          FrameworkInstanceBindingExpression.create(
-              resolvedBindings,
-              fieldSpec,
-              generatedComponentModel,
-              memberSelect,
-              frameworkFieldInitializer,
-              types,
-              elements);
-
+        FrameworkInstanceBindingExpression frameworkInstanceBindingExpression) {
       if (!resolvedBindings.bindingType().equals(BindingType.PROVISION)) {
         return frameworkInstanceBindingExpression;
       }
 
+      FieldSpec producerField =
+          generateFrameworkField(resolvedBindings, Optional.of(TypeNames.PRODUCER));
       BindingExpression bindingExpression =
           new ProviderOrProducerBindingExpression(
               frameworkInstanceBindingExpression,
               frameworkInstanceBindingExpression.producerFromProvider(
-                  generateFrameworkField(resolvedBindings, Optional.of(TypeNames.PRODUCER)),
-                  componentName));
+                  producerField, componentName));
 
       ProvisionBinding provisionBinding = (ProvisionBinding) resolvedBindings.contributionBinding();
       switch (provisionBinding.bindingKind()) {
@@ -205,14 +349,29 @@ abstract class BindingExpression {
               elements);
 
         case SYNTHETIC_MULTIBOUND_MAP:
+          if (FrameworkFieldInitializer.usesStringKeySwitchMap(
+              provisionBinding, compilerOptions, componentName)) {
+            // The map never changes, so every request can share the one in the framework field.
+            return bindingExpression;
+          }
+          if (allContributionsUseDoubleCheck(provisionBinding)) {
+            // The MapFactory in the framework field memoizes the map, so share it instead of
+            // building a new one for each request.
+            return bindingExpression;
+          }
           return new MapBindingExpression(
               provisionBinding,
               graph,
               componentBindingExpressions,
               bindingExpression,
+              compilerOptions,
               types,
               elements);
 
+        case SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP:
+          return new PrimitiveKeyedMapBindingExpression(
+              provisionBinding, graph, componentBindingExpressions, bindingExpression, types);
+
         case SYNTHETIC_OPTIONAL_BINDING:
           return new OptionalBindingExpression(
               provisionBinding, bindingExpression, componentBindingExpressions, types);
@@ -230,8 +389,32 @@ abstract class BindingExpression {
 
         case INJECTION:
         case PROVISION:
+          if (inlineScopedBinding(provisionBinding) || useSwitchingProvider(provisionBinding)) {
+            return new PrivateMethodBindingExpression(
+                resolvedBindings,
+                componentName,
+                generatedComponentModel,
+                new SimpleMethodBindingExpression(
+                    compilerOptions,
+                    provisionBinding,
+                    bindingExpression,
+                    componentBindingExpressions,
+                    generatedComponentModel,
+                    componentRequirementFields,
+                    moduleFactoryHolders,
+                    types,
+                    elements),
+                useSwitchingProvider(provisionBinding)
+                    ? Optional.of(switchingProviders)
+                    : Optional.empty(),
+                fieldSpec,
+                Optional.of(producerField),
+                types,
+                elements);
+          }
           if (!provisionBinding.scope().isPresent()
-              && provisionBinding.bindingElement().isPresent()) {
+              && provisionBinding.bindingElement().isPresent()
+              && !graph.isProvisionMonitored(provisionBinding)) {
             BindingExpression simpleMethodBindingExpression =
                 new SimpleMethodBindingExpression(
                     compilerOptions,
@@ -240,6 +423,7 @@ abstract class BindingExpression {
                     componentBindingExpressions,
                     generatedComponentModel,
                     componentRequirementFields,
+                    moduleFactoryHolders,
                     types,
                     elements);
             return compilerOptions.experimentalAndroidMode()
@@ -258,5 +442,70 @@ abstract class BindingExpression {
           return bindingExpression;
       }
     }
+
+    /**
+     * Returns {@code true} if a scoped binding should be memoized in a component field instead of
+     * in a scoped provider.
+     *
+     * @see CompilerOptions#inlineScopedBindings()
+     */
+    private boolean inlineScopedBinding(ProvisionBinding binding) {
+      return (compilerOptions.inlineScopedBindings() || compilerOptions.switchingProviders())
+          && !compilerOptions.reentrantLockDoubleCheck()
+          && binding.scope().isPresent()
+          && binding.bindingElement().isPresent()
+          && !binding.refreshIntervalNanos().isPresent()
+          && !binding.scope().get().equals(threadScope(elements))
+          && !generatedComponentModel.requiresReleasableReferences(binding.scope().get())
+          && !graph.isProvisionMonitored(binding);
+    }
+
+    /**
+     * Returns {@code true} if a multibound map has contributions, and the framework instance of
+     * each is a {@link dagger.internal.DoubleCheck} or {@link dagger.internal.SingleCheck}. The
+     * {@link dagger.internal.MapFactory} for such a map memoizes it.
+     */
+    private boolean allContributionsUseDoubleCheck(ProvisionBinding mapBinding) {
+      if (mapBinding.dependencies().isEmpty() || compilerOptions.reentrantLockDoubleCheck()) {
+        return false;
+      }
+      for (DependencyRequest dependency : mapBinding.dependencies()) {
+        ContributionBinding contribution =
+            graph.resolvedBindings().get(dependency.bindingKey()).contributionBinding();
+        if (!contribution.bindingType().equals(BindingType.PROVISION)) {
+          return false;
+        }
+        ProvisionBinding provisionBinding = (ProvisionBinding) contribution;
+        switch (provisionBinding.bindingKind()) {
+          case INJECTION:
+          case PROVISION:
+            break;
+          default:
+            return false;
+        }
+        if (!provisionBinding.scope().isPresent()
+            || inlineScopedBinding(provisionBinding)
+            || provisionBinding.refreshIntervalNanos().isPresent()
+            || provisionBinding.scope().get().equals(threadScope(elements))
+            || generatedComponentModel.requiresReleasableReferences(provisionBinding.scope().get())
+            || graph.isProvisionMonitored(provisionBinding)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Returns {@code true} if provider requests for a binding should be satisfied by the
+     * component's {@link SwitchingProviders} instead of a factory.
+     *
+     * @see CompilerOptions#switchingProviders()
+     */
+    private boolean useSwitchingProvider(ProvisionBinding binding) {
+      return compilerOptions.switchingProviders()
+          && binding.bindingElement().isPresent()
+          && !graph.isProvisionMonitored(binding)
+          && (!binding.scope().isPresent() || inlineScopedBinding(binding));
+    }
   }
 }
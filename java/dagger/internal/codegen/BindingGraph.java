@@ -51,6 +51,7 @@ import dagger.internal.codegen.ComponentDescriptor.BuilderRequirementMethod;
 import dagger.internal.codegen.ComponentDescriptor.ComponentMethodDescriptor;
 import dagger.internal.codegen.ContributionBinding.Kind;
 import dagger.internal.codegen.Key.HasKey;
+import dagger.monitoring.ProvisionComponentMonitor;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
 import dagger.releasablereferences.CanReleaseReferences;
@@ -137,6 +138,52 @@ abstract class BindingGraph {
    */
   abstract ImmutableSet<ModuleDescriptor> ownedModules();
 
+  /**
+   * A synthetic request for the {@link ProvisionComponentMonitor} that the provision bindings owned
+   * by this graph report to, if {@linkplain CompilerOptions#provisionMonitoring() provision
+   * monitoring} is enabled and this component or one of its ancestors binds a monitor.
+   */
+  abstract Optional<DependencyRequest> provisionComponentMonitor();
+
+  /**
+   * Returns {@code true} if provisions of {@code binding}, which must be owned by this graph,
+   * should be reported to the {@linkplain #provisionComponentMonitor() component's monitor}.
+   *
+   * <p>Only {@code @Inject} and {@code @Provides} bindings are monitored. The monitor and the
+   * bindings it depends on are never monitored, since that would require the monitor to monitor
+   * its own creation.
+   */
+  boolean isProvisionMonitored(ContributionBinding binding) {
+    return provisionComponentMonitor().isPresent()
+        && (binding.bindingKind().equals(Kind.INJECTION)
+            || binding.bindingKind().equals(Kind.PROVISION))
+        && !provisionComponentMonitorDependencies()
+            .contains(BindingKey.contribution(binding.key()));
+  }
+
+  /**
+   * The {@linkplain #provisionComponentMonitor() monitor}'s key and the keys of its transitive
+   * dependencies that are owned by this graph.
+   */
+  @Memoized
+  ImmutableSet<BindingKey> provisionComponentMonitorDependencies() {
+    Set<BindingKey> dependencies = new LinkedHashSet<>();
+    Queue<BindingKey> queue = new ArrayDeque<>();
+    provisionComponentMonitor().map(DependencyRequest::bindingKey).ifPresent(queue::add);
+    for (BindingKey bindingKey = queue.poll(); bindingKey != null; bindingKey = queue.poll()) {
+      ResolvedBindings resolvedBindings = resolvedBindings().get(bindingKey);
+      // Bindings owned by an ancestor are monitored, if at all, by the ancestor.
+      if (resolvedBindings != null && dependencies.add(bindingKey)) {
+        for (Binding binding : resolvedBindings.bindings()) {
+          for (DependencyRequest dependency : binding.dependencies()) {
+            queue.add(dependency.bindingKey());
+          }
+        }
+      }
+    }
+    return ImmutableSet.copyOf(dependencies);
+  }
+
   ImmutableSet<TypeElement> ownedModuleTypes() {
     return FluentIterable.from(ownedModules()).transform(ModuleDescriptor::moduleElement).toSet();
   }
@@ -217,18 +264,24 @@ abstract class BindingGraph {
     private final Key.Factory keyFactory;
     private final ProvisionBinding.Factory provisionBindingFactory;
     private final ProductionBinding.Factory productionBindingFactory;
+    private final DependencyRequest.Factory dependencyRequestFactory;
+    private final CompilerOptions compilerOptions;
 
     Factory(
         Elements elements,
         InjectBindingRegistry injectBindingRegistry,
         Key.Factory keyFactory,
         ProvisionBinding.Factory provisionBindingFactory,
-        ProductionBinding.Factory productionBindingFactory) {
+        ProductionBinding.Factory productionBindingFactory,
+        DependencyRequest.Factory dependencyRequestFactory,
+        CompilerOptions compilerOptions) {
       this.elements = elements;
       this.injectBindingRegistry = injectBindingRegistry;
       this.keyFactory = keyFactory;
       this.provisionBindingFactory = provisionBindingFactory;
       this.productionBindingFactory = productionBindingFactory;
+      this.dependencyRequestFactory = dependencyRequestFactory;
+      this.compilerOptions = compilerOptions;
     }
 
     BindingGraph create(ComponentDescriptor componentDescriptor) {
@@ -320,6 +373,17 @@ abstract class BindingGraph {
         }
       }
 
+      // Resolve the provision monitor if there is an explicit binding for it in this component or
+      // an ancestor. It is never requested by any binding, so it is not resolved otherwise.
+      Optional<DependencyRequest> provisionComponentMonitor = Optional.empty();
+      if (compilerOptions.provisionMonitoring()) {
+        DependencyRequest monitorRequest = dependencyRequestFactory.forProvisionComponentMonitor();
+        if (!requestResolver.getExplicitBindings(monitorRequest.key()).isEmpty()) {
+          provisionComponentMonitor = Optional.of(monitorRequest);
+          requestResolver.resolve(monitorRequest.bindingKey());
+        }
+      }
+
       // Resolve all bindings for subcomponents, creating subgraphs for all subcomponents that have
       // been detected during binding resolution. If a binding for a subcomponent is never resolved,
       // no BindingGraph will be created for it and no implementation will be generated. This is
@@ -350,7 +414,8 @@ abstract class BindingGraph {
           subgraphs.build(),
           getScopesRequiringReleasableReferenceManagers(
               releasableReferenceManagerBindings, resolvedBindingsMap),
-          requestResolver.getOwnedModules());
+          requestResolver.getOwnedModules(),
+          provisionComponentMonitor);
     }
 
     /**
@@ -478,6 +543,9 @@ abstract class BindingGraph {
        * <li>A synthetic binding that depends on {@code Map<K, Provider<V>>} if the requested key's
        *     type is {@code Map<K, V>} and there are some explicit bindings for {@code Map<K,
        *     Provider<V>>} but no explicit bindings for {@code Map<K, Producer<V>>}.
+       * <li>A synthetic binding that depends on {@code Map<Integer, Provider<V>>} if the requested
+       *     key's type is {@code IntKeyMap<V>} or {@code IntKeyMap<Provider<V>>}, and likewise for
+       *     {@code LongKeyMap}.
        * <li>An implicit {@link Inject @Inject}-annotated constructor binding if there is one and
        *     there are no explicit bindings or synthetic bindings.
        * </ul>
@@ -501,11 +569,13 @@ abstract class BindingGraph {
 
             for (Key key : keysMatchingRequest(requestKey)) {
               contributionBindings.addAll(getExplicitBindings(key));
-              multibindingContributionsBuilder.addAll(getExplicitMultibindings(key));
-              multibindingDeclarationsBuilder.addAll(getMultibindingDeclarations(key));
               subcomponentDeclarationsBuilder.addAll(getSubcomponentDeclarations(key));
               optionalBindingDeclarationsBuilder.addAll(getOptionalBindingDeclarations(key));
             }
+            for (Key key : multibindingKeysMatchingRequest(requestKey)) {
+              multibindingContributionsBuilder.addAll(getExplicitMultibindings(key));
+              multibindingDeclarationsBuilder.addAll(getMultibindingDeclarations(key));
+            }
 
             ImmutableSet<ContributionBinding> multibindingContributions =
                 multibindingContributionsBuilder.build();
@@ -593,6 +663,24 @@ abstract class BindingGraph {
         return keys.build();
       }
 
+      /**
+       * Returns the keys whose multibinding contributions and declarations satisfy a request for
+       * {@code requestKey}: the {@linkplain #keysMatchingRequest(Key) keys matching the request},
+       * and {@code Map<Integer, Provider<V>>} or {@code Map<Long, Provider<V>>} if the requested
+       * key's type is an {@link dagger.multibindings.IntKeyMap} or {@link
+       * dagger.multibindings.LongKeyMap}.
+       *
+       * <p>Explicit bindings for the {@code Map} do not satisfy requests for the primitive-keyed
+       * map, so that key is not one of the {@linkplain #keysMatchingRequest(Key) keys matching the
+       * request}.
+       */
+      private ImmutableSet<Key> multibindingKeysMatchingRequest(Key requestKey) {
+        ImmutableSet.Builder<Key> keys = ImmutableSet.builder();
+        keys.addAll(keysMatchingRequest(requestKey));
+        keyFactory.implicitMapProviderKeyFromPrimitiveKeyedMap(requestKey).ifPresent(keys::add);
+        return keys.build();
+      }
+
       /**
        * Returns a synthetic binding that depends on individual multibinding contributions.
        *
@@ -1109,7 +1197,7 @@ abstract class BindingGraph {
                   .stream()
                   .map(ContributionBinding::bindingKind)
                   .anyMatch(SYNTHETIC_MULTIBOUND_KINDS::contains)
-              && keysMatchingRequest(resolvedBindings.key())
+              && multibindingKeysMatchingRequest(resolvedBindings.key())
                   .stream()
                   .anyMatch(key -> !getLocalExplicitMultibindings(key).isEmpty());
         }
@@ -32,6 +32,7 @@ import static dagger.internal.codegen.ConfigurationAnnotations.getComponentDepen
 import static dagger.internal.codegen.ContributionBinding.Kind.INJECTION;
 import static dagger.internal.codegen.ContributionBinding.Kind.SYNTHETIC_MULTIBOUND_KINDS;
 import static dagger.internal.codegen.ContributionBinding.Kind.SYNTHETIC_MULTIBOUND_MAP;
+import static dagger.internal.codegen.ContributionBinding.Kind.SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP;
 import static dagger.internal.codegen.ContributionBinding.indexMapBindingsByAnnotationType;
 import static dagger.internal.codegen.ContributionBinding.indexMapBindingsByMapKey;
 import static dagger.internal.codegen.DaggerElements.getAnnotationMirror;
@@ -640,7 +641,8 @@ final class BindingGraphValidator {
             }
           }
         }
-        if (binding.bindingKind().equals(SYNTHETIC_MULTIBOUND_MAP)) {
+        if (binding.bindingKind().equals(SYNTHETIC_MULTIBOUND_MAP)
+            || binding.bindingKind().equals(SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP)) {
           validateMapKeys(binding, owningComponent);
         }
         super.visitContributionBinding(binding, owningComponent);
@@ -727,7 +729,8 @@ final class BindingGraphValidator {
       private void validateMapKeys(
           ContributionBinding binding, ComponentDescriptor owningComponent) {
         checkArgument(
-            binding.bindingKind().equals(SYNTHETIC_MULTIBOUND_MAP),
+            binding.bindingKind().equals(SYNTHETIC_MULTIBOUND_MAP)
+                || binding.bindingKind().equals(SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP),
             "binding must be a synthetic multibound map: %s",
             binding);
         ImmutableSet<ContributionBinding> multibindingContributions =
@@ -1135,6 +1138,9 @@ final class BindingGraphValidator {
             return true;
 
           case INSTANCE:
+            if (PrimitiveKeyedMapType.isPrimitiveKeyedMap(requestedType)) {
+              return PrimitiveKeyedMapType.from(requestedType).valuesAreTypeOf(Provider.class);
+            }
             return MapType.isMap(requestedType)
                 && MapType.from(requestedType).valuesAreTypeOf(Provider.class);
 
@@ -48,6 +48,94 @@ abstract class CompilerOptions {
    * classloading on Android, these trade-offs are potentially advantageous.
    */
   abstract boolean experimentalAndroidMode();
+
+  /**
+   * Returns true if scoped bindings should be memoized with {@link
+   * dagger.internal.ReentrantLockDoubleCheck} instead of {@link dagger.internal.DoubleCheck}.
+   *
+   * <p>Initializing a binding then never blocks on a monitor, which avoids inflating monitors when
+   * many threads race to initialize a binding and avoids pinning virtual threads to their carrier
+   * threads while the binding is created. The generated code is not GWT compatible.
+   */
+  abstract boolean reentrantLockDoubleCheck();
+
+  /**
+   * Returns true if scoped {@code @Inject} and {@code @Provides} bindings should be memoized in a
+   * field of the component instead of in a scoped {@link javax.inject.Provider} field.
+   *
+   * <p>Each such binding is created by a private method of the component that uses double-checked
+   * locking on a {@link dagger.internal.MemoizedSentinel} field, so the component creates no
+   * factory or {@link dagger.internal.DoubleCheck} for it during initialization. A {@link
+   * javax.inject.Provider} that calls the method is only created where one is requested.
+   *
+   * <p>Bindings in {@link dagger.releasablereferences.CanReleaseReferences} scopes, and all scoped
+   * bindings if {@link #reentrantLockDoubleCheck()} is enabled, still use a scoped provider.
+   */
+  abstract boolean inlineScopedBindings();
+
+  /**
+   * Returns true if provider requests for {@code @Inject} and {@code @Provides} bindings should be
+   * satisfied by one {@code SwitchingProvider} class nested in each component instead of by the
+   * bindings' {@code *_Factory} classes.
+   *
+   * <p>Each {@code SwitchingProvider} is created the first time the provider is requested rather
+   * than when the component is constructed. Scoped bindings are memoized as with {@link
+   * #inlineScopedBindings()}; those that cannot be are still provided by their factories.
+   */
+  abstract boolean switchingProviders();
+
+  /**
+   * Returns true if multibound {@code Map<String, Provider<V>>}s should be implemented by a {@link
+   * dagger.internal.StringKeySwitchMap} subclass generated in the component, which finds each key
+   * with a {@code switch} on the key instead of with a hash table built at runtime.
+   */
+  abstract boolean stringKeySwitchMaps();
+
+  /**
+   * Returns true if multibound maps with enum keys should be {@link java.util.EnumMap}s, which look
+   * up keys by ordinal. Such maps iterate in the order of the constants' ordinals instead of the
+   * order in which the entries were contributed.
+   */
+  abstract boolean enumKeyedMaps();
+
+  /**
+   * Returns true if {@code @Inject} and {@code @Provides} bindings should report each provision to
+   * the {@link dagger.monitoring.ProvisionComponentMonitor} bound in their component, if there is
+   * one. Components that bind no monitor are generated as if this were false.
+   */
+  abstract boolean provisionMonitoring();
+
+  /**
+   * Returns true if top-level components should have an {@code initializeEagerly(Executor)} method
+   * that creates all of their scoped bindings, running independent ones concurrently.
+   */
+  abstract boolean eagerInitialization();
+
+  /**
+   * Returns true if a list of the classes that each top-level component loads should be written
+   * as a resource next to the component's classes.
+   *
+   * @see ComponentClassList
+   */
+  abstract boolean writeClassLists();
+
+  /**
+   * Returns true if each module's {@code @Provides} factories should also be generated in a single
+   * holder class, and components should use the holders instead of the per-binding factories.
+   *
+   * @see ModuleFactoryHolders
+   */
+  abstract boolean moduleFactoryHolders();
+
+  /**
+   * Returns true if subcomponents should create their framework fields the first time that they
+   * are used instead of in their constructors, and share the fields whose values don't depend on
+   * the subcomponent instance in static fields of the top-level component.
+   *
+   * @see StaticFrameworkFields
+   */
+  abstract boolean deferredSubcomponentFields();
+
   abstract boolean writeProducerNameInToken();
   abstract Diagnostic.Kind nullableValidationKind();
 
@@ -70,6 +158,18 @@ abstract class CompilerOptions {
         .usesProducers(elements.getTypeElement(Produces.class.getCanonicalName()) != null)
         .experimentalAndroidMode(experimentalAndroidMode(processingEnv)
             .equals(FeatureStatus.ENABLED))
+        .reentrantLockDoubleCheck(
+            reentrantLockDoubleCheck(processingEnv).equals(FeatureStatus.ENABLED))
+        .inlineScopedBindings(inlineScopedBindings(processingEnv).equals(FeatureStatus.ENABLED))
+        .switchingProviders(switchingProviders(processingEnv).equals(FeatureStatus.ENABLED))
+        .stringKeySwitchMaps(stringKeySwitchMaps(processingEnv).equals(FeatureStatus.ENABLED))
+        .enumKeyedMaps(enumKeyedMaps(processingEnv).equals(FeatureStatus.ENABLED))
+        .provisionMonitoring(provisionMonitoring(processingEnv).equals(FeatureStatus.ENABLED))
+        .eagerInitialization(eagerInitialization(processingEnv).equals(FeatureStatus.ENABLED))
+        .writeClassLists(writeClassLists(processingEnv).equals(FeatureStatus.ENABLED))
+        .moduleFactoryHolders(moduleFactoryHolders(processingEnv).equals(FeatureStatus.ENABLED))
+        .deferredSubcomponentFields(
+            deferredSubcomponentFields(processingEnv).equals(FeatureStatus.ENABLED))
         .writeProducerNameInToken(
             writeProducerNameInToken(processingEnv).equals(FeatureStatus.ENABLED))
         .nullableValidationKind(nullableValidationType(processingEnv).diagnosticKind().get())
@@ -90,6 +190,16 @@ abstract class CompilerOptions {
   interface Builder {
     Builder usesProducers(boolean usesProduces);
     Builder experimentalAndroidMode(boolean experimentalAndroidMode);
+    Builder reentrantLockDoubleCheck(boolean reentrantLockDoubleCheck);
+    Builder inlineScopedBindings(boolean inlineScopedBindings);
+    Builder switchingProviders(boolean switchingProviders);
+    Builder stringKeySwitchMaps(boolean stringKeySwitchMaps);
+    Builder enumKeyedMaps(boolean enumKeyedMaps);
+    Builder provisionMonitoring(boolean provisionMonitoring);
+    Builder eagerInitialization(boolean eagerInitialization);
+    Builder writeClassLists(boolean writeClassLists);
+    Builder moduleFactoryHolders(boolean moduleFactoryHolders);
+    Builder deferredSubcomponentFields(boolean deferredSubcomponentFields);
     Builder writeProducerNameInToken(boolean writeProducerNameInToken);
     Builder nullableValidationKind(Diagnostic.Kind kind);
     Builder privateMemberValidationKind(Diagnostic.Kind kind);
@@ -104,6 +214,26 @@ abstract class CompilerOptions {
 
   static final String EXPERIMENTAL_ANDROID_MODE = "dagger.experimentalAndroidMode";
 
+  static final String REENTRANT_LOCK_DOUBLE_CHECK_KEY = "dagger.reentrantLockDoubleCheck";
+
+  static final String INLINE_SCOPED_BINDINGS_KEY = "dagger.inlineScopedBindings";
+
+  static final String SWITCHING_PROVIDERS_KEY = "dagger.switchingProviders";
+
+  static final String STRING_KEY_SWITCH_MAPS_KEY = "dagger.stringKeySwitchMaps";
+
+  static final String ENUM_KEYED_MAPS_KEY = "dagger.enumKeyedMaps";
+
+  static final String PROVISION_MONITORING_KEY = "dagger.provisionMonitoring";
+
+  static final String EAGER_INITIALIZATION_KEY = "dagger.eagerInitialization";
+
+  static final String WRITE_CLASS_LISTS_KEY = "dagger.writeClassLists";
+
+  static final String MODULE_FACTORY_HOLDERS_KEY = "dagger.moduleFactoryHolders";
+
+  static final String DEFERRED_SUBCOMPONENT_FIELDS_KEY = "dagger.deferredSubcomponentFields";
+
   static final String WRITE_PRODUCER_NAME_IN_TOKEN_KEY = "dagger.writeProducerNameInToken";
 
   static final String DISABLE_INTER_COMPONENT_SCOPE_VALIDATION_KEY =
@@ -131,6 +261,16 @@ abstract class CompilerOptions {
   static final ImmutableSet<String> SUPPORTED_OPTIONS =
       ImmutableSet.of(
           EXPERIMENTAL_ANDROID_MODE,
+          REENTRANT_LOCK_DOUBLE_CHECK_KEY,
+          INLINE_SCOPED_BINDINGS_KEY,
+          SWITCHING_PROVIDERS_KEY,
+          STRING_KEY_SWITCH_MAPS_KEY,
+          ENUM_KEYED_MAPS_KEY,
+          PROVISION_MONITORING_KEY,
+          EAGER_INITIALIZATION_KEY,
+          WRITE_CLASS_LISTS_KEY,
+          MODULE_FACTORY_HOLDERS_KEY,
+          DEFERRED_SUBCOMPONENT_FIELDS_KEY,
           WRITE_PRODUCER_NAME_IN_TOKEN_KEY,
           DISABLE_INTER_COMPONENT_SCOPE_VALIDATION_KEY,
           NULLABLE_VALIDATION_KEY,
@@ -147,6 +287,86 @@ abstract class CompilerOptions {
         EnumSet.allOf(FeatureStatus.class));
   }
 
+  private static FeatureStatus reentrantLockDoubleCheck(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        REENTRANT_LOCK_DOUBLE_CHECK_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus inlineScopedBindings(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        INLINE_SCOPED_BINDINGS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus switchingProviders(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        SWITCHING_PROVIDERS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus stringKeySwitchMaps(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        STRING_KEY_SWITCH_MAPS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus enumKeyedMaps(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        ENUM_KEYED_MAPS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus provisionMonitoring(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        PROVISION_MONITORING_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus eagerInitialization(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        EAGER_INITIALIZATION_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus writeClassLists(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        WRITE_CLASS_LISTS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus moduleFactoryHolders(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        MODULE_FACTORY_HOLDERS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
+  private static FeatureStatus deferredSubcomponentFields(ProcessingEnvironment processingEnv) {
+    return valueOf(
+        processingEnv,
+        DEFERRED_SUBCOMPONENT_FIELDS_KEY,
+        FeatureStatus.DISABLED,
+        EnumSet.allOf(FeatureStatus.class));
+  }
+
   private static FeatureStatus writeProducerNameInToken(ProcessingEnvironment processingEnv) {
     return valueOf(
         processingEnv,
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.auto.common.MoreElements.asType;
+import static dagger.internal.codegen.SourceFiles.generatedClassNameForBinding;
+import static dagger.internal.codegen.SourceFiles.membersInjectorNameForType;
+
+import com.google.common.collect.ImmutableList;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.TypeSpec;
+import dagger.internal.codegen.MembersInjectionBinding.InjectionSite;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * The classes that a generated component loads, written as a resource next to the component's
+ * classes so that they can be preloaded with {@link dagger.ComponentClasses} or archived with
+ * {@code -XX:SharedClassListFile}.
+ *
+ * <p>The resource for a component {@code test.TestComponent} is {@code
+ * META-INF/dagger/test.TestComponent.classlist}. It lists one class per line by its internal name
+ * (for example, {@code test/DaggerTestComponent$Builder}), which is the format of a JDK class list.
+ * The component implementation and its nested classes come first, followed by the generated
+ * factories and members injectors of each binding and the module or injected type that declares
+ * it, in the order in which the component initializes them. Classes from libraries, such as
+ * Dagger's own runtime, are not listed.
+ */
+final class ComponentClassList {
+  private final ModuleFactoryHolders moduleFactoryHolders;
+  private final Set<String> internalNames = new LinkedHashSet<>();
+
+  private ComponentClassList(ModuleFactoryHolders moduleFactoryHolders) {
+    this.moduleFactoryHolders = moduleFactoryHolders;
+  }
+
+  /** Returns the name of the class list resource for {@code componentDefinitionType}. */
+  static String resourceName(TypeElement componentDefinitionType, Elements elements) {
+    return "META-INF/dagger/" + elements.getBinaryName(componentDefinitionType) + ".classlist";
+  }
+
+  /** Writes the class list resource for the component implementation {@code component}. */
+  static void write(
+      Filer filer,
+      Elements elements,
+      ModuleFactoryHolders moduleFactoryHolders,
+      ClassName componentName,
+      TypeSpec component,
+      BindingGraph graph)
+      throws IOException {
+    FileObject resource =
+        filer.createResource(
+            StandardLocation.CLASS_OUTPUT,
+            "",
+            resourceName(graph.componentType(), elements),
+            graph.componentType());
+    try (Writer writer = resource.openWriter()) {
+      for (String internalName :
+          create(moduleFactoryHolders, componentName, component, graph)) {
+        writer.write(internalName);
+        writer.write('\n');
+      }
+    }
+  }
+
+  /** Returns the internal names of the classes that the component will load, in order. */
+  static ImmutableList<String> create(
+      ModuleFactoryHolders moduleFactoryHolders,
+      ClassName componentName,
+      TypeSpec component,
+      BindingGraph graph) {
+    ComponentClassList classList = new ComponentClassList(moduleFactoryHolders);
+    classList.addGeneratedTypes(internalName(componentName), component);
+    classList.addBindings(graph);
+    return ImmutableList.copyOf(classList.internalNames);
+  }
+
+  private void addGeneratedTypes(String internalName, TypeSpec type) {
+    internalNames.add(internalName);
+    for (TypeSpec nestedType : type.typeSpecs) {
+      addGeneratedTypes(internalName + "$" + nestedType.name, nestedType);
+    }
+  }
+
+  private void addBindings(BindingGraph graph) {
+    for (ResolvedBindings resolvedBindings : graph.resolvedBindings().values()) {
+      for (Binding binding : resolvedBindings.ownedBindings()) {
+        if (binding instanceof ContributionBinding) {
+          addContributionBinding((ContributionBinding) binding);
+        } else if (binding instanceof MembersInjectionBinding) {
+          MembersInjectionBinding membersInjectionBinding = (MembersInjectionBinding) binding;
+          addInjectionSites(membersInjectionBinding.injectionSites());
+          add(membersInjectionBinding.membersInjectedType());
+        }
+      }
+    }
+    for (BindingGraph subgraph : graph.subgraphs()) {
+      addBindings(subgraph);
+    }
+  }
+
+  private void addContributionBinding(ContributionBinding binding) {
+    switch (binding.bindingKind()) {
+      case INJECTION:
+        add(generatedClassNameForBinding(binding));
+        addInjectionSites(((ProvisionBinding) binding).injectionSites());
+        add(binding.bindingTypeElement().get());
+        break;
+      case PROVISION:
+        add(moduleFactoryHolders.holderFor(binding).orElse(generatedClassNameForBinding(binding)));
+        add(binding.bindingTypeElement().get());
+        break;
+      case PRODUCTION:
+        add(generatedClassNameForBinding(binding));
+        add(binding.bindingTypeElement().get());
+        break;
+      default:
+        // Other kinds of bindings have no generated classes of their own.
+        break;
+    }
+  }
+
+  private void addInjectionSites(Iterable<InjectionSite> injectionSites) {
+    for (InjectionSite injectionSite : injectionSites) {
+      add(membersInjectorNameForType(asType(injectionSite.element().getEnclosingElement())));
+    }
+  }
+
+  private void add(TypeElement typeElement) {
+    add(ClassName.get(typeElement));
+  }
+
+  private void add(ClassName className) {
+    internalNames.add(internalName(className));
+  }
+
+  private static String internalName(ClassName className) {
+    String simpleNames = String.join("$", className.simpleNames());
+    return className.packageName().isEmpty()
+        ? simpleNames
+        : className.packageName().replace('.', '/') + "/" + simpleNames;
+  }
+}
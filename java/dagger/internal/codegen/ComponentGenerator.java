@@ -20,6 +20,7 @@ import com.google.common.base.Joiner;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.TypeSpec;
 import dagger.Component;
+import java.io.IOException;
 import java.util.Optional;
 import javax.annotation.processing.Filer;
 import javax.lang.model.element.Element;
@@ -32,6 +33,7 @@ import javax.lang.model.util.Elements;
  * @since 2.0
  */
 final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
+  private final Filer filer;
   private final DaggerTypes types;
   private final Elements elements;
   private final Key.Factory keyFactory;
@@ -44,6 +46,7 @@ final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
       Key.Factory keyFactory,
       CompilerOptions compilerOptions) {
     super(filer, elements);
+    this.filer = filer;
     this.types = types;
     this.elements = elements;
     this.keyFactory = keyFactory;
@@ -69,4 +72,18 @@ final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
         new ComponentWriter(types, elements, keyFactory, compilerOptions, componentName, input)
             .write());
   }
+
+  @Override
+  void writeResources(ClassName componentName, TypeSpec component, BindingGraph input)
+      throws IOException {
+    if (compilerOptions.writeClassLists()) {
+      ComponentClassList.write(
+          filer,
+          elements,
+          new ModuleFactoryHolders(elements, compilerOptions),
+          componentName,
+          component,
+          input);
+    }
+  }
 }
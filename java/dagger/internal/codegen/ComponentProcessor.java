@@ -121,6 +121,8 @@ public final class ComponentProcessor extends BasicAnnotationProcessor {
             filer, elements, types, compilerOptions, injectValidatorWhenGeneratingCode);
     this.membersInjectorGenerator =
         new MembersInjectorGenerator(filer, elements, types, injectValidatorWhenGeneratingCode);
+    ModuleFactoryHolderGenerator moduleFactoryHolderGenerator =
+        new ModuleFactoryHolderGenerator(filer, elements, compilerOptions, provisionBindingFactory);
     ComponentGenerator componentGenerator =
         new ComponentGenerator(filer, elements, types, keyFactory, compilerOptions);
     ProducerFactoryGenerator producerFactoryGenerator =
@@ -165,7 +167,9 @@ public final class ComponentProcessor extends BasicAnnotationProcessor {
             injectBindingRegistry,
             keyFactory,
             provisionBindingFactory,
-            productionBindingFactory);
+            productionBindingFactory,
+            dependencyRequestFactory,
+            compilerOptions);
 
     AnnotationCreatorGenerator annotationCreatorGenerator =
         new AnnotationCreatorGenerator(filer, elements);
@@ -198,7 +202,12 @@ public final class ComponentProcessor extends BasicAnnotationProcessor {
         new ProductionExecutorModuleProcessingStep(messager, productionExecutorModuleGenerator),
         new MultibindingAnnotationsProcessingStep(messager),
         new BindsInstanceProcessingStep(messager),
-        moduleProcessingStep(messager, moduleValidator, provisionBindingFactory, factoryGenerator),
+        moduleProcessingStep(
+            messager,
+            moduleValidator,
+            provisionBindingFactory,
+            factoryGenerator,
+            moduleFactoryHolderGenerator),
         new ComponentProcessingStep(
             ComponentDescriptor.Kind.COMPONENT,
             messager,
@@ -215,6 +224,7 @@ public final class ComponentProcessor extends BasicAnnotationProcessor {
             moduleValidator,
             provisionBindingFactory,
             factoryGenerator,
+            moduleFactoryHolderGenerator,
             productionBindingFactory,
             producerFactoryGenerator),
         new ComponentProcessingStep(
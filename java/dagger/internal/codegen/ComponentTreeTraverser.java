@@ -39,6 +39,7 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Spliterators.AbstractSpliterator;
 import java.util.function.BiConsumer;
@@ -97,7 +98,8 @@ public class ComponentTreeTraverser {
    *   <li>If this component is installed in its parent by a subcomponent factory method, calls
    *       {@link #visitSubcomponentFactoryMethod(BindingGraph, BindingGraph, ExecutableElement)}.
    *   <li>For each entry point in the component, calls {@link #visitEntryPoint(DependencyRequest,
-   *       BindingGraph)}.
+   *       BindingGraph)}. The {@linkplain BindingGraph#provisionComponentMonitor() provision
+   *       monitor} is visited as an entry point of the component that owns it.
    *   <li>For each child component, calls {@link #visitComponent(BindingGraph)}, updating the
    *       traversal state.
    * </ol>
@@ -122,6 +124,14 @@ public class ComponentTreeTraverser {
       visitEntryPoint(entryPoint, graph);
     }
 
+    // No binding requests the provision monitor, so treat it as an entry point of the component
+    // that owns it.
+    Optional<DependencyRequest> provisionComponentMonitor = graph.provisionComponentMonitor();
+    if (provisionComponentMonitor.isPresent()
+        && graph.resolvedBindings().containsKey(provisionComponentMonitor.get().bindingKey())) {
+      visitEntryPoint(provisionComponentMonitor.get(), graph);
+    }
+
     for (BindingGraph child : graph.subgraphs()) {
       bindingGraphPath.addLast(child);
       try {
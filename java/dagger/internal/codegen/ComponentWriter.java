@@ -64,6 +64,7 @@ final class ComponentWriter extends AbstractComponentWriter {
         graph,
         new UniqueSubcomponentNamesGenerator(graph).generate(),
         new OptionalFactories(),
+        new StaticFrameworkFields(),
         new ComponentBindingExpressions(types),
         new ComponentRequirementFields());
   }
@@ -230,7 +231,7 @@ final class ComponentWriter extends AbstractComponentWriter {
   }
 
   @Override
-  protected boolean requiresReleasableReferences(Scope scope) {
+  public boolean requiresReleasableReferences(Scope scope) {
     return graph.scopesRequiringReleasableReferenceManagers().contains(scope);
   }
 }
@@ -85,6 +85,13 @@ abstract class ContributionBinding extends Binding implements HasContributionTyp
      */
     SYNTHETIC_MULTIBOUND_MAP,
 
+    /**
+     * A synthetic binding for a {@link dagger.multibindings.IntKeyMap} or {@link
+     * dagger.multibindings.LongKeyMap} that depends on the individual multibinding {@link
+     * Provides @Provides} methods of the equivalent {@code Map}.
+     */
+    SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP,
+
     /**
      * A binding (provision or production) that delegates from requests for one key to another.
      * These are the bindings that satisfy {@code @Binds} declarations.
@@ -150,16 +157,22 @@ abstract class ContributionBinding extends Binding implements HasContributionTyp
     ;
 
     static final ImmutableSet<Kind> SYNTHETIC_MULTIBOUND_KINDS =
-        immutableEnumSet(SYNTHETIC_MULTIBOUND_SET, SYNTHETIC_MULTIBOUND_MAP);
+        immutableEnumSet(
+            SYNTHETIC_MULTIBOUND_SET,
+            SYNTHETIC_MULTIBOUND_MAP,
+            SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP);
 
     /**
-     * {@link #SYNTHETIC_MULTIBOUND_SET} or {@link #SYNTHETIC_MULTIBOUND_MAP}, depending on the key.
+     * {@link #SYNTHETIC_MULTIBOUND_SET}, {@link #SYNTHETIC_MULTIBOUND_MAP}, or {@link
+     * #SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP}, depending on the key.
      */
     static Kind forMultibindingKey(Key key) {
       if (SetType.isSet(key)) {
         return SYNTHETIC_MULTIBOUND_SET;
       } else if (MapType.isMap(key)) {
         return SYNTHETIC_MULTIBOUND_MAP;
+      } else if (PrimitiveKeyedMapType.isPrimitiveKeyedMap(key)) {
+        return SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP;
       } else {
         throw new IllegalArgumentException(String.format("key is not for a set or map: %s", key));
       }
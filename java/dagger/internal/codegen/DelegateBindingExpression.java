@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
 import static dagger.internal.codegen.Scope.reusableScope;
+import static dagger.internal.codegen.Scope.threadScope;
 
 import com.squareup.javapoet.ClassName;
 import javax.lang.model.type.TypeMirror;
@@ -115,6 +116,7 @@ final class DelegateBindingExpression extends BindingExpression {
     UNSCOPED,
     RELEASABLE,
     SINGLE_CHECK,
+    THREAD_LOCAL,
     DOUBLE_CHECK,
     ;
 
@@ -124,6 +126,9 @@ final class DelegateBindingExpression extends BindingExpression {
       }
 
       Scope scope = binding.scope().get();
+      if (scope.equals(threadScope(elements))) {
+        return THREAD_LOCAL;
+      }
       if (graph.scopesRequiringReleasableReferenceManagers().contains(scope)) {
         return RELEASABLE;
       }
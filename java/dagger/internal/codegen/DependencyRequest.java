@@ -393,6 +393,11 @@ abstract class DependencyRequest {
         Key multibindingKey, ContributionBinding multibindingContribution) {
       switch (multibindingContribution.contributionType()) {
         case MAP:
+          if (PrimitiveKeyedMapType.isPrimitiveKeyedMap(multibindingKey)) {
+            return PrimitiveKeyedMapType.from(multibindingKey).valuesAreTypeOf(Provider.class)
+                ? Kind.PROVIDER
+                : Kind.INSTANCE;
+          }
           MapType mapType = MapType.from(multibindingKey);
           for (Kind kind : WRAPPING_MAP_VALUE_FRAMEWORK_TYPES) {
             if (mapType.valuesAreTypeOf(kind.frameworkClass.get())) {
@@ -511,6 +516,19 @@ abstract class DependencyRequest {
           .build();
     }
 
+    /**
+     * Returns a synthetic request for the {@link dagger.monitoring.ProvisionComponentMonitor} bound
+     * in a component, which no binding requests.
+     */
+    DependencyRequest forProvisionComponentMonitor() {
+      Key key = keyFactory.forProvisionComponentMonitor();
+      return DependencyRequest.builder()
+          .kind(Kind.PROVIDER)
+          .key(key)
+          .requestElement(MoreTypes.asElement(key.type()))
+          .build();
+    }
+
     /**
      * Returns a synthetic request for the present value of an optional binding generated from a
      * {@link dagger.BindsOptionalOf} declaration.
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package dagger.internal.codegen;
+
+import static com.google.auto.common.AnnotationMirrors.getAnnotationValue;
+
+import java.util.concurrent.TimeUnit;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.VariableElement;
+
+/**
+ * Methods for reading and validating annotations that specify a duration as a {@code long value()}
+ * and a {@link TimeUnit} {@code unit()}, such as {@link dagger.RefreshInterval @RefreshInterval}
+ * and {@link dagger.producers.ProducerTimeout @ProducerTimeout}.
+ */
+final class DurationAnnotations {
+
+  /** Returns the {@code value} of {@code duration}. */
+  static long value(AnnotationMirror duration) {
+    return ((Number) getAnnotationValue(duration, "value").getValue()).longValue();
+  }
+
+  /** Returns the {@code unit} of {@code duration}. */
+  static TimeUnit unit(AnnotationMirror duration) {
+    VariableElement unit = (VariableElement) getAnnotationValue(duration, "unit").getValue();
+    return TimeUnit.valueOf(unit.getSimpleName().toString());
+  }
+
+  /**
+   * Adds {@code notPositiveError} to {@code report} if the {@code value} of {@code duration}, which
+   * annotates {@code element}, is not positive.
+   */
+  static void validatePositive(
+      Element element,
+      AnnotationMirror duration,
+      String notPositiveError,
+      ValidationReport.Builder<?> report) {
+    if (value(duration) <= 0) {
+      report.addError(notPositiveError, element, duration, getAnnotationValue(duration, "value"));
+    }
+  }
+
+  private DurationAnnotations() {}
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static dagger.internal.codegen.CodeBlocks.makeParametersCodeBlock;
+import static dagger.internal.codegen.CodeBlocks.toParametersCodeBlock;
+import static dagger.internal.codegen.Scope.reusableScope;
+import static dagger.internal.codegen.Scope.threadScope;
+import static dagger.internal.codegen.TypeNames.EAGER_INITIALIZER;
+import static dagger.internal.codegen.TypeNames.EXECUTOR;
+import static dagger.internal.codegen.TypeNames.PROVIDER;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.lang.model.util.Elements;
+
+/**
+ * The {@code initializeEagerly(Executor)} method of a top-level component, which creates each of
+ * the component's scoped bindings with an {@link dagger.internal.EagerInitializer}.
+ *
+ * <p>Each scoped binding waits for the scoped bindings it depends on, directly or through unscoped
+ * bindings. Requests for a {@code Provider} or {@code Lazy} count as dependencies too, so bindings
+ * in a cycle, which are connected by {@link dagger.internal.DelegateFactory}s, are left to be
+ * created one at a time after the others.
+ */
+final class EagerInitializationMethod {
+  static final String METHOD_NAME = "initializeEagerly";
+
+  private final BindingGraph graph;
+  private final ImmutableMap<BindingKey, Integer> scopedBindingIndices;
+
+  private EagerInitializationMethod(
+      BindingGraph graph, ImmutableMap<BindingKey, Integer> scopedBindingIndices) {
+    this.graph = graph;
+    this.scopedBindingIndices = scopedBindingIndices;
+  }
+
+  /**
+   * Returns the {@code initializeEagerly(Executor)} method for the component, or empty if the
+   * component has no scoped bindings to create.
+   */
+  static Optional<MethodSpec> create(
+      BindingGraph graph,
+      ComponentBindingExpressions bindingExpressions,
+      ClassName componentName,
+      Elements elements) {
+    Scope reusable = reusableScope(elements);
+    Scope thread = threadScope(elements);
+    ImmutableMap.Builder<BindingKey, Integer> indices = ImmutableMap.builder();
+    int index = 0;
+    for (ResolvedBindings resolvedBindings : graph.resolvedBindings().values()) {
+      if (resolvedBindings.bindingKey().kind().equals(BindingKey.Kind.CONTRIBUTION)
+          && resolvedBindings.contributionBindings().size() == 1
+          && resolvedBindings.bindingType().equals(BindingType.PROVISION)) {
+        Optional<Scope> scope = resolvedBindings.contributionBinding().scope();
+        // @Reusable bindings may be created more than once, and @ThreadScoped bindings once per
+        // thread, so creating them early gains nothing.
+        if (scope.isPresent() && !scope.get().equals(reusable) && !scope.get().equals(thread)) {
+          indices.put(resolvedBindings.bindingKey(), index++);
+        }
+      }
+    }
+    ImmutableMap<BindingKey, Integer> scopedBindingIndices = indices.build();
+    if (scopedBindingIndices.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new EagerInitializationMethod(graph, scopedBindingIndices)
+            .method(bindingExpressions, componentName));
+  }
+
+  private MethodSpec method(
+      ComponentBindingExpressions bindingExpressions, ClassName componentName) {
+    ImmutableList.Builder<CodeBlock> providers = ImmutableList.builder();
+    ImmutableList.Builder<CodeBlock> dependencies = ImmutableList.builder();
+    for (BindingKey bindingKey : scopedBindingIndices.keySet()) {
+      providers.add(
+          bindingExpressions
+              .getDependencyExpression(bindingKey, DependencyRequest.Kind.PROVIDER, componentName)
+              .codeBlock());
+      dependencies.add(
+          CodeBlock.of(
+              "{$L}",
+              scopedDependencies(bindingKey)
+                  .stream()
+                  .map(i -> CodeBlock.of("$L", i))
+                  .collect(toParametersCodeBlock())));
+    }
+    return methodBuilder(METHOD_NAME)
+        .addJavadoc(
+            "Creates each of this component's scoped bindings, using {@code executor} to create "
+                + "bindings\nthat do not depend on each other concurrently. Returns once all of "
+                + "them have been created.\n")
+        .addModifiers(PUBLIC)
+        .addParameter(EXECUTOR, "executor")
+        .addStatement(
+            "$T.initialize(executor, new $T<?>[] {$L}, new int[][] {$L})",
+            EAGER_INITIALIZER,
+            PROVIDER,
+            makeParametersCodeBlock(providers.build()),
+            makeParametersCodeBlock(dependencies.build()))
+        .build();
+  }
+
+  /**
+   * Returns the indices of the scoped bindings that the binding for {@code bindingKey} depends on,
+   * either directly or through unscoped bindings.
+   */
+  private Set<Integer> scopedDependencies(BindingKey bindingKey) {
+    Set<Integer> scopedDependencies = new TreeSet<>();
+    Set<BindingKey> visited = new HashSet<>();
+    Deque<BindingKey> queue = new ArrayDeque<>();
+    addDependencies(bindingKey, queue);
+    while (!queue.isEmpty()) {
+      BindingKey dependency = queue.remove();
+      if (!visited.add(dependency)) {
+        continue;
+      }
+      Integer index = scopedBindingIndices.get(dependency);
+      if (index != null) {
+        scopedDependencies.add(index);
+      } else {
+        addDependencies(dependency, queue);
+      }
+    }
+    return scopedDependencies;
+  }
+
+  private void addDependencies(BindingKey bindingKey, Deque<BindingKey> queue) {
+    ResolvedBindings resolvedBindings = graph.resolvedBindings().get(bindingKey);
+    if (resolvedBindings == null) {
+      return;
+    }
+    for (Binding binding : resolvedBindings.bindings()) {
+      for (DependencyRequest dependency : binding.dependencies()) {
+        queue.add(dependency.bindingKey());
+      }
+    }
+  }
+}
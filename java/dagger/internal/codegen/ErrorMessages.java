@@ -77,6 +77,11 @@ final class ErrorMessages {
   /* scope */
   static final String MULTIPLE_SCOPES = "A single binding may not declare more than one @Scope.";
 
+  static final String REFRESH_INTERVAL_WITHOUT_SCOPE =
+      "@RefreshInterval may only be used on scoped bindings.";
+
+  static final String REFRESH_INTERVAL_NOT_POSITIVE = "@RefreshInterval values must be positive.";
+
   /*
    * Dagger errors
    *
@@ -169,6 +174,8 @@ final class ErrorMessages {
 
   static final String PRODUCES_METHOD_SCOPE = "@Produces methods may not have scope annotations.";
 
+  static final String PRODUCER_TIMEOUT_NOT_POSITIVE = "@ProducerTimeout values must be positive.";
+
   static final String BINDING_METHOD_THROWS =
       "@%s methods may only throw unchecked exceptions or exceptions subclassing Exception";
 
@@ -24,10 +24,13 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.squareup.javapoet.MethodSpec.constructorBuilder;
 import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static com.squareup.javapoet.TypeSpec.anonymousClassBuilder;
+import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
 import static dagger.internal.codegen.BindingType.PROVISION;
 import static dagger.internal.codegen.CodeBlocks.makeParametersCodeBlock;
 import static dagger.internal.codegen.ContributionBinding.Kind.INJECTION;
 import static dagger.internal.codegen.MapKeys.getMapKeyExpression;
+import static dagger.internal.codegen.MapKeys.getPrimitiveMapKeyValue;
+import static dagger.internal.codegen.MapKeys.getStringMapKeyValue;
 import static dagger.internal.codegen.MoreAnnotationMirrors.getTypeValue;
 import static dagger.internal.codegen.SourceFiles.generatedClassNameForBinding;
 import static dagger.internal.codegen.SourceFiles.mapFactoryClassName;
@@ -35,6 +38,9 @@ import static dagger.internal.codegen.SourceFiles.membersInjectorNameForType;
 import static dagger.internal.codegen.SourceFiles.setFactoryClassName;
 import static dagger.internal.codegen.SourceFiles.simpleVariableName;
 import static dagger.internal.codegen.TypeNames.INSTANCE_FACTORY;
+import static dagger.internal.codegen.TypeNames.MONITORED_PROVIDER;
+import static dagger.internal.codegen.TypeNames.PROVISION_TOKEN;
+import static dagger.internal.codegen.TypeNames.REFRESHING_CHECK;
 import static dagger.internal.codegen.TypeNames.TYPED_RELEASABLE_REFERENCE_MANAGER_DECORATOR;
 import static dagger.internal.codegen.TypeNames.listenableFutureOf;
 import static dagger.internal.codegen.TypeNames.producerOf;
@@ -42,6 +48,7 @@ import static dagger.internal.codegen.TypeNames.providerOf;
 import static dagger.internal.codegen.Util.toImmutableList;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 
@@ -49,11 +56,13 @@ import com.google.auto.common.MoreElements;
 import com.google.auto.common.MoreTypes;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Lists;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import dagger.internal.InstanceFactory;
@@ -67,6 +76,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import javax.inject.Provider;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.TypeElement;
@@ -86,6 +96,7 @@ final class FrameworkFieldInitializer {
   private final BindingGraph graph;
   private final boolean isProducerFromProvider;
   private final OptionalFactories optionalFactories;
+  private final ModuleFactoryHolders moduleFactoryHolders;
   private final ClassName componentName;
 
   FrameworkFieldInitializer(
@@ -96,6 +107,7 @@ final class FrameworkFieldInitializer {
       CompilerOptions compilerOptions,
       BindingGraph graph,
       OptionalFactories optionalFactories,
+      ModuleFactoryHolders moduleFactoryHolders,
       ClassName componentName) {
     this(
         generatedComponentModel,
@@ -106,6 +118,7 @@ final class FrameworkFieldInitializer {
         graph,
         false,
         optionalFactories,
+        moduleFactoryHolders,
         componentName);
   }
 
@@ -118,6 +131,7 @@ final class FrameworkFieldInitializer {
       BindingGraph graph,
       boolean isProducerFromProvider,
       OptionalFactories optionalFactories,
+      ModuleFactoryHolders moduleFactoryHolders,
       ClassName componentName) {
     this.generatedComponentModel = checkNotNull(generatedComponentModel);
     this.componentBindingExpressions = checkNotNull(componentBindingExpressions);
@@ -126,6 +140,7 @@ final class FrameworkFieldInitializer {
     this.compilerOptions = checkNotNull(compilerOptions);
     this.graph = checkNotNull(graph);
     this.optionalFactories = checkNotNull(optionalFactories);
+    this.moduleFactoryHolders = checkNotNull(moduleFactoryHolders);
     this.componentName = checkNotNull(componentName);
     this.isProducerFromProvider = isProducerFromProvider;
   }
@@ -165,7 +180,10 @@ final class FrameworkFieldInitializer {
         return generatedComponentModel.decorateForScope(
             delegatingCodeBlock, contributionBinding.scope());
       case SINGLETON_INSTANCE:
-        checkState(contributionBinding.scope().isPresent());
+        // Monitored bindings need a field even if their factory is a singleton.
+        checkState(
+            contributionBinding.scope().isPresent()
+                || graph.isProvisionMonitored(contributionBinding));
         // fall through
       case CLASS_CONSTRUCTOR:
         return factoryForContributionBindingInitialization(contributionBinding);
@@ -195,8 +213,8 @@ final class FrameworkFieldInitializer {
         return CodeBlock.of(
             "$T.create($L)",
             INSTANCE_FACTORY,
-            componentRequirementFields.getExpressionDuringInitialization(
-                ComponentRequirement.forDependency(binding.key().type()), componentName));
+            componentRequirementExpression(
+                ComponentRequirement.forDependency(binding.key().type())));
 
       case COMPONENT_PROVISION:
         {
@@ -242,8 +260,8 @@ final class FrameworkFieldInitializer {
           return CodeBlock.of(
               "new $L($L)",
               factoryName,
-              componentRequirementFields.getExpressionDuringInitialization(
-                  ComponentRequirement.forDependency(dependencyType.asType()), componentName));
+              componentRequirementExpression(
+                  ComponentRequirement.forDependency(dependencyType.asType())));
         }
 
       case SUBCOMPONENT_BUILDER:
@@ -271,8 +289,7 @@ final class FrameworkFieldInitializer {
             "$T.$L($L)",
             InstanceFactory.class,
             binding.nullableType().isPresent() ? "createNullable" : "create",
-            componentRequirementFields.getExpressionDuringInitialization(
-                ComponentRequirement.forBinding(binding), componentName));
+            componentRequirementExpression(ComponentRequirement.forBinding(binding)));
 
       case INJECTION:
       case PROVISION:
@@ -281,17 +298,24 @@ final class FrameworkFieldInitializer {
               Lists.newArrayListWithCapacity(binding.explicitDependencies().size() + 1);
           if (binding.requiresModuleInstance()) {
             arguments.add(
-                componentRequirementFields.getExpressionDuringInitialization(
-                    ComponentRequirement.forModule(binding.contributingModule().get().asType()),
-                    componentName));
+                componentRequirementExpression(
+                    ComponentRequirement.forModule(binding.contributingModule().get().asType())));
           }
           arguments.addAll(getBindingDependencyExpressions(binding));
 
+          Optional<ClassName> factoryHolder = moduleFactoryHolders.holderFor(binding);
           CodeBlock factoryCreate =
-              CodeBlock.of(
-                  "$T.create($L)",
-                  generatedClassNameForBinding(binding),
-                  makeParametersCodeBlock(arguments));
+              factoryHolder.isPresent()
+                  ? CodeBlock.of(
+                      "$T.$L($L)",
+                      factoryHolder.get(),
+                      ModuleFactoryHolders.factoryMethodName(
+                          MoreElements.asExecutable(binding.bindingElement().get())),
+                      makeParametersCodeBlock(arguments))
+                  : CodeBlock.of(
+                      "$T.create($L)",
+                      generatedClassNameForBinding(binding),
+                      makeParametersCodeBlock(arguments));
 
           // If scoping a parameterized factory for an @Inject class, Java 7 cannot always infer the
           // type properly, so cast to a raw framework type before scoping.
@@ -301,6 +325,37 @@ final class FrameworkFieldInitializer {
             factoryCreate =
                 CodeBlock.of("($T) $L", binding.bindingType().frameworkClass(), factoryCreate);
           }
+          // Monitor the factory before scoping it so that only new instances are reported.
+          if (graph.isProvisionMonitored(binding)) {
+            // Name the per-binding factory without loading it if the binding uses a holder.
+            CodeBlock token =
+                factoryHolder.isPresent()
+                    ? CodeBlock.of(
+                        "$T.create($S)",
+                        PROVISION_TOKEN,
+                        generatedClassNameForBinding(binding).reflectionName())
+                    : CodeBlock.of(
+                        "$T.create($T.class)",
+                        PROVISION_TOKEN,
+                        generatedClassNameForBinding(binding));
+            factoryCreate =
+                CodeBlock.of(
+                    "$T.create($L, $L, $L)",
+                    MONITORED_PROVIDER,
+                    factoryCreate,
+                    getDependencyExpression(
+                        FrameworkDependency.create(
+                            graph.provisionComponentMonitor().get().bindingKey(), PROVISION)),
+                    token);
+          }
+          OptionalLong refreshIntervalNanos = ((ProvisionBinding) binding).refreshIntervalNanos();
+          if (refreshIntervalNanos.isPresent()) {
+            return CodeBlock.of(
+                "$T.provider($L, $LL)",
+                REFRESHING_CHECK,
+                factoryCreate,
+                refreshIntervalNanos.getAsLong());
+          }
           return generatedComponentModel.decorateForScope(factoryCreate, binding.scope());
         }
 
@@ -314,9 +369,8 @@ final class FrameworkFieldInitializer {
                       PRIVATE,
                       FINAL)
                   .initializer(
-                      componentRequirementFields.getExpressionDuringInitialization(
-                          ComponentRequirement.forDependency(dependencyType.asType()),
-                          componentName))
+                      componentRequirementExpression(
+                          ComponentRequirement.forDependency(dependencyType.asType())))
                   .build();
           return CodeBlock.of(
               "$L",
@@ -342,9 +396,8 @@ final class FrameworkFieldInitializer {
               Lists.newArrayListWithCapacity(binding.dependencies().size() + 2);
           if (binding.requiresModuleInstance()) {
             arguments.add(
-                componentRequirementFields.getExpressionDuringInitialization(
-                    ComponentRequirement.forModule(binding.contributingModule().get().asType()),
-                    componentName));
+                componentRequirementExpression(
+                    ComponentRequirement.forModule(binding.contributingModule().get().asType())));
           }
           arguments.addAll(getBindingDependencyExpressions(binding));
 
@@ -358,7 +411,12 @@ final class FrameworkFieldInitializer {
         return factoryForSetMultibindingInitialization(binding);
 
       case SYNTHETIC_MULTIBOUND_MAP:
-        return factoryForMapMultibindingInitialization(binding);
+        return usesStringKeySwitchMap(binding, compilerOptions, componentName)
+            ? factoryForStringKeySwitchMapInitialization(binding)
+            : factoryForMapMultibindingInitialization(binding);
+
+      case SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP:
+        return factoryForPrimitiveKeyedMapMultibindingInitialization(binding);
 
       case SYNTHETIC_RELEASABLE_REFERENCE_MANAGER:
         return factoryForSyntheticReleasableReferenceManagerBindingInitialization(binding);
@@ -445,7 +503,11 @@ final class FrameworkFieldInitializer {
     }
 
     if (binding.bindingType().equals(BindingType.PROVISION)) {
-      builderCall.add("builder($L)", frameworkDependencies.size());
+      if (useEnumMap(mapType)) {
+        builderCall.add("builder($T.class)", mapType.keyType());
+      } else {
+        builderCall.add("builder($L)", frameworkDependencies.size());
+      }
     } else {
       builderCall.add("builder()");
     }
@@ -469,6 +531,138 @@ final class FrameworkFieldInitializer {
     return CodeBlocks.concat(codeBlocks.build());
   }
 
+  /**
+   * Returns {@code true} if {@code binding} is a {@code Map<String, Provider<V>>} multibinding that
+   * should be a {@link dagger.internal.StringKeySwitchMap} subclass generated in the component.
+   *
+   * @see CompilerOptions#stringKeySwitchMaps()
+   */
+  static boolean usesStringKeySwitchMap(
+      ContributionBinding binding, CompilerOptions compilerOptions, ClassName componentName) {
+    if (!compilerOptions.stringKeySwitchMaps()
+        || !binding.bindingKind().equals(ContributionBinding.Kind.SYNTHETIC_MULTIBOUND_MAP)
+        || !binding.bindingType().equals(PROVISION)
+        || binding.dependencies().isEmpty()) {
+      return false;
+    }
+    MapType mapType = MapType.from(binding.key());
+    Optional<String> bindingPackage = binding.bindingPackage();
+    return MoreTypes.isTypeOf(String.class, mapType.keyType())
+        && mapType.valuesAreTypeOf(Provider.class)
+        && (!bindingPackage.isPresent()
+            || bindingPackage.get().equals(componentName.packageName()));
+  }
+
+  /**
+   * Initializes the factory for a {@code Map<String, Provider<V>>} multibinding whose map is an
+   * anonymous {@link dagger.internal.StringKeySwitchMap} that finds the index of a key with a
+   * {@code switch} on its string constant. The map never changes, so its factory is an {@link
+   * InstanceFactory}.
+   */
+  private CodeBlock factoryForStringKeySwitchMapInitialization(ContributionBinding binding) {
+    ImmutableList<FrameworkDependency> frameworkDependencies = binding.frameworkDependencies();
+    CodeBlock.Builder indexOfSwitch = CodeBlock.builder().beginControlFlow("switch (key)");
+    ImmutableList.Builder<CodeBlock> keys = ImmutableList.builder();
+    ImmutableList.Builder<CodeBlock> values = ImmutableList.builder();
+    for (int i = 0; i < frameworkDependencies.size(); i++) {
+      FrameworkDependency frameworkDependency = frameworkDependencies.get(i);
+      String key =
+          getStringMapKeyValue(
+              graph.resolvedBindings().get(frameworkDependency.bindingKey()).contributionBinding());
+      indexOfSwitch.addStatement("case $S: return $L", key, i);
+      keys.add(CodeBlock.of("$S", key));
+      values.add(getDependencyExpression(frameworkDependency));
+    }
+    indexOfSwitch.addStatement("default: return -1").endControlFlow();
+
+    MapType mapType = MapType.from(binding.key());
+    TypeSpec map =
+        anonymousClassBuilder(
+                "new $T[] {$L}, new $T[] {$L}",
+                String.class,
+                makeParametersCodeBlock(keys.build()),
+                Object.class,
+                makeParametersCodeBlock(values.build()))
+            .superclass(
+                ParameterizedTypeName.get(
+                    TypeNames.STRING_KEY_SWITCH_MAP, TypeName.get(mapType.valueType())))
+            .addMethod(
+                methodBuilder("indexOf")
+                    .addAnnotation(Override.class)
+                    .addModifiers(PROTECTED)
+                    .returns(int.class)
+                    .addParameter(String.class, "key")
+                    .addCode(indexOfSwitch.build())
+                    .build())
+            .build();
+    return CodeBlock.of(
+        "$T.<$T>create($L)", INSTANCE_FACTORY, TypeName.get(binding.key().type()), map);
+  }
+
+  /**
+   * Initializes the factory for an {@link dagger.multibindings.IntKeyMap} or {@link
+   * dagger.multibindings.LongKeyMap} multibinding. The contributions are added in ascending key
+   * order, so the map can be built without sorting at runtime.
+   *
+   * <p>Maps of providers never change, so their factory is an {@link InstanceFactory}.
+   */
+  private CodeBlock factoryForPrimitiveKeyedMapMultibindingInitialization(
+      ContributionBinding binding) {
+    PrimitiveKeyedMapType mapType = PrimitiveKeyedMapType.from(binding.key());
+    boolean valuesAreProviders = mapType.valuesAreTypeOf(Provider.class);
+    ImmutableSortedMap.Builder<Long, FrameworkDependency> frameworkDependenciesByKey =
+        ImmutableSortedMap.naturalOrder();
+    for (FrameworkDependency frameworkDependency : binding.frameworkDependencies()) {
+      frameworkDependenciesByKey.put(
+          getPrimitiveMapKeyValue(
+              graph.resolvedBindings().get(frameworkDependency.bindingKey()).contributionBinding()),
+          frameworkDependency);
+    }
+
+    CodeBlock.Builder builderCall = CodeBlock.builder();
+    if (valuesAreProviders) {
+      builderCall.add("$T.create(", INSTANCE_FACTORY);
+    }
+    builderCall.add(
+        "$T.",
+        valuesAreProviders
+            ? mapType.keyKind().arrayMapClassName()
+            : mapType.keyKind().factoryClassName());
+    boolean useRawTypes = useRawType();
+    if (!useRawTypes) {
+      builderCall.add("<$T>", mapType.valueType());
+    }
+    builderCall.add("builder($L)", binding.frameworkDependencies().size());
+    frameworkDependenciesByKey
+        .build()
+        .forEach(
+            (key, frameworkDependency) ->
+                builderCall.add(
+                    ".put($L, $L)",
+                    mapType.keyKind().keyLiteral(key),
+                    potentiallyCast(
+                        useRawTypes,
+                        frameworkDependency.frameworkClass(),
+                        getDependencyExpression(frameworkDependency))));
+    builderCall.add(".build()");
+    if (valuesAreProviders) {
+      builderCall.add(")");
+    }
+    return builderCall.build();
+  }
+
+  /**
+   * Returns {@code true} if the map for a multibinding should be an {@link java.util.EnumMap},
+   * which requires that the component can refer to the key type's class literal.
+   *
+   * @see CompilerOptions#enumKeyedMaps()
+   */
+  private boolean useEnumMap(MapType mapType) {
+    return compilerOptions.enumKeyedMaps()
+        && mapType.keysAreEnums()
+        && isTypeAccessibleFrom(mapType.keyType(), componentName.packageName());
+  }
+
   // TODO(ronshapiro): Use functionality from Expression
   private CodeBlock potentiallyCast(boolean shouldCast, Class<?> classToCast, CodeBlock notCasted) {
     if (!shouldCast) {
@@ -620,6 +814,27 @@ final class FrameworkFieldInitializer {
     return dependencies.stream().map(this::getDependencyExpression).collect(toImmutableList());
   }
 
+  /**
+   * Returns an expression for {@code requirement}. Fields that are initialized outside of the
+   * {@code initialize()} methods cannot use the component builder.
+   */
+  private CodeBlock componentRequirementExpression(ComponentRequirement requirement) {
+    return defersInitialization(compilerOptions, graph)
+        ? componentRequirementFields.getExpression(requirement, componentName)
+        : componentRequirementFields.getExpressionDuringInitialization(requirement, componentName);
+  }
+
+  /**
+   * Returns {@code true} if the component for {@code graph} initializes its framework fields the
+   * first time they are used instead of in its {@code initialize()} methods.
+   *
+   * @see CompilerOptions#deferredSubcomponentFields()
+   */
+  static boolean defersInitialization(CompilerOptions compilerOptions, BindingGraph graph) {
+    return compilerOptions.deferredSubcomponentFields()
+        && !graph.componentDescriptor().kind().isTopLevel();
+  }
+
   /** Returns a code block referencing the given dependency. */
   private CodeBlock getDependencyExpression(FrameworkDependency frameworkDependency) {
     return componentBindingExpressions
@@ -637,6 +852,7 @@ final class FrameworkFieldInitializer {
         graph,
         true,
         optionalFactories,
+        moduleFactoryHolders,
         componentName);
   }
 }
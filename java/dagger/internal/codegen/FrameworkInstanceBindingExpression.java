@@ -16,15 +16,23 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
+import static dagger.internal.codegen.AnnotationSpecs.Suppression.RAWTYPES;
+import static dagger.internal.codegen.AnnotationSpecs.Suppression.UNCHECKED;
 import static dagger.internal.codegen.TypeNames.DELEGATE_FACTORY;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
 import dagger.internal.DelegateFactory;
 import java.util.Optional;
 import javax.lang.model.type.DeclaredType;
@@ -35,9 +43,11 @@ import javax.lang.model.util.Elements;
 final class FrameworkInstanceBindingExpression extends BindingExpression {
   private final Optional<FieldSpec> fieldSpec;
   private final GeneratedComponentModel generatedComponentModel;
-  private final MemberSelect memberSelect;
+  private MemberSelect memberSelect;
   private final FrameworkType frameworkType;
   private final FrameworkFieldInitializer fieldInitializer;
+  private final boolean deferredInitialization;
+  private final Optional<StaticFrameworkFields> staticFrameworkFields;
   private final DaggerTypes types;
   private final Elements elements;
   private InitializationState fieldInitializationState = InitializationState.UNINITIALIZED;
@@ -58,6 +68,62 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
         memberSelect,
         resolvedBindings.bindingType().frameworkType(),
         frameworkFieldInitializer,
+        false,
+        Optional.empty(),
+        types,
+        elements);
+  }
+
+  /**
+   * Returns a binding expression for a binding whose field is initialized by a method that creates
+   * the framework instance the first time that it is called, instead of in the component's {@code
+   * initialize()} methods.
+   */
+  static FrameworkInstanceBindingExpression createDeferred(
+      ResolvedBindings resolvedBindings,
+      FieldSpec fieldSpec,
+      ClassName componentName,
+      GeneratedComponentModel generatedComponentModel,
+      FrameworkFieldInitializer frameworkFieldInitializer,
+      DaggerTypes types,
+      Elements elements) {
+    return new FrameworkInstanceBindingExpression(
+        resolvedBindings,
+        Optional.of(fieldSpec),
+        generatedComponentModel,
+        MemberSelect.localField(componentName, fieldSpec.name),
+        resolvedBindings.bindingType().frameworkType(),
+        frameworkFieldInitializer,
+        true,
+        Optional.empty(),
+        types,
+        elements);
+  }
+
+  /**
+   * Returns a binding expression for a binding whose framework instance is held in one of the
+   * {@link StaticFrameworkFields} of the top-level component.
+   *
+   * @param fieldSpec the field, named by {@link StaticFrameworkFields#getUniqueFieldName(String)}
+   */
+  static FrameworkInstanceBindingExpression createStatic(
+      ResolvedBindings resolvedBindings,
+      FieldSpec fieldSpec,
+      ClassName topLevelComponentName,
+      StaticFrameworkFields staticFrameworkFields,
+      GeneratedComponentModel generatedComponentModel,
+      FrameworkFieldInitializer frameworkFieldInitializer,
+      DaggerTypes types,
+      Elements elements) {
+    return new FrameworkInstanceBindingExpression(
+        resolvedBindings,
+        Optional.of(fieldSpec),
+        generatedComponentModel,
+        MemberSelect.staticField(topLevelComponentName, fieldSpec.name),
+        resolvedBindings.bindingType().frameworkType(),
+        frameworkFieldInitializer,
+        false,
+        Optional.of(staticFrameworkFields),
         types,
         elements);
   }
@@ -69,6 +135,8 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
       MemberSelect memberSelect,
       FrameworkType frameworkType,
       FrameworkFieldInitializer fieldInitializer,
+      boolean deferredInitialization,
+      Optional<StaticFrameworkFields> staticFrameworkFields,
       DaggerTypes types,
       Elements elements) {
     super(resolvedBindings);
@@ -77,6 +145,8 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
     this.fieldSpec = fieldSpec;
     this.frameworkType = frameworkType;
     this.fieldInitializer = fieldInitializer;
+    this.deferredInitialization = deferredInitialization;
+    this.staticFrameworkFields = staticFrameworkFields;
     this.types = types;
     this.elements = elements;
   }
@@ -91,6 +161,8 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
         MemberSelect.localField(componentName, fieldSpec.name),
         FrameworkType.PRODUCER,
         fieldInitializer.forProducerFromProvider(),
+        false,
+        Optional.empty(),
         types,
         elements);
   }
@@ -141,7 +213,7 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
    * determine the type that is returned from the {@code Foo_Factory.create()} method.
    */
   private boolean isInlinedFactoryCreation() {
-    return memberSelect.staticMember();
+    return memberSelect.staticMember() && !fieldSpec.isPresent();
   }
 
   private DeclaredType rawFrameworkType() {
@@ -187,12 +259,30 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
       case UNINITIALIZED:
         // Change our state in case we are recursively invoked via initializeBindingExpression
         setFieldInitializationState(InitializationState.INITIALIZING);
+        String methodName = null;
+        if (deferredInitialization) {
+          // Name the method before initializing the field, which may request the field again.
+          methodName =
+              generatedComponentModel.getUniqueMethodName(
+                  "get" + LOWER_CAMEL.to(UPPER_CAMEL, fieldName()));
+          memberSelect = MemberSelect.localMethod(memberSelect.owningClass(), methodName);
+        }
+        CodeBlock fieldInitialization = checkNotNull(fieldInitializer.getFieldInitialization());
+        if (staticFrameworkFields.isPresent()) {
+          // Static fields are only used for bindings that are not part of a dependency cycle.
+          checkState(fieldInitializationState.equals(InitializationState.INITIALIZING));
+          staticFrameworkFields.get().addField(fieldSpec.get(), fieldInitialization);
+          setFieldInitializationState(InitializationState.INITIALIZED);
+          break;
+        }
+        if (deferredInitialization) {
+          addDeferredInitializationMethod(methodName, fieldInitialization);
+          setFieldInitializationState(InitializationState.INITIALIZED);
+          break;
+        }
+
         CodeBlock.Builder codeBuilder = CodeBlock.builder();
-        CodeBlock initCode =
-            CodeBlock.of(
-                "this.$L = $L;",
-                fieldName(),
-                checkNotNull(fieldInitializer.getFieldInitialization()));
+        CodeBlock initCode = CodeBlock.of("this.$L = $L;", fieldName(), fieldInitialization);
 
         if (fieldInitializationState == InitializationState.DELEGATED) {
           // If we were recursively invoked, set the delegate factory as part of our initialization
@@ -212,9 +302,12 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
         break;
 
       case INITIALIZING:
-        // We were recursively invoked, so create a delegate factory instead
-        generatedComponentModel.addInitialization(
-            CodeBlock.of("this.$L = new $T<>();", fieldName(), DELEGATE_FACTORY));
+        // We were recursively invoked, so create a delegate factory instead. Deferred fields create
+        // it in their initialization method.
+        if (!deferredInitialization) {
+          generatedComponentModel.addInitialization(
+              CodeBlock.of("this.$L = new $T<>();", fieldName(), DELEGATE_FACTORY));
+        }
         setFieldInitializationState(InitializationState.DELEGATED);
         break;
 
@@ -226,6 +319,71 @@ final class FrameworkInstanceBindingExpression extends BindingExpression {
     }
   }
 
+  /**
+   * Adds a {@code volatile} field and a method that sets it the first time that it is called:
+   *
+   * <pre><code>
+   *   private Provider&lt;Foo&gt; getFooProvider() {
+   *     Provider&lt;Foo&gt; fooProvider = this.fooProvider;
+   *     if (fooProvider == null) {
+   *       synchronized (this) {
+   *         fooProvider = this.fooProvider;
+   *         if (fooProvider == null) {
+   *           fooProvider = Foo_Factory.create(getBarProvider());
+   *           this.fooProvider = fooProvider;
+   *         }
+   *       }
+   *     }
+   *     return fooProvider;
+   *   }
+   * </code></pre>
+   *
+   * <p>The lock ensures that a scoped provider is only created once. If the field's initialization
+   * depends on the field itself, the method is called again while the lock is held, so it returns
+   * a {@link DelegateFactory} that is set once the field is initialized.
+   */
+  private void addDeferredInitializationMethod(String methodName, CodeBlock fieldInitialization) {
+    FieldSpec field = fieldSpec.get().toBuilder().addModifiers(VOLATILE).build();
+    generatedComponentModel.addField(field);
+    MethodSpec.Builder method =
+        methodBuilder(methodName)
+            .addModifiers(PRIVATE)
+            .returns(field.type)
+            .addStatement("$T $N = this.$N", field.type, field, field)
+            .beginControlFlow("if ($N == null)", field)
+            .beginControlFlow("synchronized (this)")
+            .addStatement("$N = this.$N", field, field)
+            .beginControlFlow("if ($N == null)", field);
+    if (fieldInitializationState.equals(InitializationState.DELEGATED)) {
+      FieldSpec delegate =
+          FieldSpec.builder(
+                  DELEGATE_FACTORY,
+                  generatedComponentModel.getUniqueFieldName(fieldName() + "Delegate"),
+                  PRIVATE)
+              .addAnnotation(AnnotationSpecs.suppressWarnings(RAWTYPES))
+              .build();
+      generatedComponentModel.addField(delegate);
+      method
+          .addAnnotation(AnnotationSpecs.suppressWarnings(RAWTYPES, UNCHECKED))
+          .beginControlFlow("if ($N != null)", delegate)
+          .addStatement("return $N", delegate)
+          .endControlFlow()
+          .addStatement("$N = new $T()", delegate, DELEGATE_FACTORY)
+          .addStatement("$N = $L", field, fieldInitialization)
+          .addStatement("$N.setDelegatedProvider($N)", delegate, field);
+    } else {
+      method.addStatement("$N = $L", field, fieldInitialization);
+    }
+    generatedComponentModel.addMethod(
+        method
+            .addStatement("this.$N = $N", field, field)
+            .endControlFlow()
+            .endControlFlow()
+            .endControlFlow()
+            .addStatement("return $N", field)
+            .build());
+  }
+
   /** Initialization state for a factory field. */
   private enum InitializationState {
     /** The field is {@code null}. */
@@ -37,7 +37,8 @@ interface GeneratedComponentModel {
   /** Adds the given type to the component. */
   void addType(TypeSpec typeSpec);
 
-  // TODO(user): add getUniqueFieldName(String name).
+  /** Returns a unique field name for the component based on the given name. */
+  String getUniqueFieldName(String name);
 
   /** Returns a unique method name for the component based on the given name. */
   String getUniqueMethodName(String name);
@@ -61,4 +62,10 @@ interface GeneratedComponentModel {
    * object for a scope.
    */
   CodeBlock getReferenceReleasingProviderManagerExpression(Scope scope);
+
+  /**
+   * Returns {@code true} if {@code scope} is in {@link
+   * BindingGraph#scopesRequiringReleasableReferenceManagers()} for the root graph.
+   */
+  boolean requiresReleasableReferences(Scope scope);
 }
@@ -39,6 +39,7 @@ import static dagger.internal.codegen.ErrorMessages.provisionMayNotDependOnProdu
 import static dagger.internal.codegen.InjectionAnnotations.getQualifiers;
 import static dagger.internal.codegen.InjectionAnnotations.getScopes;
 import static dagger.internal.codegen.InjectionAnnotations.injectedConstructors;
+import static dagger.internal.codegen.RefreshIntervals.validateRefreshInterval;
 import static javax.lang.model.element.Modifier.ABSTRACT;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
@@ -170,6 +171,7 @@ final class InjectValidator {
         builder.addError(MULTIPLE_SCOPES, enclosingElement, scope);
       }
     }
+    validateRefreshInterval(enclosingElement, builder);
 
     return builder.build();
   }
@@ -132,12 +132,16 @@ final class InjectionMethods {
     /**
      * Invokes the injection method for {@code binding}, with the dependencies transformed with the
      * {@code dependencyUsage} function.
+     *
+     * @param factoryHolder the {@linkplain ModuleFactoryHolders module factory holder} that has the
+     *     injection method, if it should be used instead of the binding's factory class
      */
     static CodeBlock invoke(
         ProvisionBinding binding,
         Function<DependencyRequest, CodeBlock> dependencyUsage,
         ClassName requestingClass,
-        Optional<CodeBlock> moduleReference) {
+        Optional<CodeBlock> moduleReference,
+        Optional<ClassName> factoryHolder) {
       ImmutableList.Builder<CodeBlock> arguments = ImmutableList.builder();
       moduleReference.ifPresent(arguments::add);
       arguments.addAll(
@@ -146,7 +150,7 @@ final class InjectionMethods {
       return callInjectionMethod(
           create(binding).get().name,
           arguments.build(),
-          generatedClassNameForBinding(binding),
+          factoryHolder.orElse(generatedClassNameForBinding(binding)),
           requestingClass);
     }
 
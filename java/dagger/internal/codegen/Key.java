@@ -46,6 +46,7 @@ import com.google.common.collect.Multimaps;
 import com.google.common.util.concurrent.ListenableFuture;
 import dagger.Binds;
 import dagger.BindsOptionalOf;
+import dagger.monitoring.ProvisionComponentMonitor;
 import dagger.multibindings.Multibinds;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
@@ -524,6 +525,10 @@ abstract class Key {
       return builder(getClassElement(ProductionComponentMonitor.class).asType()).build();
     }
 
+    Key forProvisionComponentMonitor() {
+      return builder(getClassElement(ProvisionComponentMonitor.class).asType()).build();
+    }
+
     /**
      * If {@code requestKey} is for a {@code Map<K, V>} or {@code Map<K, Produced<V>>}, returns keys
      * for {@code Map<K, Provider<V>>} and {@code Map<K, Producer<V>>} (if Dagger-Producers is on
@@ -561,6 +566,38 @@ abstract class Key {
           wrapMapKey(possibleMapKey, Producer.class));
     }
 
+    /**
+     * Optionally extract a {@link Key} for the map multibinding that populates an {@link
+     * dagger.multibindings.IntKeyMap} or {@link dagger.multibindings.LongKeyMap}. Specifically, if
+     * the key represents an {@code IntKeyMap<V>} or {@code IntKeyMap<Provider<V>>}, a key of
+     * {@code Map<Integer, Provider<V>>} with the same qualifier will be returned, and likewise
+     * {@code Map<Long, Provider<V>>} for a {@code LongKeyMap}.
+     */
+    Optional<Key> implicitMapProviderKeyFromPrimitiveKeyedMap(Key possiblePrimitiveKeyedMapKey) {
+      if (!PrimitiveKeyedMapType.isPrimitiveKeyedMap(possiblePrimitiveKeyedMapKey)) {
+        return Optional.empty();
+      }
+      PrimitiveKeyedMapType mapType = PrimitiveKeyedMapType.from(possiblePrimitiveKeyedMapKey);
+      if (mapType.isRawType()
+          || mapType.valuesAreTypeOf(Producer.class)
+          || mapType.valuesAreTypeOf(Produced.class)) {
+        return Optional.empty();
+      }
+      TypeMirror valueType =
+          mapType.valuesAreTypeOf(Provider.class)
+              ? mapType.unwrappedValueType(Provider.class)
+              : mapType.valueType();
+      return Optional.of(
+          possiblePrimitiveKeyedMapKey
+              .toBuilder()
+              .type(
+                  mapOfFrameworkType(
+                      getClassElement(mapType.keyKind().boxedKeyClass()).asType(),
+                      getClassElement(Provider.class),
+                      valueType))
+              .build());
+    }
+
     /**
      * Keys for map contributions from {@link dagger.Provides} and {@link dagger.producers.Produces}
      * are in the form {@code Map<K, Framework<V>>}, but keys for {@link Binds} methods are just
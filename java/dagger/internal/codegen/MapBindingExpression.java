@@ -41,6 +41,7 @@ final class MapBindingExpression extends SimpleInvocationBindingExpression {
   private final ProvisionBinding binding;
   private final ImmutableMap<DependencyRequest, ContributionBinding> dependencies;
   private final ComponentBindingExpressions componentBindingExpressions;
+  private final CompilerOptions compilerOptions;
   private final Elements elements;
 
   MapBindingExpression(
@@ -48,6 +49,7 @@ final class MapBindingExpression extends SimpleInvocationBindingExpression {
       BindingGraph graph,
       ComponentBindingExpressions componentBindingExpressions,
       BindingExpression delegate,
+      CompilerOptions compilerOptions,
       DaggerTypes types,
       Elements elements) {
     super(delegate, types);
@@ -55,6 +57,7 @@ final class MapBindingExpression extends SimpleInvocationBindingExpression {
     checkArgument(bindingKind.equals(SYNTHETIC_MULTIBOUND_MAP), bindingKind);
     this.binding = binding;
     this.componentBindingExpressions = componentBindingExpressions;
+    this.compilerOptions = compilerOptions;
     this.elements = elements;
     this.dependencies =
         Maps.toMap(
@@ -71,7 +74,18 @@ final class MapBindingExpression extends SimpleInvocationBindingExpression {
   private CodeBlock mapExpression(ClassName requestingClass) {
     // TODO(ronshapiro): We should also make an ImmutableMap version of MapFactory
     boolean isImmutableMapAvailable = isImmutableMapAvailable();
-    // TODO(ronshapiro, gak): Use Maps.immutableEnumMap() if it's available?
+    if (dependencies.size() > 1 && useEnumMap(requestingClass)) {
+      // An EnumMap is smaller than an ImmutableMap and looks up keys by ordinal, without hashing.
+      CodeBlock.Builder instantiation =
+          CodeBlock.builder()
+              .add("$T.", MapBuilder.class)
+              .add(maybeTypeParameters(requestingClass))
+              .add("newEnumMapBuilder($T.class)", MapType.from(binding.key()).keyType());
+      for (DependencyRequest dependency : dependencies.keySet()) {
+        instantiation.add(".put($L)", keyAndValueExpression(dependency, requestingClass));
+      }
+      return instantiation.add(".build()").build();
+    }
     if (isImmutableMapAvailable && dependencies.size() <= MAX_IMMUTABLE_MAP_OF_KEY_VALUE_PAIRS) {
       return CodeBlock.builder()
           .add("$T.", ImmutableMap.class)
@@ -138,6 +152,13 @@ final class MapBindingExpression extends SimpleInvocationBindingExpression {
         : CodeBlock.of("");
   }
 
+  private boolean useEnumMap(ClassName requestingClass) {
+    MapType mapType = MapType.from(binding.key());
+    return compilerOptions.enumKeyedMaps()
+        && mapType.keysAreEnums()
+        && isTypeAccessibleFrom(mapType.keyType(), requestingClass.packageName());
+  }
+
   private boolean isImmutableMapAvailable() {
     return elements.getTypeElement(ImmutableMap.class.getCanonicalName()) != null;
   }
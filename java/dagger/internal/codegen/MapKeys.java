@@ -152,6 +152,47 @@ final class MapKeys {
         : CodeBlock.of("$T.mapKey()", generatedClassNameForBinding(binding));
   }
 
+  /**
+   * Returns the value of {@code binding}'s {@link ContributionBinding#mapKey() map key} for a
+   * contribution to a map with {@code int} or {@code long} keys, such as the value of an {@link
+   * dagger.multibindings.IntKey @IntKey}.
+   *
+   * @throws IllegalArgumentException if the map key is not unwrapped or its value is not an {@code
+   *     int} or {@code long}
+   * @throws IllegalStateException if {@code binding} is not a {@link dagger.multibindings.IntoMap
+   *     map} contribution.
+   */
+  static long getPrimitiveMapKeyValue(ContributionBinding binding) {
+    AnnotationMirror mapKeyAnnotation = binding.mapKey().get();
+    Optional<? extends AnnotationValue> unwrappedValue = unwrapValue(mapKeyAnnotation);
+    checkArgument(unwrappedValue.isPresent(), "%s is not unwrapped", mapKeyAnnotation);
+    Object value = unwrappedValue.get().getValue();
+    checkArgument(
+        value instanceof Integer || value instanceof Long,
+        "%s is not an int or long map key",
+        mapKeyAnnotation);
+    return ((Number) value).longValue();
+  }
+
+  /**
+   * Returns the value of {@code binding}'s {@link ContributionBinding#mapKey() map key} for a
+   * contribution to a map with {@link String} keys, such as the value of a {@link
+   * dagger.multibindings.StringKey @StringKey}.
+   *
+   * @throws IllegalArgumentException if the map key is not unwrapped or its value is not a {@link
+   *     String}
+   * @throws IllegalStateException if {@code binding} is not a {@link dagger.multibindings.IntoMap
+   *     map} contribution.
+   */
+  static String getStringMapKeyValue(ContributionBinding binding) {
+    AnnotationMirror mapKeyAnnotation = binding.mapKey().get();
+    Optional<? extends AnnotationValue> unwrappedValue = unwrapValue(mapKeyAnnotation);
+    checkArgument(unwrappedValue.isPresent(), "%s is not unwrapped", mapKeyAnnotation);
+    Object value = unwrappedValue.get().getValue();
+    checkArgument(value instanceof String, "%s is not a String map key", mapKeyAnnotation);
+    return (String) value;
+  }
+
   /**
    * Returns a code block for the map key annotation {@code mapKey}.
    *
@@ -23,7 +23,9 @@ import com.google.auto.common.MoreTypes;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Equivalence;
 import java.util.Map;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 
 /**
@@ -71,6 +73,16 @@ abstract class MapType {
     return declaredMapType().getTypeArguments().get(1);
   }
 
+  /**
+   * {@code true} if {@link #keyType()} is an enum type.
+   *
+   * @throws IllegalStateException if {@link #isRawType()} is true.
+   */
+  boolean keysAreEnums() {
+    return keyType().getKind().equals(TypeKind.DECLARED)
+        && MoreTypes.asElement(keyType()).getKind().equals(ElementKind.ENUM);
+  }
+
   /**
    * {@code true} if {@link #valueType()} is a {@code clazz}.
    * 
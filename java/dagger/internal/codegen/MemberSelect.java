@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static com.google.auto.common.MoreElements.asExecutable;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
 import static dagger.internal.codegen.CodeBlocks.toTypeNamesCodeBlock;
@@ -75,13 +76,47 @@ abstract class MemberSelect {
     }
   }
 
+  /**
+   * Returns a {@link MemberSelect} that calls the no-arg method {@code methodName} owned by {@code
+   * owningClass}. As with {@link #localField(ClassName, String)}, it is only valid from the
+   * owning type or a type that it encloses.
+   */
+  static MemberSelect localMethod(ClassName owningClass, String methodName) {
+    return new LocalMethod(owningClass, methodName);
+  }
+
+  private static final class LocalMethod extends MemberSelect {
+    final String methodName;
+
+    LocalMethod(ClassName owningClass, String methodName) {
+      super(owningClass, false);
+      this.methodName = checkNotNull(methodName);
+    }
+
+    @Override
+    CodeBlock getExpressionFor(ClassName usingClass) {
+      return owningClass().equals(usingClass)
+          ? CodeBlock.of("$L()", methodName)
+          : CodeBlock.of("$T.this.$L()", owningClass(), methodName);
+    }
+  }
+
+  /**
+   * Returns a {@link MemberSelect} for the {@code static} field given by {@code fieldName} owned by
+   * {@code owningClass}.
+   */
+  static MemberSelect staticField(ClassName owningClass, String fieldName) {
+    return new StaticMethod(owningClass, CodeBlock.of("$L", fieldName));
+  }
+
   /**
    * If {@code resolvedBindings} is an unscoped provision binding with no factory arguments or a
    * no-op members injection binding, then we don't need a field to hold its factory. In that case,
    * this method returns the static member select that returns the factory or no-op members
    * injector.
    */
-  static Optional<MemberSelect> staticMemberSelect(ResolvedBindings resolvedBindings) {
+  static Optional<MemberSelect> staticMemberSelect(
+      ResolvedBindings resolvedBindings, ModuleFactoryHolders moduleFactoryHolders) {
     BindingKey bindingKey = resolvedBindings.bindingKey();
     switch (bindingKey.kind()) {
       case CONTRIBUTION:
@@ -95,8 +130,21 @@ abstract class MemberSelect {
             case SYNTHETIC_MULTIBOUND_SET:
               return Optional.of(emptySetFactory(contributionBinding));
 
-            case INJECTION:
             case PROVISION:
+              Optional<ClassName> factoryHolder =
+                  moduleFactoryHolders.holderFor(contributionBinding);
+              if (factoryHolder.isPresent()) {
+                return Optional.of(
+                    new StaticMethod(
+                        factoryHolder.get(),
+                        CodeBlock.of(
+                            "$L()",
+                            ModuleFactoryHolders.factoryMethodName(
+                                asExecutable(contributionBinding.bindingElement().get())))));
+              }
+              // fall through
+
+            case INJECTION:
               if (bindingKey.key().type().getKind().equals(DECLARED)) {
                 ImmutableList<TypeVariableName> typeVariables =
                     bindingTypeElementTypeVariableNames(contributionBinding);
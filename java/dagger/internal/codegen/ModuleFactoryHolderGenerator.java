@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.auto.common.MoreElements.asExecutable;
+import static com.google.auto.common.MoreElements.isAnnotationPresent;
+import static com.squareup.javapoet.MethodSpec.constructorBuilder;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static com.squareup.javapoet.TypeSpec.classBuilder;
+import static dagger.internal.codegen.AnnotationSpecs.Suppression.UNCHECKED;
+import static dagger.internal.codegen.AnnotationSpecs.suppressWarnings;
+import static dagger.internal.codegen.CodeBlocks.makeParametersCodeBlock;
+import static dagger.internal.codegen.FactoryGenerator.checkNotNullProvidesMethod;
+import static dagger.internal.codegen.GwtCompatibility.gwtIncompatibleAnnotation;
+import static dagger.internal.codegen.ModuleFactoryHolders.canHaveHolder;
+import static dagger.internal.codegen.ModuleFactoryHolders.factoryMethodName;
+import static dagger.internal.codegen.ModuleFactoryHolders.holderName;
+import static dagger.internal.codegen.SourceFiles.frameworkTypeUsageStatement;
+import static dagger.internal.codegen.SourceFiles.generateBindingFieldsForDependencies;
+import static dagger.internal.codegen.TypeNames.factoryOf;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.util.ElementFilter.methodsIn;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import dagger.Provides;
+import dagger.internal.codegen.InjectionMethods.ProvisionMethod;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Generates the {@linkplain ModuleFactoryHolders holder class} for the factories of a module's
+ * {@code @Provides} methods.
+ */
+final class ModuleFactoryHolderGenerator extends SourceFileGenerator<TypeElement> {
+  private static final TypeVariableName T = TypeVariableName.get("T");
+
+  private final CompilerOptions compilerOptions;
+  private final ProvisionBinding.Factory provisionBindingFactory;
+
+  ModuleFactoryHolderGenerator(
+      Filer filer,
+      Elements elements,
+      CompilerOptions compilerOptions,
+      ProvisionBinding.Factory provisionBindingFactory) {
+    super(filer, elements);
+    this.compilerOptions = compilerOptions;
+    this.provisionBindingFactory = provisionBindingFactory;
+  }
+
+  @Override
+  ClassName nameGeneratedType(TypeElement module) {
+    return holderName(module);
+  }
+
+  @Override
+  Optional<? extends Element> getElementForErrorReporting(TypeElement module) {
+    return Optional.of(module);
+  }
+
+  @Override
+  Optional<TypeSpec.Builder> write(ClassName generatedTypeName, TypeElement module) {
+    if (!compilerOptions.moduleFactoryHolders() || !canHaveHolder(module)) {
+      return Optional.empty();
+    }
+    List<ProvisionBinding> bindings = new ArrayList<>();
+    for (ExecutableElement method : methodsIn(module.getEnclosedElements())) {
+      if (isAnnotationPresent(method, Provides.class)) {
+        bindings.add(provisionBindingFactory.forProvidesMethod(method, module));
+      }
+    }
+    if (bindings.isEmpty()) {
+      return Optional.empty();
+    }
+
+    TypeName moduleType = TypeName.get(module.asType());
+    // Dependencies may be MembersInjectors as well as Providers, so each case casts its own.
+    TypeName dependenciesType = ArrayTypeName.of(Object.class);
+    TypeSpec.Builder holder =
+        classBuilder(generatedTypeName)
+            .addModifiers(PUBLIC, FINAL)
+            .addTypeVariable(T)
+            .addSuperinterface(factoryOf(T))
+            .addField(int.class, "id", PRIVATE, FINAL)
+            .addField(moduleType, "module", PRIVATE, FINAL)
+            .addField(dependenciesType, "dependencies", PRIVATE, FINAL)
+            .addMethod(
+                constructorBuilder()
+                    .addModifiers(PRIVATE)
+                    .addParameter(int.class, "id")
+                    .addParameter(moduleType, "module")
+                    .addParameter(dependenciesType, "dependencies")
+                    .varargs()
+                    .addStatement("this.id = id")
+                    .addStatement("this.module = module")
+                    .addStatement("this.dependencies = dependencies")
+                    .build());
+
+    CodeBlock.Builder cases = CodeBlock.builder().beginControlFlow("switch (id)");
+    Optional<AnnotationSpec> gwtIncompatible = Optional.empty();
+    for (int id = 0; id < bindings.size(); id++) {
+      ProvisionBinding binding = bindings.get(id);
+      holder.addMethod(factoryMethod(generatedTypeName, id, binding, moduleType));
+      cases.addStatement("case $L: return $L", id, provisionExpression(binding));
+      ProvisionMethod.create(binding).ifPresent(holder::addMethod);
+      if (!gwtIncompatible.isPresent()) {
+        gwtIncompatible = gwtIncompatibleAnnotation(binding);
+      }
+    }
+    // The holder refers to every binding method, so it is GWT-incompatible if any of them is.
+    gwtIncompatible.ifPresent(holder::addAnnotation);
+    cases.addStatement("default: throw new $T(id)", AssertionError.class).endControlFlow();
+
+    return Optional.of(
+        holder
+            .addMethod(
+                methodBuilder("get")
+                    .addAnnotation(Override.class)
+                    .addAnnotation(suppressWarnings(UNCHECKED))
+                    .addModifiers(PUBLIC)
+                    .returns(T)
+                    .addStatement("return ($T) provide()", T)
+                    .build())
+            .addMethod(
+                methodBuilder("provide")
+                    .addAnnotation(suppressWarnings(UNCHECKED))
+                    .addModifiers(PRIVATE)
+                    .returns(Object.class)
+                    .addCode(cases.build())
+                    .build()));
+  }
+
+  /**
+   * Returns the static method that creates the factory for {@code binding}, with the same
+   * parameters as its per-binding factory's {@code create} method.
+   */
+  private MethodSpec factoryMethod(
+      ClassName holderName, int id, ProvisionBinding binding, TypeName moduleType) {
+    TypeName providedType = TypeName.get(binding.contributedType()).box();
+    MethodSpec.Builder method =
+        methodBuilder(factoryMethodName(asExecutable(binding.bindingElement().get())))
+            .addModifiers(PUBLIC, STATIC)
+            .returns(factoryOf(providedType));
+    UniqueNameSet parameterNames = new UniqueNameSet();
+    List<CodeBlock> arguments = new ArrayList<>();
+    arguments.add(CodeBlock.of("$L", id));
+    if (binding.requiresModuleInstance()) {
+      ParameterSpec module =
+          ParameterSpec.builder(moduleType, parameterNames.getUniqueName("module")).build();
+      method.addParameter(module);
+      arguments.add(CodeBlock.of("$N", module));
+    } else {
+      arguments.add(CodeBlock.of("null"));
+    }
+    for (FrameworkField field : generateBindingFieldsForDependencies(binding).values()) {
+      ParameterSpec dependency =
+          ParameterSpec.builder(field.type(), parameterNames.getUniqueName(field.name())).build();
+      method.addParameter(dependency);
+      arguments.add(CodeBlock.of("$N", dependency));
+    }
+    return method
+        .addStatement(
+            "return new $T($L)",
+            ParameterizedTypeName.get(holderName, providedType),
+            makeParametersCodeBlock(arguments))
+        .build();
+  }
+
+  /** Returns an expression that calls {@code binding}'s method with its dependencies. */
+  private CodeBlock provisionExpression(ProvisionBinding binding) {
+    ImmutableMap.Builder<BindingKey, CodeBlock> dependencySelects = ImmutableMap.builder();
+    int index = 0;
+    for (Map.Entry<BindingKey, FrameworkField> entry :
+        generateBindingFieldsForDependencies(binding).entrySet()) {
+      dependencySelects.put(
+          entry.getKey(),
+          CodeBlock.of("(($T) dependencies[$L])", entry.getValue().type(), index++));
+    }
+    ImmutableMap<BindingKey, CodeBlock> selects = dependencySelects.build();
+    ImmutableList.Builder<CodeBlock> arguments = ImmutableList.builder();
+    for (DependencyRequest dependency : binding.provisionDependencies()) {
+      arguments.add(
+          frameworkTypeUsageStatement(selects.get(dependency.bindingKey()), dependency.kind()));
+    }
+    CodeBlock methodCall =
+        CodeBlock.of(
+            "$L.$L($L)",
+            binding.requiresModuleInstance()
+                ? CodeBlock.of("module")
+                : CodeBlock.of("$T", ClassName.get(binding.bindingTypeElement().get())),
+            binding.bindingElement().get().getSimpleName(),
+            makeParametersCodeBlock(arguments.build()));
+    return binding.shouldCheckForNull(compilerOptions)
+        ? checkNotNullProvidesMethod(methodCall)
+        : methodCall;
+  }
+}
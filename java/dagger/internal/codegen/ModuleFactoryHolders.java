@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static dagger.internal.codegen.SourceFiles.classFileName;
+import static dagger.internal.codegen.SourceFiles.generatedClassNameForBinding;
+
+import com.squareup.javapoet.ClassName;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * The per-module classes that hold the factories of a module's {@code @Provides} methods when
+ * {@linkplain CompilerOptions#moduleFactoryHolders() module factory holders} are enabled.
+ *
+ * <p>For a module {@code FooModule}, the holder {@code FooModule_Factories} has, for each
+ * {@code @Provides} method {@code provideBar}, a static {@code provideBarFactory(…)} method with
+ * the same parameters as {@code FooModule_ProvideBarFactory.create(…)}, and the same {@code
+ * proxyProvideBar(…)} method, if any. All of the factories are instances of the holder, which
+ * switches on an {@code int} id, so a component that uses them loads one class per module rather
+ * than one per binding.
+ *
+ * <p>The per-binding factories are still generated so that components compiled without the
+ * holders can use the module.
+ */
+final class ModuleFactoryHolders {
+  private final Elements elements;
+  private final CompilerOptions compilerOptions;
+  private final Map<TypeElement, Boolean> modulesWithHolders = new HashMap<>();
+
+  ModuleFactoryHolders(Elements elements, CompilerOptions compilerOptions) {
+    this.elements = elements;
+    this.compilerOptions = compilerOptions;
+  }
+
+  /** Returns the name of the holder class for {@code module}. */
+  static ClassName holderName(TypeElement module) {
+    ClassName moduleName = ClassName.get(module);
+    return moduleName.topLevelClassName().peerClass(classFileName(moduleName) + "_Factories");
+  }
+
+  /** Returns the name of the holder's static method that creates a factory for {@code method}. */
+  static String factoryMethodName(ExecutableElement method) {
+    return method.getSimpleName() + "Factory";
+  }
+
+  /** Returns true if a holder class can be generated for {@code module}. */
+  static boolean canHaveHolder(TypeElement module) {
+    return module.getTypeParameters().isEmpty();
+  }
+
+  /**
+   * Returns the holder class whose factory a component should use for {@code binding}, or empty if
+   * it should use the binding's own factory class.
+   *
+   * <p>A module's holder is used if it already exists, or if the module's factories don't exist
+   * yet, which means that they are being generated in this compilation along with the holder.
+   * Modules compiled without holders keep using their per-binding factories.
+   */
+  Optional<ClassName> holderFor(ContributionBinding binding) {
+    if (!compilerOptions.moduleFactoryHolders()
+        || !binding.bindingKind().equals(ContributionBinding.Kind.PROVISION)) {
+      return Optional.empty();
+    }
+    TypeElement module = binding.bindingTypeElement().get();
+    if (!canHaveHolder(module)) {
+      return Optional.empty();
+    }
+    boolean hasHolder =
+        modulesWithHolders.computeIfAbsent(
+            module,
+            m ->
+                elements.getTypeElement(holderName(m).toString()) != null
+                    || elements.getTypeElement(generatedClassNameForBinding(binding).toString())
+                        == null);
+    return hasHolder ? Optional.of(holderName(module)) : Optional.empty();
+  }
+}
@@ -50,13 +50,15 @@ final class ModuleProcessingStep implements ProcessingStep {
       Messager messager,
       ModuleValidator moduleValidator,
       ProvisionBinding.Factory provisionBindingFactory,
-      FactoryGenerator factoryGenerator) {
+      FactoryGenerator factoryGenerator,
+      ModuleFactoryHolderGenerator moduleFactoryHolderGenerator) {
     return new ModuleProcessingStep(
         messager,
         Module.class,
         moduleValidator,
         ImmutableSet.of(
-            new ProvisionModuleMethodFactoryGenerator(provisionBindingFactory, factoryGenerator)));
+            new ProvisionModuleMethodFactoryGenerator(provisionBindingFactory, factoryGenerator)),
+        moduleFactoryHolderGenerator);
   }
 
   /**
@@ -68,6 +70,7 @@ final class ModuleProcessingStep implements ProcessingStep {
       ModuleValidator moduleValidator,
       ProvisionBinding.Factory provisionBindingFactory,
       FactoryGenerator factoryGenerator,
+      ModuleFactoryHolderGenerator moduleFactoryHolderGenerator,
       ProductionBinding.Factory productionBindingFactory,
       ProducerFactoryGenerator producerFactoryGenerator) {
     return new ModuleProcessingStep(
@@ -77,13 +80,15 @@ final class ModuleProcessingStep implements ProcessingStep {
         ImmutableSet.of(
             new ProvisionModuleMethodFactoryGenerator(provisionBindingFactory, factoryGenerator),
             new ProductionModuleMethodFactoryGenerator(
-                productionBindingFactory, producerFactoryGenerator)));
+                productionBindingFactory, producerFactoryGenerator)),
+        moduleFactoryHolderGenerator);
   }
 
   private final Messager messager;
   private final Class<? extends Annotation> moduleAnnotation;
   private final ModuleValidator moduleValidator;
   private final ImmutableSet<ModuleMethodFactoryGenerator> moduleMethodFactoryGenerators;
+  private final ModuleFactoryHolderGenerator moduleFactoryHolderGenerator;
   private final Set<TypeElement> processedModuleElements = Sets.newLinkedHashSet();
 
   /**
@@ -95,11 +100,13 @@ final class ModuleProcessingStep implements ProcessingStep {
       Messager messager,
       Class<? extends Annotation> moduleAnnotation,
       ModuleValidator moduleValidator,
-      ImmutableSet<ModuleMethodFactoryGenerator> moduleMethodFactoryGenerators) {
+      ImmutableSet<ModuleMethodFactoryGenerator> moduleMethodFactoryGenerators,
+      ModuleFactoryHolderGenerator moduleFactoryHolderGenerator) {
     this.messager = messager;
     this.moduleAnnotation = moduleAnnotation;
     this.moduleValidator = moduleValidator;
     this.moduleMethodFactoryGenerators = moduleMethodFactoryGenerators;
+    this.moduleFactoryHolderGenerator = moduleFactoryHolderGenerator;
   }
 
   @Override
@@ -131,6 +138,7 @@ final class ModuleProcessingStep implements ProcessingStep {
           }
         }
       }
+      moduleFactoryHolderGenerator.generate(module, messager);
     }
   }
 
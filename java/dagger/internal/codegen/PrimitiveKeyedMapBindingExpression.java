@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static dagger.internal.codegen.Accessibility.isTypeAccessibleFrom;
+import static dagger.internal.codegen.ContributionBinding.Kind.SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP;
+import static dagger.internal.codegen.MapKeys.getPrimitiveMapKeyValue;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+
+/**
+ * A {@link BindingExpression} for {@link dagger.multibindings.IntKeyMap} and {@link
+ * dagger.multibindings.LongKeyMap} multibindings. The map is built from the contributions in
+ * ascending key order, using the key constants directly.
+ */
+final class PrimitiveKeyedMapBindingExpression extends SimpleInvocationBindingExpression {
+  private final ProvisionBinding binding;
+  private final PrimitiveKeyedMapType mapType;
+  private final ImmutableSortedMap<Long, DependencyRequest> dependenciesByKey;
+  private final ComponentBindingExpressions componentBindingExpressions;
+
+  PrimitiveKeyedMapBindingExpression(
+      ProvisionBinding binding,
+      BindingGraph graph,
+      ComponentBindingExpressions componentBindingExpressions,
+      BindingExpression delegate,
+      DaggerTypes types) {
+    super(delegate, types);
+    ContributionBinding.Kind bindingKind = binding.bindingKind();
+    checkArgument(bindingKind.equals(SYNTHETIC_MULTIBOUND_PRIMITIVE_KEYED_MAP), bindingKind);
+    this.binding = binding;
+    this.mapType = PrimitiveKeyedMapType.from(binding.key());
+    this.componentBindingExpressions = componentBindingExpressions;
+    ImmutableSortedMap.Builder<Long, DependencyRequest> dependenciesByKey =
+        ImmutableSortedMap.naturalOrder();
+    for (DependencyRequest dependency : binding.dependencies()) {
+      dependenciesByKey.put(
+          getPrimitiveMapKeyValue(
+              graph.resolvedBindings().get(dependency.bindingKey()).contributionBinding()),
+          dependency);
+    }
+    this.dependenciesByKey = dependenciesByKey.build();
+  }
+
+  @Override
+  Expression getInstanceDependencyExpression(
+      DependencyRequest.Kind requestKind, ClassName requestingClass) {
+    return Expression.create(binding.key().type(), mapExpression(requestingClass));
+  }
+
+  private CodeBlock mapExpression(ClassName requestingClass) {
+    CodeBlock.Builder instantiation =
+        CodeBlock.builder().add("$T.", mapType.keyKind().arrayMapClassName());
+    if (isTypeAccessibleFrom(mapType.valueType(), requestingClass.packageName())) {
+      instantiation.add("<$T>", mapType.valueType());
+    }
+    if (dependenciesByKey.isEmpty()) {
+      return instantiation.add("empty()").build();
+    }
+    instantiation.add("builder($L)", dependenciesByKey.size());
+    dependenciesByKey.forEach(
+        (key, dependency) ->
+            instantiation.add(
+                ".put($L, $L)",
+                mapType.keyKind().keyLiteral(key),
+                componentBindingExpressions
+                    .getDependencyExpression(dependency, requestingClass)
+                    .codeBlock()));
+    return instantiation.add(".build()").build();
+  }
+}
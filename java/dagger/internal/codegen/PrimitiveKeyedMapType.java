@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.auto.common.MoreElements;
+import com.google.auto.common.MoreTypes;
+import com.google.auto.value.AutoValue;
+import com.google.common.base.Equivalence;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import dagger.internal.IntKeyArrayMap;
+import dagger.internal.IntKeyMapFactory;
+import dagger.internal.LongKeyArrayMap;
+import dagger.internal.LongKeyMapFactory;
+import dagger.multibindings.IntKeyMap;
+import dagger.multibindings.LongKeyMap;
+import java.util.Optional;
+import javax.lang.model.element.Name;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVisitor;
+import javax.lang.model.util.SimpleTypeVisitor8;
+
+/**
+ * Information about an {@link IntKeyMap} or {@link LongKeyMap} {@link TypeMirror}.
+ */
+@AutoValue
+abstract class PrimitiveKeyedMapType {
+
+  /** The primitive type of the keys. */
+  enum KeyKind {
+    /** {@link IntKeyMap}. */
+    INT(IntKeyMap.class, Integer.class, IntKeyArrayMap.class, IntKeyMapFactory.class, ""),
+
+    /** {@link LongKeyMap}. */
+    LONG(LongKeyMap.class, Long.class, LongKeyArrayMap.class, LongKeyMapFactory.class, "L"),
+    ;
+
+    private final Class<?> mapClass;
+    private final Class<?> boxedKeyClass;
+    private final ClassName arrayMapClassName;
+    private final ClassName factoryClassName;
+    private final String literalSuffix;
+
+    KeyKind(
+        Class<?> mapClass,
+        Class<?> boxedKeyClass,
+        Class<?> arrayMapClass,
+        Class<?> factoryClass,
+        String literalSuffix) {
+      this.mapClass = mapClass;
+      this.boxedKeyClass = boxedKeyClass;
+      this.arrayMapClassName = ClassName.get(arrayMapClass);
+      this.factoryClassName = ClassName.get(factoryClass);
+      this.literalSuffix = literalSuffix;
+    }
+
+    /** The boxed key type of the equivalent {@link java.util.Map}. */
+    Class<?> boxedKeyClass() {
+      return boxedKeyClass;
+    }
+
+    /** The class whose {@code builder(int)} creates instances of the map. */
+    ClassName arrayMapClassName() {
+      return arrayMapClassName;
+    }
+
+    /** The class whose {@code builder(int)} creates factories of the map. */
+    ClassName factoryClassName() {
+      return factoryClassName;
+    }
+
+    /** Returns a literal for {@code key}. */
+    CodeBlock keyLiteral(long key) {
+      return CodeBlock.of("$L$L", key, literalSuffix);
+    }
+  }
+
+  private static final TypeVisitor<Optional<KeyKind>, Void> KEY_KIND =
+      new SimpleTypeVisitor8<Optional<KeyKind>, Void>(Optional.empty()) {
+        @Override
+        public Optional<KeyKind> visitDeclared(DeclaredType t, Void p) {
+          for (KeyKind keyKind : KeyKind.values()) {
+            Name qualifiedName = MoreElements.asType(t.asElement()).getQualifiedName();
+            if (qualifiedName.contentEquals(keyKind.mapClass.getCanonicalName())) {
+              return Optional.of(keyKind);
+            }
+          }
+          return Optional.empty();
+        }
+      };
+
+  /**
+   * The map type itself, wrapped using {@link MoreTypes#equivalence()}. Use {@link
+   * #declaredMapType()} instead.
+   */
+  protected abstract Equivalence.Wrapper<DeclaredType> wrappedDeclaredMapType();
+
+  /** The map type itself. */
+  DeclaredType declaredMapType() {
+    return wrappedDeclaredMapType().get();
+  }
+
+  /** Which primitive type the keys are. */
+  KeyKind keyKind() {
+    return declaredMapType().accept(KEY_KIND, null).get();
+  }
+
+  /** {@code true} if the map type is a raw type. */
+  boolean isRawType() {
+    return declaredMapType().getTypeArguments().isEmpty();
+  }
+
+  /**
+   * The map value type.
+   *
+   * @throws IllegalStateException if {@link #isRawType()} is true.
+   */
+  TypeMirror valueType() {
+    checkState(!isRawType());
+    return declaredMapType().getTypeArguments().get(0);
+  }
+
+  /**
+   * {@code true} if {@link #valueType()} is a {@code clazz}.
+   *
+   * @throws IllegalStateException if {@link #isRawType()} is true.
+   */
+  boolean valuesAreTypeOf(Class<?> clazz) {
+    return MoreTypes.isType(valueType()) && MoreTypes.isTypeOf(clazz, valueType());
+  }
+
+  /**
+   * {@code V} if {@link #valueType()} is a {@code WrappingClass<V>}.
+   *
+   * @throws IllegalStateException if {@link #isRawType()} is true or {@link #valueType()} is not a
+   *     {@code WrappingClass<V>}
+   */
+  TypeMirror unwrappedValueType(Class<?> wrappingClass) {
+    checkState(valuesAreTypeOf(wrappingClass), "expected values to be %s: %s", wrappingClass, this);
+    return MoreTypes.asDeclared(valueType()).getTypeArguments().get(0);
+  }
+
+  /** Returns {@code true} if {@code type} is an {@link IntKeyMap} or {@link LongKeyMap} type. */
+  static boolean isPrimitiveKeyedMap(TypeMirror type) {
+    return type.accept(KEY_KIND, null).isPresent();
+  }
+
+  /**
+   * Returns {@code true} if {@code key.type()} is an {@link IntKeyMap} or {@link LongKeyMap} type.
+   */
+  static boolean isPrimitiveKeyedMap(Key key) {
+    return isPrimitiveKeyedMap(key.type());
+  }
+
+  /**
+   * Returns a {@link PrimitiveKeyedMapType} for {@code type}.
+   *
+   * @throws IllegalArgumentException if {@code type} is not an {@link IntKeyMap} or {@link
+   *     LongKeyMap} type
+   */
+  static PrimitiveKeyedMapType from(TypeMirror type) {
+    checkArgument(isPrimitiveKeyedMap(type), "%s is not an IntKeyMap or LongKeyMap", type);
+    return new AutoValue_PrimitiveKeyedMapType(
+        MoreTypes.equivalence().wrap(MoreTypes.asDeclared(type)));
+  }
+
+  /**
+   * Returns a {@link PrimitiveKeyedMapType} for {@code key}'s {@link Key#type() type}.
+   *
+   * @throws IllegalArgumentException if {@code key.type()} is not an {@link IntKeyMap} or {@link
+   *     LongKeyMap} type
+   */
+  static PrimitiveKeyedMapType from(Key key) {
+    return from(key.type());
+  }
+}
@@ -22,16 +22,25 @@ import static com.google.common.base.CaseFormat.UPPER_CAMEL;
 import static com.google.common.base.CaseFormat.UPPER_UNDERSCORE;
 import static com.squareup.javapoet.MethodSpec.methodBuilder;
 import static com.squareup.javapoet.TypeSpec.anonymousClassBuilder;
+import static dagger.internal.codegen.AnnotationSpecs.Suppression.UNCHECKED;
+import static dagger.internal.codegen.TypeNames.DOUBLE_CHECK;
+import static dagger.internal.codegen.TypeNames.MEMOIZED_SENTINEL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.google.auto.common.MoreTypes;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.Optional;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
@@ -40,6 +49,15 @@ import javax.lang.model.util.Elements;
  * A binding expression that wraps the dependency expressions in a private, no-arg method.
  *
  * <p>Dependents of this binding expression will just called the no-arg method.
+ *
+ * <p>If the binding is scoped, the method for instance requests memoizes the instance in a {@code
+ * volatile} component field using double-checked locking, and all other requests are satisfied
+ * through that method, so that the component never needs a scoped {@link javax.inject.Provider}
+ * for the binding.
+ *
+ * <p>If the component uses {@link SwitchingProviders}, provider requests are satisfied by a {@code
+ * SwitchingProvider} that calls the method for instance requests. It is created on the first call
+ * and then cached in a field.
  */
 final class PrivateMethodBindingExpression extends BindingExpression {
   private final ClassName componentName;
@@ -48,6 +66,9 @@ final class PrivateMethodBindingExpression extends BindingExpression {
   private final Map<DependencyRequest.Kind, String> methodNames =
       new EnumMap<>(DependencyRequest.Kind.class);
   private final ContributionBinding binding;
+  private final Optional<SwitchingProviders> switchingProviders;
+  private final Optional<FieldSpec> providerField;
+  private final Optional<FieldSpec> producerField;
   private final DaggerTypes types;
   private final Elements elements;
 
@@ -58,11 +79,45 @@ final class PrivateMethodBindingExpression extends BindingExpression {
       BindingExpression delegate,
       DaggerTypes types,
       Elements elements) {
+    this(
+        resolvedBindings,
+        componentName,
+        generatedComponentModel,
+        delegate,
+        Optional.empty(),
+        Optional.empty(),
+        Optional.empty(),
+        types,
+        elements);
+  }
+
+  /**
+   * Creates a binding expression whose provider requests are satisfied by {@code
+   * switchingProviders}.
+   *
+   * @param providerField the field to cache the provider in, if one has already been named for the
+   *     binding
+   * @param producerField the field to cache the producer in, if one has already been named for the
+   *     binding
+   */
+  PrivateMethodBindingExpression(
+      ResolvedBindings resolvedBindings,
+      ClassName componentName,
+      GeneratedComponentModel generatedComponentModel,
+      BindingExpression delegate,
+      Optional<SwitchingProviders> switchingProviders,
+      Optional<FieldSpec> providerField,
+      Optional<FieldSpec> producerField,
+      DaggerTypes types,
+      Elements elements) {
     super(resolvedBindings);
     this.componentName = componentName;
     this.generatedComponentModel = generatedComponentModel;
     this.delegate = delegate;
     binding = resolvedBindings.contributionBinding();
+    this.switchingProviders = switchingProviders;
+    this.providerField = providerField;
+    this.producerField = producerField;
     this.types = types;
     this.elements = elements;
   }
@@ -70,6 +125,13 @@ final class PrivateMethodBindingExpression extends BindingExpression {
   @Override
   Expression getDependencyExpression(
       DependencyRequest.Kind requestKind, ClassName requestingClass) {
+    if (requestKind.equals(DependencyRequest.Kind.FUTURE)) {
+      Expression instance =
+          getDependencyExpression(DependencyRequest.Kind.INSTANCE, requestingClass);
+      return Expression.create(
+          types.wrapType(instance.type(), ListenableFuture.class),
+          CodeBlock.of("$T.immediateFuture($L)", Futures.class, instance.codeBlock()));
+    }
     // TODO(user): we should just use the component method if one matches instead of creating one.
     if (!methodNames.containsKey(requestKind)) {
       String name = generatedComponentModel.getUniqueMethodName(methodName(requestKind));
@@ -88,12 +150,72 @@ final class PrivateMethodBindingExpression extends BindingExpression {
   private void createMethod(String name, DependencyRequest.Kind requestKind) {
     // TODO(user): Consider when we can make this method static.
     // TODO(user): Fix the order that these generated methods are written to the component.
-    generatedComponentModel.addMethod(
-        methodBuilder(name)
-            .addModifiers(PRIVATE)
-            .returns(TypeName.get(returnType(requestKind)))
-            .addStatement("return $L", methodBody(requestKind))
-            .build());
+    MethodSpec.Builder method =
+        methodBuilder(name).addModifiers(PRIVATE).returns(TypeName.get(returnType(requestKind)));
+    if (requestKind.equals(DependencyRequest.Kind.INSTANCE) && binding.scope().isPresent()) {
+      addMemoizedInstanceBody(method);
+    } else if (requestKind.equals(DependencyRequest.Kind.PROVIDER)
+        && switchingProviders.isPresent()) {
+      addSwitchingProviderBody(method);
+    } else if (requestKind.equals(DependencyRequest.Kind.PRODUCER)
+        && (binding.scope().isPresent() || switchingProviders.isPresent())) {
+      addProducerBody(method);
+    } else {
+      method.addStatement("return $L", methodBody(requestKind));
+    }
+    generatedComponentModel.addMethod(method.build());
+  }
+
+  /**
+   * Adds a body that creates the instance at most once, storing it in a new {@code volatile} field
+   * that starts out as a {@link dagger.internal.MemoizedSentinel}:
+   *
+   * <pre><code>
+   *   Object foo = this.foo;
+   *   if (foo instanceof MemoizedSentinel) {
+   *     synchronized (foo) {
+   *       foo = this.foo;
+   *       if (foo instanceof MemoizedSentinel) {
+   *         foo = new Foo(...);
+   *         this.foo = DoubleCheck.reentrantCheck(this.foo, foo);
+   *       }
+   *     }
+   *   }
+   *   return (Foo) foo;
+   * </code></pre>
+   *
+   * <p>The local variable has the same name as the field, so it cannot shadow any other component
+   * field that the creation expression refers to.
+   */
+  private void addMemoizedInstanceBody(MethodSpec.Builder method) {
+    FieldSpec field =
+        FieldSpec.builder(
+                TypeName.OBJECT,
+                generatedComponentModel.getUniqueFieldName(BindingVariableNamer.name(binding)),
+                PRIVATE,
+                VOLATILE)
+            .initializer("new $T()", MEMOIZED_SENTINEL)
+            .build();
+    generatedComponentModel.addField(field);
+    CodeBlock instance =
+        delegate
+            .getDependencyExpression(DependencyRequest.Kind.INSTANCE, componentName)
+            .codeBlock();
+    method
+        .addAnnotation(AnnotationSpecs.suppressWarnings(UNCHECKED))
+        .addStatement("$T $N = this.$N", Object.class, field, field)
+        .beginControlFlow("if ($N instanceof $T)", field, MEMOIZED_SENTINEL)
+        .beginControlFlow("synchronized ($N)", field)
+        .addStatement("$N = this.$N", field, field)
+        .beginControlFlow("if ($N instanceof $T)", field, MEMOIZED_SENTINEL)
+        .addStatement("$N = $L", field, instance)
+        .addStatement(
+            "this.$N = $T.reentrantCheck(this.$N, $N)", field, DOUBLE_CHECK, field, field)
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement(
+            "return ($T) $N", TypeName.get(returnType(DependencyRequest.Kind.INSTANCE)), field);
   }
 
   /** Returns the return type for the dependency request. */
@@ -121,6 +243,87 @@ final class PrivateMethodBindingExpression extends BindingExpression {
     return accessibleType(binding.contributedType());
   }
 
+  /**
+   * Adds a body that creates a {@code SwitchingProvider} for the binding on the first call and
+   * caches it in a field:
+   *
+   * <pre><code>
+   *   Provider&lt;Foo&gt; fooProvider = this.fooProvider;
+   *   if (fooProvider == null) {
+   *     fooProvider = new SwitchingProvider&lt;&gt;(0);
+   *     this.fooProvider = fooProvider;
+   *   }
+   *   return fooProvider;
+   * </code></pre>
+   *
+   * <p>The {@code SwitchingProvider} has no mutable state, so a race between two threads at most
+   * creates it twice.
+   */
+  private void addSwitchingProviderBody(MethodSpec.Builder method) {
+    FieldSpec field =
+        providerField.orElseGet(() -> newFrameworkField(DependencyRequest.Kind.PROVIDER));
+    CodeBlock newSwitchingProvider =
+        switchingProviders
+            .get()
+            .newSwitchingProvider(
+                switchingProviderName ->
+                    boxed(
+                        getDependencyExpression(
+                            DependencyRequest.Kind.INSTANCE, switchingProviderName)));
+    addCachedFieldBody(method, field, newSwitchingProvider);
+  }
+
+  /**
+   * Adds a body that adapts the method for provider requests to a {@code Producer} on the first
+   * call and caches it in a field, so that every dependent is given the same producer. The delegate
+   * would create its own provider field instead of using the private method's provider.
+   */
+  private void addProducerBody(MethodSpec.Builder method) {
+    CodeBlock producer =
+        FrameworkType.PROVIDER.to(
+            DependencyRequest.Kind.PRODUCER,
+            getDependencyExpression(DependencyRequest.Kind.PROVIDER, componentName).codeBlock());
+    FieldSpec field =
+        producerField.orElseGet(() -> newFrameworkField(DependencyRequest.Kind.PRODUCER));
+    addCachedFieldBody(method, field, producer);
+  }
+
+  /** Returns a new field for the binding's framework instance of the given kind. */
+  private FieldSpec newFrameworkField(DependencyRequest.Kind requestKind) {
+    return FieldSpec.builder(
+            TypeName.get(returnType(requestKind)),
+            generatedComponentModel.getUniqueFieldName(
+                BindingVariableNamer.name(binding) + dependencyKindName(requestKind)),
+            PRIVATE)
+        .build();
+  }
+
+  /**
+   * Adds {@code field} to the component and a body that sets it to {@code newInstance} if it is
+   * {@code null} and then returns it.
+   */
+  private void addCachedFieldBody(
+      MethodSpec.Builder method, FieldSpec field, CodeBlock newInstance) {
+    generatedComponentModel.addField(field);
+    method
+        .addStatement("$T $N = this.$N", field.type, field, field)
+        .beginControlFlow("if ($N == null)", field)
+        .addStatement("$N = $L", field, newInstance)
+        .addStatement("this.$N = $N", field, field)
+        .endControlFlow()
+        .addStatement("return $N", field);
+  }
+
+  /**
+   * Returns the code for {@code expression}, boxed if it is primitive so that the {@code
+   * SwitchingProvider} can cast it to its type variable.
+   */
+  private static CodeBlock boxed(Expression expression) {
+    return expression.type().getKind().isPrimitive()
+        ? CodeBlock.of("($T) $L", TypeName.get(expression.type()).box(), expression.codeBlock())
+        : expression.codeBlock();
+  }
+
   /** Returns the method body for the dependency request. */
   private CodeBlock methodBody(DependencyRequest.Kind requestKind) {
     switch (requestKind) {
@@ -136,8 +339,8 @@ final class PrivateMethodBindingExpression extends BindingExpression {
         return FrameworkType.PROVIDER.to(
             requestKind,
             getDependencyExpression(DependencyRequest.Kind.PROVIDER, componentName).codeBlock());
-      case INSTANCE:
       case PRODUCER:
+      case INSTANCE:
         return delegate.getDependencyExpression(requestKind, componentName).codeBlock();
       default:
         throw new AssertionError("Unhandled DependencyRequest: " + requestKind);
@@ -167,10 +167,21 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
     }
     FutureTransform futureTransform = FutureTransform.create(fields, binding, asyncDependencies);
 
+    CodeBlock transform =
+        CodeBlock.of(
+            "$T.transformAsync($L, this, this)", FUTURES, futureTransform.futureCodeBlock());
+    Optional<CodeBlock> timeout =
+        ProducerTimeouts.timeoutArguments(binding.bindingElement().get());
     computeMethodBuilder.addStatement(
-        "return $T.transformAsync($L, this, this)",
-        FUTURES,
-        futureTransform.futureCodeBlock());
+        "return $L",
+        timeout.isPresent()
+            ? CodeBlock.of(
+                "$T.withTimeout($L, $L, $S)",
+                PRODUCERS,
+                transform,
+                timeout.get(),
+                producerName(binding))
+            : transform);
 
     factoryBuilder
         .addSuperinterface(
@@ -204,8 +215,13 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
             .addAnnotation(Deprecated.class)
             .addAnnotation(Override.class)
             .addParameter(RUNNABLE, "runnable")
-            .addStatement("monitor.ready()")
-            .addStatement("executorProvider.get().execute(runnable)");
+            .addStatement("monitor.ready()");
+    if (binding.directExecution()) {
+      executeMethodBuilder.addStatement("runnable.run()");
+    } else {
+      executeMethodBuilder.addStatement(
+          "$N.get().execute(runnable)", fields.get(binding.executorRequest().get().bindingKey()));
+    }
 
     factoryBuilder.addMethod(constructorBuilder.build());
     factoryBuilder.addMethod(computeMethodBuilder.build());
@@ -254,16 +270,19 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
       ClassName generatedTypeName, ProductionBinding binding) {
     CodeBlock producerTokenArgs =
         compilerOptions.writeProducerNameInToken()
-            ? CodeBlock.of(
-                "$S",
-                String.format(
-                    "%s#%s",
-                    ClassName.get(binding.bindingTypeElement().get()),
-                    binding.bindingElement().get().getSimpleName()))
+            ? CodeBlock.of("$S", producerName(binding))
             : CodeBlock.of("$T.class", generatedTypeName);
     return CodeBlock.of("$T.create($L)", PRODUCER_TOKEN, producerTokenArgs);
   }
 
+  /** Returns the name of the {@code @Produces} method, such as {@code test.Module#produceFoo}. */
+  private static String producerName(ProductionBinding binding) {
+    return String.format(
+        "%s#%s",
+        ClassName.get(binding.bindingTypeElement().get()),
+        binding.bindingElement().get().getSimpleName());
+  }
+
   /** Returns a name of the variable representing this dependency's future. */
   private static String dependencyFutureName(DependencyRequest dependency) {
     return dependency.requestElement().get().getSimpleName() + "Future";
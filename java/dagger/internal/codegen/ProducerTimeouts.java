@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static dagger.internal.codegen.DaggerElements.getAnnotationMirror;
+import static dagger.internal.codegen.DurationAnnotations.unit;
+import static dagger.internal.codegen.DurationAnnotations.validatePositive;
+import static dagger.internal.codegen.DurationAnnotations.value;
+import static dagger.internal.codegen.ErrorMessages.PRODUCER_TIMEOUT_NOT_POSITIVE;
+
+import com.squareup.javapoet.CodeBlock;
+import dagger.producers.ProducerTimeout;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.lang.model.element.Element;
+
+/** Methods for reading and validating {@link ProducerTimeout} annotations. */
+final class ProducerTimeouts {
+
+  /**
+   * Returns the {@code timeout, unit} arguments for the {@link ProducerTimeout @ProducerTimeout}
+   * annotation on {@code element}, or empty if there is none.
+   */
+  static Optional<CodeBlock> timeoutArguments(Element element) {
+    return getAnnotationMirror(element, ProducerTimeout.class)
+        .map(
+            timeout ->
+                CodeBlock.of("$LL, $T.$L", value(timeout), TimeUnit.class, unit(timeout).name()));
+  }
+
+  /**
+   * Adds an error to {@code report} if {@code element} has a {@link
+   * ProducerTimeout @ProducerTimeout} annotation that is not positive.
+   */
+  static void validateProducerTimeout(Element element, ValidationReport.Builder<?> report) {
+    getAnnotationMirror(element, ProducerTimeout.class)
+        .ifPresent(
+            timeout -> validatePositive(element, timeout, PRODUCER_TIMEOUT_NOT_POSITIVE, report));
+  }
+
+  private ProducerTimeouts() {}
+}
@@ -25,6 +25,7 @@ import static dagger.internal.codegen.ErrorMessages.PRODUCES_METHOD_RAW_FUTURE;
 import static dagger.internal.codegen.ErrorMessages.PRODUCES_METHOD_RETURN_TYPE;
 import static dagger.internal.codegen.ErrorMessages.PRODUCES_METHOD_SCOPE;
 import static dagger.internal.codegen.ErrorMessages.PRODUCES_METHOD_SET_VALUES_RETURN_SET;
+import static dagger.internal.codegen.ProducerTimeouts.validateProducerTimeout;
 
 import com.google.auto.common.MoreTypes;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -63,6 +64,7 @@ final class ProducesMethodValidator extends BindingMethodValidator {
     super.checkMethod(builder);
     checkNullable(builder);
     checkScope(builder);
+    validateProducerTimeout(builder.getSubject(), builder);
   }
 
   /** Adds a warning if a {@link Produces @Produces} method is declared nullable. */
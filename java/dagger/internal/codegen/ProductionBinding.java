@@ -16,6 +16,7 @@
 
 package dagger.internal.codegen;
 
+import static com.google.auto.common.MoreElements.isAnnotationPresent;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static dagger.internal.codegen.MapKeys.getMapKey;
@@ -29,6 +30,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import dagger.producers.DirectExecution;
 import dagger.producers.Producer;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -89,11 +91,19 @@ abstract class ProductionBinding extends ContributionBinding {
 
   /**
    * If this production requires an executor, this will be the corresponding request.  All
-   * production bindings from {@code @Produces} methods will have an executor request, but
-   * synthetic production bindings may not.
+   * production bindings from {@code @Produces} methods will have an executor request, unless they
+   * are {@linkplain #directExecution() executed directly}, but synthetic production bindings may
+   * not.
    */
   abstract Optional<DependencyRequest> executorRequest();
 
+  /**
+   * Returns {@code true} if the {@code @Produces} method or its module is annotated with {@link
+   * DirectExecution @DirectExecution}. Such bindings run on the thread that completes their inputs,
+   * so they have no {@linkplain #executorRequest() executor request}.
+   */
+  abstract boolean directExecution();
+
   /** If this production requires a monitor, this will be the corresponding request.  All
    * production bindings from {@code @Produces} methods will have a monitor request, but synthetic
    * production bindings may not.
@@ -103,7 +113,8 @@ abstract class ProductionBinding extends ContributionBinding {
   private static Builder builder() {
     return new AutoValue_ProductionBinding.Builder()
         .explicitDependencies(ImmutableList.<DependencyRequest>of())
-        .thrownTypes(ImmutableList.<TypeMirror>of());
+        .thrownTypes(ImmutableList.<TypeMirror>of())
+        .directExecution(false);
   }
 
   @AutoValue.Builder
@@ -121,6 +132,8 @@ abstract class ProductionBinding extends ContributionBinding {
 
     abstract Builder monitorRequest(DependencyRequest monitorRequest);
 
+    abstract Builder directExecution(boolean directExecution);
+
     @CheckReturnValue
     abstract ProductionBinding build();
   }
@@ -149,8 +162,9 @@ abstract class ProductionBinding extends ContributionBinding {
           dependencyRequestFactory.forRequiredResolvedVariables(
               producesMethod.getParameters(),
               resolvedMethod.getParameterTypes());
-      DependencyRequest executorRequest =
-          dependencyRequestFactory.forProductionImplementationExecutor();
+      boolean directExecution =
+          isAnnotationPresent(producesMethod, DirectExecution.class)
+              || isAnnotationPresent(contributedBy, DirectExecution.class);
       DependencyRequest monitorRequest = dependencyRequestFactory.forProductionComponentMonitor();
       final ProductionKind productionKind;
       if (MoreTypes.isTypeOf(ListenableFuture.class, producesMethod.getReturnType())) {
@@ -163,7 +177,11 @@ abstract class ProductionBinding extends ContributionBinding {
         productionKind = ProductionKind.IMMEDIATE;
       }
       // TODO(beder): Add nullability checking with Java 8.
-      return ProductionBinding.builder()
+      ProductionBinding.Builder builder = ProductionBinding.builder();
+      if (!directExecution) {
+        builder.executorRequest(dependencyRequestFactory.forProductionImplementationExecutor());
+      }
+      return builder
           .contributionType(contributionType)
           .bindingElement(producesMethod)
           .contributingModule(contributedBy)
@@ -173,8 +191,8 @@ abstract class ProductionBinding extends ContributionBinding {
           .bindingKind(Kind.PRODUCTION)
           .productionKind(productionKind)
           .thrownTypes(producesMethod.getThrownTypes())
-          .executorRequest(executorRequest)
           .monitorRequest(monitorRequest)
+          .directExecution(directExecution)
           .build();
     }
 
@@ -20,6 +20,7 @@ import static dagger.internal.codegen.BindingMethodValidator.Abstractness.MUST_B
 import static dagger.internal.codegen.BindingMethodValidator.AllowsMultibindings.ALLOWS_MULTIBINDINGS;
 import static dagger.internal.codegen.BindingMethodValidator.ExceptionSuperclass.RUNTIME_EXCEPTION;
 import static dagger.internal.codegen.ErrorMessages.provisionMayNotDependOnProducerType;
+import static dagger.internal.codegen.RefreshIntervals.validateRefreshInterval;
 
 import com.google.common.collect.ImmutableSet;
 import dagger.Module;
@@ -53,6 +54,7 @@ final class ProvidesMethodValidator extends BindingMethodValidator {
   protected void checkMethod(ValidationReport.Builder<ExecutableElement> builder) {
     super.checkMethod(builder);
     checkDependsOnProducers(builder);
+    validateRefreshInterval(builder.getSubject(), builder);
   }
 
   /** Adds an error if a {@link Provides @Provides} method depends on a producer type. */
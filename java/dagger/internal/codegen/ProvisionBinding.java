@@ -39,6 +39,7 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import dagger.internal.codegen.ComponentDescriptor.BuilderRequirementMethod;
 import dagger.internal.codegen.MembersInjectionBinding.InjectionSite;
 import java.util.Optional;
+import java.util.OptionalLong;
 import javax.annotation.CheckReturnValue;
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -100,6 +101,25 @@ abstract class ProvisionBinding extends ContributionBinding {
   @Override
   abstract Optional<Scope> scope();
 
+  /**
+   * The {@link dagger.RefreshInterval} of this binding in nanoseconds, read from the {@code
+   * Provides} method or from the type with the {@code @Inject} constructor.
+   */
+  @Memoized
+  OptionalLong refreshIntervalNanos() {
+    if (!scope().isPresent()) {
+      return OptionalLong.empty();
+    }
+    switch (bindingKind()) {
+      case INJECTION:
+        return RefreshIntervals.refreshIntervalNanos(bindingTypeElement().get());
+      case PROVISION:
+        return RefreshIntervals.refreshIntervalNanos(bindingElement().get());
+      default:
+        return OptionalLong.empty();
+    }
+  }
+
   private static Builder builder() {
     return new AutoValue_ProvisionBinding.Builder()
         .provisionDependencies(ImmutableSet.of())
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static dagger.internal.codegen.DaggerElements.getAnnotationMirror;
+import static dagger.internal.codegen.DurationAnnotations.unit;
+import static dagger.internal.codegen.DurationAnnotations.validatePositive;
+import static dagger.internal.codegen.DurationAnnotations.value;
+import static dagger.internal.codegen.ErrorMessages.REFRESH_INTERVAL_NOT_POSITIVE;
+import static dagger.internal.codegen.ErrorMessages.REFRESH_INTERVAL_WITHOUT_SCOPE;
+
+import dagger.RefreshInterval;
+import java.util.Optional;
+import java.util.OptionalLong;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+
+/** Methods for reading and validating {@link RefreshInterval} annotations. */
+final class RefreshIntervals {
+
+  /**
+   * Returns the interval of the {@link RefreshInterval @RefreshInterval} annotation on {@code
+   * element} in nanoseconds, or empty if there is none.
+   */
+  static OptionalLong refreshIntervalNanos(Element element) {
+    Optional<AnnotationMirror> refreshInterval =
+        getAnnotationMirror(element, RefreshInterval.class);
+    if (!refreshInterval.isPresent()) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(unit(refreshInterval.get()).toNanos(value(refreshInterval.get())));
+  }
+
+  /**
+   * Adds errors to {@code report} if {@code element} has a {@link
+   * RefreshInterval @RefreshInterval} annotation that is not positive, or if {@code element} is
+   * not scoped.
+   */
+  static void validateRefreshInterval(Element element, ValidationReport.Builder<?> report) {
+    Optional<AnnotationMirror> refreshInterval =
+        getAnnotationMirror(element, RefreshInterval.class);
+    if (!refreshInterval.isPresent()) {
+      return;
+    }
+    if (Scope.scopesOf(element).isEmpty()) {
+      report.addError(REFRESH_INTERVAL_WITHOUT_SCOPE, element, refreshInterval.get());
+    }
+    validatePositive(element, refreshInterval.get(), REFRESH_INTERVAL_NOT_POSITIVE, report);
+  }
+
+  private RefreshIntervals() {}
+}
@@ -19,6 +19,7 @@ package dagger.internal.codegen;
 import static com.google.auto.common.AnnotationMirrors.getAnnotatedAnnotations;
 import static com.google.auto.common.MoreElements.isAnnotationPresent;
 import static com.google.common.base.Preconditions.checkArgument;
+import static dagger.internal.codegen.DaggerElements.getAnnotationMirror;
 import static dagger.internal.codegen.ErrorMessages.stripCommonTypePrefixes;
 import static dagger.internal.codegen.InjectionAnnotations.getScopes;
 
@@ -31,8 +32,10 @@ import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import dagger.Reusable;
+import dagger.ThreadScoped;
 import dagger.producers.ProductionScope;
 import dagger.releasablereferences.CanReleaseReferences;
+import dagger.releasablereferences.ReleasePolicy;
 import java.lang.annotation.Annotation;
 import java.util.Optional;
 import javax.inject.Singleton;
@@ -118,6 +121,13 @@ abstract class Scope {
     return scope(elements, Reusable.class);
   }
 
+  /**
+   * Returns a representation for {@link ThreadScoped @ThreadScoped} scope.
+   */
+  static Scope threadScope(Elements elements) {
+    return scope(elements, ThreadScoped.class);
+  }
+
   /**
    * Returns {@code true} for scopes that are annotated with {@link CanReleaseReferences} or some
    * other annotation that is itself annotated with {@link CanReleaseReferences}.
@@ -149,6 +159,11 @@ abstract class Scope {
     return Optional.empty();
   }
 
+  /** Returns the {@link ReleasePolicy} annotation on the scope's type, if there is one. */
+  Optional<AnnotationMirror> releasePolicy() {
+    return getAnnotationMirror(scopeAnnotationElement(), ReleasePolicy.class);
+  }
+
   /**
    * Returns the readable source representation (name with @ prefix) of the annotation type.
    *
@@ -57,7 +57,6 @@ final class SetBindingExpression extends SimpleInvocationBindingExpression {
   }
 
   private CodeBlock setExpression(ClassName requestingClass) {
-    // TODO(ronshapiro): We should also make an ImmutableSet version of SetFactory
     boolean isImmutableSetAvailable = isImmutableSetAvailable();
     // TODO(ronshapiro, gak): Use Sets.immutableEnumSet() if it's available?
     if (isImmutableSetAvailable && binding.dependencies().stream().allMatch(this::isSingleValue)) {
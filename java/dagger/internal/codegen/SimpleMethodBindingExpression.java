@@ -41,6 +41,9 @@ import javax.lang.model.util.Elements;
 /**
  * A binding expression that invokes methods or constructors directly for a provision binding when
  * possible.
+ *
+ * <p>Each instance request creates a new instance, so a scoped binding may only use this expression
+ * if the caller memoizes the result, as {@link PrivateMethodBindingExpression} does.
  */
 final class SimpleMethodBindingExpression extends SimpleInvocationBindingExpression {
   private final CompilerOptions compilerOptions;
@@ -48,6 +51,7 @@ final class SimpleMethodBindingExpression extends SimpleInvocationBindingExpress
   private final ComponentBindingExpressions componentBindingExpressions;
   private final GeneratedComponentModel generatedComponentModel;
   private final ComponentRequirementFields componentRequirementFields;
+  private final ModuleFactoryHolders moduleFactoryHolders;
   private final Elements elements;
 
   SimpleMethodBindingExpression(
@@ -57,19 +61,20 @@ final class SimpleMethodBindingExpression extends SimpleInvocationBindingExpress
       ComponentBindingExpressions componentBindingExpressions,
       GeneratedComponentModel generatedComponentModel,
       ComponentRequirementFields componentRequirementFields,
+      ModuleFactoryHolders moduleFactoryHolders,
       DaggerTypes types,
       Elements elements) {
     super(delegate, types);
     checkArgument(
         provisionBinding.implicitDependencies().isEmpty(),
         "framework deps are not currently supported");
-    checkArgument(!provisionBinding.scope().isPresent());
     checkArgument(provisionBinding.bindingElement().isPresent());
     this.compilerOptions = compilerOptions;
     this.provisionBinding = provisionBinding;
     this.componentBindingExpressions = componentBindingExpressions;
     this.generatedComponentModel = generatedComponentModel;
     this.componentRequirementFields = componentRequirementFields;
+    this.moduleFactoryHolders = moduleFactoryHolders;
     this.elements = elements;
   }
 
@@ -126,7 +131,8 @@ final class SimpleMethodBindingExpression extends SimpleInvocationBindingExpress
                 provisionBinding,
                 request -> dependencyArgument(request, requestingClass),
                 requestingClass,
-                moduleReference(requestingClass))));
+                moduleReference(requestingClass),
+                moduleFactoryHolders.holderFor(provisionBinding))));
   }
 
   private CodeBlock dependencyArgument(DependencyRequest dependency, ClassName requestingClass) {
@@ -23,6 +23,7 @@ import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.TypeSpec;
+import java.io.IOException;
 import java.util.Optional;
 import javax.annotation.Generated;
 import javax.annotation.processing.Filer;
@@ -74,7 +75,9 @@ abstract class SourceFileGenerator<T> {
       return;
     }
     try {
-      buildJavaFile(generatedTypeName, type.get()).writeTo(filer);
+      JavaFile javaFile = buildJavaFile(generatedTypeName, type.get());
+      javaFile.writeTo(filer);
+      writeResources(generatedTypeName, javaFile.typeSpec, input);
     } catch (Exception e) {
       // if the code above threw a SFGE, use that
       Throwables.propagateIfPossible(e, SourceFileGenerationException.class);
@@ -99,6 +102,13 @@ abstract class SourceFileGenerator<T> {
     return javaFileBuilder.build();
   }
 
+  /**
+   * Writes any resource files that accompany the generated type, after its source file has been
+   * written. By default, there are none.
+   */
+  void writeResources(ClassName generatedTypeName, TypeSpec generatedType, T input)
+      throws IOException {}
+
   /**
    * Implementations should return the {@link ClassName} for the top-level type to be generated.
    */
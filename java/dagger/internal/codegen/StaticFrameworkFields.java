@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_UNDERSCORE;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.TypeSpec;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code static} fields of a top-level component that hold framework instances for its
+ * subcomponents when {@linkplain CompilerOptions#deferredSubcomponentFields() subcomponent fields
+ * are deferred}.
+ *
+ * <p>A framework instance that depends on nothing but other such instances, such as {@code
+ * Foo_Factory.create(Bar_Factory.create())} for unscoped bindings, is the same for every instance
+ * of a subcomponent, so it is created once with the top-level component class and shared.
+ */
+final class StaticFrameworkFields {
+  private final UniqueNameSet fieldNames = new UniqueNameSet();
+  private final List<FieldSpec> fields = new ArrayList<>();
+
+  /** Returns a unique name for a static field based on the name of an instance field. */
+  String getUniqueFieldName(String instanceFieldName) {
+    return fieldNames.getUniqueName(LOWER_CAMEL.to(UPPER_UNDERSCORE, instanceFieldName));
+  }
+
+  /**
+   * Adds a field named with {@link #getUniqueFieldName(String)}. Static fields are initialized in
+   * the order in which they are declared, so a field must be added after the fields that its
+   * initializer refers to.
+   */
+  void addField(FieldSpec field, CodeBlock initializer) {
+    fields.add(
+        field.toBuilder().addModifiers(PRIVATE, STATIC, FINAL).initializer(initializer).build());
+  }
+
+  /** Adds the fields to the top-level {@code component}. */
+  void addMembers(TypeSpec.Builder component) {
+    component.addFields(fields);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.squareup.javapoet.MethodSpec.constructorBuilder;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static com.squareup.javapoet.TypeSpec.classBuilder;
+import static dagger.internal.codegen.AnnotationSpecs.Suppression.UNCHECKED;
+import static dagger.internal.codegen.TypeNames.providerOf;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
+import com.google.common.collect.Lists;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The nested {@code SwitchingProvider} class of a component, which implements {@code Provider<T>}
+ * for many bindings with a single class that switches on an {@code int} id.
+ *
+ * <p>Components that use it create no {@code *_Factory} instances for those bindings, so none of
+ * the factory classes need to be loaded.
+ */
+final class SwitchingProviders {
+  /**
+   * The maximum number of cases in one {@code switch} statement. Components with more bindings
+   * split the cases across several methods to stay well below the maximum method size.
+   */
+  private static final int MAX_CASES_PER_SWITCH = 100;
+
+  private static final TypeVariableName T = TypeVariableName.get("T");
+
+  private final ClassName switchingProviderName;
+  private final List<CodeBlock> caseExpressions = new ArrayList<>();
+  private boolean written;
+
+  SwitchingProviders(ClassName componentName) {
+    this.switchingProviderName = checkNotNull(componentName).nestedClass("SwitchingProvider");
+  }
+
+  /**
+   * Returns an expression that creates a new {@code SwitchingProvider} that returns the value of
+   * {@code instanceExpression}.
+   *
+   * @param instanceExpression a function from the requesting class of the expression (the {@code
+   *     SwitchingProvider} class) to the expression for an instance of the binding. It may itself
+   *     request new {@code SwitchingProvider}s.
+   */
+  CodeBlock newSwitchingProvider(Function<ClassName, CodeBlock> instanceExpression) {
+    checkState(!written, "%s has already been written", switchingProviderName);
+    int id = caseExpressions.size();
+    // Reserve the id before computing the expression, which may add other cases.
+    caseExpressions.add(null);
+    caseExpressions.set(id, instanceExpression.apply(switchingProviderName));
+    return CodeBlock.of("new $T<>($L)", switchingProviderName, id);
+  }
+
+  /** Adds the {@code SwitchingProvider} class to the component, if any cases were requested. */
+  void addTo(GeneratedComponentModel generatedComponentModel) {
+    checkState(!written, "%s has already been written", switchingProviderName);
+    written = true;
+    if (caseExpressions.isEmpty()) {
+      return;
+    }
+
+    TypeSpec.Builder switchingProvider =
+        classBuilder(switchingProviderName.simpleName())
+            .addModifiers(PRIVATE, FINAL)
+            .addTypeVariable(T)
+            .addSuperinterface(providerOf(T))
+            .addField(int.class, "id", PRIVATE, FINAL)
+            .addMethod(
+                constructorBuilder()
+                    .addParameter(int.class, "id")
+                    .addStatement("this.id = id")
+                    .build());
+
+    List<List<CodeBlock>> partitions = Lists.partition(caseExpressions, MAX_CASES_PER_SWITCH);
+    MethodSpec.Builder get =
+        methodBuilder("get").addAnnotation(Override.class).addModifiers(PUBLIC).returns(T);
+    if (partitions.size() == 1) {
+      switchingProvider.addMethod(
+          get.addAnnotation(AnnotationSpecs.suppressWarnings(UNCHECKED))
+              .addCode(switchCases(0, partitions.get(0)))
+              .build());
+    } else {
+      CodeBlock.Builder partitionSwitch =
+          CodeBlock.builder().beginControlFlow("switch (id / $L)", MAX_CASES_PER_SWITCH);
+      for (int i = 0; i < partitions.size(); i++) {
+        String methodName = "get" + i;
+        switchingProvider.addMethod(
+            methodBuilder(methodName)
+                .addAnnotation(AnnotationSpecs.suppressWarnings(UNCHECKED))
+                .addModifiers(PRIVATE)
+                .returns(T)
+                .addCode(switchCases(i * MAX_CASES_PER_SWITCH, partitions.get(i)))
+                .build());
+        partitionSwitch.addStatement("case $L: return $N()", i, methodName);
+      }
+      switchingProvider.addMethod(
+          get.addCode(
+                  partitionSwitch
+                      .addStatement("default: throw new $T(id)", AssertionError.class)
+                      .endControlFlow()
+                      .build())
+              .build());
+    }
+    generatedComponentModel.addType(switchingProvider.build());
+  }
+
+  private CodeBlock switchCases(int firstId, List<CodeBlock> expressions) {
+    CodeBlock.Builder cases = CodeBlock.builder().beginControlFlow("switch (id)");
+    for (int i = 0; i < expressions.size(); i++) {
+      cases.addStatement("case $L: return ($T) $L", firstId + i, T, expressions.get(i));
+    }
+    return cases
+        .addStatement("default: throw new $T(id)", AssertionError.class)
+        .endControlFlow()
+        .build();
+  }
+}
@@ -26,17 +26,26 @@ import dagger.Lazy;
 import dagger.MembersInjector;
 import dagger.internal.DelegateFactory;
 import dagger.internal.DoubleCheck;
+import dagger.internal.EagerInitializer;
 import dagger.internal.Factory;
 import dagger.internal.InstanceFactory;
 import dagger.internal.MapFactory;
 import dagger.internal.MapProviderFactory;
 import dagger.internal.MembersInjectors;
+import dagger.internal.MemoizedSentinel;
+import dagger.internal.MonitoredProvider;
 import dagger.internal.ProviderOfLazy;
+import dagger.internal.ReentrantLockDoubleCheck;
 import dagger.internal.ReferenceReleasingProvider;
 import dagger.internal.ReferenceReleasingProviderManager;
+import dagger.internal.RefreshingCheck;
 import dagger.internal.SetFactory;
 import dagger.internal.SingleCheck;
+import dagger.internal.StringKeySwitchMap;
+import dagger.internal.ThreadLocalCheck;
+import dagger.internal.ThreadLocalReferenceManager;
 import dagger.internal.TypedReleasableReferenceManagerDecorator;
+import dagger.monitoring.ProvisionToken;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
 import dagger.producers.internal.AbstractProducer;
@@ -65,6 +74,7 @@ final class TypeNames {
   static final ClassName ASYNC_FUNCTION = ClassName.get(AsyncFunction.class);
   static final ClassName DELEGATE_FACTORY = ClassName.get(DelegateFactory.class);
   static final ClassName DOUBLE_CHECK = ClassName.get(DoubleCheck.class);
+  static final ClassName EAGER_INITIALIZER = ClassName.get(EagerInitializer.class);
   static final ClassName EXECUTOR = ClassName.get(Executor.class);
   static final ClassName FACTORY = ClassName.get(Factory.class);
   static final ClassName FUTURES = ClassName.get(Futures.class);
@@ -80,6 +90,8 @@ final class TypeNames {
   static final ClassName MAP_PROVIDER_FACTORY = ClassName.get(MapProviderFactory.class);
   static final ClassName MEMBERS_INJECTOR = ClassName.get(MembersInjector.class);
   static final ClassName MEMBERS_INJECTORS = ClassName.get(MembersInjectors.class);
+  static final ClassName MEMOIZED_SENTINEL = ClassName.get(MemoizedSentinel.class);
+  static final ClassName MONITORED_PROVIDER = ClassName.get(MonitoredProvider.class);
   static final ClassName OPTIONAL = ClassName.get(Optional.class);
   static final ClassName PRODUCER_TOKEN = ClassName.get(ProducerToken.class);
   static final ClassName PRODUCED = ClassName.get(Produced.class);
@@ -89,11 +101,15 @@ final class TypeNames {
       ClassName.get(ProductionComponentMonitor.Factory.class);
   static final ClassName PROVIDER = ClassName.get(Provider.class);
   static final ClassName PROVIDER_OF_LAZY = ClassName.get(ProviderOfLazy.class);
+  static final ClassName PROVISION_TOKEN = ClassName.get(ProvisionToken.class);
+  static final ClassName REENTRANT_LOCK_DOUBLE_CHECK =
+      ClassName.get(ReentrantLockDoubleCheck.class);
   static final ClassName RUNNABLE = ClassName.get(Runnable.class);
   static final ClassName REFERENCE_RELEASING_PROVIDER =
       ClassName.get(ReferenceReleasingProvider.class);
   static final ClassName REFERENCE_RELEASING_PROVIDER_MANAGER =
       ClassName.get(ReferenceReleasingProviderManager.class);
+  static final ClassName REFRESHING_CHECK = ClassName.get(RefreshingCheck.class);
   static final ClassName RELEASABLE_REFERENCE_MANAGER =
       ClassName.get(ReleasableReferenceManager.class);
   static final ClassName SET = ClassName.get(Set.class);
@@ -102,6 +118,10 @@ final class TypeNames {
   static final ClassName SET_PRODUCER = ClassName.get(SetProducer.class);
   static final ClassName SINGLE_CHECK = ClassName.get(SingleCheck.class);
   static final ClassName STRING = ClassName.get(String.class);
+  static final ClassName STRING_KEY_SWITCH_MAP = ClassName.get(StringKeySwitchMap.class);
+  static final ClassName THREAD_LOCAL_CHECK = ClassName.get(ThreadLocalCheck.class);
+  static final ClassName THREAD_LOCAL_REFERENCE_MANAGER =
+      ClassName.get(ThreadLocalReferenceManager.class);
   static final ClassName TYPED_RELEASABLE_REFERENCE_MANAGER =
       ClassName.get(TypedReleasableReferenceManager.class);
   static final ClassName TYPED_RELEASABLE_REFERENCE_MANAGER_DECORATOR =
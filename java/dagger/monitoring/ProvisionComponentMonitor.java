@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import dagger.internal.Beta;
+
+/**
+ * A hook for monitoring the provisions of a component. To install a {@code
+ * ProvisionComponentMonitor}, bind it in the component (for example, with a {@code @Provides}
+ * method or with {@link dagger.BindsInstance @BindsInstance}) and compile the component with
+ * {@code -Adagger.provisionMonitoring=enabled}. Bindings owned by a subcomponent report to the
+ * monitor bound in the subcomponent or in one of its ancestors.
+ *
+ * <p>The monitor is requested the first time any monitored binding is provisioned, and the same
+ * instance is used for the rest of that binding's provider's lifetime. Bindings that the monitor
+ * itself depends on, directly or transitively, are not monitored.
+ *
+ * <p>If any of these methods throw, then the exception will be logged, and the framework will act
+ * as though a no-op monitor was returned.
+ */
+@Beta
+public abstract class ProvisionComponentMonitor {
+  /**
+   * Returns a monitor for a single provision of the binding represented by {@code token}. This is
+   * called, possibly concurrently, every time such a provision starts.
+   */
+  public abstract ProvisionMonitor provisionMonitorFor(ProvisionToken token);
+
+  private static final ProvisionComponentMonitor NO_OP =
+      new ProvisionComponentMonitor() {
+        @Override
+        public ProvisionMonitor provisionMonitorFor(ProvisionToken token) {
+          return ProvisionMonitor.noOp();
+        }
+      };
+
+  /** Returns a monitor that does no monitoring. */
+  public static ProvisionComponentMonitor noOp() {
+    return NO_OP;
+  }
+}
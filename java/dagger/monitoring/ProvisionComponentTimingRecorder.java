@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import dagger.internal.Beta;
+
+/**
+ * A hook for recording the timing of the provisions of a component. To install a {@code
+ * ProvisionComponentTimingRecorder}, bind a {@link TimingProvisionComponentMonitor} that wraps it
+ * as the component's {@link ProvisionComponentMonitor}. Use {@link
+ * ProvisionTimingRecorders#delegatingProvisionComponentTimingRecorder} to install several.
+ */
+@Beta
+public interface ProvisionComponentTimingRecorder {
+  /**
+   * Returns a timing recorder for the binding represented by {@code token}. This is called,
+   * possibly concurrently, every time such a provision starts, so it should be cheap.
+   */
+  ProvisionTimingRecorder provisionTimingRecorderFor(ProvisionToken token);
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import dagger.Provides;
+import dagger.internal.Beta;
+
+/**
+ * A hook for monitoring individual provisions of an {@link javax.inject.Inject @Inject} or
+ * {@linkplain Provides provision} binding. See {@link ProvisionComponentMonitor} for how to install
+ * these monitors.
+ *
+ * <p>A new monitor is requested for every provision. The lifecycle of the monitor is:
+ * <ul>
+ *   <li>{@link #requested()}
+ *   <li>{@link #methodStarting()}
+ *   <li>The binding's dependencies are provided and the constructor or method is called
+ *   <li>{@link #methodFinished()}
+ *   <li>{@link #failed(Throwable)}, if the constructor or method, or the provision of one of its
+ *       dependencies, threw an exception
+ * </ul>
+ *
+ * <p>Provisions of scoped bindings are monitored only when the scoped instance is created, not
+ * when it is returned again.
+ *
+ * <p>If any of the monitor's methods throw, then the exception will be logged and provisioning
+ * will continue unaffected.
+ */
+@Beta
+public abstract class ProvisionMonitor {
+  /**
+   * Called when the binding is requested; that is, when {@link javax.inject.Provider#get()} is
+   * called on the binding's provider.
+   */
+  public void requested() {}
+
+  /**
+   * Called when the provision starts. Any unscoped dependencies that have not yet been provided
+   * will be provided between this call and {@link #methodFinished()}.
+   */
+  public void methodStarting() {}
+
+  /** Called when the provision finishes, whether or not it succeeded. */
+  public void methodFinished() {}
+
+  /**
+   * Called when the provision throws an exception, after {@link #methodFinished()}.
+   *
+   * @param t the exception that the provision threw. It is rethrown after this method returns.
+   */
+  public void failed(Throwable t) {}
+
+  private static final ProvisionMonitor NO_OP = new ProvisionMonitor() {};
+
+  /** Returns a monitor that does no monitoring. */
+  public static ProvisionMonitor noOp() {
+    return NO_OP;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import dagger.internal.Beta;
+
+/**
+ * A hook for recording the timing of individual provisions of an {@link
+ * javax.inject.Inject @Inject} or {@link dagger.Provides @Provides} binding. See {@link
+ * ProvisionComponentTimingRecorder} for how to install these recorders.
+ *
+ * <p>All timings are measured at nanosecond precision, but not necessarily nanosecond resolution,
+ * using {@link System#nanoTime()}. Durations include the time taken to provide any unscoped
+ * dependencies of the binding, which are reported separately as well.
+ */
+@Beta
+public abstract class ProvisionTimingRecorder {
+  /**
+   * Reports that a provision has finished, whether or not it succeeded.
+   *
+   * @param startedNanos the wall-clock time, in nanoseconds, when the provision started, measured
+   *     from when the {@link TimingProvisionComponentMonitor} was created.
+   * @param durationNanos the wall-clock time, in nanoseconds, that the provision took.
+   */
+  public void recordMethod(long startedNanos, long durationNanos) {}
+
+  /**
+   * Reports that a provision threw an exception. This is called after {@link #recordMethod(long,
+   * long)}.
+   *
+   * @param exception the exception that the provision threw.
+   * @param durationNanos the wall-clock time, in nanoseconds, that the provision took.
+   */
+  public void recordFailure(Throwable exception, long durationNanos) {}
+
+  private static final ProvisionTimingRecorder NO_OP = new ProvisionTimingRecorder() {};
+
+  /** Returns a recorder that does nothing. */
+  public static ProvisionTimingRecorder noOp() {
+    return NO_OP;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import dagger.internal.Beta;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/** Utility methods relating to the timing of provisions. */
+@Beta
+public final class ProvisionTimingRecorders {
+  private static final Logger logger = Logger.getLogger(ProvisionTimingRecorders.class.getName());
+
+  /**
+   * Returns a timing recorder that delegates to the given recorders, and ensures that any method
+   * called on this object, even transitively, does not throw a {@link RuntimeException} or return
+   * null. An exception thrown by one delegate is logged and does not prevent the others from being
+   * called.
+   *
+   * <p>If the delegate recorders throw an {@link Error}, then that will escape this recorder
+   * implementation.
+   */
+  public static ProvisionComponentTimingRecorder delegatingProvisionComponentTimingRecorder(
+      Collection<? extends ProvisionComponentTimingRecorder> recorders) {
+    final ProvisionComponentTimingRecorder[] delegates =
+        recorders.toArray(new ProvisionComponentTimingRecorder[recorders.size()]);
+    return new ProvisionComponentTimingRecorder() {
+      @Override
+      public ProvisionTimingRecorder provisionTimingRecorderFor(ProvisionToken token) {
+        List<ProvisionTimingRecorder> timingRecorders =
+            new ArrayList<ProvisionTimingRecorder>(delegates.length);
+        for (ProvisionComponentTimingRecorder delegate : delegates) {
+          try {
+            ProvisionTimingRecorder timingRecorder = delegate.provisionTimingRecorderFor(token);
+            if (timingRecorder != null) {
+              timingRecorders.add(timingRecorder);
+            }
+          } catch (RuntimeException e) {
+            logger.log(
+                Level.SEVERE,
+                "RuntimeException while calling provisionTimingRecorderFor on timing recorder "
+                    + delegate
+                    + " with token "
+                    + token,
+                e);
+          }
+        }
+        return timingRecorders.isEmpty()
+            ? ProvisionTimingRecorder.noOp()
+            : new DelegatingProvisionTimingRecorder(
+                timingRecorders.toArray(new ProvisionTimingRecorder[timingRecorders.size()]));
+      }
+    };
+  }
+
+  /**
+   * A timing recorder that delegates to several recorders, and catches and logs all exceptions that
+   * the delegates throw.
+   */
+  private static final class DelegatingProvisionTimingRecorder extends ProvisionTimingRecorder {
+    private final ProvisionTimingRecorder[] delegates;
+
+    DelegatingProvisionTimingRecorder(ProvisionTimingRecorder[] delegates) {
+      this.delegates = delegates;
+    }
+
+    @Override
+    public void recordMethod(long startedNanos, long durationNanos) {
+      for (ProvisionTimingRecorder delegate : delegates) {
+        try {
+          delegate.recordMethod(startedNanos, durationNanos);
+        } catch (RuntimeException e) {
+          logMethodException(e, delegate, "recordMethod");
+        }
+      }
+    }
+
+    @Override
+    public void recordFailure(Throwable exception, long durationNanos) {
+      for (ProvisionTimingRecorder delegate : delegates) {
+        try {
+          delegate.recordFailure(exception, durationNanos);
+        } catch (RuntimeException e) {
+          logMethodException(e, delegate, "recordFailure");
+        }
+      }
+    }
+  }
+
+  private static void logMethodException(
+      RuntimeException e, ProvisionTimingRecorder recorder, String method) {
+    logger.log(
+        Level.SEVERE,
+        "RuntimeException while calling ProvisionTimingRecorder." + method + " on recorder "
+            + recorder,
+        e);
+  }
+
+  private ProvisionTimingRecorders() {}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.internal.Beta;
+
+/**
+ * A token that represents an individual {@link javax.inject.Inject @Inject} or {@link
+ * dagger.Provides @Provides} binding.
+ */
+@Beta
+public final class ProvisionToken {
+  private final Class<?> classToken;
+  private final String bindingName;
+
+  private ProvisionToken(Class<?> classToken, String bindingName) {
+    this.classToken = classToken;
+    this.bindingName = bindingName;
+  }
+
+  /**
+   * Creates a token for a class token that represents the generated factory for a binding.
+   *
+   * <p><b>Do not use this!</b> This is intended to be called by generated code only, and its
+   * signature may change at any time.
+   */
+  public static ProvisionToken create(Class<?> classToken) {
+    return new ProvisionToken(checkNotNull(classToken), null);
+  }
+
+  /**
+   * Creates a token for a binding.
+   *
+   * <p><b>Do not use this!</b> This is intended to be called by generated code only, and its
+   * signature may change at any time.
+   */
+  public static ProvisionToken create(String bindingName) {
+    return new ProvisionToken(null, checkNotNull(bindingName));
+  }
+
+  /** Two tokens are equal if they represent the same binding. */
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    } else if (o instanceof ProvisionToken) {
+      ProvisionToken that = (ProvisionToken) o;
+      return (classToken == null ? that.classToken == null : classToken.equals(that.classToken))
+          && (bindingName == null
+              ? that.bindingName == null
+              : bindingName.equals(that.bindingName));
+    } else {
+      return false;
+    }
+  }
+
+  /** Returns an appropriate hash code to match {@link #equals(Object)}. */
+  @Override
+  public int hashCode() {
+    int h = 1;
+    h *= 1000003;
+    h ^= classToken == null ? 0 : classToken.hashCode();
+    h *= 1000003;
+    h ^= bindingName == null ? 0 : bindingName.hashCode();
+    return h;
+  }
+
+  /** Returns a representation of the binding. */
+  @Override
+  public String toString() {
+    return bindingName != null ? bindingName : classToken.getName();
+  }
+}
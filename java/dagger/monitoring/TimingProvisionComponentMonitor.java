@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.internal.Beta;
+
+/**
+ * A monitor that measures the timing of the provisions of a component, and logs those timings with
+ * the given recorder.
+ */
+@Beta
+public final class TimingProvisionComponentMonitor extends ProvisionComponentMonitor {
+  private final ProvisionComponentTimingRecorder recorder;
+  private final long createdNanos;
+
+  public TimingProvisionComponentMonitor(ProvisionComponentTimingRecorder recorder) {
+    this.recorder = checkNotNull(recorder);
+    this.createdNanos = System.nanoTime();
+  }
+
+  @Override
+  public ProvisionMonitor provisionMonitorFor(ProvisionToken token) {
+    ProvisionTimingRecorder timingRecorder = recorder.provisionTimingRecorderFor(token);
+    return timingRecorder == null
+        ? ProvisionMonitor.noOp()
+        : new TimingProvisionMonitor(timingRecorder);
+  }
+
+  /** A monitor that measures the timing of a single provision. */
+  private final class TimingProvisionMonitor extends ProvisionMonitor {
+    private final ProvisionTimingRecorder timingRecorder;
+    private long startNanos;
+    private long durationNanos;
+
+    TimingProvisionMonitor(ProvisionTimingRecorder timingRecorder) {
+      this.timingRecorder = timingRecorder;
+    }
+
+    @Override
+    public void methodStarting() {
+      startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void methodFinished() {
+      durationNanos = System.nanoTime() - startNanos;
+      timingRecorder.recordMethod(startNanos - createdNanos, durationNanos);
+    }
+
+    @Override
+    public void failed(Throwable t) {
+      timingRecorder.recordFailure(t, durationNanos);
+    }
+  }
+}
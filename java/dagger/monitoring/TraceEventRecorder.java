@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records begin and end events into a preallocated ring buffer, and exports them in the <a
+ * href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome
+ * trace event format</a>, which can be loaded in {@code chrome://tracing} or Perfetto.
+ *
+ * <p>Once the buffer is full, each new event overwrites the oldest one. Recording allocates only
+ * the event itself and never blocks, so it can be shared by many components and threads. For
+ * example, one recorder can be passed to both a {@link TracingProvisionComponentMonitor} and a
+ * {@code dagger.producers.monitoring.TracingProductionComponentMonitor.Factory} to merge provision
+ * and production events into one trace.
+ *
+ * <p>Events are nested per thread in the exported trace, so the dependency that triggered a
+ * provision appears as the enclosing event on the same thread.
+ */
+@Beta
+@GwtIncompatible
+public final class TraceEventRecorder {
+  private static final char BEGIN = 'B';
+  private static final char END = 'E';
+  private static final char INSTANT = 'i';
+
+  private final long originNanos = System.nanoTime();
+  private final AtomicLong nextSequence = new AtomicLong();
+  private final int mask;
+
+  /**
+   * The most recent event in each slot. Each event is published as a single immutable object, so
+   * readers never see a partially written event; they compare its sequence number to skip slots
+   * that have been overwritten since.
+   */
+  private final AtomicReferenceArray<Event> events;
+
+  /**
+   * Creates a recorder that keeps the most recent events, up to {@code capacity} rounded up to a
+   * power of two.
+   *
+   * @throws IllegalArgumentException if {@code capacity} is not positive or is too large
+   */
+  public TraceEventRecorder(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.mask = size - 1;
+    this.events = new AtomicReferenceArray<Event>(size);
+  }
+
+  /** Records that the event {@code name} started on the current thread. */
+  public void begin(String category, String name) {
+    record(BEGIN, category, name, null);
+  }
+
+  /** Records that the most recent event {@code name} on the current thread ended. */
+  public void end(String category, String name) {
+    record(END, category, name, null);
+  }
+
+  /** Records an event {@code name} that has no duration, described by {@code detail}. */
+  public void instant(String category, String name, String detail) {
+    record(INSTANT, category, name, detail);
+  }
+
+  private void record(char phase, String category, String name, String detail) {
+    long nanos = System.nanoTime();
+    Thread thread = Thread.currentThread();
+    long sequence = nextSequence.getAndIncrement();
+    events.set(
+        (int) sequence & mask,
+        new Event(
+            sequence,
+            phase,
+            category,
+            name,
+            detail,
+            nanos - originNanos,
+            thread.getId(),
+            thread.getName()));
+  }
+
+  /**
+   * Writes the recorded events to {@code out} as a Chrome trace JSON object. Events recorded
+   * concurrently with the export may be omitted.
+   */
+  public void writeChromeTrace(Appendable out) throws IOException {
+    long end = nextSequence.get();
+    long start = Math.max(0, end - (mask + 1));
+    Map<Long, String> threads = new LinkedHashMap<Long, String>();
+    out.append("{\"traceEvents\":[");
+    boolean first = true;
+    for (long sequence = start; sequence < end; sequence++) {
+      Event event = events.get((int) sequence & mask);
+      if (event == null || event.sequence != sequence) {
+        continue;
+      }
+      char phase = event.phase;
+      long nanos = event.timestampNanos;
+      long threadId = event.threadId;
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      out.append("{\"name\":");
+      appendString(out, event.name);
+      out.append(",\"cat\":");
+      appendString(out, event.category);
+      out.append(",\"ph\":\"").append(phase).append('"');
+      out.append(",\"ts\":").append(Long.toString(nanos / 1000)).append('.');
+      appendPadded(out, nanos % 1000);
+      out.append(",\"pid\":1,\"tid\":").append(Long.toString(threadId));
+      if (phase == INSTANT) {
+        out.append(",\"s\":\"t\"");
+      }
+      if (event.detail != null) {
+        out.append(",\"args\":{\"detail\":");
+        appendString(out, event.detail);
+        out.append('}');
+      }
+      out.append('}');
+      threads.put(threadId, event.threadName);
+    }
+    for (Map.Entry<Long, String> thread : threads.entrySet()) {
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      out.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":")
+          .append(Long.toString(thread.getKey()))
+          .append(",\"args\":{\"name\":");
+      appendString(out, thread.getValue());
+      out.append("}}");
+    }
+    out.append("]}");
+  }
+
+  /** A single recorded event. */
+  private static final class Event {
+    final long sequence;
+    final char phase;
+    final String category;
+    final String name;
+    final String detail;
+    final long timestampNanos;
+    final long threadId;
+    final String threadName;
+
+    Event(
+        long sequence,
+        char phase,
+        String category,
+        String name,
+        String detail,
+        long timestampNanos,
+        long threadId,
+        String threadName) {
+      this.sequence = sequence;
+      this.phase = phase;
+      this.category = category;
+      this.name = name;
+      this.detail = detail;
+      this.timestampNanos = timestampNanos;
+      this.threadId = threadId;
+      this.threadName = threadName;
+    }
+  }
+
+  private static void appendPadded(Appendable out, long nanos) throws IOException {
+    if (nanos < 100) {
+      out.append('0');
+    }
+    if (nanos < 10) {
+      out.append('0');
+    }
+    out.append(Long.toString(nanos));
+  }
+
+  private static void appendString(Appendable out, String string) throws IOException {
+    if (string == null) {
+      out.append("null");
+      return;
+    }
+    out.append('"');
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            String hex = Integer.toHexString(c);
+            out.append("\\u");
+            for (int j = hex.length(); j < 4; j++) {
+              out.append('0');
+            }
+            out.append(hex);
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    out.append('"');
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+
+/**
+ * A monitor that records a begin and an end event for each provision of a component in a {@link
+ * TraceEventRecorder}, using the {@code "provision"} category.
+ */
+@Beta
+@GwtIncompatible
+public final class TracingProvisionComponentMonitor extends ProvisionComponentMonitor {
+  private static final String CATEGORY = "provision";
+
+  private final TraceEventRecorder recorder;
+
+  public TracingProvisionComponentMonitor(TraceEventRecorder recorder) {
+    this.recorder = checkNotNull(recorder);
+  }
+
+  @Override
+  public ProvisionMonitor provisionMonitorFor(ProvisionToken token) {
+    final String name = token.toString();
+    return new ProvisionMonitor() {
+      @Override
+      public void methodStarting() {
+        recorder.begin(CATEGORY, name);
+      }
+
+      @Override
+      public void methodFinished() {
+        recorder.end(CATEGORY, name);
+      }
+
+      @Override
+      public void failed(Throwable t) {
+        recorder.instant(CATEGORY, name, t.toString());
+      }
+    };
+  }
+}
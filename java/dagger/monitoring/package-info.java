@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * This package provides hooks for monitoring the provision of {@link javax.inject.Inject @Inject}
+ * and {@link dagger.Provides @Provides} bindings.
+ *
+ * <p>Components report to these hooks only when compiled with {@code
+ * -Adagger.provisionMonitoring=enabled}, and only if they bind a {@link ProvisionComponentMonitor}.
+ * Otherwise the generated code is unchanged.
+ *
+ * <p>The interfaces in this package are not stable. Do not use these interfaces unless you are
+ * prepared to be broken.
+ */
+
+package dagger.monitoring;
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.multibindings;
+
+import dagger.internal.Beta;
+
+/**
+ * A read-only map from {@code int} keys to values, which can be injected in addition to the
+ * {@code Map<Integer, V>} of a map multibinding whose keys are {@code int}s, such as those
+ * contributed with {@link IntKey @IntKey}. Lookups use the primitive key directly, so they never
+ * box it or hash it.
+ *
+ * <p>Requests for {@code IntKeyMap<V>} and {@code IntKeyMap<Provider<V>>} are satisfied by the
+ * same contributions as {@code Map<Integer, V>} and {@code Map<Integer, Provider<V>>} with the same
+ * qualifier:
+ *
+ * <pre><code>
+ *   {@literal @Module} class OpcodeModule {
+ *     {@literal @Provides @IntoMap @IntKey(1)} static Instruction load() { … }
+ *     {@literal @Provides @IntoMap @IntKey(2)} static Instruction store() { … }
+ *   }
+ *
+ *   class Interpreter {
+ *     {@literal @Inject Interpreter(IntKeyMap<Provider<Instruction>> instructions)} { … }
+ *   }</code></pre>
+ *
+ * <p>The entries are sorted by key when the component is generated, so the map needs no hash table
+ * and can be iterated in ascending key order with {@link #keyAt(int)} and {@link #valueAt(int)}.
+ */
+@Beta
+public interface IntKeyMap<V> {
+  /** Returns the number of entries in this map. */
+  int size();
+
+  /** Returns {@code true} if this map contains an entry for {@code key}. */
+  boolean containsKey(int key);
+
+  /** Returns the value for {@code key}, or {@code null} if this map contains no entry for it. */
+  V get(int key);
+
+  /**
+   * Returns the key of the entry at {@code index}, where entries are ordered by ascending key.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size()}
+   */
+  int keyAt(int index);
+
+  /**
+   * Returns the value of the entry at {@code index}, where entries are ordered by ascending key.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size()}
+   */
+  V valueAt(int index);
+}
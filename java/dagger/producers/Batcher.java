@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import dagger.internal.Beta;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces single-key loads into calls to a batch function. Keys requested within a short window
+ * are collected into one batch, the batch function is called once for all of them, and each caller
+ * receives the value for its own key.
+ *
+ * <p>A batcher is meant to be shared by many production components, for example by binding it in
+ * a {@link javax.inject.Singleton @Singleton} parent component, so that the same producer in
+ * concurrently executing components loads its values together:
+ *
+ * <pre><code>
+ *   {@literal @}Provides {@literal @}Singleton
+ *   static {@literal Batcher<UserId, User>} userBatcher(
+ *       UserService service, ScheduledExecutorService scheduler) {
+ *     return Batcher.create(service::getUsers, 100, 2, TimeUnit.MILLISECONDS, scheduler);
+ *   }
+ *
+ *   {@literal @}Produces
+ *   static {@literal ListenableFuture<User>} user(
+ *       UserId userId, {@literal Batcher<UserId, User>} userBatcher) {
+ *     return userBatcher.load(userId);
+ *   }
+ * </code></pre>
+ *
+ * <p>A batch is dispatched when it has {@code maxBatchSize} distinct keys, on the thread that added
+ * the last key, or {@code maxDelay} after its first key was added, on a thread of the scheduler.
+ * The batch function should therefore return quickly, doing its work asynchronously. Loads of the
+ * same key within one batch share a single entry in the batch.
+ *
+ * <p>If the batch function throws, its future fails or its map is {@code null}, every load in the
+ * batch fails with the same exception, as does every load in a batch that the scheduler rejects. If
+ * the batch function's result has no entry for a key, that key's load fails with a {@link
+ * NoSuchElementException}. Cancelling the future returned by {@link #load(Object)} does not
+ * remove its key from the batch, and does not affect other loads of the same key.
+ *
+ * @param <K> the type of the keys; must have value-based {@link Object#equals(Object)} and {@link
+ *     Object#hashCode()}
+ * @param <V> the type of the values
+ */
+@Beta
+public final class Batcher<K, V> {
+  /** Loads the values for a batch of keys. */
+  public interface BatchFunction<K, V> {
+    /**
+     * Returns a future of the values for {@code keys}. The set is unmodifiable and is never empty.
+     */
+    ListenableFuture<? extends Map<K, ? extends V>> load(Set<K> keys) throws Exception;
+  }
+
+  private final BatchFunction<K, V> batchFunction;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final ScheduledExecutorService scheduler;
+
+  /** The batch that is collecting keys, or {@code null} if none is. Guarded by {@code this}. */
+  private Map<K, SettableFuture<V>> pendingBatch = null;
+
+  private Batcher(
+      BatchFunction<K, V> batchFunction,
+      int maxBatchSize,
+      long maxDelayNanos,
+      ScheduledExecutorService scheduler) {
+    this.batchFunction = batchFunction;
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = maxDelayNanos;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Returns a new batcher.
+   *
+   * @param maxBatchSize the number of distinct keys at which a batch is dispatched immediately
+   * @param maxDelay how long after its first key a batch is dispatched if it has not filled up
+   * @param scheduler the executor used to dispatch batches after {@code maxDelay}
+   * @throws IllegalArgumentException if {@code maxBatchSize} is not positive or {@code maxDelay} is
+   *     negative
+   */
+  public static <K, V> Batcher<K, V> create(
+      BatchFunction<K, V> batchFunction,
+      int maxBatchSize,
+      long maxDelay,
+      TimeUnit unit,
+      ScheduledExecutorService scheduler) {
+    checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: %s", maxBatchSize);
+    checkArgument(maxDelay >= 0, "maxDelay must not be negative: %s", maxDelay);
+    return new Batcher<K, V>(
+        checkNotNull(batchFunction), maxBatchSize, unit.toNanos(maxDelay), checkNotNull(scheduler));
+  }
+
+  /** Adds {@code key} to the current batch, and returns a future of its value. */
+  public ListenableFuture<V> load(K key) {
+    checkNotNull(key);
+    SettableFuture<V> value;
+    Map<K, SettableFuture<V>> newBatch = null;
+    Map<K, SettableFuture<V>> fullBatch = null;
+    synchronized (this) {
+      if (pendingBatch == null) {
+        pendingBatch = newBatch = new LinkedHashMap<K, SettableFuture<V>>();
+      }
+      value = pendingBatch.get(key);
+      if (value == null) {
+        value = SettableFuture.create();
+        pendingBatch.put(key, value);
+        if (pendingBatch.size() >= maxBatchSize) {
+          fullBatch = pendingBatch;
+          pendingBatch = null;
+        }
+      }
+    }
+    if (fullBatch != null) {
+      dispatch(fullBatch);
+    } else if (newBatch != null) {
+      scheduleDispatch(newBatch);
+    }
+    return Futures.nonCancellationPropagating(value);
+  }
+
+  private void scheduleDispatch(final Map<K, SettableFuture<V>> batch) {
+    try {
+      scheduler.schedule(
+          new Runnable() {
+            @Override
+            public void run() {
+              if (takePendingBatch(batch)) {
+                dispatch(batch);
+              }
+            }
+          },
+          maxDelayNanos,
+          NANOSECONDS);
+    } catch (RuntimeException e) {
+      // Nothing would ever dispatch the batch, so fail its loads instead of leaving them pending.
+      if (takePendingBatch(batch)) {
+        setException(batch, e);
+      }
+    }
+  }
+
+  /**
+   * Stops collecting keys into {@code batch}. Returns {@code false} if the batch filled up and has
+   * already been dispatched.
+   */
+  private synchronized boolean takePendingBatch(Map<K, SettableFuture<V>> batch) {
+    if (pendingBatch != batch) {
+      return false;
+    }
+    pendingBatch = null;
+    return true;
+  }
+
+  private void dispatch(final Map<K, SettableFuture<V>> batch) {
+    ListenableFuture<? extends Map<K, ? extends V>> values;
+    try {
+      values =
+          checkNotNull(
+              batchFunction.load(Collections.unmodifiableSet(batch.keySet())),
+              "%s returned null",
+              batchFunction);
+    } catch (Throwable t) {
+      values = Futures.immediateFailedFuture(t);
+    }
+    Futures.addCallback(
+        values,
+        new FutureCallback<Map<K, ? extends V>>() {
+          @Override
+          public void onSuccess(Map<K, ? extends V> result) {
+            if (result == null) {
+              setException(
+                  batch, new NullPointerException(batchFunction + " returned a null map"));
+              return;
+            }
+            try {
+              for (Map.Entry<K, SettableFuture<V>> entry : batch.entrySet()) {
+                K key = entry.getKey();
+                V value = result.get(key);
+                if (value == null && !result.containsKey(key)) {
+                  entry
+                      .getValue()
+                      .setException(new NoSuchElementException("No value was loaded for " + key));
+                } else {
+                  entry.getValue().set(value);
+                }
+              }
+            } catch (RuntimeException e) {
+              // Fails only the loads that have not been completed yet.
+              setException(batch, e);
+            }
+          }
+
+          @Override
+          public void onFailure(Throwable t) {
+            setException(batch, t);
+          }
+        },
+        directExecutor());
+  }
+
+  private static <V> void setException(Map<?, SettableFuture<V>> batch, Throwable t) {
+    for (SettableFuture<V> value : batch.values()) {
+      value.setException(t);
+    }
+  }
+}
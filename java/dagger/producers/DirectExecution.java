@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.internal.Beta;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Produces @Produces} method, or every {@code @Produces} method of a {@link
+ * ProducerModule @ProducerModule}, as cheap enough to run directly on the thread that completed its
+ * last input, instead of being submitted to the {@link Production @Production} executor.
+ *
+ * <p>Submitting to the executor costs a thread handoff and a queue insertion, which can dominate
+ * the cost of trivial producers such as field projections or small merges:
+ *
+ * <pre><code>
+ *   {@literal @Produces}
+ *   {@literal @DirectExecution}
+ *   static UserId userId(Request request) {
+ *     return request.getUserId();
+ *   }
+ * </code></pre>
+ *
+ * <p>A direct producer whose inputs are already available runs on the thread that requested it.
+ * Direct producers must therefore not block or do significant work, since they may run on a thread
+ * that is completing some other future, or on the caller of a production component method. The
+ * {@link dagger.producers.monitoring.ProducerMonitor} callbacks are called as for any other
+ * producer.
+ */
+@Documented
+@Target({METHOD, TYPE})
+@Retention(RUNTIME)
+@Beta
+public @interface DirectExecution {}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import dagger.internal.Beta;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of production results that can be shared by many production components, so that a value
+ * that is the same for many requests is computed once instead of once per component.
+ *
+ * <p>Bind a cache in a parent component, and use it in the {@link Produces @Produces} methods whose
+ * results should be shared, deriving the cache key from the method's inputs:
+ *
+ * <pre><code>
+ *   {@literal @}Provides {@literal @}Singleton
+ *   static {@literal ProducerCache<TenantId, TenantConfig>} tenantConfigCache() {
+ *     return ProducerCache.create(1000, 5, TimeUnit.MINUTES);
+ *   }
+ *
+ *   {@literal @}Produces
+ *   static {@literal ListenableFuture<TenantConfig>} tenantConfig(
+ *       final TenantId tenantId,
+ *       final ConfigService configService,
+ *       {@literal ProducerCache<TenantId, TenantConfig>} cache) {
+ *     return cache.get(tenantId, () {@literal ->} configService.fetch(tenantId));
+ *   }
+ * </code></pre>
+ *
+ * <p>Concurrent requests for a key that is being computed share the in-flight future, so the
+ * loader is called only once per key and expiration period (single-flight). Entries expire a fixed
+ * time after their computation started. When the cache holds more than its maximum number of
+ * entries, the least recently used entries are evicted. Computations that fail or are cancelled
+ * are removed as soon as they complete, so the next request tries again.
+ *
+ * <p>Cancelling a future returned by {@link #get} does not cancel the shared computation.
+ *
+ * @param <K> the type of the keys; must have value-based {@link Object#equals(Object)} and {@link
+ *     Object#hashCode()}
+ * @param <V> the type of the values
+ */
+@Beta
+public final class ProducerCache<K, V> {
+  private final ConcurrentMap<K, ListenableFuture<V>> values;
+
+  private ProducerCache(ConcurrentMap<K, ListenableFuture<V>> values) {
+    this.values = values;
+  }
+
+  /**
+   * Returns a new cache.
+   *
+   * @param maximumSize the maximum number of entries
+   * @param timeToLive how long after its computation started an entry is used
+   * @throws IllegalArgumentException if {@code maximumSize} is negative or {@code timeToLive} is
+   *     not positive
+   */
+  public static <K, V> ProducerCache<K, V> create(
+      long maximumSize, long timeToLive, TimeUnit unit) {
+    return create(maximumSize, timeToLive, unit, Ticker.systemTicker());
+  }
+
+  /** Returns a new cache that reads the time from {@code ticker}. Visible for testing. */
+  static <K, V> ProducerCache<K, V> create(
+      long maximumSize, long timeToLive, TimeUnit unit, Ticker ticker) {
+    checkArgument(maximumSize >= 0, "maximumSize must not be negative: %s", maximumSize);
+    checkArgument(timeToLive > 0, "timeToLive must be positive: %s", timeToLive);
+    return new ProducerCache<K, V>(
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLive, unit)
+            .ticker(ticker)
+            .<K, ListenableFuture<V>>build()
+            .asMap());
+  }
+
+  /**
+   * Returns a future of the value for {@code key}. If there is no entry for {@code key}, calls
+   * {@code loader} to compute it.
+   */
+  public ListenableFuture<V> get(K key, AsyncCallable<V> loader) {
+    checkNotNull(key);
+    checkNotNull(loader);
+    ListenableFuture<V> value = values.get(key);
+    if (value == null) {
+      SettableFuture<V> newValue = SettableFuture.create();
+      value = values.putIfAbsent(key, newValue);
+      if (value == null) {
+        value = newValue;
+        load(key, newValue, loader);
+      }
+    }
+    return Futures.nonCancellationPropagating(value);
+  }
+
+  /** Removes the entry for {@code key}, if any. In-flight computations are not cancelled. */
+  public void invalidate(K key) {
+    values.remove(checkNotNull(key));
+  }
+
+  /** Removes all entries. In-flight computations are not cancelled. */
+  public void invalidateAll() {
+    values.clear();
+  }
+
+  private void load(final K key, final SettableFuture<V> value, AsyncCallable<V> loader) {
+    value.addListener(
+        new Runnable() {
+          @Override
+          public void run() {
+            try {
+              Futures.getDone(value);
+            } catch (ExecutionException | CancellationException e) {
+              values.remove(key, value);
+            }
+          }
+        },
+        directExecutor());
+    // Call the loader outside of any lock held by the map, since it runs user code.
+    try {
+      value.setFuture(checkNotNull(loader.call(), "%s returned null", loader));
+    } catch (Throwable t) {
+      value.setException(t);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.internal.Beta;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how long a {@link Produces @Produces} method's output may take to become available:
+ *
+ * <pre><code>
+ *   {@literal @Produces}
+ *   {@literal @ProducerTimeout}(value = 200, unit = TimeUnit.MILLISECONDS)
+ *   static {@literal ListenableFuture<Recommendations>} recommendations(
+ *       RecommendationService service, UserId userId) {
+ *     return service.recommend(userId);
+ *   }
+ * </code></pre>
+ *
+ * <p>The timeout starts when the producer is first requested, so it includes the time spent waiting
+ * for the method's inputs. If the output is not available when it expires, the producer fails with
+ * a {@link ProducerTimeoutException} and the pending computation is cancelled. Consumers that
+ * depend on {@code Produced<T>} receive a failed {@link Produced} and can degrade gracefully. The
+ * failure is reported to {@link dagger.producers.monitoring.ProducerMonitor#failed(Throwable)
+ * ProducerMonitor.failed} like any other failure.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+@Beta
+public @interface ProducerTimeout {
+  /** The length of the timeout, in {@link #unit()}s. Must be positive. */
+  long value();
+
+  /** The unit of {@link #value()}. */
+  TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
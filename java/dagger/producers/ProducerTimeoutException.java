@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import dagger.internal.Beta;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The exception with which a producer fails when its {@link ProducerTimeout @ProducerTimeout}
+ * expires before its output is available.
+ */
+@Beta
+public final class ProducerTimeoutException extends TimeoutException {
+  public ProducerTimeoutException(String message) {
+    super(message);
+  }
+}
@@ -17,7 +17,9 @@
 package dagger.producers.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import dagger.producers.Producer;
 import dagger.producers.monitoring.ProducerMonitor;
@@ -30,6 +32,13 @@ import javax.inject.Provider;
 /**
  * An abstract {@link Producer} implementation that memoizes the result of its compute method.
  *
+ * <p>Each call to {@link #get} while the result is still pending is treated as a separate consumer,
+ * and returns a view of the result that can be cancelled independently. Once every consumer's view
+ * has been cancelled, the result itself is cancelled. For generated producers, that cancels the
+ * futures of their inputs in turn, and a {@code @Produces} method that has not yet started is
+ * never invoked. The cancelled result is then forgotten, so a later call to {@link #get} computes
+ * it again.
+ *
  * @author Jesse Beder
  * @since 2.0
  */
@@ -37,6 +46,13 @@ public abstract class AbstractProducer<T> implements Producer<T> {
   private final Provider<ProductionComponentMonitor> monitorProvider;
   @Nullable private final ProducerToken token;
   private volatile ListenableFuture<T> instance = null;
+
+  /**
+   * The number of views of {@link #instance} returned by {@link #get} that have not been cancelled.
+   * Guarded by {@code this}.
+   */
+  private int activeConsumers = 0;
+
   protected volatile ProducerMonitor monitor = null;
 
   protected AbstractProducer() {
@@ -57,22 +73,59 @@ public abstract class AbstractProducer<T> implements Producer<T> {
 
   @Override
   public final ListenableFuture<T> get() {
-    // double-check idiom from EJ2: Item 71
+    // Cancelling a view of a future that is already done would have no effect, so share it.
     ListenableFuture<T> result = instance;
-    if (result == null) {
-      synchronized (this) {
-        result = instance;
+    if (result != null && result.isDone()) {
+      return result;
+    }
+    synchronized (this) {
+      result = instance;
+      if (result == null) {
+        monitor = monitorProvider.get().producerMonitorFor(token);
+        monitor.requested();
+        instance = result = compute();
         if (result == null) {
-          monitor = monitorProvider.get().producerMonitorFor(token);
-          monitor.requested();
-          instance = result = compute();
-          if (result == null) {
-            throw new NullPointerException("compute returned null");
-          }
-          monitor.addCallbackTo(result);
+          throw new NullPointerException("compute returned null");
         }
+        monitor.addCallbackTo(result);
+      }
+      if (result.isDone()) {
+        return result;
+      }
+      // Count the consumer while holding the lock, so that it belongs to the same result that
+      // consumerCancelled() compares against.
+      activeConsumers++;
+    }
+    return newConsumerView(result);
+  }
+
+  /**
+   * Returns a view of {@code result} for a new consumer. Cancelling the view cancels {@code result}
+   * only if all other views have been cancelled as well.
+   */
+  private ListenableFuture<T> newConsumerView(final ListenableFuture<T> result) {
+    final ListenableFuture<T> view = Futures.nonCancellationPropagating(result);
+    view.addListener(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (view.isCancelled()) {
+              consumerCancelled(result);
+            }
+          }
+        },
+        directExecutor());
+    return view;
+  }
+
+  private void consumerCancelled(ListenableFuture<T> result) {
+    synchronized (this) {
+      if (instance != result || --activeConsumers > 0) {
+        return;
       }
+      instance = null;
     }
-    return result;
+    // Cancel outside the lock, since listeners of the result (including upstream views) run now.
+    result.cancel(false);
   }
 }
@@ -27,11 +27,19 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
+import dagger.producers.ProducerTimeout;
+import dagger.producers.ProducerTimeoutException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Provider;
 
 /**
@@ -153,6 +161,84 @@ public final class Producers {
     };
   }
 
+  /**
+   * Returns a future that completes like {@code future}, or fails with a {@link
+   * ProducerTimeoutException} if {@code future} is not done within the given timeout. On timeout,
+   * {@code future} is cancelled. Cancelling the returned future cancels {@code future}.
+   *
+   * @param producerName the name of the producer, for the exception message
+   */
+  public static <T> ListenableFuture<T> withTimeout(
+      final ListenableFuture<T> future,
+      final long timeout,
+      final TimeUnit unit,
+      final String producerName) {
+    if (future.isDone()) {
+      return future;
+    }
+    final SettableFuture<T> result = SettableFuture.create();
+    final ScheduledFuture<?> timer =
+        TimeoutTimer.INSTANCE.schedule(
+            new Runnable() {
+              @Override
+              public void run() {
+                if (result.setException(
+                    new ProducerTimeoutException(
+                        producerName + " timed out after " + timeout + " " + unit))) {
+                  future.cancel(false);
+                }
+              }
+            },
+            timeout,
+            unit);
+    future.addListener(
+        new Runnable() {
+          @Override
+          public void run() {
+            timer.cancel(false);
+            result.setFuture(future);
+          }
+        },
+        directExecutor());
+    result.addListener(
+        new Runnable() {
+          @Override
+          public void run() {
+            if (result.isCancelled()) {
+              future.cancel(false);
+            }
+          }
+        },
+        directExecutor());
+    return result;
+  }
+
+  /**
+   * The timer shared by all {@link ProducerTimeout @ProducerTimeout}s. Its single daemon thread
+   * fails the timed-out futures, so only their direct listeners run on it; producers that depend
+   * on them are still submitted to the production executor, unless they are {@link
+   * dagger.producers.DirectExecution direct}.
+   */
+  private static final class TimeoutTimer {
+    static final ScheduledExecutorService INSTANCE = create();
+
+    private static ScheduledExecutorService create() {
+      ScheduledThreadPoolExecutor timer =
+          new ScheduledThreadPoolExecutor(
+              1,
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                  Thread thread = new Thread(runnable, "dagger-producer-timeout");
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+
   private static final Producer<Map<Object, Object>> EMPTY_MAP_PRODUCER =
       Producers.<Map<Object, Object>>immediateProducer(ImmutableMap.of());
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import dagger.internal.Beta;
+import dagger.monitoring.TraceEventRecorder;
+
+/**
+ * A monitor that records a begin and an end event for the execution of each producer method of a
+ * production component in a {@link TraceEventRecorder}, using the {@code "production"} category.
+ * Failures are recorded as instant events.
+ *
+ * <p>Sharing the recorder with a {@link dagger.monitoring.TracingProvisionComponentMonitor} merges
+ * production and provision events into one trace.
+ */
+@Beta
+public final class TracingProductionComponentMonitor extends ProductionComponentMonitor {
+  private static final String CATEGORY = "production";
+
+  private final TraceEventRecorder recorder;
+
+  TracingProductionComponentMonitor(TraceEventRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Override
+  public ProducerMonitor producerMonitorFor(ProducerToken token) {
+    final String name = token.toString();
+    return new ProducerMonitor() {
+      @Override
+      public void methodStarting() {
+        recorder.begin(CATEGORY, name);
+      }
+
+      @Override
+      public void methodFinished() {
+        recorder.end(CATEGORY, name);
+      }
+
+      @Override
+      public void failed(Throwable t) {
+        recorder.instant(CATEGORY, name, t.toString());
+      }
+    };
+  }
+
+  public static final class Factory extends ProductionComponentMonitor.Factory {
+    private final TraceEventRecorder recorder;
+
+    public Factory(TraceEventRecorder recorder) {
+      this.recorder = checkNotNull(recorder);
+    }
+
+    @Override
+    public ProductionComponentMonitor create(Object component) {
+      return new TracingProductionComponentMonitor(recorder);
+    }
+  }
+}
@@ -53,6 +53,9 @@ import java.lang.annotation.Target;
  *   {@literal @Scope}
  *   public {@literal @interface} MyScope {}</pre>
  *
+ * <p>To choose how the references are released, also annotate the scope with {@link
+ * ReleasePolicy}.
+ *
  * <p><b>Note:</b>Releasable references uses Java's {@link java.lang.ref.WeakReference}, and so is
  * not compatible with <a href="http://www.gwtproject.org/">GWT</a>.
  *
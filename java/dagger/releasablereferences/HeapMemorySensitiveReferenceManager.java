@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.releasablereferences;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+/**
+ * Releases references in {@link ReleaseReferencesAtHeapUsage} {@linkplain javax.inject.Scope
+ * scopes} as the heap fills up, so that objects held by those scopes can be collected before the
+ * JVM runs out of memory. This is the server-side counterpart of {@code
+ * dagger.android.AndroidMemorySensitiveReferenceManager}.
+ *
+ * <p>Heap usage is the highest percentage of its maximum size that any heap memory pool that
+ * supports {@linkplain MemoryPoolMXBean#isUsageThresholdSupported() usage thresholds} (usually the
+ * old generation) has in use. Once {@linkplain #start() started}, the manager sets the pools' usage
+ * and collection usage thresholds and checks usage whenever the {@link
+ * java.lang.management.MemoryMXBean} reports that one was crossed. On JVMs whose {@link
+ * GarbageCollectorMXBean}s also emit notifications, such as HotSpot, usage is also checked after
+ * every collection, so references are restored as soon as a collection frees enough memory.
+ * References are only released or restored when usage crosses one of the scopes' thresholds.
+ *
+ * <p>Dagger binds the set of managers for all such scopes in a component. For example:
+ *
+ * <pre>
+ *   class MyServer {
+ *     {@literal @Inject}
+ *     {@literal Set<TypedReleasableReferenceManager<ReleaseReferencesAtHeapUsage>>} managers;
+ *
+ *     void run() {
+ *       new HeapMemorySensitiveReferenceManager(managers).start();
+ *       ...
+ *     }
+ *   }</pre>
+ *
+ * <p>The memory pools' thresholds are global to the JVM, so only one manager should be started at
+ * a time.
+ */
+@Beta
+@GwtIncompatible
+public final class HeapMemorySensitiveReferenceManager {
+
+  private final Set<TypedReleasableReferenceManager<ReleaseReferencesAtHeapUsage>> managers;
+
+  /** The distinct {@link ReleaseReferencesAtHeapUsage#value()}s of the scopes, in order. */
+  private final int[] thresholds;
+
+  private final NotificationListener listener =
+      new NotificationListener() {
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+          checkHeapUsage();
+        }
+      };
+
+  // The following fields are guarded by this.
+  private final List<NotificationEmitter> emitters = new ArrayList<NotificationEmitter>();
+  private final List<MemoryPoolMXBean> pools = new ArrayList<MemoryPoolMXBean>();
+  private final List<long[]> originalPoolThresholds = new ArrayList<long[]>();
+  private int level = -1;
+
+  /**
+   * Creates a manager for {@code managers}, which are usually the set of all managers for {@link
+   * ReleaseReferencesAtHeapUsage} scopes that a component binds.
+   */
+  public HeapMemorySensitiveReferenceManager(
+      Set<TypedReleasableReferenceManager<ReleaseReferencesAtHeapUsage>> managers) {
+    this.managers = managers;
+    int[] values = new int[managers.size()];
+    int count = 0;
+    for (TypedReleasableReferenceManager<ReleaseReferencesAtHeapUsage> manager : managers) {
+      values[count++] = manager.metadata().value();
+    }
+    Arrays.sort(values);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || values[distinct - 1] != values[i]) {
+        values[distinct++] = values[i];
+      }
+    }
+    this.thresholds = Arrays.copyOf(values, distinct);
+  }
+
+  /**
+   * Releases references for {@link ReleaseReferencesAtHeapUsage} scopes whose {@link
+   * ReleaseReferencesAtHeapUsage#value()} is less than or equal to {@code percent}. Restores
+   * references for scopes whose {@link ReleaseReferencesAtHeapUsage#value()} is greater than {@code
+   * percent}.
+   */
+  public void onHeapUsage(int percent) {
+    for (TypedReleasableReferenceManager<ReleaseReferencesAtHeapUsage> manager : managers) {
+      if (percent >= manager.metadata().value()) {
+        manager.releaseStrongReferences();
+      } else {
+        manager.restoreStrongReferences();
+      }
+    }
+  }
+
+  /**
+   * Starts listening for memory notifications, and releases references in scopes whose thresholds
+   * the heap usage has already reached. Does nothing if the manager has already been started, or if
+   * there are no {@link ReleaseReferencesAtHeapUsage} scopes.
+   */
+  public synchronized void start() {
+    if (!pools.isEmpty() || thresholds.length == 0) {
+      return;
+    }
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType().equals(MemoryType.HEAP)
+          && pool.isUsageThresholdSupported()
+          && pool.getUsage().getMax() > 0) {
+        pools.add(pool);
+        originalPoolThresholds.add(
+            new long[] {
+              pool.getUsageThreshold(),
+              pool.isCollectionUsageThresholdSupported() ? pool.getCollectionUsageThreshold() : 0
+            });
+      }
+    }
+    if (pools.isEmpty()) {
+      return;
+    }
+    addListener(ManagementFactory.getMemoryMXBean());
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      addListener(collector);
+    }
+    checkHeapUsage();
+  }
+
+  /**
+   * Stops listening for memory notifications and resets the memory pools' thresholds to their
+   * values before {@link #start()}. References that have been released stay released until {@link
+   * #onHeapUsage(int)} is called or the manager is started again.
+   */
+  public synchronized void stop() {
+    for (NotificationEmitter emitter : emitters) {
+      try {
+        emitter.removeNotificationListener(listener);
+      } catch (ListenerNotFoundException e) {
+        // Already removed.
+      }
+    }
+    emitters.clear();
+    for (int i = 0; i < pools.size(); i++) {
+      MemoryPoolMXBean pool = pools.get(i);
+      long[] originalThresholds = originalPoolThresholds.get(i);
+      pool.setUsageThreshold(originalThresholds[0]);
+      if (pool.isCollectionUsageThresholdSupported()) {
+        pool.setCollectionUsageThreshold(originalThresholds[1]);
+      }
+    }
+    pools.clear();
+    originalPoolThresholds.clear();
+    level = -1;
+  }
+
+  private void addListener(Object bean) {
+    if (bean instanceof NotificationEmitter) {
+      NotificationEmitter emitter = (NotificationEmitter) bean;
+      emitter.addNotificationListener(listener, null, null);
+      emitters.add(emitter);
+    }
+  }
+
+  /**
+   * Calls {@link #onHeapUsage(int)} if the heap usage has crossed a threshold since the last check,
+   * and sets the memory pools' thresholds for the next check.
+   */
+  private synchronized void checkHeapUsage() {
+    if (pools.isEmpty()) {
+      return; // stopped, but a notification was already on its way
+    }
+    int percent = 0;
+    for (MemoryPoolMXBean pool : pools) {
+      MemoryUsage usage = pool.getUsage();
+      percent = Math.max(percent, (int) (usage.getUsed() * 100 / usage.getMax()));
+    }
+    int newLevel = levelOf(percent);
+    if (newLevel != level) {
+      level = newLevel;
+      onHeapUsage(percent);
+    }
+
+    // Notify as soon as usage reaches the next threshold, and after every collection that leaves
+    // usage at or above the lowest one, which may have fallen below a higher threshold.
+    for (MemoryPoolMXBean pool : pools) {
+      long max = pool.getUsage().getMax();
+      pool.setUsageThreshold(
+          newLevel < thresholds.length ? thresholdBytes(max, thresholds[newLevel]) : 0);
+      if (pool.isCollectionUsageThresholdSupported()) {
+        pool.setCollectionUsageThreshold(thresholdBytes(max, thresholds[0]));
+      }
+    }
+  }
+
+  /** Returns the number of thresholds that are less than or equal to {@code percent}. */
+  private int levelOf(int percent) {
+    int count = 0;
+    while (count < thresholds.length && thresholds[count] <= percent) {
+      count++;
+    }
+    return count;
+  }
+
+  private static long thresholdBytes(long max, int percent) {
+    return max / 100 * Math.max(1, Math.min(100, percent));
+  }
+}
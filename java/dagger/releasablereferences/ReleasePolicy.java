@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.releasablereferences;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates a {@linkplain javax.inject.Scope scope} that {@linkplain CanReleaseReferences can
+ * release its references} to choose how {@link
+ * ReleasableReferenceManager#releaseStrongReferences()} releases them. Without it, every reference
+ * is released to a {@link java.lang.ref.WeakReference}.
+ *
+ * <p>For example, this scope holds released objects until the garbage collector needs the memory,
+ * and releases at most 20 of them, the least recently used first, at a time:
+ *
+ * <pre>
+ *   {@literal @Documented}
+ *   {@literal @Retention(RUNTIME)}
+ *   {@literal @CanReleaseReferences}
+ *   {@literal @ReleasePolicy}(value = SOFT, leastRecentlyUsed = 20)
+ *   {@literal @Scope}
+ *   public {@literal @interface} MyScope {}</pre>
+ *
+ * <p>This annotation has no effect on scopes that cannot release references.
+ */
+@Beta
+@Documented
+@GwtIncompatible
+@Target(ANNOTATION_TYPE)
+public @interface ReleasePolicy {
+  /** The kind of reference that holds a released object until its strong reference is restored. */
+  Strength value() default Strength.WEAK;
+
+  /**
+   * If positive, each call to {@link ReleasableReferenceManager#releaseStrongReferences()} releases
+   * the references held by at most this many bindings, starting with those that were least
+   * recently provided. Repeated calls release more of them. If zero or negative, every reference
+   * is released at once.
+   */
+  int leastRecentlyUsed() default 0;
+
+  /** The kinds of reference that can hold released objects. */
+  enum Strength {
+    /** Released objects are held by {@link java.lang.ref.WeakReference}s. */
+    WEAK,
+
+    /**
+     * Released objects are held by {@link java.lang.ref.SoftReference}s, which the garbage
+     * collector only clears when it needs the memory.
+     */
+    SOFT,
+  }
+}
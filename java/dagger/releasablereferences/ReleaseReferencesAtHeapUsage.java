@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.releasablereferences;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+
+import dagger.internal.Beta;
+import dagger.internal.GwtIncompatible;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates {@linkplain javax.inject.Scope scopes} to associate them with a level of heap usage, as
+ * a percentage of the maximum size of the heap's memory pools.
+ *
+ * <p>For example:
+ *
+ * <pre>
+ *   {@literal @Documented}
+ *   {@literal @Retention}(RUNTIME)
+ *   {@literal @Target}({TYPE, METHOD})
+ *   {@literal @ReleaseReferencesAtHeapUsage}(80)
+ *   {@literal @Scope}
+ *   public {@literal @interface} MyScope {}</pre>
+ *
+ * <p>Any scope annotated with {@code @ReleaseReferencesAtHeapUsage} can {@linkplain
+ * CanReleaseReferences release its references}.
+ *
+ * <p>In order to release references when the heap fills up, create a {@link
+ * HeapMemorySensitiveReferenceManager} for the scopes' managers and {@linkplain
+ * HeapMemorySensitiveReferenceManager#start() start} it.
+ */
+@Beta
+@Documented
+@GwtIncompatible
+@Target(ANNOTATION_TYPE)
+@CanReleaseReferences
+public @interface ReleaseReferencesAtHeapUsage {
+  /**
+   * If {@link HeapMemorySensitiveReferenceManager#onHeapUsage(int)} is called with a percentage
+   * greater than or equal to this, the scope's references will be released. If it is called with a
+   * percentage less than this, the scope's references will be restored.
+   *
+   * <p>The value should be between 1 and 100.
+   */
+  int value();
+}
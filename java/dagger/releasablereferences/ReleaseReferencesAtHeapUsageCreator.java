@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package dagger.releasablereferences;
+
+import dagger.internal.GwtIncompatible;
+import java.lang.annotation.Annotation;
+
+/**
+ * Creates instances of {@link ReleaseReferencesAtHeapUsage} for generated components.
+ *
+ * <p>Components refer to this class in order to pass a scope's {@link ReleaseReferencesAtHeapUsage}
+ * to its {@link TypedReleasableReferenceManager}. For {@link CanReleaseReferences} annotations in
+ * other libraries, the Dagger processor generates the class when it compiles the annotation, but
+ * this package is compiled without the processor, so the class is written by hand.
+ */
+@GwtIncompatible
+public final class ReleaseReferencesAtHeapUsageCreator {
+  private ReleaseReferencesAtHeapUsageCreator() {}
+
+  /** Returns a {@link ReleaseReferencesAtHeapUsage} with the given {@code value}. */
+  public static ReleaseReferencesAtHeapUsage createReleaseReferencesAtHeapUsage(int value) {
+    return new ReleaseReferencesAtHeapUsageImpl(value);
+  }
+
+  private static final class ReleaseReferencesAtHeapUsageImpl
+      implements ReleaseReferencesAtHeapUsage {
+    private final int value;
+
+    ReleaseReferencesAtHeapUsageImpl(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public int value() {
+      return value;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+      return ReleaseReferencesAtHeapUsage.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof ReleaseReferencesAtHeapUsage
+          && value == ((ReleaseReferencesAtHeapUsage) o).value();
+    }
+
+    /** Follows the contract of {@link Annotation#hashCode()}. */
+    @Override
+    public int hashCode() {
+      return (127 * "value".hashCode()) ^ value;
+    }
+
+    @Override
+    public String toString() {
+      return "@" + ReleaseReferencesAtHeapUsage.class.getName() + "(value=" + value + ")";
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link ComponentClasses}. */
+@RunWith(JUnit4.class)
+public class ComponentClassesTest {
+  interface NestedComponent {}
+
+  interface ListedComponent {}
+
+  interface ListedDependency {}
+
+  @Test
+  public void resourceName() {
+    assertThat(ComponentClasses.resourceName(NestedComponent.class))
+        .isEqualTo("META-INF/dagger/dagger.ComponentClassesTest$NestedComponent.classlist");
+  }
+
+  @Test
+  public void withoutClassList() throws Exception {
+    assertThat(ComponentClasses.classNames(NestedComponent.class)).isEmpty();
+    assertThat(ComponentClasses.preload(NestedComponent.class)).isEqualTo(0);
+  }
+
+  @Test
+  public void withClassList() throws Exception {
+    Path root = Files.createTempDirectory("classlist");
+    copyClassFile(ListedComponent.class, root);
+    copyClassFile(ListedDependency.class, root);
+    DirectoryClassLoader classLoader = new DirectoryClassLoader(root);
+    Class<?> componentType = classLoader.loadClass(ListedComponent.class.getName());
+    Path classList = root.resolve(ComponentClasses.resourceName(componentType));
+    Files.createDirectories(classList.getParent());
+    Files.write(
+        classList,
+        Arrays.asList(
+            "dagger/ComponentClassesTest$ListedComponent",
+            "",
+            "dagger/ComponentClassesTest$ListedDependency",
+            "dagger/ComponentClassesTest$Missing"),
+        UTF_8);
+
+    assertThat(ComponentClasses.classNames(componentType))
+        .containsExactly(
+            "dagger.ComponentClassesTest$ListedComponent",
+            "dagger.ComponentClassesTest$ListedDependency",
+            "dagger.ComponentClassesTest$Missing")
+        .inOrder();
+    assertThat(classLoader.isLoaded(ListedDependency.class.getName())).isFalse();
+    // The missing class is skipped.
+    assertThat(ComponentClasses.preload(componentType)).isEqualTo(2);
+    assertThat(classLoader.isLoaded(ListedDependency.class.getName())).isTrue();
+  }
+
+  /** Copies the class file of {@code type} to the corresponding path under {@code root}. */
+  private static void copyClassFile(Class<?> type, Path root) throws IOException {
+    String classFile = type.getName().replace('.', '/') + ".class";
+    Path target = root.resolve(classFile);
+    Files.createDirectories(target.getParent());
+    try (InputStream in = type.getClassLoader().getResourceAsStream(classFile)) {
+      Files.copy(in, target);
+    }
+  }
+
+  /** Loads classes from a directory, without delegating to the test's class loader. */
+  private static final class DirectoryClassLoader extends URLClassLoader {
+    DirectoryClassLoader(Path root) throws IOException {
+      super(new URL[] {root.toUri().toURL()}, null);
+    }
+
+    boolean isLoaded(String className) {
+      return findLoadedClass(className) != null;
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.GcFinalization;
+import dagger.functional.HeapUsageReleasableReferences.TestComponent;
+import dagger.functional.HeapUsageReleasableReferences.TestModule;
+import dagger.releasablereferences.HeapMemorySensitiveReferenceManager;
+import java.lang.ref.WeakReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Functional tests of {@link HeapMemorySensitiveReferenceManager}. */
+@RunWith(JUnit4.class)
+public final class HeapMemorySensitiveReferenceManagerTest {
+  private TestModule testModule;
+  private TestComponent component;
+  private HeapMemorySensitiveReferenceManager manager;
+
+  @Before
+  public void setUp() {
+    testModule = new TestModule();
+    component =
+        DaggerHeapUsageReleasableReferences_TestComponent.builder().testModule(testModule).build();
+    manager = new HeapMemorySensitiveReferenceManager(component.managers());
+  }
+
+  @Test
+  public void onHeapUsage_atOneThresholdBelowAnother() {
+    component.releasedAt70();
+    component.releasedAt90();
+
+    manager.onHeapUsage(80);
+    GcFinalization.awaitClear(new WeakReference<>(component.releasedAt70()));
+
+    assertThat(component.releasedAt70()).isSameAs(component.releasedAt70());
+    assertThat(component.releasedAt90()).isSameAs(component.releasedAt90());
+    assertThat(testModule.releasedAt70Calls).isEqualTo(2);
+    assertThat(testModule.releasedAt90Calls).isEqualTo(1);
+  }
+
+  @Test
+  public void onHeapUsage_restore() {
+    WeakReference<Object> reference = new WeakReference<>(component.releasedAt70());
+    manager.onHeapUsage(95);
+    manager.onHeapUsage(50);
+    GcFinalization.awaitFullGc();
+
+    assertThat(reference.get()).isNotNull();
+    assertThat(component.releasedAt70()).isSameAs(reference.get());
+    assertThat(testModule.releasedAt70Calls).isEqualTo(1);
+  }
+
+  @Test
+  public void startAndStop() {
+    manager.start();
+    manager.stop();
+    assertThat(component.releasedAt70()).isSameAs(component.releasedAt70());
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.releasablereferences.ReleaseReferencesAtHeapUsage;
+import dagger.releasablereferences.TypedReleasableReferenceManager;
+import java.lang.annotation.Retention;
+import java.util.Set;
+import javax.inject.Named;
+import javax.inject.Scope;
+
+/** A component with scopes that release their references at different levels of heap usage. */
+final class HeapUsageReleasableReferences {
+  @Retention(RUNTIME)
+  @ReleaseReferencesAtHeapUsage(70)
+  @Scope
+  @interface ReleasedAt70 {}
+
+  @Retention(RUNTIME)
+  @ReleaseReferencesAtHeapUsage(90)
+  @Scope
+  @interface ReleasedAt90 {}
+
+  @Module
+  static final class TestModule {
+    int releasedAt70Calls;
+    int releasedAt90Calls;
+
+    @Provides
+    @ReleasedAt70
+    @Named("70")
+    Object releasedAt70() {
+      ++releasedAt70Calls;
+      return new Object();
+    }
+
+    @Provides
+    @ReleasedAt90
+    @Named("90")
+    Object releasedAt90() {
+      ++releasedAt90Calls;
+      return new Object();
+    }
+  }
+
+  @ReleasedAt70
+  @ReleasedAt90
+  @Component(modules = TestModule.class)
+  interface TestComponent {
+    Set<TypedReleasableReferenceManager<ReleaseReferencesAtHeapUsage>> managers();
+
+    @Named("70")
+    Object releasedAt70();
+
+    @Named("90")
+    Object releasedAt90();
+  }
+}
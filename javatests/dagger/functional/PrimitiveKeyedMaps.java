@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import dagger.Binds;
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntKey;
+import dagger.multibindings.IntKeyMap;
+import dagger.multibindings.IntoMap;
+import dagger.multibindings.LongKey;
+import dagger.multibindings.LongKeyMap;
+import dagger.multibindings.Multibinds;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import javax.inject.Qualifier;
+import javax.inject.Singleton;
+
+/**
+ * Map multibindings requested as {@link IntKeyMap}s and {@link LongKeyMap}s, which are populated
+ * by the same contributions as the boxed {@code Map}s.
+ */
+final class PrimitiveKeyedMaps {
+  @Module
+  abstract static class TestModule {
+    @Provides
+    @Singleton
+    static AtomicInteger counter() {
+      return new AtomicInteger();
+    }
+
+    @Provides
+    @IntoMap
+    @IntKey(30)
+    static String thirty(AtomicInteger counter) {
+      return "thirty-" + counter.incrementAndGet();
+    }
+
+    @Provides
+    @IntoMap
+    @IntKey(-10)
+    static String minusTen() {
+      return "minus ten";
+    }
+
+    @Binds
+    @IntoMap
+    @IntKey(20)
+    abstract String twenty(@Twenty String twenty);
+
+    @Provides
+    @Twenty
+    static String provideTwenty() {
+      return "twenty";
+    }
+
+    @Provides
+    @IntoMap
+    @LongKey(Long.MAX_VALUE)
+    static String max() {
+      return "max";
+    }
+
+    @Provides
+    @IntoMap
+    @LongKey(Long.MIN_VALUE)
+    static String min() {
+      return "min";
+    }
+
+    @Multibinds
+    abstract Map<Integer, Object> emptyMap();
+  }
+
+  @Qualifier
+  @interface Twenty {}
+
+  @Singleton
+  @Component(modules = TestModule.class)
+  interface TestComponent {
+    IntKeyMap<String> intKeyMap();
+
+    IntKeyMap<Provider<String>> intKeyMapOfProviders();
+
+    Provider<IntKeyMap<String>> providerOfIntKeyMap();
+
+    Map<Integer, String> boxedMap();
+
+    LongKeyMap<String> longKeyMap();
+
+    IntKeyMap<Object> emptyIntKeyMap();
+  }
+
+  private PrimitiveKeyedMaps() {}
+}
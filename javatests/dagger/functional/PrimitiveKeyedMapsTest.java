@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.functional.PrimitiveKeyedMaps.TestComponent;
+import dagger.multibindings.IntKeyMap;
+import dagger.multibindings.LongKeyMap;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link PrimitiveKeyedMaps}. */
+@RunWith(JUnit4.class)
+public class PrimitiveKeyedMapsTest {
+  private final TestComponent component = DaggerPrimitiveKeyedMaps_TestComponent.create();
+
+  @Test
+  public void intKeyMap() {
+    IntKeyMap<String> map = component.intKeyMap();
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get(-10)).isEqualTo("minus ten");
+    assertThat(map.get(20)).isEqualTo("twenty");
+    assertThat(map.get(30)).isEqualTo("thirty-1");
+    assertThat(map.containsKey(0)).isFalse();
+    assertThat(map.get(0)).isNull();
+  }
+
+  @Test
+  public void intKeyMap_ascendingKeyOrder() {
+    IntKeyMap<String> map = component.intKeyMap();
+    assertThat(map.keyAt(0)).isEqualTo(-10);
+    assertThat(map.keyAt(1)).isEqualTo(20);
+    assertThat(map.keyAt(2)).isEqualTo(30);
+    assertThat(map.valueAt(1)).isEqualTo("twenty");
+  }
+
+  @Test
+  public void intKeyMap_sameContributionsAsBoxedMap() {
+    assertThat(component.boxedMap().keySet()).containsExactly(-10, 20, 30);
+  }
+
+  @Test
+  public void intKeyMapOfProviders() {
+    IntKeyMap<Provider<String>> map = component.intKeyMapOfProviders();
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get(30).get()).isEqualTo("thirty-1");
+    assertThat(map.get(30).get()).isEqualTo("thirty-2");
+  }
+
+  @Test
+  public void providerOfIntKeyMap_newMapForEachGet() {
+    Provider<IntKeyMap<String>> provider = component.providerOfIntKeyMap();
+    assertThat(provider.get().get(30)).isEqualTo("thirty-1");
+    assertThat(provider.get().get(30)).isEqualTo("thirty-2");
+  }
+
+  @Test
+  public void longKeyMap() {
+    LongKeyMap<String> map = component.longKeyMap();
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.keyAt(0)).isEqualTo(Long.MIN_VALUE);
+    assertThat(map.get(Long.MIN_VALUE)).isEqualTo("min");
+    assertThat(map.get(Long.MAX_VALUE)).isEqualTo("max");
+  }
+
+  @Test
+  public void emptyIntKeyMap() {
+    assertThat(component.emptyIntKeyMap().size()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import dagger.Component;
+import dagger.Lazy;
+import dagger.Module;
+import dagger.Provides;
+import dagger.RefreshInterval;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/** A component with scoped bindings that have a {@link RefreshInterval}. */
+final class RefreshIntervalComponents {
+  @Singleton
+  @RefreshInterval(value = 1, unit = HOURS)
+  static final class HourlyInjected {
+    @Inject
+    HourlyInjected() {}
+  }
+
+  @Module
+  static final class TestModule {
+    int refreshedCalls;
+
+    @Provides
+    @Singleton
+    @RefreshInterval(value = 1, unit = NANOSECONDS)
+    @Named("refreshed")
+    Integer refreshed() {
+      return ++refreshedCalls;
+    }
+  }
+
+  @Singleton
+  @Component(modules = TestModule.class)
+  interface TestComponent {
+    @Named("refreshed")
+    Provider<Integer> refreshed();
+
+    @Named("refreshed")
+    Lazy<Integer> lazyRefreshed();
+
+    HourlyInjected hourlyInjected();
+  }
+}
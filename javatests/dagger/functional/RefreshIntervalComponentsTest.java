@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.Lazy;
+import dagger.functional.RefreshIntervalComponents.TestComponent;
+import dagger.functional.RefreshIntervalComponents.TestModule;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Functional tests of scoped bindings with a {@link dagger.RefreshInterval}. */
+@RunWith(JUnit4.class)
+public final class RefreshIntervalComponentsTest {
+  private TestModule testModule;
+  private TestComponent component;
+
+  @Before
+  public void setUp() {
+    testModule = new TestModule();
+    component =
+        DaggerRefreshIntervalComponents_TestComponent.builder().testModule(testModule).build();
+  }
+
+  @Test
+  public void withinInterval_reusesInstance() {
+    assertThat(component.hourlyInjected()).isSameAs(component.hourlyInjected());
+  }
+
+  @Test
+  public void afterInterval_refreshesInstance() throws InterruptedException {
+    assertThat(component.refreshed().get()).isEqualTo(1);
+    Thread.sleep(1);
+    assertThat(component.refreshed().get()).isEqualTo(2);
+    assertThat(testModule.refreshedCalls).isEqualTo(2);
+  }
+
+  @Test
+  public void lazy_doesNotRefresh() throws InterruptedException {
+    Lazy<Integer> lazy = component.lazyRefreshed();
+    Integer first = lazy.get();
+    Thread.sleep(1);
+    assertThat(lazy.get()).isSameAs(first);
+  }
+}
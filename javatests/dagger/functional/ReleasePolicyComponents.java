@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static dagger.releasablereferences.ReleasePolicy.Strength.SOFT;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.releasablereferences.CanReleaseReferences;
+import dagger.releasablereferences.ForReleasableReferences;
+import dagger.releasablereferences.ReleasableReferenceManager;
+import dagger.releasablereferences.ReleasePolicy;
+import java.lang.annotation.Retention;
+import javax.inject.Scope;
+
+/** A component with a releasable scope that has a {@link ReleasePolicy}. */
+final class ReleasePolicyComponents {
+  @Retention(RUNTIME)
+  @CanReleaseReferences
+  @ReleasePolicy(value = SOFT, leastRecentlyUsed = 1)
+  @Scope
+  @interface SoftScope {}
+
+  @Module
+  static final class TestModule {
+    int stringCalls;
+    int integerCalls;
+
+    @Provides
+    @SoftScope
+    String string() {
+      return "string " + ++stringCalls;
+    }
+
+    @Provides
+    @SoftScope
+    Integer integer() {
+      return ++integerCalls;
+    }
+  }
+
+  @SoftScope
+  @Component(modules = TestModule.class)
+  interface TestComponent {
+    String string();
+
+    Integer integer();
+
+    @ForReleasableReferences(SoftScope.class)
+    ReleasableReferenceManager manager();
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.GcFinalization;
+import dagger.functional.ReleasePolicyComponents.TestComponent;
+import dagger.functional.ReleasePolicyComponents.TestModule;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Functional tests of scopes with a {@link dagger.releasablereferences.ReleasePolicy}. */
+@RunWith(JUnit4.class)
+public final class ReleasePolicyComponentsTest {
+  private TestModule testModule;
+  private TestComponent component;
+
+  @Before
+  public void setUp() {
+    testModule = new TestModule();
+    component =
+        DaggerReleasePolicyComponents_TestComponent.builder().testModule(testModule).build();
+  }
+
+  @Test
+  public void softReferencesSurviveCollection() {
+    assertThat(component.string()).isEqualTo("string 1");
+    assertThat(component.integer()).isEqualTo(1);
+
+    component.manager().releaseStrongReferences();
+    component.manager().releaseStrongReferences();
+    GcFinalization.awaitFullGc();
+
+    // The heap is not under pressure, so the soft references have not been cleared.
+    assertThat(component.string()).isEqualTo("string 1");
+    assertThat(component.integer()).isEqualTo(1);
+    assertThat(testModule.stringCalls).isEqualTo(1);
+    assertThat(testModule.integerCalls).isEqualTo(1);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import dagger.Binds;
+import dagger.Component;
+import dagger.Module;
+import dagger.Provides;
+import dagger.ThreadScoped;
+import dagger.releasablereferences.ForReleasableReferences;
+import dagger.releasablereferences.ReleasableReferenceManager;
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+/** Components with {@link ThreadScoped @ThreadScoped} bindings. */
+final class ThreadScopedComponents {
+  /** A type that must not be shared between threads. */
+  @ThreadScoped
+  static final class Buffer {
+    final StringBuilder contents = new StringBuilder();
+
+    @Inject
+    Buffer() {}
+  }
+
+  interface Counter {
+    int next();
+  }
+
+  @Module
+  abstract static class TestModule {
+    @Provides
+    @ThreadScoped
+    static Counter counter() {
+      return new Counter() {
+        private int count;
+
+        @Override
+        public int next() {
+          return count++;
+        }
+      };
+    }
+
+    @Binds
+    @ThreadScoped
+    abstract Object buffer(Buffer buffer);
+  }
+
+  @ThreadScoped
+  @Component(modules = TestModule.class)
+  interface TestComponent {
+    Buffer buffer();
+
+    Provider<Counter> counter();
+
+    Object boundBuffer();
+  }
+
+  @ThreadScoped
+  @Component(modules = TestModule.class)
+  interface ReleasableComponent {
+    Provider<Counter> counter();
+
+    @ForReleasableReferences(ThreadScoped.class)
+    ReleasableReferenceManager manager();
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.functional;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.GcFinalization;
+import dagger.ThreadScoped;
+import dagger.functional.ThreadScopedComponents.Counter;
+import dagger.functional.ThreadScopedComponents.ReleasableComponent;
+import dagger.functional.ThreadScopedComponents.TestComponent;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Functional tests of {@link ThreadScoped @ThreadScoped} bindings. */
+@RunWith(JUnit4.class)
+public final class ThreadScopedComponentsTest {
+  @Test
+  public void sameThread_sharesInstance() {
+    TestComponent component = DaggerThreadScopedComponents_TestComponent.create();
+    assertThat(component.buffer()).isSameAs(component.buffer());
+    assertThat(component.boundBuffer()).isSameAs(component.buffer());
+
+    Counter counter = component.counter().get();
+    assertThat(counter.next()).isEqualTo(0);
+    assertThat(component.counter().get().next()).isEqualTo(1);
+    assertThat(component.counter().get()).isSameAs(counter);
+  }
+
+  @Test
+  public void otherThread_getsOwnInstance() throws InterruptedException {
+    TestComponent component = DaggerThreadScopedComponents_TestComponent.create();
+    Counter counter = component.counter().get();
+    counter.next();
+
+    Counter otherCounter = getInNewThread(() -> component.counter().get());
+    assertThat(otherCounter).isNotSameAs(counter);
+    assertThat(otherCounter.next()).isEqualTo(0);
+    assertThat(getInNewThread(component::buffer)).isNotSameAs(component.buffer());
+  }
+
+  @Test
+  public void otherComponent_getsOwnInstance() {
+    assertThat(DaggerThreadScopedComponents_TestComponent.create().buffer())
+        .isNotSameAs(DaggerThreadScopedComponents_TestComponent.create().buffer());
+  }
+
+  @Test
+  public void releaseStrongReferences() {
+    ReleasableComponent component = DaggerThreadScopedComponents_ReleasableComponent.create();
+    assertThat(component.manager().scope()).isEqualTo(ThreadScoped.class);
+    WeakReference<Counter> counter = new WeakReference<>(component.counter().get());
+
+    component.manager().releaseStrongReferences();
+    GcFinalization.awaitClear(counter);
+    assertThat(component.counter().get()).isNotNull();
+  }
+
+  private static <T> T getInNewThread(Supplier<T> supplier) throws InterruptedException {
+    AtomicReference<T> value = new AtomicReference<>();
+    Thread thread = new Thread(() -> value.set(supplier.get()));
+    thread.start();
+    thread.join();
+    return value.get();
+  }
+}
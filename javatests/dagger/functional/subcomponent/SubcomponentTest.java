@@ -87,6 +87,7 @@ public class SubcomponentTest {
   @Test
   public void unscopedProviders() {
     assume().that(System.getProperty("dagger.mode")).isNotEqualTo("ExperimentalAndroidMode");
+    assume().that(System.getProperty("dagger.mode")).isNotEqualTo("SwitchingProviders");
     assertThat(parentGetters.getUnscopedTypeProvider())
         .isSameAs(childComponent.getUnscopedTypeProvider());
     assertThat(parentGetters.getUnscopedTypeProvider())
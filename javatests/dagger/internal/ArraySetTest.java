@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Iterator;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ArraySetTest {
+  @Test
+  public void iteratesInInsertionOrder() {
+    Set<String> set = ArraySet.create(new Object[] {"c", "a", "b"}, 3);
+    assertThat(set).containsExactly("c", "a", "b").inOrder();
+  }
+
+  @Test
+  public void ignoresDuplicates() {
+    Set<String> set = ArraySet.create(new Object[] {"a", "b", "a", "c", "b"}, 5);
+    assertThat(set).containsExactly("a", "b", "c").inOrder();
+    assertThat(set).hasSize(3);
+  }
+
+  @Test
+  public void onlyUsesCount() {
+    Set<String> set = ArraySet.create(new Object[] {"a", "b", null}, 2);
+    assertThat(set).containsExactly("a", "b").inOrder();
+  }
+
+  @Test
+  public void collidingHashCodes() {
+    Object[] elements = new Object[64];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = new CollidingKey(i);
+    }
+    Set<Object> set = ArraySet.create(elements.clone(), elements.length);
+    assertThat(set).containsExactly(elements).inOrder();
+    for (Object element : elements) {
+      assertThat(set.contains(element)).isTrue();
+    }
+    assertThat(set.contains(new CollidingKey(64))).isFalse();
+  }
+
+  @Test
+  public void contains() {
+    Set<Integer> set = ArraySet.create(new Object[] {1, 2, 3, 4, 5}, 5);
+    assertThat(set.contains(3)).isTrue();
+    assertThat(set.contains(6)).isFalse();
+    assertThat(set.contains(null)).isFalse();
+    assertThat(set.contains("3")).isFalse();
+  }
+
+  @Test
+  public void equalsAndHashCode() {
+    Set<Integer> set = ArraySet.create(new Object[] {1, 2, 3}, 3);
+    assertThat(set).isEqualTo(ImmutableSet.of(3, 2, 1));
+    assertThat(set.hashCode()).isEqualTo(ImmutableSet.of(1, 2, 3).hashCode());
+  }
+
+  @Test
+  public void nullElement() {
+    try {
+      ArraySet.create(new Object[] {"a", null}, 2);
+      fail();
+    } catch (NullPointerException expected) {}
+  }
+
+  @Test
+  public void immutable() {
+    Set<String> set = ArraySet.create(new Object[] {"a", "b"}, 2);
+    try {
+      set.add("c");
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    try {
+      set.remove("a");
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    try {
+      set.clear();
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    Iterator<String> iterator = set.iterator();
+    iterator.next();
+    try {
+      iterator.remove();
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    assertThat(set).containsExactly("a", "b").inOrder();
+  }
+
+  private static final class CollidingKey {
+    private final int value;
+
+    CollidingKey(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+}
@@ -72,6 +72,12 @@ public class DoubleCheckTest {
         .isSameAs(DOUBLE_CHECK_OBJECT_PROVIDER);
   }
 
+  @Test
+  public void doubleWrapping_reentrantLockDoubleCheck() {
+    Provider<Object> lockDoubleCheck = ReentrantLockDoubleCheck.provider(Object::new);
+    assertThat(DoubleCheck.provider(lockDoubleCheck)).isSameAs(lockDoubleCheck);
+  }
+
   @Test
   public void get() throws Exception {
     int numThreads = 10;
@@ -162,6 +168,22 @@ public class DoubleCheckTest {
     } catch (IllegalStateException expected) {}
   }
 
+  @Test
+  public void reentrantCheck_memoizedSentinel() {
+    Object instance = new Object();
+    assertThat(DoubleCheck.reentrantCheck(new MemoizedSentinel(), instance)).isSameAs(instance);
+  }
+
+  @Test
+  public void reentrantCheck_differentInstance_throwsIllegalStateException() {
+    Object instance = new Object();
+    assertThat(DoubleCheck.reentrantCheck(instance, instance)).isSameAs(instance);
+    try {
+      DoubleCheck.reentrantCheck(instance, new Object());
+      fail();
+    } catch (IllegalStateException expected) {}
+  }
+
   @Test
   public void instanceFactoryAsLazyDoesNotWrap() {
     Factory<Object> factory = InstanceFactory.create(new Object());
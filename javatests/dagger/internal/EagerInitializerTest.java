@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import javax.inject.Provider;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link EagerInitializer}. */
+@RunWith(JUnit4.class)
+public class EagerInitializerTest {
+  private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+  private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void shutDownExecutor() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void initialize_dependenciesFirst() {
+    EagerInitializer.initialize(
+        executor,
+        new Provider<?>[] {recording("a"), recording("b"), recording("c"), recording("d")},
+        new int[][] {{}, {}, {0, 1}, {2}});
+    assertThat(events).containsExactly("a", "b", "c", "d");
+    assertThat(events.indexOf("c")).isGreaterThan(events.indexOf("a"));
+    assertThat(events.indexOf("c")).isGreaterThan(events.indexOf("b"));
+    assertThat(events.indexOf("d")).isGreaterThan(events.indexOf("c"));
+  }
+
+  @Test
+  public void initialize_independentProvidersRunConcurrently() {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    Provider<Boolean> waitForOther =
+        () -> {
+          bothStarted.countDown();
+          try {
+            return bothStarted.await(10, SECONDS);
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+        };
+    EagerInitializer.initialize(
+        executor, new Provider<?>[] {waitForOther, waitForOther}, new int[][] {{}, {}});
+    assertThat(bothStarted.getCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void initialize_cycleRunsOnCallingThreadInOrder() {
+    Thread caller = Thread.currentThread();
+    List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+    Provider<?>[] providers = new Provider<?>[4];
+    for (int i = 0; i < providers.length; i++) {
+      String name = "p" + i;
+      providers[i] =
+          () -> {
+            events.add(name);
+            threads.add(Thread.currentThread());
+            return name;
+          };
+    }
+    // p0 and p1 depend on each other, p2 depends on the cycle, and p3 is independent.
+    EagerInitializer.initialize(executor, providers, new int[][] {{1}, {0}, {0}, {}});
+    assertThat(events).containsExactly("p3", "p0", "p1", "p2").inOrder();
+    assertThat(threads.subList(1, 4)).containsExactly(caller, caller, caller);
+  }
+
+  @Test
+  public void initialize_failureSkipsDependents() {
+    RuntimeException exception = new RuntimeException("initialization failed");
+    Provider<Object> failing =
+        () -> {
+          throw exception;
+        };
+    try {
+      EagerInitializer.initialize(
+          DIRECT_EXECUTOR,
+          new Provider<?>[] {failing, recording("dependent")},
+          new int[][] {{}, {0}});
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e).isSameAs(exception);
+    }
+    assertThat(events).isEmpty();
+  }
+
+  @Test
+  public void initialize_rejectedExecution() {
+    RejectedExecutionException exception = new RejectedExecutionException();
+    Executor rejecting =
+        runnable -> {
+          throw exception;
+        };
+    try {
+      EagerInitializer.initialize(
+          rejecting, new Provider<?>[] {recording("a")}, new int[][] {{}});
+      fail();
+    } catch (RejectedExecutionException e) {
+      assertThat(e).isSameAs(exception);
+    }
+    assertThat(events).isEmpty();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void initialize_mismatchedDependencies() {
+    EagerInitializer.initialize(
+        DIRECT_EXECUTOR, new Provider<?>[] {recording("a")}, new int[][] {});
+  }
+
+  private Provider<String> recording(String name) {
+    return () -> {
+      events.add(name);
+      return name;
+    };
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import dagger.multibindings.IntKeyMap;
+import dagger.multibindings.LongKeyMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IntKeyArrayMapTest {
+  @Test
+  public void get() {
+    IntKeyMap<String> map =
+        IntKeyArrayMap.<String>builder(3).put(-5, "a").put(0, "b").put(7, "c").build();
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get(-5)).isEqualTo("a");
+    assertThat(map.get(0)).isEqualTo("b");
+    assertThat(map.get(7)).isEqualTo("c");
+    assertThat(map.get(1)).isNull();
+    assertThat(map.get(Integer.MIN_VALUE)).isNull();
+    assertThat(map.get(Integer.MAX_VALUE)).isNull();
+  }
+
+  @Test
+  public void containsKey() {
+    IntKeyMap<String> map = IntKeyArrayMap.<String>builder(2).put(1, "a").put(3, "b").build();
+    assertThat(map.containsKey(1)).isTrue();
+    assertThat(map.containsKey(3)).isTrue();
+    assertThat(map.containsKey(2)).isFalse();
+  }
+
+  @Test
+  public void indexedAccess() {
+    IntKeyMap<String> map = IntKeyArrayMap.<String>builder(2).put(1, "a").put(3, "b").build();
+    assertThat(map.keyAt(0)).isEqualTo(1);
+    assertThat(map.valueAt(0)).isEqualTo("a");
+    assertThat(map.keyAt(1)).isEqualTo(3);
+    assertThat(map.valueAt(1)).isEqualTo("b");
+    try {
+      map.keyAt(2);
+      fail();
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  @Test
+  public void keysOutOfOrder() {
+    IntKeyArrayMap.Builder<String> builder = IntKeyArrayMap.<String>builder(2).put(2, "a");
+    try {
+      builder.put(1, "b");
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      builder.put(2, "b");
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void tooManyEntries() {
+    IntKeyArrayMap.Builder<String> builder = IntKeyArrayMap.<String>builder(1).put(1, "a");
+    try {
+      builder.put(2, "b");
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void fewerEntriesThanExpected() {
+    IntKeyMap<String> map = IntKeyArrayMap.<String>builder(3).put(1, "a").build();
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(1)).isEqualTo("a");
+  }
+
+  @Test
+  public void empty() {
+    IntKeyMap<String> map = IntKeyArrayMap.<String>builder(0).build();
+    assertThat(map.size()).isEqualTo(0);
+    assertThat(map.containsKey(0)).isFalse();
+    assertThat(map).isSameAs(IntKeyArrayMap.<Object>empty());
+  }
+
+  @Test
+  public void longKeys() {
+    LongKeyMap<String> map =
+        LongKeyArrayMap.<String>builder(3)
+            .put(Long.MIN_VALUE, "min")
+            .put(1L << 40, "big")
+            .put(Long.MAX_VALUE, "max")
+            .build();
+    assertThat(map.get(Long.MIN_VALUE)).isEqualTo("min");
+    assertThat(map.get(1L << 40)).isEqualTo("big");
+    assertThat(map.get(Long.MAX_VALUE)).isEqualTo("max");
+    assertThat(map.containsKey(0L)).isFalse();
+    assertThat(map.keyAt(0)).isEqualTo(Long.MIN_VALUE);
+  }
+
+  @Test
+  public void testToString() {
+    IntKeyMap<String> map = IntKeyArrayMap.<String>builder(2).put(1, "a").put(3, "b").build();
+    assertThat(map.toString()).isEqualTo("{1=a, 3=b}");
+  }
+}
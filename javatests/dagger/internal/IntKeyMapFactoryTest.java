@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import dagger.multibindings.IntKeyMap;
+import dagger.multibindings.LongKeyMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IntKeyMapFactoryTest {
+  @Test
+  public void getsNewValuesForEachMap() {
+    final AtomicInteger counter = new AtomicInteger();
+    Provider<Integer> incrementing =
+        new Provider<Integer>() {
+          @Override
+          public Integer get() {
+            return counter.incrementAndGet();
+          }
+        };
+    Factory<IntKeyMap<Integer>> factory =
+        IntKeyMapFactory.<Integer>builder(2)
+            .put(1, incrementing)
+            .put(2, InstanceFactory.create(100))
+            .build();
+
+    IntKeyMap<Integer> first = factory.get();
+    assertThat(first.get(1)).isEqualTo(1);
+    assertThat(first.get(2)).isEqualTo(100);
+
+    IntKeyMap<Integer> second = factory.get();
+    assertThat(second.get(1)).isEqualTo(2);
+    assertThat(first).isNotSameAs(second);
+  }
+
+  @Test
+  public void empty() {
+    Factory<IntKeyMap<Object>> factory = IntKeyMapFactory.builder(0).build();
+    assertThat(factory.get().size()).isEqualTo(0);
+  }
+
+  @Test
+  public void nullProvider() {
+    try {
+      IntKeyMapFactory.<String>builder(1).put(1, null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  @Test
+  public void keysOutOfOrder() {
+    try {
+      IntKeyMapFactory.<String>builder(2)
+          .put(2, InstanceFactory.create("a"))
+          .put(1, InstanceFactory.create("b"));
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void longKeys() {
+    Factory<LongKeyMap<String>> factory =
+        LongKeyMapFactory.<String>builder(2)
+            .put(-1L, InstanceFactory.create("a"))
+            .put(Long.MAX_VALUE, InstanceFactory.create("b"))
+            .build();
+    LongKeyMap<String> map = factory.get();
+    assertThat(map.get(-1L)).isEqualTo("a");
+    assertThat(map.get(Long.MAX_VALUE)).isEqualTo("b");
+  }
+}
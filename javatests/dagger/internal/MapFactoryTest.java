@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MapFactoryTest {
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void enumKeys() {
+    Factory<Map<TimeUnit, Integer>> factory =
+        MapFactory.<TimeUnit, Integer>builder(TimeUnit.class)
+            .put(TimeUnit.SECONDS, incrementingIntegerProvider(20))
+            .put(TimeUnit.MILLISECONDS, incrementingIntegerProvider(10))
+            .build();
+
+    assertThat(factory.get()).containsExactly(TimeUnit.MILLISECONDS, 10, TimeUnit.SECONDS, 20);
+    assertThat(factory.get()).containsExactly(TimeUnit.MILLISECONDS, 11, TimeUnit.SECONDS, 21);
+    thrown.expect(UnsupportedOperationException.class);
+    factory.get().put(TimeUnit.DAYS, 1);
+  }
+
+  @Test
+  public void memoizesStableContributions() {
+    Factory<Map<String, Integer>> factory =
+        MapFactory.<String, Integer>builder(3)
+            .put("one", DoubleCheck.provider(incrementingIntegerProvider(10)))
+            .put("two", SingleCheck.provider(incrementingIntegerProvider(20)))
+            .put("three", InstanceFactory.create(30))
+            .build();
+    Map<String, Integer> map = factory.get();
+    assertThat(map).containsExactly("one", 10, "two", 20, "three", 30).inOrder();
+    assertThat(factory.get()).isSameAs(map);
+  }
+
+  @Test
+  public void doesNotMemoizeUnscopedContributions() {
+    Factory<Map<String, Integer>> factory =
+        MapFactory.<String, Integer>builder(2)
+            .put("one", DoubleCheck.provider(incrementingIntegerProvider(10)))
+            .put("two", incrementingIntegerProvider(20))
+            .build();
+    assertThat(factory.get()).containsExactly("one", 10, "two", 20);
+    assertThat(factory.get()).containsExactly("one", 10, "two", 21);
+  }
+
+  private static Provider<Integer> incrementingIntegerProvider(int seed) {
+    return new AtomicInteger(seed)::getAndIncrement;
+  }
+}
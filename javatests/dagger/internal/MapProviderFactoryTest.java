@@ -20,6 +20,7 @@ import static com.google.common.truth.Truth.assertThat;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Provider;
 import org.junit.Rule;
@@ -74,6 +75,23 @@ public class MapProviderFactoryTest {
         .inOrder();
   }
 
+  @Test
+  public void enumKeys() {
+    Provider<Integer> p1 = incrementingIntegerProvider(10);
+    Provider<Integer> p2 = incrementingIntegerProvider(20);
+
+    Factory<Map<TimeUnit, Provider<Integer>>> factory =
+        MapProviderFactory.<TimeUnit, Integer>builder(TimeUnit.class)
+            .put(TimeUnit.SECONDS, p2)
+            .put(TimeUnit.MILLISECONDS, p1)
+            .build();
+
+    assertThat(factory.get()).containsExactly(TimeUnit.MILLISECONDS, p1, TimeUnit.SECONDS, p2);
+    assertThat(factory.get().keySet())
+        .containsExactly(TimeUnit.MILLISECONDS, TimeUnit.SECONDS)
+        .inOrder();
+  }
+
   private static Provider<Integer> incrementingIntegerProvider(int seed) {
     return new AtomicInteger(seed)::getAndIncrement;
   }
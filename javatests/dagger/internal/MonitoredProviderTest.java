@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import dagger.monitoring.ProvisionComponentMonitor;
+import dagger.monitoring.ProvisionMonitor;
+import dagger.monitoring.ProvisionToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link MonitoredProvider}. */
+@RunWith(JUnit4.class)
+public class MonitoredProviderTest {
+  private static final ProvisionToken TOKEN = ProvisionToken.create("binding");
+
+  private final List<String> events = new ArrayList<>();
+
+  @Test(expected = NullPointerException.class)
+  public void create_nullPointerException() {
+    MonitoredProvider.create(null, ProvisionComponentMonitor::noOp, TOKEN);
+  }
+
+  @Test
+  public void get_reportsProvision() {
+    Provider<String> provider =
+        MonitoredProvider.create(
+            () -> {
+              events.add("get");
+              return "value";
+            },
+            () -> new RecordingComponentMonitor(),
+            TOKEN);
+    assertThat(provider.get()).isEqualTo("value");
+    assertThat(events)
+        .containsExactly(
+            "monitor binding", "requested", "methodStarting", "get", "methodFinished")
+        .inOrder();
+  }
+
+  @Test
+  public void get_reportsFailure() {
+    RuntimeException exception = new RuntimeException("provision failed");
+    Provider<String> provider =
+        MonitoredProvider.create(
+            () -> {
+              throw exception;
+            },
+            () -> new RecordingComponentMonitor(),
+            TOKEN);
+    try {
+      provider.get();
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e).isSameAs(exception);
+    }
+    assertThat(events)
+        .containsExactly(
+            "monitor binding",
+            "requested",
+            "methodStarting",
+            "methodFinished",
+            "failed provision failed")
+        .inOrder();
+  }
+
+  @Test
+  public void get_requestsComponentMonitorOnce() {
+    AtomicInteger componentMonitors = new AtomicInteger();
+    Provider<String> provider =
+        MonitoredProvider.create(
+            () -> "value",
+            () -> {
+              componentMonitors.incrementAndGet();
+              return ProvisionComponentMonitor.noOp();
+            },
+            TOKEN);
+    assertThat(componentMonitors.get()).isEqualTo(0);
+    provider.get();
+    provider.get();
+    assertThat(componentMonitors.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_throwingMonitorIsIgnored() {
+    ProvisionComponentMonitor throwingComponentMonitor =
+        new ProvisionComponentMonitor() {
+          @Override
+          public ProvisionMonitor provisionMonitorFor(ProvisionToken token) {
+            return new ProvisionMonitor() {
+              @Override
+              public void requested() {
+                throw new RuntimeException("monitor failed");
+              }
+
+              @Override
+              public void methodFinished() {
+                throw new RuntimeException("monitor failed");
+              }
+            };
+          }
+        };
+    Provider<String> provider =
+        MonitoredProvider.create(() -> "value", () -> throwingComponentMonitor, TOKEN);
+    assertThat(provider.get()).isEqualTo("value");
+  }
+
+  @Test
+  public void get_throwingComponentMonitorIsIgnored() {
+    Provider<String> provider =
+        MonitoredProvider.create(
+            () -> "value",
+            () -> {
+              throw new RuntimeException("monitor failed");
+            },
+            TOKEN);
+    assertThat(provider.get()).isEqualTo("value");
+  }
+
+  @Test
+  public void get_nullMonitorsAreIgnored() {
+    Provider<String> provider = MonitoredProvider.create(() -> "value", () -> null, TOKEN);
+    assertThat(provider.get()).isEqualTo("value");
+  }
+
+  private final class RecordingComponentMonitor extends ProvisionComponentMonitor {
+    @Override
+    public ProvisionMonitor provisionMonitorFor(ProvisionToken token) {
+      events.add("monitor " + token);
+      return new ProvisionMonitor() {
+        @Override
+        public void requested() {
+          events.add("requested");
+        }
+
+        @Override
+        public void methodStarting() {
+          events.add("methodStarting");
+        }
+
+        @Override
+        public void methodFinished() {
+          events.add("methodFinished");
+        }
+
+        @Override
+        public void failed(Throwable t) {
+          events.add("failed " + t.getMessage());
+        }
+      };
+    }
+  }
+}
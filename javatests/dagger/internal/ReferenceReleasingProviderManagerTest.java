@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.testing.GcFinalization;
+import dagger.releasablereferences.ReleasePolicy;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ReferenceReleasingProviderManagerTest {
+  private final ReferenceReleasingProviderManager manager =
+      new ReferenceReleasingProviderManager(Singleton.class);
+
+  @Test
+  public void releaseAndRestore() {
+    AtomicInteger calls = new AtomicInteger();
+    Provider<Object> provider =
+        ReferenceReleasingProvider.create(newObjectProvider(calls), manager);
+    Object value = provider.get();
+
+    manager.releaseStrongReferences();
+    assertThat(provider.get()).isSameAs(value);
+    manager.restoreStrongReferences();
+    assertThat(provider.get()).isSameAs(value);
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void collectedProvidersAreExpunged() {
+    ReferenceReleasingProvider<Object> live =
+        ReferenceReleasingProvider.create(newObjectProvider(new AtomicInteger()), manager);
+    ReferenceReleasingProvider.create(newObjectProvider(new AtomicInteger()), manager);
+    assertThat(manager.size()).isEqualTo(2);
+
+    // Releasing expunges the unreachable provider once its reference has been cleared and
+    // enqueued.
+    GcFinalization.awaitDone(
+        new GcFinalization.FinalizationPredicate() {
+          @Override
+          public boolean isDone() {
+            manager.releaseStrongReferences();
+            return manager.size() == 1;
+          }
+        });
+
+    ReferenceReleasingProvider.create(newObjectProvider(new AtomicInteger()), manager);
+    assertThat(manager.size()).isEqualTo(2);
+    assertThat(live.get()).isNotNull();
+  }
+
+  @Test
+  public void softReferences() {
+    ReferenceReleasingProviderManager softManager =
+        new ReferenceReleasingProviderManager(Singleton.class, ReleasePolicy.Strength.SOFT, 0);
+    AtomicInteger calls = new AtomicInteger();
+    Provider<Object> provider =
+        ReferenceReleasingProvider.create(newObjectProvider(calls), softManager);
+    WeakReference<Object> value = new WeakReference<>(provider.get());
+
+    softManager.releaseStrongReferences();
+    GcFinalization.awaitFullGc();
+    // The heap is not under pressure, so the soft reference has not been cleared.
+    assertThat(value.get()).isNotNull();
+    assertThat(provider.get()).isSameAs(value.get());
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void leastRecentlyUsed() throws InterruptedException {
+    ReferenceReleasingProviderManager lruManager =
+        new ReferenceReleasingProviderManager(Singleton.class, ReleasePolicy.Strength.WEAK, 2);
+    List<ReferenceReleasingProvider<Object>> providers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      providers.add(
+          ReferenceReleasingProvider.create(newObjectProvider(new AtomicInteger()), lruManager));
+    }
+    for (int i : new int[] {2, 0, 3, 1}) {
+      providers.get(i).get();
+      Thread.sleep(1); // so that each access has a distinct nanoTime()
+    }
+
+    lruManager.releaseStrongReferences();
+    assertThat(strongReferences(providers)).containsExactly(false, true, false, true).inOrder();
+    lruManager.releaseStrongReferences();
+    assertThat(strongReferences(providers)).containsExactly(false, false, false, false).inOrder();
+    lruManager.restoreStrongReferences();
+    // Nothing else refers to the values, so some may have been collected before being restored.
+    for (ReferenceReleasingProvider<Object> provider : providers) {
+      assertThat(provider.get()).isSameAs(provider.get());
+    }
+  }
+
+  private static ImmutableList<Boolean> strongReferences(
+      List<ReferenceReleasingProvider<Object>> providers) {
+    ImmutableList.Builder<Boolean> strongReferences = ImmutableList.builder();
+    for (ReferenceReleasingProvider<Object> provider : providers) {
+      strongReferences.add(provider.holdsStrongReference());
+    }
+    return strongReferences.build();
+  }
+
+  private static Provider<Object> newObjectProvider(AtomicInteger calls) {
+    return () -> {
+      calls.incrementAndGet();
+      return new Object();
+    };
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link RefreshingCheck}. */
+@RunWith(JUnit4.class)
+public class RefreshingCheckTest {
+  private static final long NEVER_EXPIRES = Long.MAX_VALUE;
+  private static final long EXPIRES_IMMEDIATELY = 1;
+
+  @Test(expected = NullPointerException.class)
+  public void create_nullPointerException() {
+    RefreshingCheck.provider(null, NEVER_EXPIRES);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void create_nonPositiveInterval() {
+    RefreshingCheck.provider(() -> "value", 0);
+  }
+
+  @Test
+  public void get_withinInterval() {
+    AtomicInteger integer = new AtomicInteger();
+    Provider<Integer> provider = RefreshingCheck.provider(integer::getAndIncrement, NEVER_EXPIRES);
+    assertThat(provider.get()).isEqualTo(0);
+    assertThat(provider.get()).isEqualTo(0);
+    assertThat(provider.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void get_afterInterval() throws InterruptedException {
+    AtomicInteger integer = new AtomicInteger();
+    Provider<Integer> provider =
+        RefreshingCheck.provider(integer::getAndIncrement, EXPIRES_IMMEDIATELY);
+    assertThat(provider.get()).isEqualTo(0);
+    Thread.sleep(1);
+    assertThat(provider.get()).isEqualTo(1);
+    Thread.sleep(1);
+    assertThat(provider.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void get_staleValueWhileRefreshing() throws Exception {
+    CountDownLatch refreshStarted = new CountDownLatch(1);
+    CountDownLatch finishRefresh = new CountDownLatch(1);
+    AtomicInteger integer = new AtomicInteger();
+    Provider<Integer> provider =
+        RefreshingCheck.provider(
+            () -> {
+              int value = integer.getAndIncrement();
+              if (value == 1) {
+                refreshStarted.countDown();
+                awaitUninterruptibly(finishRefresh);
+              }
+              return value;
+            },
+            EXPIRES_IMMEDIATELY);
+    assertThat(provider.get()).isEqualTo(0);
+    Thread.sleep(1);
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> refreshed = executor.submit(provider::get);
+      assertThat(refreshStarted.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(provider.get()).isEqualTo(0);
+      assertThat(provider.get()).isEqualTo(0);
+      finishRefresh.countDown();
+      assertThat(refreshed.get(10, TimeUnit.SECONDS)).isEqualTo(1);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(integer.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void get_refreshThrows_keepsStaleValue() throws InterruptedException {
+    AtomicInteger integer = new AtomicInteger();
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Provider<Integer> provider =
+        RefreshingCheck.provider(
+            () -> {
+              RuntimeException e = failure.get();
+              if (e != null) {
+                throw e;
+              }
+              return integer.getAndIncrement();
+            },
+            EXPIRES_IMMEDIATELY);
+    assertThat(provider.get()).isEqualTo(0);
+    Thread.sleep(1);
+
+    RuntimeException expected = new RuntimeException();
+    failure.set(expected);
+    try {
+      provider.get();
+      fail();
+    } catch (RuntimeException e) {
+      assertThat(e).isSameAs(expected);
+    }
+
+    failure.set(null);
+    assertThat(provider.get()).isEqualTo(1);
+  }
+
+  private Provider<Object> reentrantProvider;
+
+  @Test
+  public void get_reentrantDuringInitialization() {
+    reentrantProvider = RefreshingCheck.provider(() -> reentrantProvider.get(), NEVER_EXPIRES);
+    try {
+      reentrantProvider.get();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void get_reentrantDuringRefresh() throws InterruptedException {
+    AtomicInteger integer = new AtomicInteger();
+    AtomicReference<Object> reentrantValue = new AtomicReference<>();
+    reentrantProvider =
+        RefreshingCheck.provider(
+            () -> {
+              int value = integer.getAndIncrement();
+              if (value == 1) {
+                reentrantValue.set(reentrantProvider.get());
+              }
+              return value;
+            },
+            EXPIRES_IMMEDIATELY);
+    assertThat(reentrantProvider.get()).isEqualTo(0);
+    Thread.sleep(1);
+    assertThat(reentrantProvider.get()).isEqualTo(1);
+    assertThat(reentrantValue.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void doubleCheck_doesNotWrapRefreshingCheck() {
+    Provider<Object> refreshingCheck = RefreshingCheck.provider(Object::new, NEVER_EXPIRES);
+    assertThat(DoubleCheck.provider(refreshingCheck)).isSameAs(refreshingCheck);
+    assertThat(SingleCheck.provider(refreshingCheck)).isSameAs(refreshingCheck);
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
@@ -74,6 +74,41 @@ public class SetFactoryTest {
     assertThat(factory.get()).containsExactly(2, 12, 24, 25, 34, 35);
   }
 
+  @Test
+  public void preservesContributionOrder() {
+    Factory<Set<Integer>> factory =
+        SetFactory.<Integer>builder(2, 1)
+            .addProvider(() -> 3)
+            .addProvider(() -> 1)
+            .addCollectionProvider(() -> ImmutableSet.of(2, 1, 0))
+            .build();
+    assertThat(factory.get()).containsExactly(3, 1, 2, 0).inOrder();
+  }
+
+  @Test
+  public void memoizesStableContributions() {
+    Factory<Set<Integer>> factory =
+        SetFactory.<Integer>builder(2, 1)
+            .addProvider(DoubleCheck.provider(incrementingIntegerProvider(0)))
+            .addProvider(InstanceFactory.create(10))
+            .addCollectionProvider(SingleCheck.provider(incrementingIntegerSetProvider(20)))
+            .build();
+    Set<Integer> set = factory.get();
+    assertThat(set).containsExactly(0, 10, 20, 21);
+    assertThat(factory.get()).isSameAs(set);
+  }
+
+  @Test
+  public void doesNotMemoizeUnscopedContributions() {
+    Factory<Set<Integer>> factory =
+        SetFactory.<Integer>builder(2, 0)
+            .addProvider(DoubleCheck.provider(incrementingIntegerProvider(0)))
+            .addProvider(incrementingIntegerProvider(10))
+            .build();
+    assertThat(factory.get()).containsExactly(0, 10);
+    assertThat(factory.get()).containsExactly(0, 11);
+  }
+
   private static Provider<Integer> incrementingIntegerProvider(int seed) {
     final AtomicInteger value = new AtomicInteger(seed);
     return value::getAndIncrement;
@@ -42,4 +42,16 @@ public class SingleCheckTest {
     assertThat(provider.get()).isEqualTo(0);
     assertThat(provider.get()).isEqualTo(0);
   }
+
+  @Test
+  public void doesNotWrapDoubleCheck() {
+    Provider<Object> doubleCheck = DoubleCheck.provider(Object::new);
+    assertThat(SingleCheck.provider(doubleCheck)).isSameAs(doubleCheck);
+  }
+
+  @Test
+  public void doesNotWrapReentrantLockDoubleCheck() {
+    Provider<Object> lockDoubleCheck = ReentrantLockDoubleCheck.provider(Object::new);
+    assertThat(SingleCheck.provider(lockDoubleCheck)).isSameAs(lockDoubleCheck);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StringKeySwitchMapTest {
+  private static Map<String, Integer> map() {
+    String[] keys = {"one", "two", "three"};
+    Object[] values = {1, 2, 3};
+    return new StringKeySwitchMap<Integer>(keys, values) {
+      @Override
+      protected int indexOf(String key) {
+        switch (key) {
+          case "one": return 0;
+          case "two": return 1;
+          case "three": return 2;
+          default: return -1;
+        }
+      }
+    };
+  }
+
+  @Test
+  public void get() {
+    Map<String, Integer> map = map();
+    assertThat(map.size()).isEqualTo(3);
+    assertThat(map.get("one")).isEqualTo(1);
+    assertThat(map.get("two")).isEqualTo(2);
+    assertThat(map.get("three")).isEqualTo(3);
+    assertThat(map.get("four")).isNull();
+    assertThat(map.get(null)).isNull();
+    assertThat(map.get(1)).isNull();
+    assertThat(map.containsKey("two")).isTrue();
+    assertThat(map.containsKey("four")).isFalse();
+  }
+
+  @Test
+  public void mapContract() {
+    Map<String, Integer> map = map();
+    ImmutableMap<String, Integer> expected = ImmutableMap.of("one", 1, "two", 2, "three", 3);
+    assertThat(map).isEqualTo(expected);
+    assertThat(expected).isEqualTo(map);
+    assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(map.keySet()).containsExactly("one", "two", "three").inOrder();
+    assertThat(map.values()).containsExactly(1, 2, 3).inOrder();
+    assertThat(map.entrySet()).containsExactlyElementsIn(expected.entrySet()).inOrder();
+    assertThat(map.containsValue(2)).isTrue();
+  }
+
+  @Test
+  public void immutable() {
+    Map<String, Integer> map = map();
+    try {
+      map.put("four", 4);
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    try {
+      map.remove("one");
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    try {
+      map.entrySet().iterator().next().setValue(4);
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    assertThat(map).hasSize(3);
+  }
+
+  @Test
+  public void mismatchedKeysAndValues() {
+    try {
+      new StringKeySwitchMap<Integer>(new String[] {"one"}, new Object[0]) {
+        @Override
+        protected int indexOf(String key) {
+          return -1;
+        }
+      };
+      fail();
+    } catch (IllegalArgumentException expected) {}
+  }
+}
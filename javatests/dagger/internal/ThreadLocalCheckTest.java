@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.testing.GcFinalization;
+import dagger.ThreadScoped;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link ThreadLocalCheck} and {@link ThreadLocalReferenceManager}. */
+@RunWith(JUnit4.class)
+public class ThreadLocalCheckTest {
+  private final ThreadLocalReferenceManager manager =
+      new ThreadLocalReferenceManager(ThreadScoped.class);
+
+  @Test(expected = NullPointerException.class)
+  public void create_nullPointerException() {
+    ThreadLocalCheck.provider(null);
+  }
+
+  @Test
+  public void get_sameThread() {
+    AtomicInteger integer = new AtomicInteger();
+    Provider<Integer> provider = ThreadLocalCheck.provider(integer::getAndIncrement);
+    assertThat(provider.get()).isEqualTo(0);
+    assertThat(provider.get()).isEqualTo(0);
+    assertThat(integer.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_differentThreads() throws Exception {
+    AtomicInteger integer = new AtomicInteger();
+    Provider<Integer> provider = ThreadLocalCheck.provider(integer::getAndIncrement);
+    assertThat(provider.get()).isEqualTo(0);
+    assertThat(getInNewThread(provider)).isEqualTo(1);
+    assertThat(getInNewThread(provider)).isEqualTo(2);
+    assertThat(provider.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void get_executorThreadReusesValue() throws Exception {
+    AtomicInteger integer = new AtomicInteger();
+    Provider<Integer> provider = ThreadLocalCheck.provider(integer::getAndIncrement);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertThat(executor.submit(provider::get).get()).isEqualTo(0);
+      assertThat(executor.submit(provider::get).get()).isEqualTo(0);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void get_null() {
+    AtomicInteger calls = new AtomicInteger();
+    Provider<Object> provider =
+        ThreadLocalCheck.provider(
+            () -> {
+              calls.incrementAndGet();
+              return null;
+            });
+    assertThat(provider.get()).isNull();
+    assertThat(provider.get()).isNull();
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  private Provider<Object> reentrantProvider;
+
+  @Test
+  public void get_reentrant() {
+    reentrantProvider = ThreadLocalCheck.provider(() -> reentrantProvider.get());
+    try {
+      reentrantProvider.get();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void doesNotWrapDoubleCheck() {
+    Provider<Object> doubleCheck = DoubleCheck.provider(Object::new);
+    assertThat(ThreadLocalCheck.provider(doubleCheck)).isSameAs(doubleCheck);
+  }
+
+  @Test
+  public void manager_releaseAndRestore() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    Provider<Object> provider = ThreadLocalCheck.provider(newObjectProvider(calls), manager);
+    Object value = provider.get();
+    getInNewThread(provider);
+    assertThat(calls.get()).isEqualTo(2);
+
+    manager.releaseStrongReferences();
+    assertThat(provider.get()).isSameAs(value);
+    manager.restoreStrongReferences();
+    assertThat(provider.get()).isSameAs(value);
+    assertThat(calls.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void manager_restoreConcurrentWithGet() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    Provider<Object> provider = ThreadLocalCheck.provider(newObjectProvider(calls), manager);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Object value = executor.submit(provider::get).get();
+      Future<?> gets =
+          executor.submit(
+              () -> {
+                for (int i = 0; i < 1_000_000; i++) {
+                  assertThat(provider.get()).isSameAs(value);
+                }
+              });
+      while (!gets.isDone()) {
+        manager.releaseStrongReferences();
+        manager.restoreStrongReferences();
+      }
+      gets.get();
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void manager_releasedValuesCanBeCollected() {
+    AtomicInteger calls = new AtomicInteger();
+    Provider<Object> provider = ThreadLocalCheck.provider(newObjectProvider(calls), manager);
+    WeakReference<Object> value = new WeakReference<>(provider.get());
+
+    manager.releaseStrongReferences();
+    GcFinalization.awaitClear(value);
+    assertThat(provider.get()).isNotNull();
+    assertThat(calls.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void manager_terminatedThreadsAreExpunged() throws Exception {
+    Provider<Object> provider =
+        ThreadLocalCheck.provider(newObjectProvider(new AtomicInteger()), manager);
+    provider.get();
+    for (int i = 0; i < 10; i++) {
+      getInNewThread(provider);
+    }
+    GcFinalization.awaitDone(
+        new GcFinalization.FinalizationPredicate() {
+          @Override
+          public boolean isDone() {
+            return manager.size() == 1;
+          }
+        });
+    assertThat(provider.get()).isNotNull();
+  }
+
+  private static <T> T getInNewThread(Provider<T> provider) throws InterruptedException {
+    AtomicReference<T> value = new AtomicReference<>();
+    Thread thread = new Thread(() -> value.set(provider.get()));
+    thread.start();
+    thread.join();
+    return value.get();
+  }
+
+  private static Provider<Object> newObjectProvider(AtomicInteger calls) {
+    return () -> {
+      calls.incrementAndGet();
+      return new Object();
+    };
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@code dagger.internal} benchmarks once for each thread count, with the {@linkplain
+ * GCProfiler GC profiler} attached so that allocation rates ({@code gc.alloc.rate.norm}, in
+ * bytes/op) are reported alongside timings.
+ *
+ * <p>Usage: {@code BenchmarkRunner [include-regex] [comma-separated-thread-counts]}. By default
+ * every benchmark in this package is run with 1, 2, 4, 8, 16, 32 and 64 threads.
+ */
+public final class BenchmarkRunner {
+  private static final String DEFAULT_INCLUDE = BenchmarkRunner.class.getPackage().getName();
+  private static final String DEFAULT_THREAD_COUNTS = "1,2,4,8,16,32,64";
+
+  public static void main(String[] args) throws RunnerException {
+    String include = args.length > 0 ? args[0] : DEFAULT_INCLUDE;
+    String threadCounts = args.length > 1 ? args[1] : DEFAULT_THREAD_COUNTS;
+    for (String threadCount : threadCounts.split(",")) {
+      Options options =
+          new OptionsBuilder()
+              .include(include)
+              .threads(Integer.parseInt(threadCount.trim()))
+              .addProfiler(GCProfiler.class)
+              .build();
+      new Runner(options).run();
+    }
+  }
+
+  private BenchmarkRunner() {}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.DoubleCheck;
+import dagger.internal.InstanceFactory;
+import dagger.internal.MapFactory;
+import dagger.internal.MapProviderFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link java.util.EnumMap}-backed map factories used for enum-keyed map
+ * multibindings with the {@link java.util.LinkedHashMap}-backed ones used for other keys, for a
+ * dispatch table keyed by every constant of a 16-constant enum.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumMapFactoryBenchmark {
+  /** The key type. */
+  public enum Operation {
+    OP_0, OP_1, OP_2, OP_3, OP_4, OP_5, OP_6, OP_7,
+    OP_8, OP_9, OP_10, OP_11, OP_12, OP_13, OP_14, OP_15,
+  }
+
+  private static final Operation LOOKUP_KEY = Operation.OP_11;
+
+  private Provider<Map<Operation, Integer>> linkedMapFactory;
+  private Provider<Map<Operation, Integer>> enumMapFactory;
+  private Provider<Map<Operation, Provider<Integer>>> linkedMapProviderFactory;
+  private Provider<Map<Operation, Provider<Integer>>> enumMapProviderFactory;
+
+  @Setup
+  public void setUp() {
+    Operation[] operations = Operation.values();
+    MapFactory.Builder<Operation, Integer> linkedMapFactoryBuilder =
+        MapFactory.builder(operations.length);
+    MapFactory.Builder<Operation, Integer> enumMapFactoryBuilder =
+        MapFactory.builder(Operation.class);
+    MapProviderFactory.Builder<Operation, Integer> linkedMapProviderFactoryBuilder =
+        MapProviderFactory.builder(operations.length);
+    MapProviderFactory.Builder<Operation, Integer> enumMapProviderFactoryBuilder =
+        MapProviderFactory.builder(Operation.class);
+    for (Operation operation : operations) {
+      Provider<Integer> provider =
+          DoubleCheck.provider(InstanceFactory.create(operation.ordinal()));
+      linkedMapFactoryBuilder.put(operation, provider);
+      enumMapFactoryBuilder.put(operation, provider);
+      linkedMapProviderFactoryBuilder.put(operation, provider);
+      enumMapProviderFactoryBuilder.put(operation, provider);
+    }
+    linkedMapFactory = linkedMapFactoryBuilder.build();
+    enumMapFactory = enumMapFactoryBuilder.build();
+    linkedMapProviderFactory = linkedMapProviderFactoryBuilder.build();
+    enumMapProviderFactory = enumMapProviderFactoryBuilder.build();
+  }
+
+  @Benchmark
+  public Map<Operation, Integer> linkedMapFactoryGet() {
+    return linkedMapFactory.get();
+  }
+
+  @Benchmark
+  public Map<Operation, Integer> enumMapFactoryGet() {
+    return enumMapFactory.get();
+  }
+
+  @Benchmark
+  public Integer linkedMapProviderFactoryLookup() {
+    return linkedMapProviderFactory.get().get(LOOKUP_KEY).get();
+  }
+
+  @Benchmark
+  public Integer enumMapProviderFactoryLookup() {
+    return enumMapProviderFactory.get().get(LOOKUP_KEY).get();
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.Lazy;
+import dagger.internal.DelegateFactory;
+import dagger.internal.InstanceFactory;
+import dagger.internal.ProviderOfLazy;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the framework providers that generated code uses to adapt bindings: {@link
+ * ProviderOfLazy}, {@link DelegateFactory} and {@link InstanceFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameworkProviderBenchmark {
+  private static final Provider<Object> FACTORY =
+      new Provider<Object>() {
+        @Override
+        public Object get() {
+          return new Object();
+        }
+      };
+
+  private final Object instance = new Object();
+  private Provider<Object> instanceFactory;
+  private Provider<Lazy<Object>> providerOfLazy;
+  private Provider<Object> delegateFactory;
+
+  @Setup
+  public void setUp() {
+    instanceFactory = InstanceFactory.create(instance);
+    providerOfLazy = ProviderOfLazy.create(FACTORY);
+    DelegateFactory<Object> delegate = new DelegateFactory<>();
+    delegate.setDelegatedProvider(instanceFactory);
+    delegateFactory = delegate;
+  }
+
+  @Benchmark
+  public Object instanceFactoryGet() {
+    return instanceFactory.get();
+  }
+
+  @Benchmark
+  public Provider<Object> instanceFactoryCreate() {
+    return InstanceFactory.create(instance);
+  }
+
+  @Benchmark
+  public Lazy<Object> providerOfLazyGet() {
+    return providerOfLazy.get();
+  }
+
+  @Benchmark
+  public Object providerOfLazyGetAndResolve() {
+    return providerOfLazy.get().get();
+  }
+
+  @Benchmark
+  public Object delegateFactoryGet() {
+    return delegateFactory.get();
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.DoubleCheck;
+import dagger.internal.InstanceFactory;
+import dagger.internal.MapFactory;
+import dagger.internal.MapProviderFactory;
+import dagger.internal.SetFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the factories behind multibound {@code Set} and {@code Map} bindings: {@link
+ * SetFactory}, {@link MapFactory} and {@link MapProviderFactory}.
+ *
+ * <p>Contributions are {@linkplain DoubleCheck scoped} providers, as they would be for the common
+ * case of multibinding {@code @Singleton} objects, so that the benchmarks measure the cost of
+ * assembling the collection and not the cost of the contributions themselves. Since {@link
+ * SetFactory} and {@link MapFactory} memoize collections of scoped contributions, {@link
+ * #setFactoryUnscopedGet()} and {@link #mapFactoryUnscopedGet()} measure assembling a collection
+ * from unscoped contributions. The {@code build*} benchmarks measure constructing the factory,
+ * which components do once per multibinding during initialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultibindingFactoryBenchmark {
+  @Param({"1", "8", "64"})
+  public int size;
+
+  private List<Provider<Integer>> elementProviders;
+  private List<Provider<Integer>> unscopedElementProviders;
+  private Provider<Collection<Integer>> collectionProvider;
+
+  private Provider<Set<Integer>> setFactory;
+  private Provider<Set<Integer>> setFactoryUnscoped;
+  private Provider<Set<Integer>> setFactoryWithCollection;
+  private Provider<Map<Integer, Integer>> mapFactory;
+  private Provider<Map<Integer, Integer>> mapFactoryUnscoped;
+  private Provider<Map<Integer, Provider<Integer>>> mapProviderFactory;
+
+  @Setup
+  public void setUp() {
+    elementProviders = new ArrayList<>(size);
+    unscopedElementProviders = new ArrayList<>(size);
+    List<Integer> collection = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      final Integer element = i;
+      elementProviders.add(DoubleCheck.provider(InstanceFactory.create(element)));
+      unscopedElementProviders.add(
+          new Provider<Integer>() {
+            @Override
+            public Integer get() {
+              return element;
+            }
+          });
+      collection.add(size + i);
+    }
+    collectionProvider =
+        DoubleCheck.provider(InstanceFactory.<Collection<Integer>>create(collection));
+
+    setFactory = buildSetFactory();
+    SetFactory.Builder<Integer> unscopedBuilder = SetFactory.builder(size, 0);
+    for (int i = 0; i < size; i++) {
+      unscopedBuilder.addProvider(unscopedElementProviders.get(i));
+    }
+    setFactoryUnscoped = unscopedBuilder.build();
+    setFactoryWithCollection =
+        SetFactory.<Integer>builder(0, 1).addCollectionProvider(collectionProvider).build();
+    mapFactory = buildMapFactory();
+    MapFactory.Builder<Integer, Integer> unscopedMapBuilder = MapFactory.builder(size);
+    for (int i = 0; i < size; i++) {
+      unscopedMapBuilder.put(i, unscopedElementProviders.get(i));
+    }
+    mapFactoryUnscoped = unscopedMapBuilder.build();
+    mapProviderFactory = buildMapProviderFactory();
+  }
+
+  @Benchmark
+  public Set<Integer> setFactoryGet() {
+    return setFactory.get();
+  }
+
+  @Benchmark
+  public Set<Integer> setFactoryUnscopedGet() {
+    return setFactoryUnscoped.get();
+  }
+
+  @Benchmark
+  public Set<Integer> setFactoryWithCollectionGet() {
+    return setFactoryWithCollection.get();
+  }
+
+  @Benchmark
+  public Map<Integer, Integer> mapFactoryGet() {
+    return mapFactory.get();
+  }
+
+  @Benchmark
+  public Map<Integer, Integer> mapFactoryUnscopedGet() {
+    return mapFactoryUnscoped.get();
+  }
+
+  @Benchmark
+  public Map<Integer, Provider<Integer>> mapProviderFactoryGet() {
+    return mapProviderFactory.get();
+  }
+
+  @Benchmark
+  public Integer mapProviderFactoryLookup() {
+    return mapProviderFactory.get().get(size - 1).get();
+  }
+
+  @Benchmark
+  public Provider<Set<Integer>> buildSetFactory() {
+    SetFactory.Builder<Integer> builder = SetFactory.builder(size, 0);
+    for (int i = 0; i < size; i++) {
+      builder.addProvider(elementProviders.get(i));
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public Provider<Map<Integer, Integer>> buildMapFactory() {
+    MapFactory.Builder<Integer, Integer> builder = MapFactory.builder(size);
+    for (int i = 0; i < size; i++) {
+      builder.put(i, elementProviders.get(i));
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public Provider<Map<Integer, Provider<Integer>>> buildMapProviderFactory() {
+    MapProviderFactory.Builder<Integer, Integer> builder = MapProviderFactory.builder(size);
+    for (int i = 0; i < size; i++) {
+      builder.put(i, elementProviders.get(i));
+    }
+    return builder.build();
+  }
+}
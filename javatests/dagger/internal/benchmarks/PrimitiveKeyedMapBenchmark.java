@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.DoubleCheck;
+import dagger.internal.InstanceFactory;
+import dagger.internal.IntKeyArrayMap;
+import dagger.internal.MapProviderFactory;
+import dagger.multibindings.IntKeyMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares lookups in an {@link IntKeyMap} of providers with lookups in the boxed {@code
+ * Map<Integer, Provider<V>>} of the same multibinding, for an opcode-style dispatch table with
+ * sparse keys. Each invocation looks up every key once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveKeyedMapBenchmark {
+  @Param({"16", "256"})
+  int entries;
+
+  private int[] keys;
+  private Map<Integer, Provider<Integer>> boxedMap;
+  private IntKeyMap<Provider<Integer>> intKeyMap;
+
+  @Setup
+  public void setUp() {
+    keys = new int[entries];
+    MapProviderFactory.Builder<Integer, Integer> boxedMapBuilder =
+        MapProviderFactory.builder(entries);
+    IntKeyArrayMap.Builder<Provider<Integer>> intKeyMapBuilder = IntKeyArrayMap.builder(entries);
+    for (int i = 0; i < entries; i++) {
+      // Spread the keys out so that they're neither cached Integers nor dense.
+      keys[i] = i * 37 + 1000;
+      Provider<Integer> provider = DoubleCheck.provider(InstanceFactory.create(i));
+      boxedMapBuilder.put(keys[i], provider);
+      intKeyMapBuilder.put(keys[i], provider);
+    }
+    boxedMap = boxedMapBuilder.build().get();
+    intKeyMap = intKeyMapBuilder.build();
+  }
+
+  @Benchmark
+  public int boxedMapLookup() {
+    int sum = 0;
+    for (int key : keys) {
+      sum += boxedMap.get(key).get();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int intKeyMapLookup() {
+    int sum = 0;
+    for (int key : keys) {
+      sum += intKeyMap.get(key).get();
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.ReferenceReleasingProvider;
+import dagger.internal.ReferenceReleasingProviderManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ReferenceReleasingProviderManager} in a process where short-lived
+ * subcomponents keep adding providers to a long-lived manager.
+ *
+ * <p>The manager starts out with {@code live} providers that stay reachable. Each {@link
+ * #churnThenRelease()} adds {@code churn} providers that become unreachable immediately, as they
+ * would when a subcomponent is discarded, and then releases and restores the strong references of
+ * all providers. Its cost should depend on {@code live} and {@code churn}, and not grow with the
+ * number of providers added over the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReleasableReferencesChurnBenchmark {
+  private static final Provider<Object> FACTORY =
+      new Provider<Object>() {
+        @Override
+        public Object get() {
+          return new Object();
+        }
+      };
+
+  @Param({"16", "1024"})
+  public int live;
+
+  @Param({"64"})
+  public int churn;
+
+  private ReferenceReleasingProviderManager manager;
+  private List<ReferenceReleasingProvider<Object>> liveProviders;
+
+  @Setup
+  public void setUp() {
+    manager = new ReferenceReleasingProviderManager(Singleton.class);
+    liveProviders = new ArrayList<>(live);
+    for (int i = 0; i < live; i++) {
+      ReferenceReleasingProvider<Object> provider =
+          ReferenceReleasingProvider.create(FACTORY, manager);
+      provider.get();
+      liveProviders.add(provider);
+    }
+  }
+
+  @Benchmark
+  public ReferenceReleasingProviderManager churnThenRelease() {
+    for (int i = 0; i < churn; i++) {
+      ReferenceReleasingProvider.create(FACTORY, manager).get();
+    }
+    manager.releaseStrongReferences();
+    manager.restoreStrongReferences();
+    return manager;
+  }
+
+  @Benchmark
+  public ReferenceReleasingProvider<Object> addProvider() {
+    return ReferenceReleasingProvider.create(FACTORY, manager);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.DoubleCheck;
+import dagger.internal.ReentrantLockDoubleCheck;
+import dagger.internal.SingleCheck;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the scoping providers, {@link DoubleCheck}, {@link ReentrantLockDoubleCheck} and
+ * {@link SingleCheck}.
+ *
+ * <p>The {@code steadyState*} benchmarks read an already-initialized provider that is shared by
+ * all benchmark threads, which is the path taken by every request for a scoped binding after the
+ * first one. The {@code createAndGet*} benchmarks wrap a factory and call {@code get()} once, which
+ * is what a component does for a scoped binding that is only ever requested once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopedProviderBenchmark {
+  private static final Provider<Object> FACTORY =
+      new Provider<Object>() {
+        @Override
+        public Object get() {
+          return new Object();
+        }
+      };
+
+  private Provider<Object> doubleCheck;
+  private Provider<Object> reentrantLockDoubleCheck;
+  private Provider<Object> singleCheck;
+
+  @Setup
+  public void setUp() {
+    doubleCheck = DoubleCheck.provider(FACTORY);
+    doubleCheck.get();
+    reentrantLockDoubleCheck = ReentrantLockDoubleCheck.provider(FACTORY);
+    reentrantLockDoubleCheck.get();
+    singleCheck = SingleCheck.provider(FACTORY);
+    singleCheck.get();
+  }
+
+  @Benchmark
+  public Object steadyStateDoubleCheck() {
+    return doubleCheck.get();
+  }
+
+  @Benchmark
+  public Object steadyStateReentrantLockDoubleCheck() {
+    return reentrantLockDoubleCheck.get();
+  }
+
+  @Benchmark
+  public Object steadyStateSingleCheck() {
+    return singleCheck.get();
+  }
+
+  @Benchmark
+  public Object createAndGetDoubleCheck() {
+    return DoubleCheck.provider(FACTORY).get();
+  }
+
+  @Benchmark
+  public Object createAndGetReentrantLockDoubleCheck() {
+    return ReentrantLockDoubleCheck.provider(FACTORY).get();
+  }
+
+  @Benchmark
+  public Object createAndGetSingleCheck() {
+    return SingleCheck.provider(FACTORY).get();
+  }
+
+  @Benchmark
+  public Object createAndGetDoubleCheckLazy() {
+    return DoubleCheck.lazy(FACTORY).get();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.benchmarks;
+
+import dagger.internal.DoubleCheck;
+import dagger.internal.ReentrantLockDoubleCheck;
+import dagger.internal.SingleCheck;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the first {@code get()} of a scoped provider while every benchmark thread races to
+ * initialize it, as happens when a burst of requests reaches a {@code @Singleton} binding that has
+ * not been created yet.
+ *
+ * <p>A fresh provider is created before each iteration and each thread calls {@code get()} exactly
+ * once, so the reported time is that of the slowest thread to observe the initialized instance. The
+ * delegate burns {@link #provisionCost} tokens of CPU to model a non-trivial {@code @Provides}
+ * method.
+ *
+ * <p>Comparing {@link #doubleCheck()} with {@link #reentrantLockDoubleCheck()} shows the cost of
+ * inflating {@link DoubleCheck}'s monitor under contention against parking on a lock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 100)
+@Measurement(iterations = 500)
+@Fork(1)
+public class ScopedProviderFirstGetBenchmark {
+  @Param({"0", "1000", "100000"})
+  public long provisionCost;
+
+  private Provider<Object> doubleCheck;
+  private Provider<Object> reentrantLockDoubleCheck;
+  private Provider<Object> singleCheck;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    Provider<Object> factory =
+        new Provider<Object>() {
+          @Override
+          public Object get() {
+            Blackhole.consumeCPU(provisionCost);
+            return new Object();
+          }
+        };
+    doubleCheck = DoubleCheck.provider(factory);
+    reentrantLockDoubleCheck = ReentrantLockDoubleCheck.provider(factory);
+    singleCheck = SingleCheck.provider(factory);
+  }
+
+  @Benchmark
+  public Object doubleCheck() {
+    return doubleCheck.get();
+  }
+
+  @Benchmark
+  public Object reentrantLockDoubleCheck() {
+    return reentrantLockDoubleCheck.get();
+  }
+
+  @Benchmark
+  public Object singleCheck() {
+    return singleCheck.get();
+  }
+}
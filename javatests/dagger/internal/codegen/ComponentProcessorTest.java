@@ -20,6 +20,7 @@ import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
 import static dagger.internal.codegen.CodeBlocks.stringLiteral;
 import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
+import static javax.tools.StandardLocation.CLASS_OUTPUT;
 
 import com.google.auto.common.MoreElements;
 import com.google.common.base.Joiner;
@@ -488,6 +489,861 @@ public class ComponentProcessorTest {
         .hasSourceEquivalentTo(generatedComponent);
   }
 
+  @Test
+  public void componentWithScope_reentrantLockDoubleCheck() {
+    JavaFileObject injectableTypeFile = JavaFileObjects.forSourceLines("test.SomeInjectableType",
+        "package test;",
+        "",
+        "import javax.inject.Inject;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "final class SomeInjectableType {",
+        "  @Inject SomeInjectableType() {}",
+        "}");
+    JavaFileObject componentFile = JavaFileObjects.forSourceLines("test.SimpleComponent",
+        "package test;",
+        "",
+        "import dagger.Component;",
+        "import dagger.Lazy;",
+        "import javax.inject.Provider;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "@Component",
+        "interface SimpleComponent {",
+        "  SomeInjectableType someInjectableType();",
+        "  Lazy<SomeInjectableType> lazySomeInjectableType();",
+        "  Provider<SomeInjectableType> someInjectableTypeProvider();",
+        "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerSimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Lazy;",
+            "import dagger.internal.DoubleCheck;",
+            "import dagger.internal.ReentrantLockDoubleCheck;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerSimpleComponent implements SimpleComponent {",
+            "  private Provider<SomeInjectableType> someInjectableTypeProvider;",
+            "",
+            "  private DaggerSimpleComponent(Builder builder) {",
+            "    initialize(builder);",
+            "  }",
+            "",
+            "  public static Builder builder() {",
+            "    return new Builder();",
+            "  }",
+            "",
+            "  public static SimpleComponent create() {",
+            "    return new Builder().build();",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private void initialize(final Builder builder) {",
+            "    this.someInjectableTypeProvider =",
+            "        ReentrantLockDoubleCheck.provider(SomeInjectableType_Factory.create());",
+            "  }",
+            "",
+            "  @Override",
+            "  public SomeInjectableType someInjectableType() {",
+            "    return someInjectableTypeProvider.get();",
+            "  }",
+            "",
+            "  @Override",
+            "  public Lazy<SomeInjectableType> lazySomeInjectableType() {",
+            "    return DoubleCheck.lazy(someInjectableTypeProvider);",
+            "  }",
+            "",
+            "  @Override",
+            "  public Provider<SomeInjectableType> someInjectableTypeProvider() {",
+            "    return someInjectableTypeProvider;",
+            "  }",
+            "",
+            "  public static final class Builder {",
+            "    private Builder() {}",
+            "",
+            "    public SimpleComponent build() {",
+            "      return new DaggerSimpleComponent(this);",
+            "    }",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode.javacopts().append("-Adagger.reentrantLockDoubleCheck=enabled"))
+            .compile(injectableTypeFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void componentWithScope_inlineScopedBindings() {
+    JavaFileObject injectableTypeFile = JavaFileObjects.forSourceLines("test.SomeInjectableType",
+        "package test;",
+        "",
+        "import javax.inject.Inject;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "final class SomeInjectableType {",
+        "  @Inject SomeInjectableType() {}",
+        "}");
+    JavaFileObject componentFile = JavaFileObjects.forSourceLines("test.SimpleComponent",
+        "package test;",
+        "",
+        "import dagger.Component;",
+        "import dagger.Lazy;",
+        "import javax.inject.Provider;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "@Component",
+        "interface SimpleComponent {",
+        "  SomeInjectableType someInjectableType();",
+        "  Lazy<SomeInjectableType> lazySomeInjectableType();",
+        "  Provider<SomeInjectableType> someInjectableTypeProvider();",
+        "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerSimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Lazy;",
+            "import dagger.internal.DoubleCheck;",
+            "import dagger.internal.MemoizedSentinel;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerSimpleComponent implements SimpleComponent {",
+            "  private volatile Object someInjectableType = new MemoizedSentinel();",
+            "",
+            "  private DaggerSimpleComponent(Builder builder) {}",
+            "",
+            "  public static Builder builder() {",
+            "    return new Builder();",
+            "  }",
+            "",
+            "  public static SimpleComponent create() {",
+            "    return new Builder().build();",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private SomeInjectableType getSomeInjectableTypeInstance() {",
+            "    Object someInjectableType = this.someInjectableType;",
+            "    if (someInjectableType instanceof MemoizedSentinel) {",
+            "      synchronized (someInjectableType) {",
+            "        someInjectableType = this.someInjectableType;",
+            "        if (someInjectableType instanceof MemoizedSentinel) {",
+            "          someInjectableType = new SomeInjectableType();",
+            "          this.someInjectableType =",
+            "              DoubleCheck.reentrantCheck(this.someInjectableType, someInjectableType);",
+            "        }",
+            "      }",
+            "    }",
+            "    return (SomeInjectableType) someInjectableType;",
+            "  }",
+            "",
+            "  private Provider<SomeInjectableType> getSomeInjectableTypeProvider() {",
+            "    return new Provider<SomeInjectableType>() {",
+            "      @Override",
+            "      public SomeInjectableType get() {",
+            "        return getSomeInjectableTypeInstance();",
+            "      }",
+            "    };",
+            "  }",
+            "",
+            "  private Lazy<SomeInjectableType> getSomeInjectableTypeLazy() {",
+            "    return DoubleCheck.lazy(getSomeInjectableTypeProvider());",
+            "  }",
+            "",
+            "  @Override",
+            "  public SomeInjectableType someInjectableType() {",
+            "    return getSomeInjectableTypeInstance();",
+            "  }",
+            "",
+            "  @Override",
+            "  public Lazy<SomeInjectableType> lazySomeInjectableType() {",
+            "    return getSomeInjectableTypeLazy();",
+            "  }",
+            "",
+            "  @Override",
+            "  public Provider<SomeInjectableType> someInjectableTypeProvider() {",
+            "    return getSomeInjectableTypeProvider();",
+            "  }",
+            "",
+            "  public static final class Builder {",
+            "    private Builder() {}",
+            "",
+            "    public SimpleComponent build() {",
+            "      return new DaggerSimpleComponent(this);",
+            "    }",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.inlineScopedBindings=enabled"))
+            .compile(injectableTypeFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void switchingProviders() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Bar {",
+            "  @Inject Bar(Provider<Foo> fooProvider) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Provider;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Bar bar();",
+            "  Provider<Bar> barProvider();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            "import dagger.internal.DoubleCheck;",
+            "import dagger.internal.MemoizedSentinel;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerTestComponent implements TestComponent {",
+            "  private volatile Object bar = new MemoizedSentinel();",
+            "",
+            "  private Provider<Foo> fooProvider;",
+            "",
+            "  private Provider<Bar> barProvider;",
+            "",
+            "  private DaggerTestComponent(Builder builder) {}",
+            "",
+            "  public static Builder builder() {",
+            "    return new Builder();",
+            "  }",
+            "",
+            "  public static TestComponent create() {",
+            "    return new Builder().build();",
+            "  }",
+            "",
+            "  private Foo getFooInstance() {",
+            "    return new Foo();",
+            "  }",
+            "",
+            "  private Provider<Foo> getFooProvider() {",
+            "    Provider<Foo> fooProvider = this.fooProvider;",
+            "    if (fooProvider == null) {",
+            "      fooProvider = new SwitchingProvider<>(0);",
+            "      this.fooProvider = fooProvider;",
+            "    }",
+            "    return fooProvider;",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private Bar getBarInstance() {",
+            "    Object bar = this.bar;",
+            "    if (bar instanceof MemoizedSentinel) {",
+            "      synchronized (bar) {",
+            "        bar = this.bar;",
+            "        if (bar instanceof MemoizedSentinel) {",
+            "          bar = new Bar(getFooProvider());",
+            "          this.bar = DoubleCheck.reentrantCheck(this.bar, bar);",
+            "        }",
+            "      }",
+            "    }",
+            "    return (Bar) bar;",
+            "  }",
+            "",
+            "  private Provider<Bar> getBarProvider() {",
+            "    Provider<Bar> barProvider = this.barProvider;",
+            "    if (barProvider == null) {",
+            "      barProvider = new SwitchingProvider<>(1);",
+            "      this.barProvider = barProvider;",
+            "    }",
+            "    return barProvider;",
+            "  }",
+            "",
+            "  @Override",
+            "  public Bar bar() {",
+            "    return getBarInstance();",
+            "  }",
+            "",
+            "  @Override",
+            "  public Provider<Bar> barProvider() {",
+            "    return getBarProvider();",
+            "  }",
+            "",
+            "  public static final class Builder {",
+            "    private Builder() {}",
+            "",
+            "    public TestComponent build() {",
+            "      return new DaggerTestComponent(this);",
+            "    }",
+            "  }",
+            "",
+            "  private final class SwitchingProvider<T> implements Provider<T> {",
+            "    private final int id;",
+            "",
+            "    SwitchingProvider(int id) {",
+            "      this.id = id;",
+            "    }",
+            "",
+            "    @Override",
+            "    @SuppressWarnings(\"unchecked\")",
+            "    public T get() {",
+            "      switch (id) {",
+            "        case 0: return (T) DaggerTestComponent.this.getFooInstance();",
+            "        case 1: return (T) DaggerTestComponent.this.getBarInstance();",
+            "        default: throw new AssertionError(id);",
+            "      }",
+            "    }",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.switchingProviders=enabled"))
+            .compile(foo, bar, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void switchingProviders_primitiveBinding() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "",
+            "@Module",
+            "final class TestModule {",
+            "  @Provides static int provideInt() {",
+            "    return 42;",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Provider;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  int primitive();",
+            "  Provider<Integer> intProvider();",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.switchingProviders=enabled"))
+            .compile(module, component);
+    // The SwitchingProvider can only cast the primitive to T once it has been boxed.
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .contains("(T) (Integer) ");
+  }
+
+  @Test
+  public void provisionMonitoring() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Bar {",
+            "  @Inject Bar(Foo foo) {}",
+            "}");
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.monitoring.ProvisionComponentMonitor;",
+            "",
+            "@Module",
+            "abstract class TestModule {",
+            "  @Provides static ProvisionComponentMonitor monitor() {",
+            "    return ProvisionComponentMonitor.noOp();",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Bar bar();",
+            "}");
+    JavaFileObject generatedComponent;
+    switch (compilerMode) {
+      case EXPERIMENTAL_ANDROID:
+        generatedComponent =
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import dagger.internal.DoubleCheck;",
+                "import dagger.internal.MonitoredProvider;",
+                "import dagger.internal.Preconditions;",
+                "import dagger.monitoring.ProvisionComponentMonitor;",
+                "import dagger.monitoring.ProvisionToken;",
+                "import javax.annotation.Generated;",
+                "import javax.inject.Provider;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private Provider<Foo> fooProvider;",
+                "",
+                "  private Provider<Bar> barProvider;",
+                "",
+                "  private DaggerTestComponent(Builder builder) {",
+                "    initialize(builder);",
+                "  }",
+                "",
+                "  public static Builder builder() {",
+                "    return new Builder();",
+                "  }",
+                "",
+                "  public static TestComponent create() {",
+                "    return new Builder().build();",
+                "  }",
+                "",
+                "  private ProvisionComponentMonitor getProvisionComponentMonitorInstance() {",
+                "    return Preconditions.checkNotNull(",
+                "        TestModule.monitor(),",
+                "        \"Cannot return null from a non-@Nullable @Provides method\");",
+                "  }",
+                "",
+                "  private Provider<ProvisionComponentMonitor>",
+                "      getProvisionComponentMonitorProvider() {",
+                "    return new Provider<ProvisionComponentMonitor>() {",
+                "      @Override",
+                "      public ProvisionComponentMonitor get() {",
+                "        return getProvisionComponentMonitorInstance();",
+                "      }",
+                "    };",
+                "  }",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.fooProvider =",
+                "        MonitoredProvider.create(",
+                "            Foo_Factory.create(),",
+                "            getProvisionComponentMonitorProvider(),",
+                "            ProvisionToken.create(Foo_Factory.class));",
+                "    this.barProvider =",
+                "        DoubleCheck.provider(",
+                "            MonitoredProvider.create(",
+                "                Bar_Factory.create(fooProvider),",
+                "                getProvisionComponentMonitorProvider(),",
+                "                ProvisionToken.create(Bar_Factory.class)));",
+                "  }",
+                "",
+                "  @Override",
+                "  public Bar bar() {",
+                "    return barProvider.get();",
+                "  }",
+                "",
+                "  public static final class Builder {",
+                "    private Builder() {}",
+                "",
+                "    public TestComponent build() {",
+                "      return new DaggerTestComponent(this);",
+                "    }",
+                "  }",
+                "}");
+        break;
+      default:
+        generatedComponent =
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import dagger.internal.DoubleCheck;",
+                "import dagger.internal.MonitoredProvider;",
+                "import dagger.monitoring.ProvisionToken;",
+                "import javax.annotation.Generated;",
+                "import javax.inject.Provider;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private Provider<Foo> fooProvider;",
+                "",
+                "  private Provider<Bar> barProvider;",
+                "",
+                "  private DaggerTestComponent(Builder builder) {",
+                "    initialize(builder);",
+                "  }",
+                "",
+                "  public static Builder builder() {",
+                "    return new Builder();",
+                "  }",
+                "",
+                "  public static TestComponent create() {",
+                "    return new Builder().build();",
+                "  }",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.fooProvider =",
+                "        MonitoredProvider.create(",
+                "            Foo_Factory.create(),",
+                "            TestModule_MonitorFactory.create(),",
+                "            ProvisionToken.create(Foo_Factory.class));",
+                "    this.barProvider =",
+                "        DoubleCheck.provider(",
+                "            MonitoredProvider.create(",
+                "                Bar_Factory.create(fooProvider),",
+                "                TestModule_MonitorFactory.create(),",
+                "                ProvisionToken.create(Bar_Factory.class)));",
+                "  }",
+                "",
+                "  @Override",
+                "  public Bar bar() {",
+                "    return barProvider.get();",
+                "  }",
+                "",
+                "  public static final class Builder {",
+                "    private Builder() {}",
+                "",
+                "    public TestComponent build() {",
+                "      return new DaggerTestComponent(this);",
+                "    }",
+                "  }",
+                "}");
+        break;
+    }
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.provisionMonitoring=enabled"))
+            .compile(foo, bar, module, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void provisionMonitoring_disabled() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.monitoring.ProvisionComponentMonitor;",
+            "",
+            "@Module",
+            "abstract class TestModule {",
+            "  @Provides static ProvisionComponentMonitor monitor() {",
+            "    return ProvisionComponentMonitor.noOp();",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Foo foo();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            "import dagger.internal.DoubleCheck;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerTestComponent implements TestComponent {",
+            "  private Provider<Foo> fooProvider;",
+            "",
+            "  private DaggerTestComponent(Builder builder) {",
+            "    initialize(builder);",
+            "  }",
+            "",
+            "  public static Builder builder() {",
+            "    return new Builder();",
+            "  }",
+            "",
+            "  public static TestComponent create() {",
+            "    return new Builder().build();",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private void initialize(final Builder builder) {",
+            "    this.fooProvider = DoubleCheck.provider(Foo_Factory.create());",
+            "  }",
+            "",
+            "  @Override",
+            "  public Foo foo() {",
+            "    return fooProvider.get();",
+            "  }",
+            "",
+            "  public static final class Builder {",
+            "    private Builder() {}",
+            "",
+            "    public TestComponent build() {",
+            "      return new DaggerTestComponent(this);",
+            "    }",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler().withOptions(compilerMode.javacopts()).compile(foo, module, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void eagerInitialization() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class Bar {",
+            "  @Inject Bar(Foo foo) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface TestComponent {",
+            "  Bar bar();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            "import dagger.internal.DoubleCheck;",
+            "import dagger.internal.EagerInitializer;",
+            "import java.util.concurrent.Executor;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerTestComponent implements TestComponent {",
+            "  private Provider<Foo> fooProvider;",
+            "",
+            "  private Provider<Bar> barProvider;",
+            "",
+            "  private DaggerTestComponent(Builder builder) {",
+            "    initialize(builder);",
+            "  }",
+            "",
+            "  public static Builder builder() {",
+            "    return new Builder();",
+            "  }",
+            "",
+            "  public static TestComponent create() {",
+            "    return new Builder().build();",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private void initialize(final Builder builder) {",
+            "    this.fooProvider = DoubleCheck.provider(Foo_Factory.create());",
+            "    this.barProvider = DoubleCheck.provider(Bar_Factory.create(fooProvider));",
+            "  }",
+            "",
+            "  @Override",
+            "  public Bar bar() {",
+            "    return barProvider.get();",
+            "  }",
+            "",
+            "  public void initializeEagerly(Executor executor) {",
+            "    EagerInitializer.initialize(",
+            "        executor,",
+            "        new Provider<?>[] {fooProvider, barProvider},",
+            "        new int[][] {{}, {0}});",
+            "  }",
+            "",
+            "  public static final class Builder {",
+            "    private Builder() {}",
+            "",
+            "    public TestComponent build() {",
+            "      return new DaggerTestComponent(this);",
+            "    }",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.eagerInitialization=enabled"))
+            .compile(foo, bar, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void writeClassLists() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo(String string) {}",
+            "}");
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "",
+            "@Module",
+            "abstract class TestModule {",
+            "  @Provides static String string() {",
+            "    return \"\";",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Foo foo();",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.writeClassLists=enabled"))
+            .compile(foo, module, component);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedFile(CLASS_OUTPUT, "", "META-INF/dagger/test.TestComponent.classlist")
+        .contentsAsUtf8String()
+        .isEqualTo(
+            Joiner.on('\n')
+                .join(
+                    "test/DaggerTestComponent",
+                    "test/DaggerTestComponent$Builder",
+                    "test/TestModule_StringFactory",
+                    "test/TestModule",
+                    "test/Foo_Factory",
+                    "test/Foo",
+                    ""));
+  }
+
   @Test public void simpleComponentWithNesting() {
     JavaFileObject nestedTypesFile = JavaFileObjects.forSourceLines("test.OuterType",
         "package test;",
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DeferredSubcomponentFieldsTest {
+  @Test
+  public void subcomponentFieldsAreDeferredAndSharedFactoriesAreStatic() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Foo {",
+            "  @Inject Foo() {}",
+            "}");
+    JavaFileObject bar =
+        JavaFileObjects.forSourceLines(
+            "test.Bar",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class Bar {",
+            "  @Inject Bar(Foo foo) {}",
+            "}");
+    JavaFileObject baz =
+        JavaFileObjects.forSourceLines(
+            "test.Baz",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "@RequestScoped",
+            "final class Baz {",
+            "  @Inject Baz(Provider<Bar> barProvider) {}",
+            "}");
+    JavaFileObject requestScoped =
+        JavaFileObjects.forSourceLines(
+            "test.RequestScoped",
+            "package test;",
+            "",
+            "import javax.inject.Scope;",
+            "",
+            "@Scope",
+            "@interface RequestScoped {}");
+    JavaFileObject requestComponent =
+        JavaFileObjects.forSourceLines(
+            "test.RequestComponent",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "import javax.inject.Provider;",
+            "",
+            "@RequestScoped",
+            "@Subcomponent",
+            "interface RequestComponent {",
+            "  Baz baz();",
+            "  Provider<Bar> barProvider();",
+            "}");
+    JavaFileObject testComponent =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  RequestComponent request();",
+            "}");
+    JavaFileObject generatedComponent =
+        JavaFileObjects.forSourceLines(
+            "test.DaggerTestComponent",
+            "package test;",
+            "",
+            "import dagger.internal.DoubleCheck;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class DaggerTestComponent implements TestComponent {",
+            "  private static final Provider<Bar> BAR_PROVIDER =",
+            "      Bar_Factory.create(Foo_Factory.create());",
+            "",
+            "  private DaggerTestComponent(Builder builder) {}",
+            "",
+            "  public static Builder builder() {",
+            "    return new Builder();",
+            "  }",
+            "",
+            "  public static TestComponent create() {",
+            "    return new Builder().build();",
+            "  }",
+            "",
+            "  @Override",
+            "  public RequestComponent request() {",
+            "    return new RequestComponentImpl();",
+            "  }",
+            "",
+            "  public static final class Builder {",
+            "    private Builder() {}",
+            "",
+            "    public TestComponent build() {",
+            "      return new DaggerTestComponent(this);",
+            "    }",
+            "  }",
+            "",
+            "  private final class RequestComponentImpl implements RequestComponent {",
+            "    private volatile Provider<Baz> bazProvider;",
+            "",
+            "    private RequestComponentImpl() {}",
+            "",
+            "    private Provider<Baz> getBazProvider() {",
+            "      Provider<Baz> bazProvider = this.bazProvider;",
+            "      if (bazProvider == null) {",
+            "        synchronized (this) {",
+            "          bazProvider = this.bazProvider;",
+            "          if (bazProvider == null) {",
+            "            bazProvider =",
+            "                DoubleCheck.provider(",
+            "                    Baz_Factory.create(DaggerTestComponent.BAR_PROVIDER));",
+            "            this.bazProvider = bazProvider;",
+            "          }",
+            "        }",
+            "      }",
+            "      return bazProvider;",
+            "    }",
+            "",
+            "    @Override",
+            "    public Baz baz() {",
+            "      return getBazProvider().get();",
+            "    }",
+            "",
+            "    @Override",
+            "    public Provider<Bar> barProvider() {",
+            "      return DaggerTestComponent.BAR_PROVIDER;",
+            "    }",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions("-Adagger.deferredSubcomponentFields=enabled")
+            .compile(foo, bar, baz, requestScoped, requestComponent, testComponent);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .hasSourceEquivalentTo(generatedComponent);
+  }
+
+  @Test
+  public void cycleInDeferredFieldsUsesDelegateFactory() {
+    JavaFileObject a =
+        JavaFileObjects.forSourceLines(
+            "test.A",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class A {",
+            "  @Inject A(B b) {}",
+            "}");
+    JavaFileObject b =
+        JavaFileObjects.forSourceLines(
+            "test.B",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "final class B {",
+            "  @Inject B(Provider<A> aProvider) {}",
+            "}");
+    JavaFileObject child =
+        JavaFileObjects.forSourceLines(
+            "test.Child",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "import javax.inject.Provider;",
+            "",
+            "@Subcomponent",
+            "interface Child {",
+            "  Provider<A> aProvider();",
+            "}");
+    JavaFileObject parent =
+        JavaFileObjects.forSourceLines(
+            "test.Parent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface Parent {",
+            "  Child child();",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions("-Adagger.deferredSubcomponentFields=enabled")
+            .compile(a, b, child, parent);
+    // The cycle is not shared across instances, so the child defers its fields. The recursive call
+    // made while the field is initialized must return a DelegateFactory instead of null.
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerParent")
+        .contentsAsUtf8String()
+        .contains(
+            "            if (aProviderDelegate != null) {\n"
+                + "              return aProviderDelegate;\n"
+                + "            }\n"
+                + "            aProviderDelegate = new DelegateFactory();\n"
+                + "            aProvider = A_Factory.create(getBProvider());\n"
+                + "            aProviderDelegate.setDelegatedProvider(aProvider);\n"
+                + "            this.aProvider = aProvider;\n");
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerParent")
+        .contentsAsUtf8String()
+        .contains("bProvider = B_Factory.create(getAProvider());");
+  }
+}
@@ -33,6 +33,8 @@ import static dagger.internal.codegen.ErrorMessages.MULTIPLE_SCOPES;
 import static dagger.internal.codegen.ErrorMessages.PRIVATE_INJECT_FIELD;
 import static dagger.internal.codegen.ErrorMessages.PRIVATE_INJECT_METHOD;
 import static dagger.internal.codegen.ErrorMessages.QUALIFIER_ON_INJECT_CONSTRUCTOR;
+import static dagger.internal.codegen.ErrorMessages.REFRESH_INTERVAL_NOT_POSITIVE;
+import static dagger.internal.codegen.ErrorMessages.REFRESH_INTERVAL_WITHOUT_SCOPE;
 import static dagger.internal.codegen.ErrorMessages.STATIC_INJECT_FIELD;
 import static dagger.internal.codegen.ErrorMessages.STATIC_INJECT_METHOD;
 import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
@@ -539,6 +541,36 @@ public final class InjectConstructorFactoryGeneratorTest {
         .and().withErrorContaining(MULTIPLE_SCOPES).in(file).onLine(5).atColumn(9);
   }
 
+  @Test public void refreshIntervalWithoutScope() {
+    JavaFileObject file = JavaFileObjects.forSourceLines("test.RefreshingClass",
+        "package test;",
+        "",
+        "import dagger.RefreshInterval;",
+        "import javax.inject.Inject;",
+        "",
+        "@RefreshInterval(10) class RefreshingClass {",
+        "  @Inject RefreshingClass() {}",
+        "}");
+    assertAbout(javaSource()).that(file)
+        .processedWith(new ComponentProcessor()).failsToCompile()
+        .withErrorContaining(REFRESH_INTERVAL_WITHOUT_SCOPE).in(file).onLine(6);
+  }
+
+  @Test public void refreshIntervalNotPositive() {
+    JavaFileObject file = JavaFileObjects.forSourceLines("test.RefreshingClass",
+        "package test;",
+        "",
+        "import dagger.RefreshInterval;",
+        "import javax.inject.Inject;",
+        "",
+        "@ScopeA @RefreshInterval(0) class RefreshingClass {",
+        "  @Inject RefreshingClass() {}",
+        "}");
+    assertAbout(javaSources()).that(ImmutableList.of(file, SCOPE_A))
+        .processedWith(new ComponentProcessor()).failsToCompile()
+        .withErrorContaining(REFRESH_INTERVAL_NOT_POSITIVE).in(file).onLine(6);
+  }
+
   @Test public void injectConstructorWithQualifier() {
     JavaFileObject file = JavaFileObjects.forSourceLines("test.MultipleScopeClass",
         "package test;",
@@ -331,6 +331,186 @@ public class MapBindingComponentProcessorTest {
         .generatesSources(generatedComponent);
   }
 
+  @Test
+  public void mapBindingsWithEnumKey_instance() {
+    JavaFileObject mapModuleFile =
+        JavaFileObjects.forSourceLines(
+            "test.MapModule",
+            "package test;",
+            "",
+            "import dagger.Binds;",
+            "import dagger.Module;",
+            "import dagger.multibindings.IntoMap;",
+            "",
+            "@Module",
+            "abstract class MapModule {",
+            "  @Binds @IntoMap @PathKey(PathEnum.ADMIN)",
+            "  abstract Handler adminHandler(AdminHandler handler);",
+            "",
+            "  @Binds @IntoMap @PathKey(PathEnum.LOGIN)",
+            "  abstract Handler loginHandler(LoginHandler handler);",
+            "}");
+    JavaFileObject enumKeyFile =
+        JavaFileObjects.forSourceLines(
+            "test.PathKey",
+            "package test;",
+            "import dagger.MapKey;",
+            "import java.lang.annotation.Retention;",
+            "import static java.lang.annotation.RetentionPolicy.RUNTIME;",
+            "",
+            "@MapKey(unwrapValue = true)",
+            "@Retention(RUNTIME)",
+            "public @interface PathKey {",
+            "  PathEnum value();",
+            "}");
+    JavaFileObject pathEnumFile =
+        JavaFileObjects.forSourceLines(
+            "test.PathEnum",
+            "package test;",
+            "",
+            "public enum PathEnum {",
+            "    ADMIN,",
+            "    LOGIN;",
+            "}");
+    JavaFileObject handlerFile =
+        JavaFileObjects.forSourceLines("test.Handler", "package test;", "", "interface Handler {}");
+    JavaFileObject loginHandlerFile =
+        JavaFileObjects.forSourceLines(
+            "test.LoginHandler",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "class LoginHandler implements Handler {",
+            "  @Inject LoginHandler() {}",
+            "}");
+    JavaFileObject adminHandlerFile =
+        JavaFileObjects.forSourceLines(
+            "test.AdminHandler",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "class AdminHandler implements Handler {",
+            "  @Inject AdminHandler() {}",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Map;",
+            "",
+            "@Component(modules = MapModule.class)",
+            "interface TestComponent {",
+            "  Map<PathEnum, Handler> dispatcher();",
+            "}");
+    JavaFileObject generatedComponent;
+    switch (compilerMode) {
+      case EXPERIMENTAL_ANDROID:
+        generatedComponent =
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import dagger.internal.MapBuilder;",
+                "import java.util.Map;",
+                "import javax.annotation.Generated;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private DaggerTestComponent(Builder builder) {}",
+                "",
+                "  public static Builder builder() {",
+                "    return new Builder();",
+                "  }",
+                "",
+                "  public static TestComponent create() {",
+                "    return new Builder().build();",
+                "  }",
+                "",
+                "  private AdminHandler getAdminHandlerInstance() {",
+                "    return new AdminHandler();",
+                "  }",
+                "",
+                "  private LoginHandler getLoginHandlerInstance() {",
+                "    return new LoginHandler();",
+                "  }",
+                "",
+                "  @Override",
+                "  public Map<PathEnum, Handler> dispatcher() {",
+                "    return MapBuilder.<PathEnum, Handler>newEnumMapBuilder(PathEnum.class)",
+                "        .put(PathEnum.ADMIN, getAdminHandlerInstance())",
+                "        .put(PathEnum.LOGIN, getLoginHandlerInstance())",
+                "        .build();",
+                "  }",
+                "",
+                "  public static final class Builder {",
+                "    private Builder() {}",
+                "",
+                "    public TestComponent build() {",
+                "      return new DaggerTestComponent(this);",
+                "    }",
+                "  }",
+                "}");
+        break;
+      default:
+        generatedComponent =
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import dagger.internal.MapBuilder;",
+                "import java.util.Map;",
+                "import javax.annotation.Generated;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private DaggerTestComponent(Builder builder) {}",
+                "",
+                "  public static Builder builder() {",
+                "    return new Builder();",
+                "  }",
+                "",
+                "  public static TestComponent create() {",
+                "    return new Builder().build();",
+                "  }",
+                "",
+                "  @Override",
+                "  public Map<PathEnum, Handler> dispatcher() {",
+                "    return MapBuilder.<PathEnum, Handler>newEnumMapBuilder(PathEnum.class)",
+                "        .put(PathEnum.ADMIN, new AdminHandler())",
+                "        .put(PathEnum.LOGIN, new LoginHandler())",
+                "        .build();",
+                "  }",
+                "",
+                "  public static final class Builder {",
+                "    private Builder() {}",
+                "",
+                "    public TestComponent build() {",
+                "      return new DaggerTestComponent(this);",
+                "    }",
+                "  }",
+                "}");
+    }
+    assertAbout(javaSources())
+        .that(
+            ImmutableList.of(
+                mapModuleFile,
+                enumKeyFile,
+                pathEnumFile,
+                handlerFile,
+                loginHandlerFile,
+                adminHandlerFile,
+                componentFile))
+        .withCompilerOptions(compilerMode.javacopts().append("-Adagger.enumKeyedMaps=enabled"))
+        .processedWith(new ComponentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(generatedComponent);
+  }
+
   @Test
   public void mapBindingsWithInaccessibleKeys() {
     JavaFileObject mapKeys =
@@ -874,6 +1054,292 @@ public class MapBindingComponentProcessorTest {
         .generatesSources(generatedComponent);
   }
 
+  @Test
+  public void mapBindingsWithStringKey_stringKeySwitchMaps() {
+    JavaFileObject mapModuleOneFile =
+        JavaFileObjects
+            .forSourceLines("test.MapModuleOne",
+                "package test;",
+                "",
+                "import dagger.Module;",
+                "import dagger.Provides;",
+                "import dagger.multibindings.StringKey;",
+                "import dagger.multibindings.IntoMap;",
+                "",
+                "@Module",
+                "final class MapModuleOne {",
+                "  @Provides @IntoMap @StringKey(\"Admin\") Handler provideAdminHandler() {",
+                "    return new AdminHandler();",
+                "  }",
+                "}");
+    JavaFileObject mapModuleTwoFile =
+        JavaFileObjects
+            .forSourceLines("test.MapModuleTwo",
+                "package test;",
+                "",
+                "import dagger.Module;",
+                "import dagger.Provides;",
+                "import dagger.multibindings.IntoMap;",
+                "import dagger.multibindings.StringKey;",
+                "",
+                "@Module",
+                "final class MapModuleTwo {",
+                "  @Provides @IntoMap @StringKey(\"Login\") Handler provideLoginHandler() {",
+                "    return new LoginHandler();",
+                "  }",
+                "}");
+    JavaFileObject HandlerFile = JavaFileObjects.forSourceLines("test.Handler",
+        "package test;",
+        "",
+        "interface Handler {}");
+    JavaFileObject LoginHandlerFile = JavaFileObjects.forSourceLines("test.LoginHandler",
+        "package test;",
+        "",
+        "class LoginHandler implements Handler {",
+        "  public LoginHandler() {}",
+        "}");
+    JavaFileObject AdminHandlerFile = JavaFileObjects.forSourceLines("test.AdminHandler",
+        "package test;",
+        "",
+        "class AdminHandler implements Handler {",
+        "  public AdminHandler() {}",
+        "}");
+    JavaFileObject componentFile = JavaFileObjects.forSourceLines("test.TestComponent",
+        "package test;",
+        "",
+        "import dagger.Component;",
+        "import java.util.Map;",
+        "import javax.inject.Provider;",
+        "",
+        "@Component(modules = {MapModuleOne.class, MapModuleTwo.class})",
+        "interface TestComponent {",
+        "  Provider<Map<String, Provider<Handler>>> dispatcher();",
+        "}");
+    JavaFileObject generatedComponent;
+    switch (compilerMode) {
+      case EXPERIMENTAL_ANDROID:
+        generatedComponent =
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import dagger.internal.InstanceFactory;",
+                "import dagger.internal.Preconditions;",
+                "import dagger.internal.StringKeySwitchMap;",
+                "import java.util.Map;",
+                "import javax.annotation.Generated;",
+                "import javax.inject.Provider;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private MapModuleOne mapModuleOne;",
+                "",
+                "  private MapModuleTwo mapModuleTwo;",
+                "",
+                "  private Provider<Map<String, Provider<Handler>>>",
+                "      mapOfStringAndProviderOfHandlerProvider;",
+                "",
+                "  private DaggerTestComponent(Builder builder) {",
+                "    initialize(builder);",
+                "  }",
+                "",
+                "  public static Builder builder() {",
+                "    return new Builder();",
+                "  }",
+                "",
+                "  public static TestComponent create() {",
+                "    return new Builder().build();",
+                "  }",
+                "",
+                "  private Handler getMapOfStringAndProviderOfHandlerInstance() {",
+                "    return Preconditions.checkNotNull(",
+                "        mapModuleOne.provideAdminHandler(),",
+                "        " + NPE_FROM_PROVIDES_METHOD + ");",
+                "  }",
+                "",
+                "  private Provider<Handler> getMapOfStringAndProviderOfHandlerProvider() {",
+                "    return new Provider<Handler>() {",
+                "      @Override",
+                "      public Handler get() {",
+                "        return getMapOfStringAndProviderOfHandlerInstance();",
+                "      }",
+                "    };",
+                "  }",
+                "",
+                "  private Handler getMapOfStringAndProviderOfHandlerInstance2() {",
+                "    return Preconditions.checkNotNull(",
+                "        mapModuleTwo.provideLoginHandler(),",
+                "        " + NPE_FROM_PROVIDES_METHOD + ");",
+                "  }",
+                "",
+                "  private Provider<Handler> getMapOfStringAndProviderOfHandlerProvider2() {",
+                "    return new Provider<Handler>() {",
+                "      @Override",
+                "      public Handler get() {",
+                "        return getMapOfStringAndProviderOfHandlerInstance2();",
+                "      }",
+                "    };",
+                "  }",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.mapModuleOne = builder.mapModuleOne;",
+                "    this.mapModuleTwo = builder.mapModuleTwo;",
+                "    this.mapOfStringAndProviderOfHandlerProvider =",
+                "        InstanceFactory.<Map<String, Provider<Handler>>>create(",
+                "            new StringKeySwitchMap<Provider<Handler>>(",
+                "                new String[] {\"Admin\", \"Login\"},",
+                "                new Object[] {getMapOfStringAndProviderOfHandlerProvider(), getMapOfStringAndProviderOfHandlerProvider2()}) {",
+                "              @Override",
+                "              protected int indexOf(String key) {",
+                "                switch (key) {",
+                "                  case \"Admin\": return 0;",
+                "                  case \"Login\": return 1;",
+                "                  default: return -1;",
+                "                }",
+                "              }",
+                "            });",
+                "  }",
+                "",
+                "  @Override",
+                "  public Provider<Map<String, Provider<Handler>>> dispatcher() {",
+                "    return mapOfStringAndProviderOfHandlerProvider;",
+                "  }",
+                "",
+                "  public static final class Builder {",
+                "    private MapModuleOne mapModuleOne;",
+                "",
+                "    private MapModuleTwo mapModuleTwo;",
+                "",
+                "    private Builder() {}",
+                "",
+                "    public TestComponent build() {",
+                "      if (mapModuleOne == null) {",
+                "        this.mapModuleOne = new MapModuleOne();",
+                "      }",
+                "      if (mapModuleTwo == null) {",
+                "        this.mapModuleTwo = new MapModuleTwo();",
+                "      }",
+                "      return new DaggerTestComponent(this);",
+                "    }",
+                "",
+                "    public Builder mapModuleOne(MapModuleOne mapModuleOne) {",
+                "      this.mapModuleOne = Preconditions.checkNotNull(mapModuleOne);",
+                "      return this;",
+                "    }",
+                "",
+                "    public Builder mapModuleTwo(MapModuleTwo mapModuleTwo) {",
+                "      this.mapModuleTwo = Preconditions.checkNotNull(mapModuleTwo);",
+                "      return this;",
+                "    }",
+                "  }",
+                "}");
+        break;
+      default:
+        generatedComponent =
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import dagger.internal.InstanceFactory;",
+                "import dagger.internal.Preconditions;",
+                "import dagger.internal.StringKeySwitchMap;",
+                "import java.util.Map;",
+                "import javax.annotation.Generated;",
+                "import javax.inject.Provider;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private Provider<Handler> provideAdminHandlerProvider;",
+                "  private Provider<Handler> provideLoginHandlerProvider;",
+                "  private Provider<Map<String, Provider<Handler>>>",
+                "      mapOfStringAndProviderOfHandlerProvider;",
+                "",
+                "  private DaggerTestComponent(Builder builder) {",
+                "    initialize(builder);",
+                "  }",
+                "",
+                "  public static Builder builder() {",
+                "    return new Builder();",
+                "  }",
+                "",
+                "  public static TestComponent create() {",
+                "    return new Builder().build();",
+                "  }",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.provideAdminHandlerProvider =",
+                "        MapModuleOne_ProvideAdminHandlerFactory.create(builder.mapModuleOne);",
+                "    this.provideLoginHandlerProvider =",
+                "        MapModuleTwo_ProvideLoginHandlerFactory.create(builder.mapModuleTwo);",
+                "    this.mapOfStringAndProviderOfHandlerProvider =",
+                "        InstanceFactory.<Map<String, Provider<Handler>>>create(",
+                "            new StringKeySwitchMap<Provider<Handler>>(",
+                "                new String[] {\"Admin\", \"Login\"},",
+                "                new Object[] {provideAdminHandlerProvider, provideLoginHandlerProvider}) {",
+                "              @Override",
+                "              protected int indexOf(String key) {",
+                "                switch (key) {",
+                "                  case \"Admin\": return 0;",
+                "                  case \"Login\": return 1;",
+                "                  default: return -1;",
+                "                }",
+                "              }",
+                "            });",
+                "  }",
+                "",
+                "  @Override",
+                "  public Provider<Map<String, Provider<Handler>>> dispatcher() {",
+                "    return mapOfStringAndProviderOfHandlerProvider;",
+                "  }",
+                "",
+                "  public static final class Builder {",
+                "    private MapModuleOne mapModuleOne;",
+                "    private MapModuleTwo mapModuleTwo;",
+                "",
+                "    private Builder() {",
+                "    }",
+                "",
+                "    public TestComponent build() {",
+                "      if (mapModuleOne == null) {",
+                "        this.mapModuleOne = new MapModuleOne();",
+                "      }",
+                "      if (mapModuleTwo == null) {",
+                "        this.mapModuleTwo = new MapModuleTwo();",
+                "      }",
+                "      return new DaggerTestComponent(this);",
+                "    }",
+                "",
+                "    public Builder mapModuleOne(MapModuleOne mapModuleOne) {",
+                "      this.mapModuleOne = Preconditions.checkNotNull(mapModuleOne);",
+                "      return this;",
+                "    }",
+                "",
+                "    public Builder mapModuleTwo(MapModuleTwo mapModuleTwo) {",
+                "      this.mapModuleTwo = Preconditions.checkNotNull(mapModuleTwo);",
+                "      return this;",
+                "    }",
+                "  }",
+                "}");
+    }
+    assertAbout(javaSources())
+        .that(
+            ImmutableList.of(
+                mapModuleOneFile,
+                mapModuleTwoFile,
+                HandlerFile,
+                LoginHandlerFile,
+                AdminHandlerFile,
+                componentFile))
+        .withCompilerOptions(
+            compilerMode.javacopts().append("-Adagger.stringKeySwitchMaps=enabled"))
+        .processedWith(new ComponentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(generatedComponent);
+  }
+
   @Test
   public void mapBindingsWithWrappedKey() {
     JavaFileObject mapModuleOneFile =
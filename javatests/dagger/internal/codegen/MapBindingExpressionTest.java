@@ -625,6 +625,47 @@ public class MapBindingExpressionTest {
         .hasSourceEquivalentTo(generatedComponent);
   }
 
+  @Test
+  public void scopedContributionsShareMemoizedMap() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.MapModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.multibindings.IntoMap;",
+            "import dagger.multibindings.StringKey;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Module",
+            "interface MapModule {",
+            "  @Provides @Singleton @IntoMap @StringKey(\"a\") static String a() { return \"a\"; }",
+            "  @Provides @Singleton @IntoMap @StringKey(\"b\") static String b() { return \"b\"; }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Map;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = MapModule.class)",
+            "interface TestComponent {",
+            "  Map<String, String> strings();",
+            "}");
+    Compilation compilation = daggerCompilerWithoutGuava().compile(module, component);
+    // The MapFactory memoizes a map of scoped values, so it is not rebuilt for each request.
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .contentsAsUtf8String()
+        .contains("return mapOfStringAndStringProvider.get();");
+  }
+
   private Compiler daggerCompilerWithoutGuava() {
     return daggerCompiler()
         .withOptions(compilerMode.javacopts().append(CLASS_PATH_WITHOUT_GUAVA_OPTION));
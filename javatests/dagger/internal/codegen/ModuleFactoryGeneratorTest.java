@@ -1240,6 +1240,180 @@ public class ModuleFactoryGeneratorTest {
         .withErrorContaining(BINDING_METHOD_MULTIPLE_QUALIFIERS);
   }
 
+  @Test
+  public void moduleFactoryHolder() {
+    JavaFileObject moduleFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "",
+            "@Module",
+            "final class TestModule {",
+            "  @Provides String string(Integer integer) {",
+            "    return integer.toString();",
+            "  }",
+            "",
+            "  @Provides static Integer integer() {",
+            "    return 1;",
+            "  }",
+            "}");
+    JavaFileObject holderFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule_Factories",
+            "package test;",
+            "",
+            "import dagger.internal.Factory;",
+            "import dagger.internal.Preconditions;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class TestModule_Factories<T> implements Factory<T> {",
+            "  private final int id;",
+            "  private final TestModule module;",
+            "  private final Object[] dependencies;",
+            "",
+            "  private TestModule_Factories(",
+            "      int id, TestModule module, Object... dependencies) {",
+            "    this.id = id;",
+            "    this.module = module;",
+            "    this.dependencies = dependencies;",
+            "  }",
+            "",
+            "  public static Factory<String> stringFactory(",
+            "      TestModule module, Provider<Integer> integerProvider) {",
+            "    return new TestModule_Factories<String>(0, module, integerProvider);",
+            "  }",
+            "",
+            "  public static String proxyString(TestModule instance, Integer integer) {",
+            "    return instance.string(integer);",
+            "  }",
+            "",
+            "  public static Factory<Integer> integerFactory() {",
+            "    return new TestModule_Factories<Integer>(1, null);",
+            "  }",
+            "",
+            "  public static Integer proxyInteger() {",
+            "    return TestModule.integer();",
+            "  }",
+            "",
+            "  @Override",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  public T get() {",
+            "    return (T) provide();",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private Object provide() {",
+            "    switch (id) {",
+            "      case 0: return Preconditions.checkNotNull(",
+            "          module.string(((Provider<Integer>) dependencies[0]).get()),",
+            "          " + NPE_LITERAL + ");",
+            "      case 1: return Preconditions.checkNotNull(",
+            "          TestModule.integer(), " + NPE_LITERAL + ");",
+            "      default: throw new AssertionError(id);",
+            "    }",
+            "  }",
+            "}");
+    assertAbout(javaSource())
+        .that(moduleFile)
+        .withCompilerOptions("-Adagger.moduleFactoryHolders=enabled")
+        .processedWith(new ComponentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(holderFile);
+  }
+
+  @Test
+  public void moduleFactoryHolder_membersInjectorDependency() {
+    JavaFileObject classXFile =
+        JavaFileObjects.forSourceLines(
+            "test.X",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "class X {",
+            "  @Inject public String s;",
+            "}");
+    JavaFileObject moduleFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.MembersInjector;",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "",
+            "@Module",
+            "final class TestModule {",
+            "  @Provides static Object object(String s, MembersInjector<X> x) {",
+            "    return s;",
+            "  }",
+            "}");
+    JavaFileObject holderFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule_Factories",
+            "package test;",
+            "",
+            "import dagger.MembersInjector;",
+            "import dagger.internal.Factory;",
+            "import dagger.internal.Preconditions;",
+            "import javax.annotation.Generated;",
+            "import javax.inject.Provider;",
+            "",
+            GENERATED_ANNOTATION,
+            "public final class TestModule_Factories<T> implements Factory<T> {",
+            "  private final int id;",
+            "  private final TestModule module;",
+            "  private final Object[] dependencies;",
+            "",
+            "  private TestModule_Factories(",
+            "      int id, TestModule module, Object... dependencies) {",
+            "    this.id = id;",
+            "    this.module = module;",
+            "    this.dependencies = dependencies;",
+            "  }",
+            "",
+            "  public static Factory<Object> objectFactory(",
+            "      Provider<String> sProvider, MembersInjector<X> xMembersInjector) {",
+            "    return new TestModule_Factories<Object>(0, null, sProvider, xMembersInjector);",
+            "  }",
+            "",
+            "  public static Object proxyObject(String s, MembersInjector<X> x) {",
+            "    return TestModule.object(s, x);",
+            "  }",
+            "",
+            "  @Override",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  public T get() {",
+            "    return (T) provide();",
+            "  }",
+            "",
+            "  @SuppressWarnings(\"unchecked\")",
+            "  private Object provide() {",
+            "    switch (id) {",
+            "      case 0: return Preconditions.checkNotNull(",
+            "          TestModule.object(",
+            "              ((Provider<String>) dependencies[0]).get(),",
+            "              ((MembersInjector<X>) dependencies[1])),",
+            "          " + NPE_LITERAL + ");",
+            "      default: throw new AssertionError(id);",
+            "    }",
+            "  }",
+            "}");
+    assertAbout(javaSources())
+        .that(ImmutableList.of(classXFile, moduleFile))
+        .withCompilerOptions("-Adagger.moduleFactoryHolders=enabled")
+        .processedWith(new ComponentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(holderFile);
+  }
+
   @Test public void providerDependsOnProduced() {
     JavaFileObject moduleFile = JavaFileObjects.forSourceLines("test.TestModule",
         "package test;",
@@ -18,11 +18,14 @@ package dagger.internal.codegen;
 
 import static com.google.common.truth.Truth.assertAbout;
 import static com.google.testing.compile.JavaSourceSubjectFactory.javaSource;
+import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
 import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
 import static dagger.internal.codegen.GeneratedLines.NPE_FROM_PROVIDES_METHOD;
 
 import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import java.util.Collection;
 import javax.tools.JavaFileObject;
@@ -541,4 +544,69 @@ public class ProductionComponentProcessorTest {
         .in(component)
         .onLine(36);
   }
+
+  @Test
+  public void switchingProviders_provisionRequestedAsProducer() {
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestClass",
+            "package test;",
+            "",
+            "import com.google.common.util.concurrent.ListenableFuture;",
+            "import com.google.common.util.concurrent.MoreExecutors;",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.producers.Producer;",
+            "import dagger.producers.ProducerModule;",
+            "import dagger.producers.Produces;",
+            "import dagger.producers.Production;",
+            "import dagger.producers.ProductionComponent;",
+            "import java.util.concurrent.Executor;",
+            "import javax.inject.Inject;",
+            "",
+            "final class TestClass {",
+            "  static final class Foo {",
+            "    @Inject Foo() {}",
+            "  }",
+            "",
+            "  @Module",
+            "  static final class ExecutorModule {",
+            "    @Provides @Production static Executor executor() {",
+            "      return MoreExecutors.directExecutor();",
+            "    }",
+            "  }",
+            "",
+            "  @ProducerModule",
+            "  static final class ProducerModuleWithFoo {",
+            "    @Produces static String string(Producer<Foo> foo) {",
+            "      return foo.toString();",
+            "    }",
+            "",
+            "    @Produces static Integer integer(Producer<Foo> foo) {",
+            "      return foo.hashCode();",
+            "    }",
+            "  }",
+            "",
+            "  @ProductionComponent(modules = {ExecutorModule.class, ProducerModuleWithFoo.class})",
+            "  interface SimpleComponent {",
+            "    ListenableFuture<String> string();",
+            "    ListenableFuture<Integer> integer();",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(compilerMode.javacopts().append("-Adagger.switchingProviders=enabled"))
+            .compile(component);
+    assertThat(compilation).succeeded();
+    // Every dependent must be given the same producer.
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestClass_SimpleComponent")
+        .contentsAsUtf8String()
+        .contains(
+            "    if (fooProducer == null) {\n"
+                + "      fooProducer = Producers.producerFromProvider(getFooProvider());\n"
+                + "      this.fooProducer = fooProducer;\n"
+                + "    }\n"
+                + "    return fooProducer;\n");
+  }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link TimingProvisionComponentMonitor} and {@link ProvisionTimingRecorders}. */
+@RunWith(JUnit4.class)
+public final class TimingProvisionComponentMonitorTest {
+  private static final ProvisionToken TOKEN = ProvisionToken.create("binding");
+
+  @Test
+  public void recordsMethod() {
+    RecordingTimingRecorder recorder = new RecordingTimingRecorder();
+    ProvisionMonitor monitor =
+        new TimingProvisionComponentMonitor(token -> recorder).provisionMonitorFor(TOKEN);
+    monitor.requested();
+    monitor.methodStarting();
+    monitor.methodFinished();
+
+    assertThat(recorder.durations).hasSize(1);
+    assertThat(recorder.startedNanos.get(0)).isAtLeast(0L);
+    assertThat(recorder.durations.get(0)).isAtLeast(0L);
+    assertThat(recorder.failures).isEmpty();
+  }
+
+  @Test
+  public void recordsFailure() {
+    RecordingTimingRecorder recorder = new RecordingTimingRecorder();
+    ProvisionMonitor monitor =
+        new TimingProvisionComponentMonitor(token -> recorder).provisionMonitorFor(TOKEN);
+    RuntimeException exception = new RuntimeException();
+    monitor.requested();
+    monitor.methodStarting();
+    monitor.methodFinished();
+    monitor.failed(exception);
+
+    assertThat(recorder.durations).hasSize(1);
+    assertThat(recorder.failures).containsExactly(exception);
+  }
+
+  @Test
+  public void nullTimingRecorder() {
+    assertThat(new TimingProvisionComponentMonitor(token -> null).provisionMonitorFor(TOKEN))
+        .isSameAs(ProvisionMonitor.noOp());
+  }
+
+  @Test
+  public void delegating_noRecorders() {
+    ProvisionComponentTimingRecorder recorder =
+        ProvisionTimingRecorders.delegatingProvisionComponentTimingRecorder(ImmutableList.of());
+    assertThat(recorder.provisionTimingRecorderFor(TOKEN))
+        .isSameAs(ProvisionTimingRecorder.noOp());
+  }
+
+  @Test
+  public void delegating_throwingRecordersAreIgnored() {
+    RecordingTimingRecorder recorder = new RecordingTimingRecorder();
+    ProvisionTimingRecorder throwingRecorder =
+        new ProvisionTimingRecorder() {
+          @Override
+          public void recordMethod(long startedNanos, long durationNanos) {
+            throw new RuntimeException("recorder failed");
+          }
+        };
+    ProvisionComponentTimingRecorder delegating =
+        ProvisionTimingRecorders.delegatingProvisionComponentTimingRecorder(
+            ImmutableList.<ProvisionComponentTimingRecorder>of(
+                token -> {
+                  throw new RuntimeException("recorder failed");
+                },
+                token -> null,
+                token -> throwingRecorder,
+                token -> recorder));
+
+    delegating.provisionTimingRecorderFor(TOKEN).recordMethod(1, 2);
+
+    assertThat(recorder.startedNanos).containsExactly(1L);
+    assertThat(recorder.durations).containsExactly(2L);
+  }
+
+  @Test
+  public void tokens() {
+    assertThat(ProvisionToken.create("binding")).isEqualTo(TOKEN);
+    assertThat(ProvisionToken.create(String.class)).isEqualTo(ProvisionToken.create(String.class));
+    assertThat(ProvisionToken.create(String.class)).isNotEqualTo(TOKEN);
+    assertThat(ProvisionToken.create(String.class).toString()).isEqualTo("java.lang.String");
+  }
+
+  private static final class RecordingTimingRecorder extends ProvisionTimingRecorder {
+    final List<Long> startedNanos = new ArrayList<>();
+    final List<Long> durations = new ArrayList<>();
+    final List<Throwable> failures = new ArrayList<>();
+
+    @Override
+    public void recordMethod(long startedNanos, long durationNanos) {
+      this.startedNanos.add(startedNanos);
+      this.durations.add(durationNanos);
+    }
+
+    @Override
+    public void recordFailure(Throwable exception, long durationNanos) {
+      failures.add(exception);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests {@link TraceEventRecorder} and {@link TracingProvisionComponentMonitor}. */
+@RunWith(JUnit4.class)
+public final class TraceEventRecorderTest {
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveCapacity() {
+    new TraceEventRecorder(0);
+  }
+
+  @Test
+  public void empty() throws IOException {
+    assertThat(chromeTrace(new TraceEventRecorder(4))).isEqualTo("{\"traceEvents\":[]}");
+  }
+
+  @Test
+  public void beginAndEnd() throws IOException {
+    TraceEventRecorder recorder = new TraceEventRecorder(4);
+    recorder.begin("category", "event");
+    recorder.end("category", "event");
+
+    String trace = chromeTrace(recorder);
+    assertThat(trace).contains("{\"name\":\"event\",\"cat\":\"category\",\"ph\":\"B\",\"ts\":");
+    assertThat(trace).contains("{\"name\":\"event\",\"cat\":\"category\",\"ph\":\"E\",\"ts\":");
+    assertThat(trace).contains("\"tid\":" + Thread.currentThread().getId());
+    assertThat(trace)
+        .contains(
+            "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":"
+                + Thread.currentThread().getId()
+                + ",\"args\":{\"name\":\""
+                + Thread.currentThread().getName()
+                + "\"}}");
+    assertThat(trace.indexOf("\"ph\":\"B\"")).isLessThan(trace.indexOf("\"ph\":\"E\""));
+  }
+
+  @Test
+  public void oldestEventsAreOverwritten() throws IOException {
+    TraceEventRecorder recorder = new TraceEventRecorder(3); // rounded up to 4
+    for (int i = 0; i < 6; i++) {
+      recorder.begin("category", "event" + i);
+    }
+
+    String trace = chromeTrace(recorder);
+    assertThat(trace).doesNotContain("event0");
+    assertThat(trace).doesNotContain("event1");
+    assertThat(trace).contains("event2");
+    assertThat(trace).contains("event5");
+  }
+
+  @Test
+  public void escapesStrings() throws IOException {
+    TraceEventRecorder recorder = new TraceEventRecorder(4);
+    recorder.instant("category", "\"quoted\"", "line\nbreak\u0001");
+
+    assertThat(chromeTrace(recorder))
+        .contains(
+            "{\"name\":\"\\\"quoted\\\"\",\"cat\":\"category\",\"ph\":\"i\",\"ts\":");
+    assertThat(chromeTrace(recorder))
+        .contains(",\"s\":\"t\",\"args\":{\"detail\":\"line\\nbreak\\u0001\"}}");
+  }
+
+  @Test
+  public void concurrentRecordingAndExport() throws Exception {
+    final TraceEventRecorder recorder = new TraceEventRecorder(64);
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> writers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final String category = "writer" + i;
+      Thread writer =
+          new Thread() {
+            @Override
+            public void run() {
+              try {
+                start.await();
+              } catch (InterruptedException e) {
+                throw new AssertionError(e);
+              }
+              for (int j = 0; j < 20000; j++) {
+                recorder.instant(category, "event" + j, category + ":event" + j);
+              }
+            }
+          };
+      writer.start();
+      writers.add(writer);
+    }
+
+    Pattern event =
+        Pattern.compile(
+            "\\{\"name\":\"([^\"]*)\",\"cat\":\"([^\"]*)\",\"ph\":\"i\"[^{]*"
+                + "\"args\":\\{\"detail\":\"([^\"]*)\"\\}\\}");
+    start.countDown();
+    int exportedEvents = 0;
+    boolean writing;
+    do {
+      writing = false;
+      for (Thread writer : writers) {
+        writing |= writer.isAlive();
+      }
+      Matcher matcher = event.matcher(chromeTrace(recorder));
+      while (matcher.find()) {
+        // Every field of an exported event must come from the same call to instant().
+        assertThat(matcher.group(3)).isEqualTo(matcher.group(2) + ":" + matcher.group(1));
+        exportedEvents++;
+      }
+    } while (writing);
+    assertThat(exportedEvents).isGreaterThan(0);
+  }
+
+  @Test
+  public void tracingProvisionComponentMonitor() throws IOException {
+    TraceEventRecorder recorder = new TraceEventRecorder(4);
+    ProvisionMonitor monitor =
+        new TracingProvisionComponentMonitor(recorder)
+            .provisionMonitorFor(ProvisionToken.create("binding"));
+    monitor.requested();
+    monitor.methodStarting();
+    monitor.methodFinished();
+    monitor.failed(new IllegalStateException("failure"));
+
+    String trace = chromeTrace(recorder);
+    assertThat(trace).contains("{\"name\":\"binding\",\"cat\":\"provision\",\"ph\":\"B\"");
+    assertThat(trace).contains("{\"name\":\"binding\",\"cat\":\"provision\",\"ph\":\"E\"");
+    assertThat(trace)
+        .contains("\"args\":{\"detail\":\"java.lang.IllegalStateException: failure\"}");
+  }
+
+  private static String chromeTrace(TraceEventRecorder recorder) throws IOException {
+    StringBuilder trace = new StringBuilder();
+    recorder.writeChromeTrace(trace);
+    return trace.toString();
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link Batcher}.
+ */
+@RunWith(JUnit4.class)
+public class BatcherTest {
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final List<Set<String>> batches = new ArrayList<>();
+  private final SettableFuture<Map<String, Integer>> batchResult = SettableFuture.create();
+  private final Batcher.BatchFunction<String, Integer> batchFunction =
+      new Batcher.BatchFunction<String, Integer>() {
+        @Override
+        public ListenableFuture<Map<String, Integer>> load(Set<String> keys) {
+          synchronized (batches) {
+            batches.add(ImmutableSet.copyOf(keys));
+          }
+          return batchResult;
+        }
+      };
+
+  @After
+  public void shutDownScheduler() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void fullBatchIsDispatchedImmediately() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<Integer> a = batcher.load("a");
+    assertThat(batches).isEmpty();
+    ListenableFuture<Integer> b = batcher.load("b");
+    assertThat(batches).containsExactly(ImmutableSet.of("a", "b"));
+
+    batchResult.set(ImmutableMap.of("a", 1, "b", 2));
+    assertThat(a.get()).isEqualTo(1);
+    assertThat(b.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void duplicateKeysShareAnEntry() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<Integer> first = batcher.load("a");
+    ListenableFuture<Integer> second = batcher.load("a");
+    assertThat(batches).isEmpty();
+    batcher.load("b");
+    assertThat(batches).containsExactly(ImmutableSet.of("a", "b"));
+
+    first.cancel(false);
+    batchResult.set(ImmutableMap.of("a", 1, "b", 2));
+    assertThat(second.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void partialBatchIsDispatchedAfterDelay() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 100, 1, TimeUnit.MILLISECONDS, scheduler);
+    ListenableFuture<Integer> a = batcher.load("a");
+    batchResult.set(ImmutableMap.of("a", 1));
+    assertThat(a.get(1, TimeUnit.MINUTES)).isEqualTo(1);
+    assertThat(batches).containsExactly(ImmutableSet.of("a"));
+  }
+
+  @Test
+  public void missingKeyFails() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<Integer> a = batcher.load("a");
+    ListenableFuture<Integer> b = batcher.load("b");
+    batchResult.set(ImmutableMap.of("a", 1));
+    assertThat(a.get()).isEqualTo(1);
+    try {
+      b.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(NoSuchElementException.class);
+    }
+  }
+
+  @Test
+  public void batchFailureFailsEveryLoad() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(
+            new Batcher.BatchFunction<String, Integer>() {
+              @Override
+              public ListenableFuture<Map<String, Integer>> load(Set<String> keys) {
+                throw new IllegalStateException("monkey");
+              }
+            },
+            2,
+            1,
+            TimeUnit.HOURS,
+            scheduler);
+    List<ListenableFuture<Integer>> futures = new ArrayList<>();
+    futures.add(batcher.load("a"));
+    futures.add(batcher.load("b"));
+    for (ListenableFuture<Integer> future : futures) {
+      try {
+        future.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).hasMessage("monkey");
+      }
+    }
+  }
+
+  @Test
+  public void nullMapFailsEveryLoad() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<Integer> a = batcher.load("a");
+    ListenableFuture<Integer> b = batcher.load("b");
+    batchResult.set(null);
+    for (ListenableFuture<Integer> load : ImmutableSet.of(a, b)) {
+      try {
+        load.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(NullPointerException.class);
+      }
+    }
+  }
+
+  @Test
+  public void rejectedScheduleFailsTheBatch() throws Exception {
+    scheduler.shutdown();
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    for (String key : ImmutableSet.of("a", "b")) {
+      // Each load starts a new batch, since the rejected one is no longer pending.
+      ListenableFuture<Integer> load = batcher.load(key);
+      try {
+        load.get();
+        fail();
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(RejectedExecutionException.class);
+      }
+    }
+    assertThat(batches).isEmpty();
+  }
+
+  @Test
+  public void nextBatchStartsAfterDispatch() throws Exception {
+    Batcher<String, Integer> batcher =
+        Batcher.create(batchFunction, 1, 1, TimeUnit.HOURS, scheduler);
+    batcher.load("a");
+    batcher.load("a");
+    assertThat(batches).containsExactly(ImmutableSet.of("a"), ImmutableSet.of("a")).inOrder();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveBatchSize() {
+    Batcher.create(batchFunction, 0, 1, TimeUnit.HOURS, scheduler);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.testing.FakeTicker;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests {@link ProducerCache}.
+ */
+@RunWith(JUnit4.class)
+public class ProducerCacheTest {
+  private final ProducerCache<String, String> cache = ProducerCache.create(10, 1, TimeUnit.HOURS);
+
+  @Test
+  public void inFlightComputationIsShared() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    ListenableFuture<String> first = cache.get("key", loader);
+    ListenableFuture<String> second = cache.get("key", loader);
+    assertThat(loader.calls).isEqualTo(1);
+    assertThat(first.isDone()).isFalse();
+
+    loader.result.set("value");
+    assertThat(first.get()).isEqualTo("value");
+    assertThat(second.get()).isEqualTo("value");
+    assertThat(cache.get("key", loader).get()).isEqualTo("value");
+    assertThat(loader.calls).isEqualTo(1);
+  }
+
+  @Test
+  public void differentKeysAreComputedSeparately() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    cache.get("a", loader);
+    cache.get("b", loader);
+    assertThat(loader.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void failureIsNotCached() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    ListenableFuture<String> failed = cache.get("key", loader);
+    loader.result.setException(new RuntimeException("monkey"));
+    try {
+      failed.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).hasMessage("monkey");
+    }
+
+    cache.get("key", loader);
+    assertThat(loader.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void loaderThrowsIsNotCached() throws Exception {
+    AsyncCallable<String> throwing =
+        new AsyncCallable<String>() {
+          @Override
+          public ListenableFuture<String> call() {
+            throw new IllegalStateException("gorilla");
+          }
+        };
+    try {
+      cache.get("key", throwing).get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).hasMessage("gorilla");
+    }
+
+    CountingLoader loader = new CountingLoader();
+    cache.get("key", loader);
+    assertThat(loader.calls).isEqualTo(1);
+  }
+
+  @Test
+  public void cancellingOneCallerDoesNotCancelComputation() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    ListenableFuture<String> first = cache.get("key", loader);
+    ListenableFuture<String> second = cache.get("key", loader);
+    first.cancel(true);
+    assertThat(loader.result.isCancelled()).isFalse();
+    loader.result.set("value");
+    assertThat(second.get()).isEqualTo("value");
+  }
+
+  @Test
+  public void invalidate() throws Exception {
+    CountingLoader loader = new CountingLoader();
+    loader.result.set("value");
+    cache.get("key", loader);
+    cache.invalidate("key");
+    cache.get("key", loader);
+    assertThat(loader.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void zeroMaximumSizeCachesNothing() throws Exception {
+    ProducerCache<String, String> uncached = ProducerCache.create(0, 1, TimeUnit.HOURS);
+    CountingLoader loader = new CountingLoader();
+    loader.result.set("value");
+    assertThat(uncached.get("key", loader).get()).isEqualTo("value");
+    assertThat(uncached.get("key", loader).get()).isEqualTo("value");
+    assertThat(loader.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void entriesExpireAfterTimeToLive() throws Exception {
+    FakeTicker ticker = new FakeTicker();
+    ProducerCache<String, String> expiring = ProducerCache.create(10, 1, TimeUnit.MINUTES, ticker);
+    CountingLoader loader = new CountingLoader();
+    loader.result.set("value");
+    expiring.get("key", loader);
+
+    ticker.advance(59, TimeUnit.SECONDS);
+    expiring.get("key", loader);
+    assertThat(loader.calls).isEqualTo(1);
+
+    ticker.advance(1, TimeUnit.SECONDS);
+    expiring.get("key", loader);
+    assertThat(loader.calls).isEqualTo(2);
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() throws Exception {
+    ProducerCache<String, String> small =
+        ProducerCache.create(2, 1, TimeUnit.HOURS, new FakeTicker());
+    CountingLoader a = new CountingLoader();
+    CountingLoader b = new CountingLoader();
+    CountingLoader c = new CountingLoader();
+    small.get("a", a);
+    small.get("b", b);
+    small.get("a", a);
+    small.get("c", c);
+
+    small.get("a", a);
+    small.get("c", c);
+    assertThat(a.calls).isEqualTo(1);
+    assertThat(c.calls).isEqualTo(1);
+    small.get("b", b);
+    assertThat(b.calls).isEqualTo(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nonPositiveTimeToLive() {
+    ProducerCache.create(10, 0, TimeUnit.HOURS);
+  }
+
+  private static final class CountingLoader implements AsyncCallable<String> {
+    final SettableFuture<String> result = SettableFuture.create();
+    int calls;
+
+    @Override
+    public ListenableFuture<String> call() {
+      calls++;
+      return result;
+    }
+  }
+}
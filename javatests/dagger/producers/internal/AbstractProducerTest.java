@@ -17,12 +17,14 @@
 package dagger.producers.internal;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -31,6 +33,8 @@ import dagger.producers.monitoring.ProducerMonitor;
 import dagger.producers.monitoring.ProducerToken;
 import dagger.producers.monitoring.ProductionComponentMonitor;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Provider;
 import org.junit.Before;
 import org.junit.Test;
@@ -125,6 +129,100 @@ public class AbstractProducerTest {
     verifyNoMoreInteractions(monitor);
   }
 
+  @Test
+  public void get_doneResultIsShared() throws Exception {
+    ListenableFuture<Integer> delegateFuture = Futures.immediateFuture(42);
+    Producer<Integer> producer = new DelegateProducer<>(componentMonitorProvider, delegateFuture);
+
+    assertThat(producer.get()).isSameAs(delegateFuture);
+  }
+
+  @Test
+  public void cancel_onlyWhenAllConsumersCancel() throws Exception {
+    SettableFuture<Integer> delegateFuture = SettableFuture.create();
+    Producer<Integer> producer = new DelegateProducer<>(componentMonitorProvider, delegateFuture);
+
+    ListenableFuture<Integer> first = producer.get();
+    ListenableFuture<Integer> second = producer.get();
+    assertThat(first.cancel(false)).isTrue();
+    assertThat(delegateFuture.isCancelled()).isFalse();
+    assertThat(second.isDone()).isFalse();
+
+    assertThat(second.cancel(false)).isTrue();
+    assertThat(delegateFuture.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void cancel_remainingConsumerGetsResult() throws Exception {
+    SettableFuture<Integer> delegateFuture = SettableFuture.create();
+    Producer<Integer> producer = new DelegateProducer<>(componentMonitorProvider, delegateFuture);
+
+    ListenableFuture<Integer> first = producer.get();
+    ListenableFuture<Integer> second = producer.get();
+    first.cancel(true);
+    delegateFuture.set(42);
+    assertThat(first.isCancelled()).isTrue();
+    assertThat(second.get()).isEqualTo(42);
+  }
+
+  @Test
+  public void cancel_propagatesToInputsAndSkipsPendingWork() throws Exception {
+    SettableFuture<Integer> inputFuture = SettableFuture.create();
+    final Producer<Integer> input = new DelegateProducer<>(componentMonitorProvider, inputFuture);
+    final AtomicBoolean applied = new AtomicBoolean();
+    Producer<String> producer =
+        new AbstractProducer<String>(componentMonitorProvider, null) {
+          @Override
+          protected ListenableFuture<String> compute() {
+            return Futures.transform(
+                input.get(),
+                new Function<Integer, String>() {
+                  @Override
+                  public String apply(Integer value) {
+                    applied.set(true);
+                    return String.valueOf(value);
+                  }
+                },
+                directExecutor());
+          }
+        };
+
+    ListenableFuture<String> future = producer.get();
+    future.cancel(false);
+    assertThat(inputFuture.isCancelled()).isTrue();
+    assertThat(applied.get()).isFalse();
+  }
+
+  @Test
+  public void cancel_allConsumersThenGetRecomputes() throws Exception {
+    final AtomicInteger computations = new AtomicInteger();
+    Producer<Integer> producer =
+        new AbstractProducer<Integer>(componentMonitorProvider, null) {
+          @Override
+          protected ListenableFuture<Integer> compute() {
+            computations.incrementAndGet();
+            return SettableFuture.create();
+          }
+        };
+
+    ListenableFuture<Integer> first = producer.get();
+    ListenableFuture<Integer> second = producer.get();
+    first.cancel(false);
+    second.cancel(false);
+    assertThat(computations.get()).isEqualTo(1);
+
+    ListenableFuture<Integer> third = producer.get();
+    assertThat(computations.get()).isEqualTo(2);
+    assertThat(third.isCancelled()).isFalse();
+
+    // A view of the cancelled result must not count against the new one.
+    first.cancel(false);
+    ListenableFuture<Integer> fourth = producer.get();
+    third.cancel(false);
+    assertThat(fourth.isDone()).isFalse();
+    assertThat(computations.get()).isEqualTo(2);
+  }
+
   private ListenableFuture<?> anyListenableFuture() {
     return any(ListenableFuture.class);
   }
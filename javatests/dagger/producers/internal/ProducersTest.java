@@ -25,9 +25,11 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
+import dagger.producers.ProducerTimeoutException;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Provider;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -124,6 +126,40 @@ public class ProducersTest {
     }
   }
 
+  @Test
+  public void withTimeout_completesBeforeTimeout() throws Exception {
+    SettableFuture<String> future = SettableFuture.create();
+    ListenableFuture<String> timed =
+        Producers.withTimeout(future, 1, TimeUnit.MINUTES, "test.Module#produce");
+    assertThat(timed.isDone()).isFalse();
+    future.set("monkey");
+    assertThat(timed.get()).isEqualTo("monkey");
+  }
+
+  @Test
+  public void withTimeout_timesOut() throws Exception {
+    SettableFuture<String> future = SettableFuture.create();
+    ListenableFuture<String> timed =
+        Producers.withTimeout(future, 1, TimeUnit.MILLISECONDS, "test.Module#produce");
+    try {
+      timed.get(1, TimeUnit.MINUTES);
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(ProducerTimeoutException.class);
+      assertThat(e.getCause()).hasMessage("test.Module#produce timed out after 1 MILLISECONDS");
+    }
+    assertThat(future.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void withTimeout_cancelPropagatesBackwards() throws Exception {
+    SettableFuture<String> future = SettableFuture.create();
+    ListenableFuture<String> timed =
+        Producers.withTimeout(future, 1, TimeUnit.MINUTES, "test.Module#produce");
+    timed.cancel(false);
+    assertThat(future.isCancelled()).isTrue();
+  }
+
   @Test public void producerFromProvider_doesntCache() throws Exception {
     Producer<Integer> producer = Producers.producerFromProvider(new Provider<Integer>() {
       int i = 0;
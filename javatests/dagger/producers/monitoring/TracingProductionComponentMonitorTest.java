@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2017 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.monitoring.TraceEventRecorder;
+import java.io.IOException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class TracingProductionComponentMonitorTest {
+  @Test
+  public void recordsProducerMethods() throws IOException {
+    TraceEventRecorder recorder = new TraceEventRecorder(4);
+    ProducerMonitor monitor =
+        new TracingProductionComponentMonitor.Factory(recorder)
+            .create(new Object())
+            .producerMonitorFor(ProducerToken.create("producer"));
+    monitor.requested();
+    monitor.methodStarting();
+    monitor.methodFinished();
+    monitor.failed(new IllegalStateException("failure"));
+
+    StringBuilder trace = new StringBuilder();
+    recorder.writeChromeTrace(trace);
+    assertThat(trace.toString())
+        .contains("{\"name\":\"producer\",\"cat\":\"production\",\"ph\":\"B\"");
+    assertThat(trace.toString())
+        .contains("{\"name\":\"producer\",\"cat\":\"production\",\"ph\":\"E\"");
+    assertThat(trace.toString())
+        .contains("\"args\":{\"detail\":\"java.lang.IllegalStateException: failure\"}");
+  }
+}
@@ -16,6 +16,7 @@
 # The key will be appended to the generated test names to ensure uniqueness.
 BUILD_VARIANTS = {
     "ExperimentalAndroidMode": ["-Adagger.experimentalAndroidMode=enabled"],
+    "SwitchingProviders": ["-Adagger.switchingProviders=enabled"],
 }
 
 # TODO(user): split into two functions for functional vs non-functional tests?